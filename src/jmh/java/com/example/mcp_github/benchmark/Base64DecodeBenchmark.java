@@ -0,0 +1,51 @@
+package com.example.mcp_github.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decoding of contents API payloads (base64 with line breaks). {@code
+ * stripNewlines} is what {@code GitHubFileTools} does today; the MIME decoder
+ * skips the line breaks without the intermediate copy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64DecodeBenchmark {
+
+    @Param({"1024", "102400", "1048576"})
+    int bytes;
+
+    private String content;
+
+    @Setup
+    public void setup() {
+        content = Payloads.base64Content(bytes);
+    }
+
+    @Benchmark
+    public String stripNewlines() {
+        return new String(Base64.getDecoder().decode(content.replace("\n", "")));
+    }
+
+    @Benchmark
+    public String mimeDecoder() {
+        return new String(Base64.getMimeDecoder().decode(content), StandardCharsets.UTF_8);
+    }
+}
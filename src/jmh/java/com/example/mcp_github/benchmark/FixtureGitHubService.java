@@ -0,0 +1,96 @@
+package com.example.mcp_github.benchmark;
+
+import java.util.List;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.cassette.CassetteFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubContent;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubIssuesPage;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.tracing.CallTracer;
+import com.example.mcp_github.tracing.GitHubTracingFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GitHubService returning pre-decoded fixtures, so tool benchmarks measure
+ * only the tools' own work. No request is ever sent.
+ */
+class FixtureGitHubService extends GitHubService {
+
+    private final List<GitHubRepository> repositories;
+    private final List<GitHubIssue> issues;
+    private final List<GitHubCommit> commits;
+    private final List<GitHubWorkflowRun> workflowRuns;
+    private final GitHubContent file;
+
+    FixtureGitHubService(List<GitHubRepository> repositories, List<GitHubIssue> issues, List<GitHubCommit> commits,
+            List<GitHubWorkflowRun> workflowRuns, GitHubContent file) {
+        this(filters(), repositories, issues, commits, workflowRuns, file);
+    }
+
+    private FixtureGitHubService(Filters filters, List<GitHubRepository> repositories, List<GitHubIssue> issues,
+            List<GitHubCommit> commits, List<GitHubWorkflowRun> workflowRuns, GitHubContent file) {
+        super("http://localhost", "", filters.cache(), filters.metrics(), filters.tracing(), filters.cassette());
+        this.repositories = repositories;
+        this.issues = issues;
+        this.commits = commits;
+        this.workflowRuns = workflowRuns;
+        this.file = file;
+    }
+
+    private record Filters(GitHubCacheFilter cache, GitHubMetricsFilter metrics, GitHubTracingFilter tracing,
+            CassetteFilter cassette) {
+
+    }
+
+    private static Filters filters() {
+        CallTracer tracer = new CallTracer(false, 64);
+        CallLog callLog = new CallLog("", 64, 0, 1, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        return new Filters(new GitHubCacheFilter(registry, false, 0, 0, 0, "", 0, 0, 0, 0),
+                new GitHubMetricsFilter(registry, tracer, callLog), new GitHubTracingFilter(tracer),
+                new CassetteFilter("off", "", "exact", "none"));
+    }
+
+    @Override
+    public List<GitHubRepository> getUserRepositories(String username) {
+        return repositories;
+    }
+
+    @Override
+    public List<GitHubIssue> getRepositoryIssues(String username, String repo, String state, int limit) {
+        return issues;
+    }
+
+    @Override
+    public GitHubIssuesPage getIssuesUpdatedSince(String username, String repo, String since, int page, String etag) {
+        return new GitHubIssuesPage(true, null, List.of());
+    }
+
+    @Override
+    public GitHubIssuesPage getRecentlyUpdatedIssues(String username, String repo, int page) {
+        return new GitHubIssuesPage(true, null, page == 1 ? issues : List.of());
+    }
+
+    @Override
+    public List<GitHubCommit> getRepositoryCommits(String username, String repo, int limit) {
+        return commits;
+    }
+
+    @Override
+    public List<GitHubWorkflowRun> getWorkflowRuns(String username, String repo, int limit) {
+        return workflowRuns;
+    }
+
+    @Override
+    public GitHubContent getFileContent(String username, String repo, String path) {
+        return file;
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.mcp_github.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Local stand-in for the GitHub REST API, for load tests that must not touch
+ * api.github.com. Point {@code github.api.base-url} at it.
+ *
+ * <p>
+ * Serves the read endpoints the tools use with synthetic payloads, honouring
+ * {@code per_page}/{@code page} with {@code Link} headers, answering
+ * {@code If-None-Match} with 304, and sending {@code X-RateLimit-*} headers
+ * from a fixed window (403 once exhausted, conditional hits are free as on
+ * GitHub). Repository event feeds gain an event every
+ * {@code --event-every-seconds} and carry {@code X-Poll-Interval}. Latency
+ * and a random 5xx rate are configurable:
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.mcp_github.benchmark.GitHubApiStub \
+ *     -Dexec.args="--port=8089 --latency-ms=80 --jitter-ms=40 --error-rate=0.01"
+ * </pre>
+ */
+public class GitHubApiStub implements AutoCloseable {
+
+    private static final Pattern USER_REPOS = Pattern.compile("/users/([^/]+)/repos");
+    private static final Pattern USER = Pattern.compile("/users/([^/]+)");
+    private static final Pattern REPO = Pattern.compile("/repos/([^/]+)/([^/]+)");
+    private static final Pattern REPO_ISSUES = Pattern.compile("/repos/([^/]+)/([^/]+)/issues");
+    private static final Pattern REPO_COMMITS = Pattern.compile("/repos/([^/]+)/([^/]+)/commits");
+    private static final Pattern REPO_RUNS = Pattern.compile("/repos/([^/]+)/([^/]+)/actions/runs");
+    private static final Pattern REPO_EVENTS = Pattern.compile("/repos/([^/]+)/([^/]+)/events");
+    private static final Pattern REPO_CONTENTS = Pattern.compile("/repos/([^/]+)/([^/]+)/contents/(.+)");
+
+    private final String host;
+    private final int port;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final int errorStatus;
+    private final int items;
+    private final int fileBytes;
+    private final int rateLimit;
+    private final long rateLimitWindowMillis;
+    private final long eventEveryMillis;
+    private final int pollIntervalSeconds;
+
+    private final Map<String, Body> bodies = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    private long started;
+    private long windowStart;
+    private int windowUsed;
+    private DisposableServer server;
+
+    private record Body(byte[] bytes, String etag) {
+
+    }
+
+    private record Reply(HttpResponseStatus status, Body body, String link, boolean counted) {
+
+    }
+
+    public GitHubApiStub(Options options) {
+        this.host = options.string("host", "127.0.0.1");
+        this.port = options.integer("port", 0);
+        this.latencyMillis = options.integer("latency-ms", 50);
+        this.jitterMillis = options.integer("jitter-ms", 20);
+        this.errorRate = options.decimal("error-rate", 0.0);
+        this.errorStatus = options.integer("error-status", 502);
+        this.items = options.integer("items", 250);
+        this.fileBytes = options.integer("file-bytes", 4096);
+        this.rateLimit = options.integer("rate-limit", 5000);
+        this.rateLimitWindowMillis = options.integer("rate-limit-window-seconds", 3600) * 1000L;
+        this.eventEveryMillis = options.integer("event-every-seconds", 30) * 1000L;
+        this.pollIntervalSeconds = options.integer("poll-interval-seconds", 60);
+    }
+
+    public static void main(String[] args) {
+        try (GitHubApiStub stub = new GitHubApiStub(Options.parse(args)).start()) {
+            System.out.println("GitHub API stub listening on " + stub.baseUrl());
+            stub.server.onDispose().block();
+        }
+    }
+
+    public GitHubApiStub start() {
+        started = System.currentTimeMillis();
+        windowStart = started;
+        server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .handle(this::handle)
+                .bindNow();
+        return this;
+    }
+
+    public String baseUrl() {
+        return "http://%s:%d".formatted(host, server.port());
+    }
+
+    public String stats() {
+        return "requests=%d notModified=%d injectedErrors=%d rateLimited=%d".formatted(
+                requests.sum(), notModified.sum(), injectedErrors.sum(), rateLimited.sum());
+    }
+
+    @Override
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    // ==================== REQUEST HANDLING ====================
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        requests.increment();
+        Reply reply = reply(request);
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (REPO_EVENTS.matcher(new QueryStringDecoder(request.uri()).path()).matches()) {
+            response.header("X-Poll-Interval", Integer.toString(pollIntervalSeconds));
+        }
+        Mono<Void> send = Mono.defer(() -> send(response, reply));
+        return delay > 0 ? Mono.delay(Duration.ofMillis(delay)).then(send) : send;
+    }
+
+    private Reply reply(HttpServerRequest request) {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            injectedErrors.increment();
+            return new Reply(HttpResponseStatus.valueOf(errorStatus), message("Server Error"), null, true);
+        }
+        QueryStringDecoder uri = new QueryStringDecoder(request.uri());
+        Reply reply = request.method() == HttpMethod.GET
+                ? route(uri, request.requestHeaders().get("Host"))
+                : new Reply(HttpResponseStatus.NOT_FOUND, message("Not Found"), null, true);
+        String ifNoneMatch = request.requestHeaders().get("If-None-Match");
+        if (reply.status() == HttpResponseStatus.OK && reply.body().etag().equals(ifNoneMatch)) {
+            notModified.increment();
+            return new Reply(HttpResponseStatus.NOT_MODIFIED, reply.body(), reply.link(), false);
+        }
+        return reply;
+    }
+
+    private Reply route(QueryStringDecoder uri, String hostHeader) {
+        String path = uri.path();
+        if (USER_REPOS.matcher(path).matches() || path.equals("/user/repos")) {
+            return page(uri, hostHeader, Payloads::repositories);
+        }
+        if (REPO_ISSUES.matcher(path).matches()) {
+            return page(uri, hostHeader, Payloads::issues);
+        }
+        if (REPO_COMMITS.matcher(path).matches()) {
+            return page(uri, hostHeader, Payloads::commits);
+        }
+        if (REPO_RUNS.matcher(path).matches()) {
+            return page(uri, hostHeader, (first, count) -> Payloads.workflowRuns(first, count, items));
+        }
+        Matcher events = REPO_EVENTS.matcher(path);
+        if (events.matches()) {
+            // A new event every event-every-seconds since the stub started.
+            long newest = 1 + (System.currentTimeMillis() - started) / Math.max(1, eventEveryMillis);
+            String repo = events.group(1) + "/" + events.group(2);
+            int perPage = Math.min(100, Math.max(1, intParam(uri, "per_page", 30)));
+            return ok(path + "#" + newest + ":" + perPage, () -> Payloads.events(repo, newest, perPage));
+        }
+        Matcher contents = REPO_CONTENTS.matcher(path);
+        if (contents.matches()) {
+            String file = contents.group(3);
+            return ok(path, () -> Payloads.fileContent(file, fileBytes));
+        }
+        if (REPO.matcher(path).matches()) {
+            return ok(path, () -> {
+                byte[] array = Payloads.repositories(0, 1);
+                return Arrays.copyOfRange(array, 1, array.length - 1);
+            });
+        }
+        Matcher user = USER.matcher(path);
+        if (user.matches() || path.equals("/user")) {
+            String login = user.matches() ? user.group(1) : "octocat";
+            return ok(path, () -> Payloads.userProfile(login));
+        }
+        return new Reply(HttpResponseStatus.NOT_FOUND, message("Not Found"), null, true);
+    }
+
+    private interface PageSource {
+
+        byte[] items(int first, int count);
+    }
+
+    private Reply ok(String key, Supplier<byte[]> payload) {
+        return new Reply(HttpResponseStatus.OK, bodies.computeIfAbsent(key, k -> body(payload.get())), null, true);
+    }
+
+    private Reply page(QueryStringDecoder uri, String hostHeader, PageSource source) {
+        int perPage = Math.min(100, Math.max(1, intParam(uri, "per_page", 30)));
+        int page = Math.max(1, intParam(uri, "page", 1));
+        int first = (page - 1) * perPage;
+        int count = Math.max(0, Math.min(perPage, items - first));
+        int lastPage = Math.max(1, (items + perPage - 1) / perPage);
+        Body body = bodies.computeIfAbsent(uri.path() + "?" + perPage + ":" + page,
+                k -> body(source.items(first, count)));
+        String link = null;
+        if (page < lastPage) {
+            String base = "http://" + hostHeader + uri.path() + "?per_page=" + perPage + "&page=";
+            link = "<%s%d>; rel=\"next\", <%s%d>; rel=\"last\"".formatted(base, page + 1, base, lastPage);
+        }
+        return new Reply(HttpResponseStatus.OK, body, link, true);
+    }
+
+    private Mono<Void> send(HttpServerResponse response, Reply reply) {
+        int remaining = reply.counted() ? consumeRateLimit() : remainingRateLimit();
+        HttpResponseStatus status = reply.status();
+        Body body = reply.body();
+        if (remaining < 0) {
+            rateLimited.increment();
+            status = HttpResponseStatus.FORBIDDEN;
+            body = message("API rate limit exceeded for 127.0.0.1.");
+            remaining = 0;
+        }
+        response.status(status)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .header("X-RateLimit-Limit", Integer.toString(rateLimit))
+                .header("X-RateLimit-Remaining", Integer.toString(remaining))
+                .header("X-RateLimit-Reset", Long.toString(rateLimitReset()))
+                .header("X-RateLimit-Resource", "core")
+                .header("ETag", body.etag());
+        if (reply.link() != null) {
+            response.header("Link", reply.link());
+        }
+        if (status == HttpResponseStatus.NOT_MODIFIED) {
+            return response.send().then();
+        }
+        return response.sendByteArray(Mono.just(body.bytes())).then();
+    }
+
+    // ==================== RATE LIMIT ====================
+    /**
+     * @return remaining requests in the window, or {@code -1} if this request
+     * exceeded the limit
+     */
+    private synchronized int consumeRateLimit() {
+        rollWindow();
+        if (windowUsed >= rateLimit) {
+            return -1;
+        }
+        windowUsed++;
+        return rateLimit - windowUsed;
+    }
+
+    private synchronized int remainingRateLimit() {
+        rollWindow();
+        return rateLimit - windowUsed;
+    }
+
+    private synchronized long rateLimitReset() {
+        return (windowStart + rateLimitWindowMillis) / 1000;
+    }
+
+    private void rollWindow() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= rateLimitWindowMillis) {
+            windowStart = now;
+            windowUsed = 0;
+        }
+    }
+
+    // ==================== HELPER ====================
+    private static Body body(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return new Body(bytes, "\"%08x%04x\"".formatted(crc.getValue(), bytes.length & 0xffff));
+    }
+
+    private static Body message(String message) {
+        return body("{\"message\":\"%s\",\"documentation_url\":\"https://docs.github.com/rest\"}"
+                .formatted(message).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int intParam(QueryStringDecoder uri, String name, int defaultValue) {
+        List<String> values = uri.parameters().get(name);
+        return values != null && !values.isEmpty() ? Integer.parseInt(values.get(0)) : defaultValue;
+    }
+}
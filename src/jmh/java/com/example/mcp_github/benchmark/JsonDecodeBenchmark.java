@@ -0,0 +1,84 @@
+package com.example.mcp_github.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRunsResponse;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Decoding of list responses into the model records, using Jackson 3 as
+ * WebClient does. {@code size} matches the per_page values the tools use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDecodeBenchmark {
+
+    @Param({"10", "100"})
+    int size;
+
+    private JsonMapper mapper;
+    private JavaType repositoryList;
+    private JavaType issueList;
+    private JavaType commitList;
+    private byte[] repositories;
+    private byte[] issues;
+    private byte[] commits;
+    private byte[] workflowRuns;
+
+    @Setup
+    public void setup() {
+        mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        repositoryList = mapper.getTypeFactory().constructCollectionType(List.class, GitHubRepository.class);
+        issueList = mapper.getTypeFactory().constructCollectionType(List.class, GitHubIssue.class);
+        commitList = mapper.getTypeFactory().constructCollectionType(List.class, GitHubCommit.class);
+        repositories = Payloads.repositories(size);
+        issues = Payloads.issues(size);
+        commits = Payloads.commits(size);
+        workflowRuns = Payloads.workflowRuns(size);
+    }
+
+    @Benchmark
+    public List<GitHubRepository> repositories() {
+        return mapper.readValue(repositories, repositoryList);
+    }
+
+    @Benchmark
+    public List<GitHubIssue> issues() {
+        return mapper.readValue(issues, issueList);
+    }
+
+    @Benchmark
+    public List<GitHubCommit> commits() {
+        return mapper.readValue(commits, commitList);
+    }
+
+    @Benchmark
+    public GitHubWorkflowRunsResponse workflowRuns() {
+        return mapper.readValue(workflowRuns, GitHubWorkflowRunsResponse.class);
+    }
+}
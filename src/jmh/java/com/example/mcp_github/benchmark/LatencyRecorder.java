@@ -0,0 +1,106 @@
+package com.example.mcp_github.benchmark;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tool latency samples with a percentile table and a log-scale
+ * histogram of all calls. Samples are kept raw; a load run is a few
+ * thousand to a few hundred thousand calls.
+ */
+final class LatencyRecorder {
+
+    private static final long FIRST_BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(250);
+    private static final int BUCKETS = 18;
+
+    private final Map<String, Samples> samples = new TreeMap<>();
+
+    private static final class Samples {
+
+        long[] nanos = new long[256];
+        int count;
+        int errors;
+
+        void add(long value, boolean error) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (error) {
+                errors++;
+            }
+        }
+
+        long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    synchronized void record(String tool, long nanos, boolean error) {
+        samples.computeIfAbsent(tool, t -> new Samples()).add(nanos, error);
+    }
+
+    synchronized void report(PrintStream out, long elapsedNanos) {
+        Samples all = new Samples();
+        out.printf("%-28s %8s %7s %9s %9s %9s %9s%n", "tool", "calls", "errors", "p50 ms", "p90 ms", "p99 ms",
+                "max ms");
+        for (Map.Entry<String, Samples> entry : samples.entrySet()) {
+            Samples s = entry.getValue();
+            printRow(out, entry.getKey(), s);
+            for (int i = 0; i < s.count; i++) {
+                all.add(s.nanos[i], false);
+            }
+            all.errors += s.errors;
+        }
+        printRow(out, "TOTAL", all);
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%nthroughput: %.1f calls/s over %.1f s%n%n", all.count / seconds, seconds);
+        printHistogram(out, all.sorted());
+    }
+
+    private static void printRow(PrintStream out, String name, Samples s) {
+        long[] sorted = s.sorted();
+        out.printf("%-28s %8d %7d %9.2f %9.2f %9.2f %9.2f%n", name, s.count, s.errors,
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.90)),
+                millis(percentile(sorted, 0.99)), millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+    }
+
+    private static void printHistogram(PrintStream out, long[] sorted) {
+        int[] counts = new int[BUCKETS];
+        for (long nanos : sorted) {
+            int bucket = 0;
+            long bound = FIRST_BUCKET_NANOS;
+            while (nanos > bound && bucket < BUCKETS - 1) {
+                bound <<= 1;
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+        int max = Arrays.stream(counts).max().orElse(0);
+        long bound = FIRST_BUCKET_NANOS;
+        for (int i = 0; i < BUCKETS; i++, bound <<= 1) {
+            if (counts[i] > 0) {
+                String label = i < BUCKETS - 1 ? "<= %.2f ms".formatted(millis(bound)) : "> %.2f ms"
+                        .formatted(millis(bound >> 1));
+                out.printf("%14s %8d %s%n", label, counts[i], "#".repeat((int) (50L * counts[i] / max)));
+            }
+        }
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
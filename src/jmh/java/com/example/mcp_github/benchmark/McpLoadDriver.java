@@ -0,0 +1,211 @@
+package com.example.mcp_github.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.example.mcp_github.McpGithubApplication;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * End-to-end load test: starts {@link GitHubApiStub} (unless
+ * {@code --github-url} is given), launches the MCP server as a child process
+ * pointed at it, and fires a weighted mix of tool calls over stdio with a
+ * fixed number of calls in flight. Reports per-tool p50/p90/p99, a latency
+ * histogram, throughput and the server's allocation rate.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.mcp_github.benchmark.McpLoadDriver \
+ *     -Dexec.args="--concurrency=16 --requests=5000 --latency-ms=80"
+ * </pre>
+ *
+ * Options: {@code --concurrency}, {@code --requests}, {@code --warmup},
+ * {@code --users}, {@code --mix=tool:weight,...}, {@code --server-jvm-args},
+ * {@code --work-dir}, plus the {@link GitHubApiStub} options.
+ */
+public class McpLoadDriver {
+
+    private static final String DEFAULT_MIX = "getUserRepositories:3,getRepositoryIssues:3,getRepositoryCommits:2,"
+            + "getWorkflowRuns:1,getFileContent:1,getUserProfile:1";
+    private static final String ALLOCATED_BYTES = "jvm_gc_memory_allocated_bytes_total";
+
+    private record ToolCall(String tool, Map<String, Object> arguments) {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        int concurrency = options.integer("concurrency", 8);
+        int requests = options.integer("requests", 2000);
+        int warmup = options.integer("warmup", 500);
+        int users = options.integer("users", 20);
+        List<String> mix = expandMix(options.string("mix", DEFAULT_MIX));
+
+        File workDir = new File(options.string("work-dir", "target/loadtest"));
+        Files.createDirectories(workDir.toPath());
+        File metricsFile = new File(workDir, "server-metrics.prom");
+        Files.deleteIfExists(metricsFile.toPath());
+
+        String githubUrl = options.string("github-url", null);
+        GitHubApiStub stub = githubUrl == null ? new GitHubApiStub(options).start() : null;
+        try {
+            String baseUrl = stub != null ? stub.baseUrl() : githubUrl;
+            List<String> command = serverCommand(options, workDir, metricsFile, baseUrl);
+            try (McpStdioClient client = new McpStdioClient(command, new File(workDir, "server.log"))) {
+                client.initialize();
+                System.out.printf("Server up, GitHub API at %s; warming up with %d calls%n", baseUrl, warmup);
+                run(client, mix, users, warmup, concurrency);
+
+                double allocatedBefore = allocatedBytes(metricsFile);
+                System.out.printf("Measuring %d calls at concurrency %d%n%n", requests, concurrency);
+                LatencyRecorder recorder = new LatencyRecorder();
+                long elapsed = run(client, mix, users, requests, concurrency, recorder);
+                double allocatedAfter = allocatedBytes(metricsFile);
+
+                recorder.report(System.out, elapsed);
+                if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+                    double allocated = allocatedAfter - allocatedBefore;
+                    System.out.printf("%nserver allocation: %.1f MB/s, %.1f KB per call (sampled at young GCs)%n",
+                            allocated / (elapsed / 1e9) / (1 << 20), allocated / requests / 1024);
+                }
+            }
+            if (stub != null) {
+                System.out.println("stub: " + stub.stats());
+            }
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    // ==================== LOAD ====================
+    private static void run(McpStdioClient client, List<String> mix, int users, int calls, int concurrency)
+            throws InterruptedException {
+        run(client, mix, users, calls, concurrency, new LatencyRecorder());
+    }
+
+    /**
+     * Issues {@code calls} tool calls keeping at most {@code concurrency} in
+     * flight.
+     *
+     * @return elapsed wall time in nanoseconds
+     */
+    private static long run(McpStdioClient client, List<String> mix, int users, int calls, int concurrency,
+            LatencyRecorder recorder) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        CountDownLatch done = new CountDownLatch(calls);
+        long start = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            inFlight.acquire();
+            ToolCall call = nextCall(mix, users);
+            long sent = System.nanoTime();
+            client.callTool(call.tool(), call.arguments()).whenComplete((result, error) -> {
+                recorder.record(call.tool(), System.nanoTime() - sent, error != null || isError(result));
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    private static ToolCall nextCall(List<String> mix, int users) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String tool = mix.get(random.nextInt(mix.size()));
+        String username = "user-" + random.nextInt(users);
+        String repository = "repo-" + random.nextInt(5);
+        Map<String, Object> arguments = switch (tool) {
+            case "getUserRepositories", "getUserProfile" ->
+                Map.of("username", username);
+            case "getRepositoryIssues" ->
+                Map.of("username", username, "repository", repository, "state", "open", "limit", 30);
+            case "getRepositoryCommits" ->
+                Map.of("username", username, "repository", repository, "limit", 30);
+            case "getWorkflowRuns" ->
+                Map.of("username", username, "repository", repository, "limit", 20);
+            case "getFileContent" ->
+                Map.of("username", username, "repository", repository, "path", "src/Main.java");
+            default ->
+                throw new IllegalArgumentException("No arguments defined for tool: " + tool);
+        };
+        return new ToolCall(tool, arguments);
+    }
+
+    /**
+     * Tool failures come back as successful calls with {@code isError} set or
+     * with the tools' own "Error ..." text.
+     */
+    private static boolean isError(JsonNode result) {
+        if (result == null) {
+            return true;
+        }
+        if (result.path("isError").asBoolean(false)) {
+            return true;
+        }
+        JsonNode content = result.path("content");
+        return content.size() > 0 && content.get(0).path("text").asString("").startsWith("Error");
+    }
+
+    // ==================== HELPER ====================
+    private static List<String> expandMix(String mix) {
+        List<String> tools = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                tools.add(parts[0]);
+            }
+        }
+        // Fail fast on tools the driver has no arguments for.
+        tools.forEach(tool -> nextCall(List.of(tool), 1));
+        return tools;
+    }
+
+    private static List<String> serverCommand(Options options, File workDir, File metricsFile, String baseUrl) {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        String jvmArgs = options.string("server-jvm-args", "-Xmx512m");
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(McpGithubApplication.class.getName());
+        command.add("--spring.ai.mcp.server.stdio=true");
+        command.add("--github.api.base-url=" + baseUrl);
+        command.add("--github.api.token=");
+        command.add("--memory.file=" + new File(workDir, "memory.json").getPath());
+        command.add("--metrics.prometheus-file=" + metricsFile.getPath());
+        command.add("--metrics.export-interval-seconds=1");
+        command.add("--calllog.file=");
+        return command;
+    }
+
+    /**
+     * Cumulative allocated bytes from the server's Prometheus export, waiting
+     * for the next export so the value is current; {@code -1} if unavailable.
+     */
+    private static double allocatedBytes(File metricsFile) throws IOException, InterruptedException {
+        Thread.sleep(1500);
+        if (!metricsFile.isFile()) {
+            return -1;
+        }
+        double total = -1;
+        for (String line : Files.readAllLines(metricsFile.toPath())) {
+            if (line.startsWith(ALLOCATED_BYTES)) {
+                total = Math.max(total, 0) + Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+        return total;
+    }
+}
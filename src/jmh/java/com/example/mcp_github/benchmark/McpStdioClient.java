@@ -0,0 +1,129 @@
+package com.example.mcp_github.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Minimal MCP client over stdio: starts the server process and exchanges
+ * newline-delimited JSON-RPC messages with it. Requests are pipelined;
+ * responses are matched back to their futures by id on a reader thread, so
+ * completion callbacks must stay cheap.
+ */
+final class McpStdioClient implements AutoCloseable {
+
+    private static final String PROTOCOL_VERSION = "2024-11-05";
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+    private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final Process process;
+    private final BufferedWriter out;
+
+    McpStdioClient(List<String> command, File serverLog) throws IOException {
+        this.process = new ProcessBuilder(command)
+                .redirectError(serverLog)
+                .start();
+        this.out = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        Thread reader = new Thread(this::readLoop, "mcp-client-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    void initialize() throws Exception {
+        request("initialize", Map.of(
+                "protocolVersion", PROTOCOL_VERSION,
+                "capabilities", Map.of(),
+                "clientInfo", Map.of("name", "mcp-load-driver", "version", "1.0")))
+                .get(2, TimeUnit.MINUTES);
+        write(Map.of("jsonrpc", "2.0", "method", "notifications/initialized"));
+    }
+
+    /**
+     * Completes with the {@code tools/call} result object, or exceptionally
+     * on a JSON-RPC error or if the server exits.
+     */
+    CompletableFuture<JsonNode> callTool(String name, Map<String, Object> arguments) {
+        return request("tools/call", Map.of("name", name, "arguments", arguments));
+    }
+
+    private CompletableFuture<JsonNode> request(String method, Object params) {
+        long id = ids.incrementAndGet();
+        CompletableFuture<JsonNode> future = new CompletableFuture<>();
+        pending.put(id, future);
+        write(Map.of("jsonrpc", "2.0", "id", id, "method", method, "params", params));
+        return future;
+    }
+
+    private synchronized void write(Object message) {
+        try {
+            out.write(mapper.writeValueAsString(message));
+            out.newLine();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void readLoop() {
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank() || line.charAt(0) != '{') {
+                    continue;
+                }
+                JsonNode message = mapper.readTree(line);
+                JsonNode id = message.get("id");
+                if (id == null || !(message.has("result") || message.has("error"))) {
+                    // Notifications and server-to-client requests are not needed here.
+                    continue;
+                }
+                CompletableFuture<JsonNode> future = pending.remove(id.asLong());
+                if (future == null) {
+                    continue;
+                }
+                if (message.has("error")) {
+                    future.completeExceptionally(new IllegalStateException(message.get("error").toString()));
+                } else {
+                    future.complete(message.get("result"));
+                }
+            }
+        } catch (IOException e) {
+            // Server went away; fail whatever is still outstanding below.
+        } finally {
+            IllegalStateException exited = new IllegalStateException("MCP server exited");
+            pending.values().forEach(future -> future.completeExceptionally(exited));
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        try {
+            out.close();
+        } catch (IOException e) {
+            // Closing stdin is only a shutdown hint.
+        }
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
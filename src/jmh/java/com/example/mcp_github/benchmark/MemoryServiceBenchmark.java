@@ -0,0 +1,110 @@
+package com.example.mcp_github.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.mcp_github.service.MemoryService;
+import com.example.mcp_github.service.memory.MemoryPage;
+import com.example.mcp_github.service.memory.MemorySearchHit;
+import com.example.mcp_github.service.memory.MemorySnapshot;
+
+/**
+ * MemoryService hot paths at different store sizes. Keys look like
+ * {@code issue:000042} so prefix scans have something to narrow down.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemoryServiceBenchmark {
+
+    private static final String[] WORDS = {"release", "branch", "flaky", "deploy", "review", "cache", "timeout",
+        "rollback", "migration", "hotfix"};
+
+    @Param({"10", "1000", "100000"})
+    int entries;
+
+    private Path dir;
+    private MemoryService memory;
+    private MemorySnapshot snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("memory-bench");
+        memory = new MemoryService(dir.resolve("memory.json").toString(), 1L << 30, 0, 3600, 256, 2048, 10, 3600);
+        for (int i = 0; i < entries; i++) {
+            memory.remember(key(i), value(i));
+        }
+        snapshot = memory.snapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        memory.close();
+        try (var files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public String recall() {
+        return memory.recall(key(ThreadLocalRandom.current().nextInt(entries)));
+    }
+
+    /**
+     * Recall through a snapshot taken at setup; overwrites from
+     * {@code rememberOverwrite} in the same trial make it walk history.
+     */
+    @Benchmark
+    public String snapshotRecall() {
+        return memory.recall(null, key(ThreadLocalRandom.current().nextInt(entries)), snapshot);
+    }
+
+    @Benchmark
+    public long rememberOverwrite() {
+        int i = ThreadLocalRandom.current().nextInt(entries);
+        return memory.remember(key(i), value(i + 1));
+    }
+
+    @Benchmark
+    public MemoryPage prefixScanPage() {
+        return memory.scan(null, "issue:00", null, null, null, 50);
+    }
+
+    @Benchmark
+    public List<MemorySearchHit> search() {
+        return memory.search(null, "flaky deploy", 10);
+    }
+
+    private static String key(int i) {
+        return "issue:%06d".formatted(i);
+    }
+
+    private static String value(int i) {
+        return "Issue %d is about a %s %s problem seen during %s".formatted(i, WORDS[i % WORDS.length],
+                WORDS[(i / 10) % WORDS.length], WORDS[(i / 100) % WORDS.length]);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.mcp_github.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Synthetic GitHub API responses shaped like the real ones: besides the
+ * fields our records map, each object carries the usual URL, owner and
+ * metadata fields that the decoder has to skip.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static byte[] repositories(int count) {
+        return repositories(0, count);
+    }
+
+    static byte[] repositories(int first, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = first; i < first + count; i++) {
+            sb.append(i > first ? "," : "").append("""
+                    {"id":%d,"node_id":"R_kgDOH%06d","name":"project-%d","full_name":"octocat/project-%d",
+                    "private":false,%s,"html_url":"https://github.com/octocat/project-%d",
+                    "description":"A sample repository number %d used for benchmarking the decoder",
+                    "fork":false,"url":"https://api.github.com/repos/octocat/project-%d",
+                    "forks_url":"https://api.github.com/repos/octocat/project-%d/forks",
+                    "created_at":"2023-01-%02dT10:00:00Z","updated_at":"2024-05-%02dT12:30:00Z",
+                    "pushed_at":"2024-05-%02dT12:30:00Z","size":%d,"stargazers_count":%d,"watchers_count":%d,
+                    "language":"Java","forks_count":%d,"open_issues_count":%d,"default_branch":"main",
+                    "topics":["mcp","github","java"],"visibility":"public","license":{"key":"mit","name":"MIT License"}}
+                    """.formatted(i, i, i, i, owner(), i, i, i, i, i % 28 + 1, i % 28 + 1, i % 28 + 1,
+                    1000 + i, i * 3, i * 3, i, i % 17));
+        }
+        return sb.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] issues(int count) {
+        return issues(0, count);
+    }
+
+    static byte[] issues(int first, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = first; i < first + count; i++) {
+            sb.append(i > first ? "," : "").append("""
+                    {"url":"https://api.github.com/repos/octocat/hello/issues/%d","id":%d,"number":%d,
+                    "title":"Issue %d: build fails on the release branch after dependency update",
+                    "user":%s,"labels":[{"id":1,"name":"bug","color":"d73a4a","default":true}],
+                    "state":"open","locked":false,"assignee":null,"assignees":[],"comments":%d,
+                    "created_at":"2024-04-%02dT08:00:00Z","updated_at":"2024-05-%02dT09:00:00Z","closed_at":null,
+                    "author_association":"CONTRIBUTOR","html_url":"https://github.com/octocat/hello/issues/%d",
+                    "body":"%s"}
+                    """.formatted(i, 1_000_000 + i, i, i, user("contributor" + i % 20), i % 9, i % 28 + 1,
+                    i % 28 + 1, i, "Steps to reproduce:\\n1. Check out the branch\\n2. Run the build\\n".repeat(4)));
+        }
+        return sb.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] commits(int count) {
+        return commits(0, count);
+    }
+
+    static byte[] commits(int first, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = first; i < first + count; i++) {
+            String sha = "%040x".formatted(i * 2_654_435_761L);
+            sb.append(i > first ? "," : "").append("""
+                    {"sha":"%s","node_id":"C_kwDOA%06d","commit":{"author":{"name":"Dev %d",
+                    "email":"dev%d@example.com","date":"2024-05-%02dT10:%02d:00Z"},
+                    "committer":{"name":"GitHub","email":"noreply@github.com","date":"2024-05-%02dT10:%02d:00Z"},
+                    "message":"Fix flaky test in module %d\\n\\nThe test relied on wall-clock ordering.",
+                    "tree":{"sha":"%s","url":"https://api.github.com/repos/octocat/hello/git/trees/%s"},
+                    "comment_count":0,"verification":{"verified":false,"reason":"unsigned"}},
+                    "url":"https://api.github.com/repos/octocat/hello/commits/%s",
+                    "html_url":"https://github.com/octocat/hello/commit/%s","author":%s,"committer":%s,
+                    "parents":[{"sha":"%s"}]}
+                    """.formatted(sha, i, i % 12, i % 12, i % 28 + 1, i % 60, i % 28 + 1, i % 60, i, sha, sha,
+                    sha, sha, user("dev" + i % 12), user("web-flow"), sha));
+        }
+        return sb.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] workflowRuns(int count) {
+        return workflowRuns(0, count, count);
+    }
+
+    static byte[] workflowRuns(int first, int count, int totalCount) {
+        StringBuilder sb = new StringBuilder("{\"total_count\":%d,\"workflow_runs\":[".formatted(totalCount));
+        for (int i = first; i < first + count; i++) {
+            sb.append(i > first ? "," : "").append("""
+                    {"id":%d,"name":"CI","node_id":"WFR_kwLO%06d","head_branch":"feature/%d",
+                    "head_sha":"%040x","path":".github/workflows/ci.yml","run_number":%d,"event":"push",
+                    "status":"completed","conclusion":"%s","workflow_id":161335,
+                    "url":"https://api.github.com/repos/octocat/hello/actions/runs/%d",
+                    "html_url":"https://github.com/octocat/hello/actions/runs/%d",
+                    "created_at":"2024-05-%02dT10:00:00Z","updated_at":"2024-05-%02dT10:07:00Z",
+                    "run_attempt":1,"run_started_at":"2024-05-%02dT10:00:05Z","actor":%s,
+                    "head_commit":{"id":"%040x","message":"Bump dependencies","timestamp":"2024-05-01T09:59:00Z"}}
+                    """.formatted(5_000_000_000L + i, i, i % 7, (long) i, 100 + i, i % 5 == 0 ? "failure" : "success",
+                    5_000_000_000L + i, 5_000_000_000L + i, i % 28 + 1, i % 28 + 1, i % 28 + 1, user("octocat"),
+                    (long) i));
+        }
+        return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Events API page for {@code repo} ({@code owner/name}), newest first,
+     * alternating pushes and issue events with ids counting down from
+     * {@code newestId}.
+     */
+    static byte[] events(String repo, long newestId, int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count && newestId - i > 0; i++) {
+            long id = newestId - i;
+            String payload = id % 2 == 0
+                    ? """
+                    {"repository_id":1296269,"push_id":%d,"size":1,"distinct_size":1,"ref":"refs/heads/main",
+                    "head":"%040x","before":"%040x","commits":[]}""".formatted(id, id, id - 1)
+                    : """
+                    {"action":"opened","issue":{"number":%d,"title":"Issue %d opened by the stub"}}""".formatted(id, id);
+            sb.append(i > 0 ? "," : "").append("""
+                    {"id":"%d","type":"%s","actor":{"id":1,"login":"contributor%d"},
+                    "repo":{"id":1296269,"name":"%s","url":"https://api.github.com/repos/%s"},
+                    "payload":%s,"public":true,"created_at":"2024-05-01T09:00:00Z"}
+                    """.formatted(id, id % 2 == 0 ? "PushEvent" : "IssuesEvent", id % 20, repo, repo, payload));
+        }
+        return sb.append("]").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] userProfile(String login) {
+        return """
+                {"login":"%s","id":583231,"node_id":"MDQ6VXNlcjU4MzIzMQ==",
+                "avatar_url":"https://avatars.githubusercontent.com/u/583231?v=4",
+                "html_url":"https://github.com/%s","type":"User","site_admin":false,"name":"User %s",
+                "company":"@example","blog":"https://example.com","location":"Berlin","email":null,
+                "bio":"Writes code and benchmarks","public_repos":42,"public_gists":3,"followers":120,
+                "following":8,"created_at":"2015-03-01T10:00:00Z","updated_at":"2024-05-01T10:00:00Z"}
+                """.formatted(login, login, login).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static byte[] fileContent(String path, int bytes) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return """
+                {"name":"%s","path":"%s","sha":"3d21ec53a331a6f037a91c368710b99387d012c1","size":%d,
+                "url":"https://api.github.com/repos/octocat/hello/contents/%s",
+                "html_url":"https://github.com/octocat/hello/blob/main/%s",
+                "download_url":"https://raw.githubusercontent.com/octocat/hello/main/%s","type":"file",
+                "content":"%s","encoding":"base64"}
+                """.formatted(name, path, bytes, path, path, path, base64Content(bytes).replace("\n", "\\n"))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * File content as the contents API returns it: base64 with a line break
+     * every 60 characters.
+     */
+    static String base64Content(int bytes) {
+        byte[] raw = ("public class Example { /* line of source code */ }\n".repeat(bytes / 50 + 1))
+                .substring(0, bytes).getBytes(StandardCharsets.UTF_8);
+        return Base64.getMimeEncoder(60, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(raw) + "\n";
+    }
+
+    private static String owner() {
+        return "\"owner\":" + user("octocat");
+    }
+
+    private static String user(String login) {
+        return """
+                {"login":"%s","id":583231,"node_id":"MDQ6VXNlcjU4MzIzMQ==",
+                "avatar_url":"https://avatars.githubusercontent.com/u/583231?v=4",
+                "url":"https://api.github.com/users/%s","html_url":"https://github.com/%s",
+                "type":"User","site_admin":false}""".formatted(login, login, login);
+    }
+}
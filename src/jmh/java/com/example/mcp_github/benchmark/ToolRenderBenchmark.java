@@ -0,0 +1,121 @@
+package com.example.mcp_github.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubContent;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRunsResponse;
+import com.example.mcp_github.service.CommitStore;
+import com.example.mcp_github.service.IssueStore;
+import com.example.mcp_github.service.RepositoryOverviewService;
+import com.example.mcp_github.service.WorkflowLogService;
+import com.example.mcp_github.service.WorkflowRunStore;
+import com.example.mcp_github.service.WorkflowRunWatcher;
+import com.example.mcp_github.tools.actions.GitHubActionsTools;
+import com.example.mcp_github.tools.commit.GitHubCommitTools;
+import com.example.mcp_github.tools.file.GitHubFileTools;
+import com.example.mcp_github.tools.issue.GitHubIssueTools;
+import com.example.mcp_github.tools.repository.GitHubRepositoryTools;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The tools' result rendering ({@code StringBuilder} plus
+ * {@code String.formatted}) on already-decoded data, and the base64 decoding
+ * done by {@code getFileContent}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToolRenderBenchmark {
+
+    @Param({"10", "100"})
+    int size;
+
+    private GitHubRepositoryTools repositoryTools;
+    private GitHubIssueTools issueTools;
+    private GitHubCommitTools commitTools;
+    private GitHubActionsTools actionsTools;
+    private GitHubFileTools fileTools;
+
+    @Setup
+    public void setup() {
+        JsonMapper mapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        List<GitHubRepository> repositories = List.of(mapper.readValue(Payloads.repositories(size),
+                GitHubRepository[].class));
+        List<GitHubIssue> issues = List.of(mapper.readValue(Payloads.issues(size), GitHubIssue[].class));
+        List<GitHubCommit> commits = List.of(mapper.readValue(Payloads.commits(size), GitHubCommit[].class));
+        GitHubWorkflowRunsResponse runs = mapper.readValue(Payloads.workflowRuns(size),
+                GitHubWorkflowRunsResponse.class);
+        int fileBytes = size * 1024;
+        GitHubContent file = new GitHubContent("Example.java", "src/Example.java", "abc123", fileBytes, "file", null,
+                "https://github.com/octocat/hello/blob/main/src/Example.java", Payloads.base64Content(fileBytes),
+                "base64");
+
+        FixtureGitHubService service = new FixtureGitHubService(repositories, issues, commits, runs.workflowRuns(),
+                file);
+        GitHubMetricsFilter metrics = new GitHubMetricsFilter(new SimpleMeterRegistry(), new CallTracer(false, 64),
+                new CallLog("", 64, 0, 1, 0));
+        repositoryTools = new GitHubRepositoryTools(service, new RepositoryOverviewService(service, 4000, 5));
+        issueTools = new GitHubIssueTools(service, new IssueStore(service, metrics, 3600, 100, 10000, 0, 10));
+        commitTools = new GitHubCommitTools(service, new CommitStore(service, metrics, 3600, 1, 100, 0, 1));
+        actionsTools = new GitHubActionsTools(service, new WorkflowRunStore(service, metrics, 3600, 1, 100, 0, 1),
+                new WorkflowLogService(service, "error", 5, 8, 500, 1L << 30, "", 1),
+                new WorkflowRunWatcher(service, 5, 60, 30, 15));
+        fileTools = new GitHubFileTools(service);
+    }
+
+    @Benchmark
+    public String userRepositories() {
+        return repositoryTools.getUserRepositories("octocat");
+    }
+
+    @Benchmark
+    public String repositoryIssues() {
+        return issueTools.getRepositoryIssues("octocat", "hello", "open", size, null, null, null);
+    }
+
+    @Benchmark
+    public String repositoryCommits() {
+        return commitTools.getRepositoryCommits("octocat", "hello", size);
+    }
+
+    @Benchmark
+    public String workflowRuns() {
+        return actionsTools.getWorkflowRuns("octocat", "hello", size);
+    }
+
+    /**
+     * {@code size} KB file: base64 decoding plus rendering.
+     */
+    @Benchmark
+    public String fileContent() {
+        return fileTools.getFileContent("octocat", "hello", "src/Example.java");
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.mcp_github.benchmark;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Posts recorded webhook payloads to a running webhook receiver, signed the
+ * way GitHub signs them. Each file is named after its event, optionally
+ * with a suffix: {@code push.json}, {@code issues-opened.json}.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.mcp_github.benchmark.WebhookReplay \
+ *     -Dexec.args="--secret=s3cret --payloads=webhooks/"
+ * </pre>
+ *
+ * Options: {@code --url}, {@code --secret}, {@code --payloads} (a file or a
+ * directory of {@code .json} files).
+ */
+public class WebhookReplay {
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        URI url = URI.create(options.string("url", "http://127.0.0.1:8788/github/webhook"));
+        String secret = options.string("secret", System.getenv("GITHUB_WEBHOOK_SECRET"));
+        if (secret == null) {
+            throw new IllegalArgumentException("--secret is required");
+        }
+        File source = new File(options.string("payloads", "webhooks"));
+        File[] files = source.isDirectory()
+                ? source.listFiles((dir, name) -> name.endsWith(".json"))
+                : new File[] { source };
+        if (files == null || files.length == 0) {
+            throw new IllegalArgumentException("No payloads in " + source);
+        }
+        Arrays.sort(files);
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        HttpClient client = HttpClient.newHttpClient();
+        for (File file : files) {
+            String name = file.getName().substring(0, file.getName().length() - ".json".length());
+            String event = name.contains("-") ? name.substring(0, name.indexOf('-')) : name;
+            byte[] payload = Files.readAllBytes(file.toPath());
+            HttpRequest request = HttpRequest.newBuilder(url)
+                    .header("Content-Type", "application/json")
+                    .header("X-GitHub-Event", event)
+                    .header("X-GitHub-Delivery", UUID.randomUUID().toString())
+                    .header("X-Hub-Signature-256", "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload)))
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            System.out.printf("%-32s %-14s %d %s%n", file.getName(), event, response.statusCode(),
+                    response.body().strip());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.mcp_github.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.service.runs.WorkflowRunTable;
+
+/**
+ * WorkflowRunTable aggregations over a synthetic history: 12 workflows, 40
+ * branches, a run every few minutes, 8% failures and some re-runs, so every
+ * aggregation has groups to fill.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkflowAnalyticsBenchmark {
+
+    @Param({"1000", "100000"})
+    int runs;
+
+    private WorkflowRunTable table;
+
+    @Setup
+    public void setup() {
+        table = new WorkflowRunTable();
+        SplittableRandom random = new SplittableRandom(42);
+        long start = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+        for (int i = 0; i < runs; i++) {
+            long created = start + i * 180L;
+            int queue = random.nextInt(5, 600);
+            int duration = 120 + random.nextInt(900);
+            boolean failed = random.nextInt(100) < 8;
+            int attempt = !failed && random.nextInt(100) < 3 ? 2 : 1;
+            table.upsert(new GitHubWorkflowRun(i + 1L, "workflow-" + i % 12, "branch-" + i % 40, "completed",
+                    failed ? "failure" : "success", null, Instant.ofEpochSecond(created).toString(),
+                    Instant.ofEpochSecond(created + queue + duration).toString(), (long) i % 12,
+                    "%040x".formatted(i / 3), "push", attempt, Instant.ofEpochSecond(created + queue).toString()));
+        }
+    }
+
+    @Benchmark
+    public List<WorkflowRunTable.FailureRate> failureRatesByBranch() {
+        return table.failureRates(true, Long.MIN_VALUE);
+    }
+
+    @Benchmark
+    public List<WorkflowRunTable.DurationStats> durationPercentiles() {
+        return table.durations(null, null, Long.MIN_VALUE);
+    }
+
+    @Benchmark
+    public List<WorkflowRunTable.Flakiness> flakiness() {
+        return table.flakiness(Long.MIN_VALUE);
+    }
+
+    @Benchmark
+    public List<WorkflowRunTable.QueueTimeBucket> weeklyQueueTimes() {
+        return table.queueTimes(Long.MIN_VALUE, TimeUnit.DAYS.toSeconds(7));
+    }
+}
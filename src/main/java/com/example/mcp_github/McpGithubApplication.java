@@ -9,9 +9,16 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import com.example.mcp_github.cache.CacheAwareToolCallback;
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.metrics.InstrumentedToolCallback;
 import com.example.mcp_github.tools.actions.GitHubActionsTools;
+import com.example.mcp_github.tools.batch.GitHubBatchTools;
 import com.example.mcp_github.tools.branch.GitHubBranchTools;
 import com.example.mcp_github.tools.commit.GitHubCommitTools;
+import com.example.mcp_github.tools.events.GitHubEventTools;
+import com.example.mcp_github.tools.fanout.GitHubFanOutTools;
 import com.example.mcp_github.tools.file.GitHubFileTools;
 import com.example.mcp_github.tools.issue.GitHubIssueTools;
 import com.example.mcp_github.tools.memory.MemoryTools;
@@ -19,7 +26,11 @@ import com.example.mcp_github.tools.pullrequest.GitHubPullRequestTools;
 import com.example.mcp_github.tools.release.GitHubReleaseTools;
 import com.example.mcp_github.tools.repository.GitHubRepositoryTools;
 import com.example.mcp_github.tools.social.GitHubSocialTools;
+import com.example.mcp_github.tools.stats.ServerStatsTools;
 import com.example.mcp_github.tools.user.GitHubUserTools;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @SpringBootApplication
 public class McpGithubApplication {
@@ -40,7 +51,15 @@ public class McpGithubApplication {
             GitHubReleaseTools releaseTools,
             GitHubActionsTools actionsTools,
             GitHubSocialTools socialTools,
-            MemoryTools memoryTools
+            GitHubEventTools eventTools,
+            GitHubFanOutTools fanOutTools,
+            GitHubBatchTools batchTools,
+            MemoryTools memoryTools,
+            ServerStatsTools serverStatsTools,
+            GitHubCacheFilter cacheFilter,
+            MeterRegistry meterRegistry,
+            CallTracer callTracer,
+            CallLog callLog
     ) {
         return Arrays.stream(new ToolCallback[][]{
             ToolCallbacks.from(repositoryTools),
@@ -53,9 +72,15 @@ public class McpGithubApplication {
             ToolCallbacks.from(releaseTools),
             ToolCallbacks.from(actionsTools),
             ToolCallbacks.from(socialTools),
-            ToolCallbacks.from(memoryTools)
+            ToolCallbacks.from(eventTools),
+            ToolCallbacks.from(fanOutTools),
+            ToolCallbacks.from(batchTools),
+            ToolCallbacks.from(memoryTools),
+            ToolCallbacks.from(serverStatsTools)
         })
                 .flatMap(Arrays::stream)
+                .<ToolCallback>map(callback -> new CacheAwareToolCallback(callback, cacheFilter))
+                .<ToolCallback>map(callback -> new InstrumentedToolCallback(callback, meterRegistry, callTracer, callLog))
                 .toList();
     }
 }
@@ -0,0 +1,72 @@
+package com.example.mcp_github.cache;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Appends a note to a tool's result when any of its GitHub data was served
+ * stale from {@link GitHubCacheFilter}, saying how old it is and why.
+ */
+public class CacheAwareToolCallback implements ToolCallback {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ToolCallback delegate;
+    private final GitHubCacheFilter cache;
+
+    public CacheAwareToolCallback(ToolCallback delegate, GitHubCacheFilter cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        cache.startCall();
+        String result = null;
+        try {
+            result = toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+        } finally {
+            String note = cache.finishCall();
+            if (note != null && result != null) {
+                result = annotate(result, note);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Results are usually JSON-encoded strings; the note goes inside the
+     * string so the client still gets one text block.
+     */
+    private static String annotate(String result, String note) {
+        if (result.startsWith("\"")) {
+            try {
+                String text = MAPPER.readValue(result, String.class);
+                return MAPPER.writeValueAsString(text + "\n\n" + note);
+            } catch (JsonProcessingException e) {
+                // Not a single JSON string after all; append as plain text.
+            }
+        }
+        return result + "\n\n" + note;
+    }
+}
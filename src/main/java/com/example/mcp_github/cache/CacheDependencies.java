@@ -0,0 +1,416 @@
+package com.example.mcp_github.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Which cached reads each GitHub mutation affects, keyed by method and URI
+ * template as GitHubService sends them. Objects returned by a
+ * mutation are written straight into the cache where a read would fetch
+ * them, lists are patched in place where the change is known (a new issue
+ * heads the open list), and only what cannot be patched is evicted.
+ *
+ * @see com.example.mcp_github.service.GitHubService
+ */
+final class CacheDependencies {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Set<String> OPEN_OR_ALL = Set.of("open", "all");
+    private static final int DEFAULT_PER_PAGE = 30;
+    private static final Map<String, Rule> RULES = new LinkedHashMap<>();
+
+    @FunctionalInterface
+    interface Rule {
+
+        void apply(Mutation m, GitHubCacheFilter cache);
+    }
+
+    static {
+        // ─── Repositories ───
+        rule("POST /user/repos", (m, c) -> {
+            JsonNode repo = m.json();
+            String owner = repo.path("owner").path("login").asText();
+            c.writeThrough(m.key(m.path("/repos/" + owner + "/" + repo.path("name").asText())), m.body());
+            c.evict(m.path("/user/repos"));
+            c.evict(m.path("/users/" + owner + "/repos"));
+        });
+        rule("PATCH /repos/{username}/{repo}", (m, c) -> {
+            JsonNode repo = m.json();
+            String name = repo.path("name").asText();
+            if (!name.equals(m.var("repo"))) {
+                c.evictTree(m.repoPath());
+            }
+            c.writeThrough(m.key(m.path("/repos/" + m.var("username") + "/" + name)), m.body());
+            c.evict(m.path("/user/repos"));
+            c.evict(m.path("/users/" + m.var("username") + "/repos"));
+        });
+        rule("DELETE /repos/{username}/{repo}", (m, c) -> {
+            c.evictTree(m.repoPath());
+            c.evict(m.path("/user/repos"));
+            c.evict(m.path("/users/" + m.var("username") + "/repos"));
+            c.evict(m.path("/user/starred/" + m.var("username") + "/" + m.var("repo")));
+        });
+        rule("POST /repos/{username}/{repo}/forks", (m, c) -> {
+            JsonNode fork = m.json();
+            String owner = fork.path("owner").path("login").asText();
+            c.writeThrough(m.key(m.path("/repos/" + owner + "/" + fork.path("name").asText())), m.body());
+            c.evict(m.repoPath() + "/forks");
+            c.evict(m.repoPath());
+            c.evict(m.path("/user/repos"));
+            c.evict(m.path("/users/" + owner + "/repos"));
+        });
+
+        // ─── Issues and pull requests ───
+        rule("POST /repos/{username}/{repo}/issues", (m, c) -> {
+            JsonNode issue = m.json();
+            c.editLists(m.repoPath() + "/issues", (query, items) -> OPEN_OR_ALL.contains(state(query))
+                    ? prepend(items, issue, perPage(query))
+                    : ListEdit.Result.KEEP);
+            c.evict(m.repoPath());
+        });
+        rule("POST /repos/{username}/{repo}/pulls", (m, c) -> {
+            JsonNode pull = m.json();
+            c.editLists(m.repoPath() + "/pulls", (query, items) -> OPEN_OR_ALL.contains(state(query))
+                    ? prepend(items, pull, perPage(query))
+                    : ListEdit.Result.KEEP);
+            // The issues list includes pull requests, but in a different shape.
+            c.editLists(m.repoPath() + "/issues", (query, items) -> OPEN_OR_ALL.contains(state(query))
+                    ? ListEdit.Result.DROP
+                    : ListEdit.Result.KEEP);
+            c.evict(m.repoPath());
+        });
+        rule("PUT /repos/{username}/{repo}/pulls/{prNumber}/merge", (m, c) -> {
+            String number = m.var("prNumber");
+            c.editLists(m.repoPath() + "/pulls", (query, items) -> "open".equals(state(query))
+                    ? remove(items, "number", number)
+                    : ListEdit.Result.DROP);
+            // Closing keywords in the pull request may close issues too.
+            c.evict(m.repoPath() + "/issues");
+            c.evict(m.repoPath() + "/commits");
+            c.evictTree(m.repoPath() + "/branches");
+            c.evict(m.repoPath());
+        });
+
+        // ─── Branches ───
+        rule("POST /repos/{username}/{repo}/git/refs", (m, c) -> {
+            JsonNode ref = m.json();
+            String refName = ref.path("ref").asText();
+            if (!refName.startsWith("refs/heads/")) {
+                return;
+            }
+            String sha = ref.path("object").path("sha").asText();
+            ObjectNode branch = MAPPER.createObjectNode();
+            branch.put("name", refName.substring("refs/heads/".length()));
+            branch.putObject("commit")
+                    .put("sha", sha)
+                    .put("url", m.url(m.repoPath() + "/commits/" + sha));
+            branch.put("protected", false);
+            c.writeThrough(m.key(m.repoPath() + "/branches/" + branch.path("name").asText()), bytes(branch));
+            c.editLists(m.repoPath() + "/branches", (query, items) -> insertByName(items, branch, perPage(query)));
+        });
+        rule("DELETE /repos/{username}/{repo}/git/refs/heads/{branch}", (m, c) -> {
+            c.evict(m.repoPath() + "/branches/" + m.var("branch"));
+            c.editLists(m.repoPath() + "/branches", (query, items) -> remove(items, "name", m.var("branch")));
+        });
+
+        // ─── Files ───
+        rule("PUT /repos/{username}/{repo}/contents/{path}", (m, c) -> {
+            String contentPath = m.repoPath() + "/contents/" + m.var("path");
+            GitHubCacheFilter.FileWrite write = m.fileWrite();
+            String branch = write != null ? write.branch() : null;
+            JsonNode content = m.json().path("content");
+            if (write != null && content.isObject() && isDefaultBranch(c, m, branch)) {
+                ((ObjectNode) content).put("content", write.base64Content()).put("encoding", "base64");
+                c.writeThrough(m.key(contentPath), bytes(content));
+            } else {
+                c.evict(contentPath);
+            }
+            afterCommit(m, c, branch);
+        });
+        rule("DELETE /repos/{username}/{repo}/contents/{path}", (m, c) -> {
+            c.evict(m.repoPath() + "/contents/" + m.var("path"));
+            GitHubCacheFilter.FileWrite write = m.fileWrite();
+            afterCommit(m, c, write != null ? write.branch() : null);
+        });
+
+        // ─── Stars ───
+        Rule starred = (m, c) -> {
+            c.evict(m.path("/user/starred/" + m.var("username") + "/" + m.var("repo")));
+            c.evict(m.repoPath());
+        };
+        rule("PUT /user/starred/{username}/{repo}", starred);
+        rule("DELETE /user/starred/{username}/{repo}", starred);
+    }
+
+    private CacheDependencies() {
+    }
+
+    private static void rule(String key, Rule rule) {
+        RULES.put(key, rule);
+    }
+
+    /**
+     * The mutation described by {@code request}, or {@code null} if it does
+     * not affect any cached read.
+     */
+    static Mutation match(ClientRequest request) {
+        String method = request.method().name();
+        String template = GitHubMetricsFilter.endpoint(request);
+        String path = request.url().getRawPath();
+        for (Map.Entry<String, Rule> entry : RULES.entrySet()) {
+            int space = entry.getKey().indexOf(' ');
+            String ruleTemplate = entry.getKey().substring(space + 1);
+            if (!entry.getKey().startsWith(method + " ") || !template.endsWith(ruleTemplate)) {
+                continue;
+            }
+            // Anything before the template is the base URL's own path, e.g. /api/v3.
+            String prefix = template.substring(0, template.length() - ruleTemplate.length());
+            if (prefix.contains("{") || !path.startsWith(prefix)) {
+                continue;
+            }
+            Map<String, String> vars = variables(ruleTemplate, path.substring(prefix.length()));
+            if (vars != null) {
+                return new Mutation(request, prefix, vars, entry.getValue());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Values of the template's variables in {@code path}. The last variable
+     * takes the rest of the path, so file paths may contain slashes.
+     */
+    private static Map<String, String> variables(String template, String path) {
+        String[] names = template.substring(1).split("/");
+        String[] segments = path.substring(1).split("/", -1);
+        if (segments.length < names.length) {
+            return null;
+        }
+        Map<String, String> vars = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            boolean last = i == names.length - 1;
+            String segment = last ? String.join("/", Arrays.copyOfRange(segments, i, segments.length))
+                    : segments[i];
+            if (names[i].startsWith("{")) {
+                vars.put(names[i].substring(1, names[i].length() - 1), segment);
+            } else if (!names[i].equals(segment)) {
+                return null;
+            }
+        }
+        return vars;
+    }
+
+    // ==================== HELPER ====================
+    private static void afterCommit(Mutation m, GitHubCacheFilter c, String branch) {
+        c.evict(m.repoPath() + "/commits");
+        c.evict(m.repoPath() + "/branches");
+        if (branch != null && !branch.isBlank()) {
+            c.evict(m.repoPath() + "/branches/" + branch);
+        } else {
+            c.evictTree(m.repoPath() + "/branches");
+        }
+        c.evict(m.repoPath());
+    }
+
+    /**
+     * Whether a write to {@code branch} changes what an unqualified contents
+     * read returns. Only known from a cached copy of the repository.
+     */
+    private static boolean isDefaultBranch(GitHubCacheFilter c, Mutation m, String branch) {
+        if (branch == null || branch.isBlank()) {
+            return true;
+        }
+        byte[] repo = c.cachedBody(m.repoPath());
+        if (repo == null) {
+            return false;
+        }
+        try {
+            return branch.equals(MAPPER.readTree(repo).path("default_branch").asText(null));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String state(Map<String, String> query) {
+        return query.getOrDefault("state", "open");
+    }
+
+    private static int perPage(Map<String, String> query) {
+        try {
+            return Integer.parseInt(query.getOrDefault("per_page", String.valueOf(DEFAULT_PER_PAGE)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PER_PAGE;
+        }
+    }
+
+    private static ListEdit.Result prepend(ArrayNode items, JsonNode item, int limit) {
+        if (indexOf(items, "id", item.path("id").asText()) >= 0) {
+            return ListEdit.Result.KEEP;
+        }
+        items.insert(0, item);
+        while (items.size() > limit) {
+            items.remove(items.size() - 1);
+        }
+        return ListEdit.Result.UPDATED;
+    }
+
+    private static ListEdit.Result insertByName(ArrayNode items, JsonNode item, int limit) {
+        String name = item.path("name").asText();
+        if (indexOf(items, "name", name) >= 0) {
+            return ListEdit.Result.KEEP;
+        }
+        int at = 0;
+        while (at < items.size() && items.get(at).path("name").asText().compareTo(name) < 0) {
+            at++;
+        }
+        if (at == items.size() && items.size() >= limit) {
+            // Sorts after a full page: it belongs to a later page.
+            return ListEdit.Result.KEEP;
+        }
+        items.insert(at, item);
+        while (items.size() > limit) {
+            items.remove(items.size() - 1);
+        }
+        return ListEdit.Result.UPDATED;
+    }
+
+    private static ListEdit.Result remove(ArrayNode items, String field, String value) {
+        int index = indexOf(items, field, value);
+        if (index < 0) {
+            return ListEdit.Result.KEEP;
+        }
+        items.remove(index);
+        return ListEdit.Result.UPDATED;
+    }
+
+    private static int indexOf(ArrayNode items, String field, String value) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i).path(field).asText().equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static byte[] bytes(JsonNode node) {
+        try {
+            return MAPPER.writeValueAsBytes(node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static JsonNode parse(byte[] body) {
+        try {
+            return MAPPER.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * An in-place edit of a cached list response.
+     */
+    @FunctionalInterface
+    interface ListEdit {
+
+        enum Result {
+            KEEP, UPDATED, DROP
+        }
+
+        Result edit(Map<String, String> query, ArrayNode items);
+    }
+
+    /**
+     * A successful mutation: its request, the template variables and the
+     * response body.
+     */
+    static final class Mutation {
+
+        private final ClientRequest request;
+        private final String prefix;
+        private final Map<String, String> vars;
+        private final Rule rule;
+        private byte[] body;
+        private JsonNode json;
+
+        Mutation(ClientRequest request, String prefix, Map<String, String> vars, Rule rule) {
+            this.request = request;
+            this.prefix = prefix;
+            this.vars = vars;
+            this.rule = rule;
+        }
+
+        void apply(byte[] responseBody, GitHubCacheFilter cache) {
+            this.body = responseBody;
+            rule.apply(this, cache);
+        }
+
+        String var(String name) {
+            return vars.get(name);
+        }
+
+        byte[] body() {
+            return body;
+        }
+
+        JsonNode json() {
+            if (json == null) {
+                json = parse(body);
+            }
+            return json;
+        }
+
+        GitHubCacheFilter.FileWrite fileWrite() {
+            return (GitHubCacheFilter.FileWrite) request.attribute(GitHubCacheFilter.FILE_WRITE_ATTRIBUTE)
+                    .orElse(null);
+        }
+
+        /**
+         * Path below the base URL, e.g. {@code /api/v3/user/repos}.
+         */
+        String path(String relative) {
+            return prefix + relative;
+        }
+
+        String repoPath() {
+            return path("/repos/" + var("username") + "/" + var("repo"));
+        }
+
+        /**
+         * Absolute URL of {@code path} on the GitHub host of this request.
+         */
+        String url(String path) {
+            return request.url().getScheme() + "://" + request.url().getRawAuthority() + path;
+        }
+
+        /**
+         * Cache key under which a GET of {@code path} would be stored.
+         */
+        String key(String path) {
+            return GitHubCacheFilter.key(url(path), request.headers().getFirst(HttpHeaders.ACCEPT));
+        }
+
+        /**
+         * What to drop if the rule itself fails: the repository's subtree,
+         * or everything for mutations outside a repository.
+         */
+        String scope() {
+            return vars.containsKey("username") && vars.containsKey("repo") ? repoPath() : null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.mcp_github.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * A cached 200 response to a GitHub GET. The body is shared between the
+ * responses built from it and never modified.
+ */
+final class CachedResponse {
+
+    private static final ExchangeStrategies STRATEGIES = ExchangeStrategies.withDefaults();
+
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final AtomicBoolean revalidating = new AtomicBoolean();
+    private volatile long fetchedAt;
+    private volatile boolean invalidated;
+
+    CachedResponse(Map<String, List<String>> headers, byte[] body, String etag, long fetchedAt) {
+        this.headers = headers;
+        this.body = body;
+        this.etag = etag;
+        this.fetchedAt = fetchedAt;
+    }
+
+    String etag() {
+        return etag;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    /**
+     * The same entry with a locally edited body. It keeps its age and
+     * whether it was invalidated, but loses the ETag, since the body no
+     * longer matches what GitHub sent.
+     */
+    CachedResponse withBody(byte[] editedBody) {
+        CachedResponse edited = new CachedResponse(headers, editedBody, null, fetchedAt);
+        edited.invalidated = invalidated;
+        return edited;
+    }
+
+    long ageMillis(long now) {
+        return now - fetchedAt;
+    }
+
+    /**
+     * Marks the entry as confirmed current, e.g. after a 304.
+     */
+    void refreshed(long now) {
+        fetchedAt = now;
+        invalidated = false;
+    }
+
+    /**
+     * Marks the entry as known to be out of date: it must be revalidated
+     * before it is served again, but stays usable as a stale-if-error
+     * fallback and keeps its ETag, so an unchanged resource costs a 304.
+     */
+    void invalidate() {
+        invalidated = true;
+    }
+
+    boolean isInvalidated() {
+        return invalidated;
+    }
+
+    /**
+     * Claims the background revalidation of this entry; {@code false} if one
+     * is already running.
+     */
+    boolean startRevalidation() {
+        return revalidating.compareAndSet(false, true);
+    }
+
+    void endRevalidation() {
+        revalidating.set(false);
+    }
+
+    long sizeBytes() {
+        return body.length + 64L * headers.size() + 96;
+    }
+
+    ClientResponse toResponse() {
+        return ClientResponse.create(HttpStatusCode.valueOf(200), STRATEGIES)
+                .headers(h -> headers.forEach(h::addAll))
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body))))
+                .build();
+    }
+}
@@ -0,0 +1,745 @@
+package com.example.mcp_github.cache;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Response cache for GitHub GET requests with stale-while-revalidate and
+ * stale-if-error.
+ *
+ * <p>
+ * An entry younger than its endpoint's freshness window is served as is.
+ * Within the following {@code stale-while-revalidate} window it is still
+ * served immediately while a conditional request refreshes it in the
+ * background. Older entries are fetched again, but if GitHub fails (5xx,
+ * exhausted rate limit, connection error) or the rate limit is known to be
+ * exhausted, anything younger than {@code stale-if-error} is served instead.
+ * Stale and fallback responses are noted for the running tool call, see
+ * {@link CacheAwareToolCallback}.
+ *
+ * <p>
+ * Successful writes keep the cache coherent rather than waiting for entries
+ * to expire: see {@link CacheDependencies} for what each one touches.
+ *
+ * <p>
+ * Installed outermost, so cache hits are not counted as GitHub requests.
+ */
+@Component
+public class GitHubCacheFilter implements ExchangeFilterFunction {
+
+    public static final String REQUESTS = "github.cache.requests";
+
+    /**
+     * Request attribute carrying a {@link FileWrite} on contents API writes,
+     * whose request body the filter cannot see.
+     */
+    public static final String FILE_WRITE_ATTRIBUTE = GitHubCacheFilter.class.getName() + ".fileWrite";
+
+    /**
+     * Request attribute marking a GET whose caller keeps its own copy of the
+     * result (e.g. a sync into a local store); such requests pass straight
+     * through.
+     */
+    public static final String NO_STORE_ATTRIBUTE = GitHubCacheFilter.class.getName() + ".noStore";
+
+    private static final Set<String> DROPPED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "keep-alive", "set-cookie");
+    private static final ThreadLocal<CacheNote> CURRENT_CALL = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxBodyBytes;
+    private final long freshMillis;
+    private final Map<String, Long> endpointFreshMillis = new HashMap<>();
+    private final long staleWhileRevalidateMillis;
+    private final long staleIfErrorMillis;
+
+    private final NegativeCache notFound;
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+    private volatile long rateLimitedUntil;
+    /**
+     * Bumped by every invalidation. A response to a request sent before an
+     * invalidation may predate the change behind it, so it must not clear
+     * or skip the invalidated flag.
+     */
+    private volatile long invalidationGeneration;
+
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter fallbacks;
+    private final Counter misses;
+    private final Counter notFoundHits;
+    private final Counter revalidations;
+    private final Counter mutations;
+    private final Counter invalidations;
+
+    /**
+     * A file written or deleted through the contents API: the new content
+     * (base64, {@code null} for deletes) and the target branch.
+     */
+    public record FileWrite(String base64Content, String branch) {
+
+    }
+
+    public GitHubCacheFilter(
+            MeterRegistry registry,
+            @Value("${github.cache.enabled:true}") boolean enabled,
+            @Value("${github.cache.max-entries:2000}") int maxEntries,
+            @Value("${github.cache.max-bytes:33554432}") long maxBytes,
+            @Value("${github.cache.fresh-seconds:60}") long freshSeconds,
+            @Value("${github.cache.endpoint-fresh-seconds:}") String endpointFreshSeconds,
+            @Value("${github.cache.stale-while-revalidate-seconds:3600}") long staleWhileRevalidateSeconds,
+            @Value("${github.cache.stale-if-error-seconds:604800}") long staleIfErrorSeconds,
+            @Value("${github.cache.not-found-seconds:60}") long notFoundSeconds,
+            @Value("${github.cache.not-found-max-entries:10000}") int notFoundMaxEntries) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxBodyBytes = (int) Math.min(maxBytes, Integer.MAX_VALUE - 8);
+        this.freshMillis = TimeUnit.SECONDS.toMillis(freshSeconds);
+        this.staleWhileRevalidateMillis = TimeUnit.SECONDS.toMillis(staleWhileRevalidateSeconds);
+        this.staleIfErrorMillis = TimeUnit.SECONDS.toMillis(staleIfErrorSeconds);
+        this.notFound = new NegativeCache(notFoundMaxEntries, TimeUnit.SECONDS.toMillis(notFoundSeconds));
+        for (String entry : endpointFreshSeconds.split(",")) {
+            int eq = entry.lastIndexOf('=');
+            if (eq > 0) {
+                endpointFreshMillis.put(entry.substring(0, eq).trim(),
+                        TimeUnit.SECONDS.toMillis(Long.parseLong(entry.substring(eq + 1).trim())));
+            }
+        }
+
+        this.hits = counter(registry, "hit");
+        this.staleHits = counter(registry, "stale");
+        this.fallbacks = counter(registry, "fallback");
+        this.misses = counter(registry, "miss");
+        this.notFoundHits = counter(registry, "not_found");
+        this.revalidations = Counter.builder("github.cache.revalidations")
+                .description("Background revalidations of stale cache entries")
+                .register(registry);
+        this.mutations = Counter.builder("github.cache.mutations")
+                .description("GitHub writes applied to the cache")
+                .register(registry);
+        this.invalidations = Counter.builder("github.cache.invalidations")
+                .description("Cache entries invalidated by change notifications")
+                .register(registry);
+        Gauge.builder("github.cache.entries", this, GitHubCacheFilter::size)
+                .description("Cached GitHub responses")
+                .register(registry);
+        Gauge.builder("github.cache.size", this, GitHubCacheFilter::sizeBytes)
+                .description("Approximate size of cached GitHub responses")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder(REQUESTS)
+                .description("GitHub GET requests by cache outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts collecting stale/fallback notes for a tool call on this thread.
+     */
+    public void startCall() {
+        CURRENT_CALL.set(new CacheNote());
+    }
+
+    /**
+     * Ends the call started by {@link #startCall()} on this thread.
+     *
+     * @return a note to append to the tool result, or {@code null} if
+     * everything was served fresh
+     */
+    public String finishCall() {
+        CacheNote note = CURRENT_CALL.get();
+        CURRENT_CALL.remove();
+        return note != null ? note.text() : null;
+    }
+
+    /**
+     * Wraps {@code task} so that, on whichever thread runs it, stale data is
+     * noted on the call running on this thread.
+     */
+    public <T> Callable<T> inCurrentCall(Callable<T> task) {
+        CacheNote note = CURRENT_CALL.get();
+        if (note == null) {
+            return task;
+        }
+        return () -> {
+            CacheNote outer = CURRENT_CALL.get();
+            CURRENT_CALL.set(note);
+            try {
+                return task.call();
+            } finally {
+                if (outer != null) {
+                    CURRENT_CALL.set(outer);
+                } else {
+                    CURRENT_CALL.remove();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!enabled) {
+            return next.exchange(request);
+        }
+        if (request.method() != HttpMethod.GET) {
+            return mutate(request, next);
+        }
+        if (request.attribute(NO_STORE_ATTRIBUTE).isPresent() || !request.headers().getIfNoneMatch().isEmpty()) {
+            // The caller keeps its own copy or ETag (events poller, issue store) and wants to see the 304.
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            CacheNote note = CURRENT_CALL.get();
+            String key = key(request);
+            long now = System.currentTimeMillis();
+            ClientResponse missing = notFound.lookup(key, now);
+            if (missing != null) {
+                notFoundHits.increment();
+                return Mono.just(missing);
+            }
+            CachedResponse cached = get(key);
+            if (cached != null) {
+                long age = cached.ageMillis(now);
+                long fresh = freshMillis(request);
+                if (age <= fresh && !cached.isInvalidated()) {
+                    hits.increment();
+                    return Mono.just(cached.toResponse());
+                }
+                if (now < rateLimitedUntil && age <= staleIfErrorMillis) {
+                    fallbacks.increment();
+                    served(note, age, "GitHub rate limit exhausted");
+                    return Mono.just(cached.toResponse());
+                }
+                if (age <= fresh + staleWhileRevalidateMillis && !cached.isInvalidated()) {
+                    staleHits.increment();
+                    served(note, age, null);
+                    revalidate(key, request, next, cached);
+                    return Mono.just(cached.toResponse());
+                }
+            }
+            misses.increment();
+            return fetch(key, request, next, cached, note, invalidationGeneration);
+        });
+    }
+
+    // ==================== UPSTREAM ====================
+    /**
+     * @param generation {@link #invalidationGeneration} before the request
+     * was sent
+     */
+    private Mono<ClientResponse> fetch(String key, ClientRequest request, ExchangeFunction next,
+            CachedResponse cached, CacheNote note, long generation) {
+        return next.exchange(conditional(request, cached))
+                .flatMap(response -> {
+                    trackRateLimit(response);
+                    int status = response.statusCode().value();
+                    if (status == 304 && cached != null) {
+                        refreshed(cached, generation);
+                        return response.releaseBody().thenReturn(cached.toResponse());
+                    }
+                    if (status == 200) {
+                        if (!fits(response)) {
+                            remove(key);
+                            return Mono.just(response);
+                        }
+                        return store(key, response, generation).map(CachedResponse::toResponse);
+                    }
+                    if (status == 404 && notFound.isEnabled()) {
+                        return storeNotFound(key, response);
+                    }
+                    if (cached != null && isUpstreamFailure(response) && usableOnError(cached)) {
+                        fallbacks.increment();
+                        served(note, cached.ageMillis(System.currentTimeMillis()), "GitHub returned HTTP " + status);
+                        return response.releaseBody().thenReturn(cached.toResponse());
+                    }
+                    return Mono.just(response);
+                })
+                .onErrorResume(e -> cached != null && usableOnError(cached), e -> {
+                    fallbacks.increment();
+                    served(note, cached.ageMillis(System.currentTimeMillis()),
+                            "GitHub unreachable (" + e.getClass().getSimpleName() + ")");
+                    return Mono.just(cached.toResponse());
+                });
+    }
+
+    /**
+     * Refreshes a stale entry without holding up the caller. Runs off the
+     * calling thread so the request is not attributed to the current tool
+     * call's trace.
+     */
+    private void revalidate(String key, ClientRequest request, ExchangeFunction next, CachedResponse cached) {
+        if (!cached.startRevalidation()) {
+            return;
+        }
+        revalidations.increment();
+        long generation = invalidationGeneration;
+        Mono.defer(() -> next.exchange(conditional(request, cached)))
+                .flatMap(response -> {
+                    trackRateLimit(response);
+                    int status = response.statusCode().value();
+                    if (status == 304) {
+                        refreshed(cached, generation);
+                        return response.releaseBody();
+                    }
+                    if (status == 200) {
+                        if (!fits(response)) {
+                            remove(key);
+                            return response.releaseBody();
+                        }
+                        return store(key, response, generation).then();
+                    }
+                    if (status == 404 && notFound.isEnabled()) {
+                        return storeNotFound(key, response).then();
+                    }
+                    return response.releaseBody();
+                })
+                .doFinally(signal -> cached.endRevalidation())
+                .subscribeOn(Schedulers.parallel())
+                .subscribe(ignored -> {
+                }, error -> {
+                });
+    }
+
+    private Mono<CachedResponse> store(String key, ClientResponse response, long generation) {
+        Map<String, List<String>> headers = headers(response);
+        String etag = response.headers().asHttpHeaders().getETag();
+        return body(response)
+                .map(body -> {
+                    CachedResponse entry = new CachedResponse(headers, body, etag, System.currentTimeMillis());
+                    notFound.remove(key);
+                    put(key, entry, generation);
+                    return entry;
+                });
+    }
+
+    /**
+     * Confirms {@code cached} after a 304, unless an invalidation came in
+     * while the request was out: the 304 may predate the change.
+     */
+    private synchronized void refreshed(CachedResponse cached, long generation) {
+        if (generation == invalidationGeneration) {
+            cached.refreshed(System.currentTimeMillis());
+        }
+    }
+
+    /**
+     * Remembers a 404 for a while, in place of anything cached for the key.
+     */
+    private Mono<ClientResponse> storeNotFound(String key, ClientResponse response) {
+        Map<String, List<String>> headers = headers(response);
+        return body(response)
+                .map(body -> {
+                    remove(key);
+                    return notFound.put(key, headers, body, System.currentTimeMillis());
+                });
+    }
+
+    /**
+     * Reads a response body whole. Goes around the client's codecs, whose
+     * in-memory limit (256KB by default) is far below what a page of
+     * commits or a file can take; {@link #fits} keeps it within what the
+     * cache can hold.
+     */
+    private Mono<byte[]> body(ClientResponse response) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class), maxBodyBytes)
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0]);
+    }
+
+    /**
+     * Whether the body may be cached: one announced as larger than the cache
+     * can hold is passed through as it streams in.
+     */
+    private boolean fits(ClientResponse response) {
+        return response.headers().contentLength().orElse(0) <= maxBodyBytes;
+    }
+
+    private static Map<String, List<String>> headers(ClientResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().asHttpHeaders().forEach((name, values) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        return headers;
+    }
+
+    private static ClientRequest conditional(ClientRequest request, CachedResponse cached) {
+        if (cached == null || cached.etag() == null) {
+            return request;
+        }
+        return ClientRequest.from(request)
+                .headers(h -> h.setIfNoneMatch(cached.etag()))
+                .build();
+    }
+
+    private void trackRateLimit(ClientResponse response) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String remaining = headers.getFirst("X-RateLimit-Remaining");
+        String reset = headers.getFirst("X-RateLimit-Reset");
+        if ("0".equals(remaining) && reset != null) {
+            try {
+                rateLimitedUntil = TimeUnit.SECONDS.toMillis(Long.parseLong(reset));
+            } catch (NumberFormatException e) {
+                // Ignore a malformed header; the next response will tell.
+            }
+        }
+    }
+
+    private static boolean isUpstreamFailure(ClientResponse response) {
+        int status = response.statusCode().value();
+        return status >= 500 || status == 429
+                || (status == 403 && "0".equals(response.headers().asHttpHeaders().getFirst("X-RateLimit-Remaining")));
+    }
+
+    private boolean usableOnError(CachedResponse cached) {
+        return cached.ageMillis(System.currentTimeMillis()) <= staleIfErrorMillis;
+    }
+
+    // ==================== INVALIDATION ====================
+    /**
+     * Forces revalidation of cached reads of {@code path} (below the host,
+     * e.g. {@code /repos/octo/hello/branches}) with any query string. Owner
+     * and repository names are case-insensitive on GitHub, so is the match.
+     *
+     * @return the number of entries invalidated
+     */
+    public synchronized int invalidate(String path) {
+        return invalidateIf(keyPath -> keyPath.equalsIgnoreCase(path));
+    }
+
+    /**
+     * Like {@link #invalidate(String)}, for {@code path} and everything
+     * below it.
+     */
+    public synchronized int invalidateTree(String path) {
+        String below = path.toLowerCase(Locale.ROOT) + "/";
+        return invalidateIf(keyPath -> keyPath.equalsIgnoreCase(path)
+                || keyPath.toLowerCase(Locale.ROOT).startsWith(below));
+    }
+
+    private int invalidateIf(Predicate<String> pathMatches) {
+        invalidationGeneration++;
+        // A path that changed may exist now.
+        notFound.removeIf(pathMatches);
+        int count = 0;
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            String key = entry.getKey();
+            if (!entry.getValue().isInvalidated()
+                    && pathMatches.test(URI.create(key.substring(0, key.indexOf(' '))).getRawPath())) {
+                entry.getValue().invalidate();
+                count++;
+            }
+        }
+        invalidations.increment(count);
+        return count;
+    }
+
+    // ==================== MUTATIONS ====================
+    /**
+     * Lets a successful write update the cache through
+     * {@link CacheDependencies} before the caller sees the response.
+     */
+    private Mono<ClientResponse> mutate(ClientRequest request, ExchangeFunction next) {
+        CacheDependencies.Mutation mutation = CacheDependencies.match(request);
+        if (mutation == null) {
+            return next.exchange(request);
+        }
+        return next.exchange(request).flatMap(response -> {
+            if (!response.statusCode().is2xxSuccessful()) {
+                return Mono.just(response);
+            }
+            if (!fits(response)) {
+                // Too large to read here: drop whatever the write may have touched.
+                mutations.increment();
+                evictScope(mutation);
+                return Mono.just(response);
+            }
+            return body(response)
+                    .map(body -> {
+                        mutations.increment();
+                        try {
+                            mutation.apply(body, this);
+                        } catch (RuntimeException e) {
+                            // Unexpected response shape: drop whatever the write may have touched.
+                            evictScope(mutation);
+                        }
+                        return response.mutate().body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(body)))
+                                .build();
+                    });
+        });
+    }
+
+    private void evictScope(CacheDependencies.Mutation mutation) {
+        String scope = mutation.scope();
+        if (scope != null) {
+            evictTree(scope);
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Stores a response body produced by a write as if it had been fetched,
+     * in place of reads of the same path spelled in another case.
+     */
+    synchronized void writeThrough(String key, byte[] body) {
+        String path = URI.create(key.substring(0, key.indexOf(' '))).getRawPath();
+        removeIf(keyPath -> keyPath.equalsIgnoreCase(path));
+        Map<String, List<String>> headers = Map.of(HttpHeaders.CONTENT_TYPE, List.of("application/json; charset=utf-8"));
+        put(key, new CachedResponse(headers, body, null, System.currentTimeMillis()));
+    }
+
+    /**
+     * Drops cached reads of {@code path} with any query string, matched
+     * case-insensitively like {@link #invalidate(String)}.
+     */
+    synchronized void evict(String path) {
+        removeIf(keyPath -> keyPath.equalsIgnoreCase(path));
+    }
+
+    /**
+     * Drops cached reads of {@code path} and everything below it.
+     */
+    synchronized void evictTree(String path) {
+        String below = path.toLowerCase(Locale.ROOT) + "/";
+        removeIf(keyPath -> keyPath.equalsIgnoreCase(path) || keyPath.toLowerCase(Locale.ROOT).startsWith(below));
+    }
+
+    /**
+     * Applies {@code edit} to every cached JSON array read of {@code path};
+     * entries that cannot be parsed are dropped.
+     */
+    synchronized void editLists(String path, CacheDependencies.ListEdit edit) {
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        List<Map.Entry<String, CachedResponse>> updated = new ArrayList<>();
+        while (it.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            URI uri = URI.create(entry.getKey().substring(0, entry.getKey().indexOf(' ')));
+            if (!uri.getRawPath().equalsIgnoreCase(path)) {
+                continue;
+            }
+            CacheDependencies.ListEdit.Result result;
+            JsonNode items = null;
+            try {
+                items = CacheDependencies.parse(entry.getValue().body());
+                result = items instanceof ArrayNode array
+                        ? edit.edit(query(uri), array)
+                        : CacheDependencies.ListEdit.Result.DROP;
+            } catch (RuntimeException e) {
+                result = CacheDependencies.ListEdit.Result.DROP;
+            }
+            if (result == CacheDependencies.ListEdit.Result.DROP) {
+                bytes -= entry.getValue().sizeBytes();
+                it.remove();
+            } else if (result == CacheDependencies.ListEdit.Result.UPDATED) {
+                updated.add(Map.entry(entry.getKey(), entry.getValue().withBody(CacheDependencies.bytes(items))));
+            }
+        }
+        for (Map.Entry<String, CachedResponse> entry : updated) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Body of the cached read of {@code path} without a query, if any.
+     */
+    synchronized byte[] cachedBody(String path) {
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            String url = entry.getKey().substring(0, entry.getKey().indexOf(' '));
+            URI uri = URI.create(url);
+            if (uri.getRawPath().equalsIgnoreCase(path) && uri.getRawQuery() == null) {
+                return entry.getValue().body();
+            }
+        }
+        return null;
+    }
+
+    private void removeIf(Predicate<String> pathMatches) {
+        notFound.removeIf(pathMatches);
+        Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, CachedResponse> entry = it.next();
+            String key = entry.getKey();
+            if (pathMatches.test(URI.create(key.substring(0, key.indexOf(' '))).getRawPath())) {
+                bytes -= entry.getValue().sizeBytes();
+                it.remove();
+            }
+        }
+    }
+
+    private synchronized void clear() {
+        notFound.removeIf(path -> true);
+        entries.clear();
+        bytes = 0;
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        if (uri.getRawQuery() != null) {
+            for (String param : uri.getRawQuery().split("&")) {
+                int eq = param.indexOf('=');
+                if (eq > 0) {
+                    params.put(URLDecoder.decode(param.substring(0, eq), StandardCharsets.UTF_8),
+                            URLDecoder.decode(param.substring(eq + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    // ==================== ENTRIES ====================
+    private synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Stores a fetched response; it goes in already invalidated if an
+     * invalidation came in after {@code generation} was read.
+     */
+    private synchronized void put(String key, CachedResponse entry, long generation) {
+        if (generation != invalidationGeneration) {
+            entry.invalidate();
+        }
+        put(key, entry);
+    }
+
+    private synchronized void put(String key, CachedResponse entry) {
+        CachedResponse previous = entries.put(key, entry);
+        if (previous != null) {
+            bytes -= previous.sizeBytes();
+        }
+        bytes += entry.sizeBytes();
+        Iterator<CachedResponse> eldest = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+            bytes -= eldest.next().sizeBytes();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) {
+            bytes -= removed.sizeBytes();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long sizeBytes() {
+        return bytes;
+    }
+
+    // ==================== HELPER ====================
+    private long freshMillis(ClientRequest request) {
+        return endpointFreshMillis.getOrDefault(GitHubMetricsFilter.endpoint(request), freshMillis);
+    }
+
+    private static String key(ClientRequest request) {
+        return key(request.url().toString(), request.headers().getFirst(HttpHeaders.ACCEPT));
+    }
+
+    static String key(String url, String accept) {
+        return url + " " + accept;
+    }
+
+    private static void served(CacheNote note, long ageMillis, String reason) {
+        if (note != null) {
+            note.served(ageMillis, reason);
+        }
+    }
+
+    /**
+     * What one tool call was served from cache beyond the freshness window:
+     * the oldest entry's age, and why GitHub was not used if it failed.
+     */
+    private static final class CacheNote {
+
+        private long oldestAgeMillis = -1;
+        private String failure;
+
+        synchronized void served(long ageMillis, String reason) {
+            oldestAgeMillis = Math.max(oldestAgeMillis, ageMillis);
+            if (reason != null) {
+                failure = reason;
+            }
+        }
+
+        synchronized String text() {
+            if (oldestAgeMillis < 0) {
+                return null;
+            }
+            String age = formatAge(Duration.ofMillis(oldestAgeMillis));
+            return failure != null
+                    ? "⚠️ %s; showing last known data from %s ago.".formatted(failure, age)
+                    : "🕒 Cached data from %s ago; refreshing in the background.".formatted(age);
+        }
+
+        private static String formatAge(Duration age) {
+            if (age.toDays() > 0) {
+                return "%dd %dh".formatted(age.toDays(), age.toHoursPart());
+            }
+            if (age.toHours() > 0) {
+                return "%dh %dm".formatted(age.toHours(), age.toMinutesPart());
+            }
+            if (age.toMinutes() > 0) {
+                return "%dm %ds".formatted(age.toMinutes(), age.toSecondsPart());
+            }
+            return "%ds".formatted(age.toSeconds());
+        }
+    }
+}
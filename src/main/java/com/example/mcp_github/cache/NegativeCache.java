@@ -0,0 +1,185 @@
+package com.example.mcp_github.cache;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
+
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Short-lived memory of GitHub 404s, keyed like the response cache (so per
+ * {@code ref} query), for the paths agents and GitHubService probe for:
+ * files that may not exist, "is this starred", and the like.
+ *
+ * <p>
+ * Most GETs are not for a known-missing resource, so a Bloom filter in front
+ * of the map answers "definitely not" without taking the lock. The filter
+ * cannot forget, so it is rebuilt from the live entries once as many keys
+ * have been added since the last rebuild as the map can hold.
+ */
+final class NegativeCache {
+
+    private static final ExchangeStrategies STRATEGIES = ExchangeStrategies.withDefaults();
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private volatile BloomFilter bloom;
+    private int addedSinceRebuild;
+
+    private record Entry(Map<String, List<String>> headers, byte[] body, long expiresAt) {
+
+    }
+
+    NegativeCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.bloom = new BloomFilter(Math.max(maxEntries, 1));
+    }
+
+    boolean isEnabled() {
+        return maxEntries > 0 && ttlMillis > 0;
+    }
+
+    /**
+     * A copy of the 404 recorded for {@code key}, or {@code null} if there
+     * is none or it expired.
+     */
+    ClientResponse lookup(String key, long now) {
+        if (!bloom.mightContain(key)) {
+            return null;
+        }
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && now >= entry.expiresAt()) {
+                entries.remove(key);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            return null;
+        }
+        return toResponse(entry);
+    }
+
+    /**
+     * Records a 404 for {@code key}.
+     *
+     * @return the response to hand on in place of the consumed one
+     */
+    synchronized ClientResponse put(String key, Map<String, List<String>> headers, byte[] body, long now) {
+        Entry entry = new Entry(headers, body, now + ttlMillis);
+        entries.remove(key);
+        entries.put(key, entry);
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        if (++addedSinceRebuild > maxEntries) {
+            rebuild(now);
+        } else {
+            bloom.add(key);
+        }
+        return toResponse(entry);
+    }
+
+    synchronized void remove(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Forgets the 404s of every URL path {@code pathMatches} accepts.
+     */
+    synchronized void removeIf(Predicate<String> pathMatches) {
+        entries.keySet().removeIf(key -> pathMatches.test(URI.create(key.substring(0, key.indexOf(' '))).getRawPath()));
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private static ClientResponse toResponse(Entry entry) {
+        return ClientResponse.create(HttpStatusCode.valueOf(404), STRATEGIES)
+                .headers(h -> entry.headers().forEach(h::addAll))
+                .body(Flux.defer(() -> Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(entry.body()))))
+                .build();
+    }
+
+    private void rebuild(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt());
+        BloomFilter rebuilt = new BloomFilter(Math.max(maxEntries, 1));
+        entries.keySet().forEach(rebuilt::add);
+        bloom = rebuilt;
+        addedSinceRebuild = entries.size();
+    }
+
+    /**
+     * About 1% false positives at {@code capacity} keys: 10 bits and 7
+     * probes per key, derived from one 64-bit hash by double hashing.
+     */
+    private static final class BloomFilter {
+
+        private static final int PROBES = 7;
+
+        private final AtomicLongArray bits;
+        private final long size;
+
+        BloomFilter(int capacity) {
+            this.size = Math.max(64, 10L * capacity);
+            this.bits = new AtomicLongArray((int) ((size + 63) / 64));
+        }
+
+        void add(String key) {
+            long hash = hash(key);
+            long step = Long.rotateLeft(hash, 32) | 1;
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Math.floorMod(hash + i * step, size);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long hash = hash(key);
+            long step = Long.rotateLeft(hash, 32) | 1;
+            for (int i = 0; i < PROBES; i++) {
+                long bit = Math.floorMod(hash + i * step, size);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * FNV-1a over the key's chars, finished with a 64-bit mix so both
+         * halves are usable.
+         */
+        private static long hash(String key) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < key.length(); i++) {
+                h ^= key.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.mcp_github.calllog;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Structured log of tool calls and GitHub requests, one compact JSON object
+ * per line. stdout carries the MCP protocol, so this goes to its own
+ * size-rotated file instead of the console.
+ *
+ * <p>
+ * Callers only enqueue an event into a bounded lock-free ring buffer; a
+ * single background thread serializes and writes. When the buffer is full
+ * events are dropped rather than slowing down the call, and the number of
+ * dropped events is written as a {@code "dropped"} line once there is room.
+ * Disabled when {@code calllog.file} is blank.
+ */
+@Component
+public class CallLog {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final File file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int maxArgumentChars;
+    private final MpscRingBuffer<Event> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+    private final Thread writer;
+    private volatile boolean running = true;
+    private OutputStream out;
+    private long fileBytes;
+
+    private sealed interface Event permits ToolEvent, HttpEvent {
+
+        long timestamp();
+    }
+
+    /**
+     * {@code arguments} is either already truncated for the log, or, when
+     * {@code argumentSizesOnly}, the full input to take names and sizes from.
+     */
+    private record ToolEvent(long timestamp, String tool, String outcome, long durationNanos, String traceId,
+            int inputChars, int outputChars, String arguments, boolean argumentSizesOnly) implements Event {
+
+    }
+
+    private record HttpEvent(long timestamp, String method, String endpoint, int status, long durationNanos,
+            long bytes, String traceId, String error) implements Event {
+
+    }
+
+    public CallLog(
+            @Value("${calllog.file:}") String file,
+            @Value("${calllog.buffer-events:8192}") int bufferEvents,
+            @Value("${calllog.max-file-bytes:10485760}") long maxFileBytes,
+            @Value("${calllog.max-files:5}") int maxFiles,
+            @Value("${calllog.max-argument-chars:0}") int maxArgumentChars) {
+        this.file = file != null && !file.isBlank() ? new File(file) : null;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = Math.max(1, maxFiles);
+        this.maxArgumentChars = maxArgumentChars;
+        this.buffer = new MpscRingBuffer<>(bufferEvents);
+        if (this.file == null) {
+            this.writer = null;
+            return;
+        }
+        this.writer = new Thread(this::drainLoop, "call-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    /**
+     * Logs a finished tool call. Argument values are truncated to
+     * {@code calllog.max-argument-chars}; when that is 0 only argument names
+     * and sizes are logged, since values can be file contents or memory
+     * entries.
+     */
+    public void toolCall(String tool, String outcome, long durationNanos, String traceId, String arguments,
+            String result) {
+        if (writer == null) {
+            return;
+        }
+        String args = arguments;
+        if (maxArgumentChars > 0 && arguments != null && arguments.length() > maxArgumentChars) {
+            args = arguments.substring(0, maxArgumentChars) + "…";
+        }
+        enqueue(new ToolEvent(System.currentTimeMillis(), tool, outcome, durationNanos, traceId,
+                arguments != null ? arguments.length() : 0, result != null ? result.length() : 0, args,
+                maxArgumentChars <= 0));
+    }
+
+    /**
+     * Logs a finished GitHub request; {@code status} is 0 when no response
+     * was received.
+     */
+    public void httpRequest(String method, String endpoint, int status, long durationNanos, long bytes,
+            String traceId, String error) {
+        if (writer == null) {
+            return;
+        }
+        enqueue(new HttpEvent(System.currentTimeMillis(), method, endpoint, status, durationNanos, bytes, traceId,
+                error));
+    }
+
+    public long droppedEvents() {
+        return dropped.get();
+    }
+
+    private void enqueue(Event event) {
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // ==================== WRITER THREAD ====================
+    private void drainLoop() {
+        while (running) {
+            if (!drain()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        drain();
+        closeFile();
+    }
+
+    /**
+     * Writes everything currently buffered and flushes.
+     *
+     * @return whether anything was written
+     */
+    private boolean drain() {
+        boolean wrote = false;
+        try {
+            Event event;
+            while ((event = buffer.poll()) != null) {
+                write(event);
+                wrote = true;
+            }
+            long lost = dropped.getAndSet(0);
+            if (lost > 0) {
+                writeDropped(lost);
+                wrote = true;
+            }
+            if (wrote) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The file is unavailable; drop what was taken and retry with a
+            // fresh stream next time.
+            closeFile();
+        }
+        return wrote;
+    }
+
+    private void write(Event event) throws IOException {
+        line.reset();
+        try (JsonGenerator gen = jsonFactory.createGenerator(line, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("ts", event.timestamp());
+            if (event instanceof ToolEvent tool) {
+                gen.writeStringField("type", "tool");
+                gen.writeStringField("tool", tool.tool());
+                gen.writeStringField("outcome", tool.outcome());
+                gen.writeNumberField("ms", tool.durationNanos() / 1_000_000.0);
+                writeTraceId(gen, tool.traceId());
+                gen.writeNumberField("inChars", tool.inputChars());
+                gen.writeNumberField("outChars", tool.outputChars());
+                if (tool.arguments() != null && tool.argumentSizesOnly()) {
+                    writeArgumentSizes(gen, tool.arguments());
+                } else if (tool.arguments() != null) {
+                    gen.writeStringField("args", tool.arguments());
+                }
+            } else if (event instanceof HttpEvent http) {
+                gen.writeStringField("type", "http");
+                gen.writeStringField("method", http.method());
+                gen.writeStringField("endpoint", http.endpoint());
+                gen.writeNumberField("status", http.status());
+                gen.writeNumberField("ms", http.durationNanos() / 1_000_000.0);
+                gen.writeNumberField("bytes", http.bytes());
+                writeTraceId(gen, http.traceId());
+                if (http.error() != null) {
+                    gen.writeStringField("error", http.error());
+                }
+            }
+            gen.writeEndObject();
+        }
+        line.write('\n');
+        append();
+    }
+
+    private void writeDropped(long count) throws IOException {
+        line.reset();
+        try (JsonGenerator gen = jsonFactory.createGenerator(line, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeNumberField("ts", System.currentTimeMillis());
+            gen.writeStringField("type", "dropped");
+            gen.writeNumberField("count", count);
+            gen.writeEndObject();
+        }
+        line.write('\n');
+        append();
+    }
+
+    /**
+     * {@code "argChars": {name: chars, ...}} for the top-level fields of the
+     * JSON arguments: the length of a scalar's text, or of an object's or
+     * array's JSON. Nothing is written if the arguments are not a JSON
+     * object; they are parsed in full first, so malformed input leaves the
+     * event intact.
+     */
+    private void writeArgumentSizes(JsonGenerator gen, String arguments) throws IOException {
+        Map<String, Long> sizes = new LinkedHashMap<>();
+        try (JsonParser parser = jsonFactory.createParser(arguments)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                if (parser.nextToken().isStructStart()) {
+                    long start = parser.currentTokenLocation().getCharOffset();
+                    parser.skipChildren();
+                    sizes.put(name, parser.currentLocation().getCharOffset() - start);
+                } else {
+                    sizes.put(name, (long) parser.getTextLength());
+                }
+            }
+        } catch (JsonParseException e) {
+            // Malformed input is still logged by inChars.
+            return;
+        }
+        gen.writeObjectFieldStart("argChars");
+        for (Map.Entry<String, Long> size : sizes.entrySet()) {
+            gen.writeNumberField(size.getKey(), size.getValue());
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeTraceId(JsonGenerator gen, String traceId) throws IOException {
+        if (traceId != null) {
+            gen.writeStringField("traceId", traceId);
+        }
+    }
+
+    private void append() throws IOException {
+        if (out == null) {
+            openFile();
+        } else if (fileBytes + line.size() > maxFileBytes) {
+            rotate();
+        }
+        line.writeTo(out);
+        fileBytes += line.size();
+    }
+
+    private void openFile() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        out = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+        fileBytes = file.length();
+    }
+
+    /**
+     * Shifts {@code file.1 … file.(n-2)} up by one, moves the current file to
+     * {@code file.1} and starts a new one, keeping at most
+     * {@code calllog.max-files} files.
+     */
+    private void rotate() throws IOException {
+        closeFile();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File source = i == 1 ? file : new File(file.getPath() + "." + (i - 1));
+            if (source.exists()) {
+                Files.move(source.toPath(), new File(file.getPath() + "." + i).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles == 1) {
+            Files.deleteIfExists(file.toPath());
+        }
+        openFile();
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Nothing left to do.
+            }
+            out = null;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
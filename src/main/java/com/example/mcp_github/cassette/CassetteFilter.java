@@ -0,0 +1,315 @@
+package com.example.mcp_github.cassette;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records GitHub responses to a cassette file, or replays them instead of
+ * calling GitHub, for deterministic offline runs.
+ *
+ * <p>
+ * A cassette is gzipped JSON lines of {@link CassetteInteraction}s, written
+ * as a series of gzip members so recording can flush as it goes. Request
+ * headers (and with them the token) are never stored.
+ *
+ * <p>
+ * Replay matches on method, path and query ({@code exact}); {@code relaxed}
+ * falls back to method and path when the query differs. Interactions
+ * recorded for the same request are replayed in turn, cycling. With
+ * {@code timing=recorded} each reply is delayed by the recorded duration,
+ * with {@code none} it is immediate.
+ *
+ * <p>
+ * Log downloads are recorded too: the API's redirect, and the download
+ * from the signed URL it points to, whose query (signature included) then
+ * becomes part of the cassette.
+ */
+@Component
+public class CassetteFilter implements ExchangeFilterFunction {
+
+    private static final int FLUSH_EVERY = 64;
+    private static final Set<String> DROPPED_HEADERS = Set.of(
+            "content-length", "content-encoding", "transfer-encoding", "connection", "keep-alive", "set-cookie");
+
+    private enum Mode {
+        OFF, RECORD, REPLAY
+    }
+
+    private final Mode mode;
+    private final File file;
+    private final boolean relaxed;
+    private final boolean recordedTiming;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<CassetteInteraction> unflushed = new ArrayList<>();
+    private final Map<String, List<CassetteInteraction>> exact = new LinkedHashMap<>();
+    private final Map<String, List<CassetteInteraction>> byPath = new LinkedHashMap<>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<>();
+
+    public CassetteFilter(
+            @Value("${github.cassette.mode:off}") String mode,
+            @Value("${github.cassette.file:cassettes/github.jsonl.gz}") String file,
+            @Value("${github.cassette.matching:exact}") String matching,
+            @Value("${github.cassette.timing:recorded}") String timing) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.file = new File(file);
+        this.relaxed = "relaxed".equalsIgnoreCase(matching.trim());
+        this.recordedTiming = !"none".equalsIgnoreCase(timing.trim());
+
+        if (this.mode == Mode.RECORD) {
+            try {
+                Files.deleteIfExists(this.file.toPath());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot reset cassette " + file, e);
+            }
+        } else if (this.mode == Mode.REPLAY) {
+            load();
+        }
+    }
+
+    /**
+     * Whether the filter needs to be installed at all.
+     */
+    public boolean isEnabled() {
+        return mode != Mode.OFF;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return switch (mode) {
+            case OFF ->
+                next.exchange(request);
+            case RECORD ->
+                record(request, next);
+            case REPLAY ->
+                replay(request);
+        };
+    }
+
+    // ==================== RECORD ====================
+    private Mono<ClientResponse> record(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request).flatMap(response -> body(response)
+                    .map(body -> {
+                        long durationMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                        append(interaction(request, response, body, durationMillis));
+                        return response.mutate().body(Flux.just(wrap(body))).build();
+                    }));
+        });
+    }
+
+    /**
+     * Reads a body whole, joined from its buffers: the codecs would fail
+     * anything over their 256KB in-memory limit.
+     */
+    private static Mono<byte[]> body(ClientResponse response) {
+        return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+                .map(buffer -> {
+                    byte[] body = new byte[buffer.readableByteCount()];
+                    buffer.read(body);
+                    DataBufferUtils.release(buffer);
+                    return body;
+                })
+                .defaultIfEmpty(new byte[0]);
+    }
+
+    private CassetteInteraction interaction(ClientRequest request, ClientResponse response, byte[] body,
+            long durationMillis) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        response.headers().asHttpHeaders().forEach((name, values) -> {
+            if (!DROPPED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        String text = utf8(body);
+        return new CassetteInteraction(request.method().name(), pathAndQuery(request.url()),
+                response.statusCode().value(), headers, durationMillis, text,
+                text == null ? Base64.getEncoder().encodeToString(body) : null);
+    }
+
+    private void append(CassetteInteraction interaction) {
+        synchronized (unflushed) {
+            unflushed.add(interaction);
+            if (unflushed.size() >= FLUSH_EVERY) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Appends buffered interactions to the cassette as one gzip member. On
+     * failure they stay buffered for the next flush.
+     *
+     * @throws UncheckedIOException if the cassette cannot be written
+     */
+    private void flush() {
+        synchronized (unflushed) {
+            if (unflushed.isEmpty()) {
+                return;
+            }
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (OutputStream out = new GZIPOutputStream(new FileOutputStream(file, true))) {
+                for (CassetteInteraction interaction : unflushed) {
+                    out.write(objectMapper.writeValueAsBytes(interaction));
+                    out.write('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write cassette " + file, e);
+            }
+            unflushed.clear();
+        }
+    }
+
+    // ==================== REPLAY ====================
+    private void load() {
+        if (!file.isFile()) {
+            throw new IllegalStateException("Cassette not found: " + file.getAbsolutePath());
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file.toPath())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                CassetteInteraction interaction = objectMapper.readValue(line, CassetteInteraction.class);
+                exact.computeIfAbsent(exactKey(interaction.method(), interaction.uri()), k -> new ArrayList<>())
+                        .add(interaction);
+                byPath.computeIfAbsent(pathKey(interaction.method(), interaction.uri()), k -> new ArrayList<>())
+                        .add(interaction);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read cassette " + file, e);
+        }
+    }
+
+    private Mono<ClientResponse> replay(ClientRequest request) {
+        return Mono.defer(() -> {
+            String method = request.method().name();
+            String uri = pathAndQuery(request.url());
+            String key = exactKey(method, uri);
+            List<CassetteInteraction> candidates = exact.get(key);
+            if (candidates == null && relaxed) {
+                key = pathKey(method, uri);
+                candidates = byPath.get(key);
+            }
+            if (candidates == null) {
+                return Mono.just(response(HttpStatus.NOT_IMPLEMENTED, Map.of("Content-Type",
+                        List.of("application/json")), ("{\"message\":\"No cassette interaction for %s %s\"}"
+                        .formatted(method, uri)).getBytes(StandardCharsets.UTF_8)));
+            }
+            int index = Math.floorMod(cursors.computeIfAbsent(key, k -> new AtomicInteger()).getAndIncrement(),
+                    candidates.size());
+            CassetteInteraction interaction = candidates.get(index);
+            byte[] body = interaction.body() != null
+                    ? interaction.body().getBytes(StandardCharsets.UTF_8)
+                    : Base64.getDecoder().decode(interaction.bodyBase64());
+            ClientResponse response = response(HttpStatusCode.valueOf(interaction.status()), interaction.headers(),
+                    body);
+            return recordedTiming && interaction.durationMillis() > 0
+                    ? Mono.delay(Duration.ofMillis(interaction.durationMillis())).thenReturn(response)
+                    : Mono.just(response);
+        });
+    }
+
+    private static ClientResponse response(HttpStatusCode status, Map<String, List<String>> headers, byte[] body) {
+        return ClientResponse.create(status, ExchangeStrategies.withDefaults())
+                .headers(h -> headers.forEach(h::addAll))
+                .body(Flux.just(wrap(body)))
+                .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (mode == Mode.RECORD) {
+            flush();
+        }
+    }
+
+    // ==================== HELPER ====================
+    private static String pathAndQuery(URI url) {
+        return url.getRawQuery() != null ? url.getRawPath() + "?" + url.getRawQuery() : url.getRawPath();
+    }
+
+    /**
+     * Method plus path and query with the parameters sorted, so parameter
+     * order does not matter.
+     */
+    private static String exactKey(String method, String uri) {
+        int q = uri.indexOf('?');
+        if (q < 0) {
+            return method + " " + uri;
+        }
+        String[] params = uri.substring(q + 1).split("&");
+        Arrays.sort(params);
+        return method + " " + uri.substring(0, q) + "?" + String.join("&", params);
+    }
+
+    private static String pathKey(String method, String uri) {
+        int q = uri.indexOf('?');
+        return method + " " + (q < 0 ? uri : uri.substring(0, q));
+    }
+
+    private static DataBuffer wrap(byte[] bytes) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(bytes);
+    }
+
+    private static String utf8(byte[] body) {
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(body))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.mcp_github.cassette;
+
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One recorded GitHub exchange. Text bodies are kept as {@code body};
+ * anything else goes into {@code bodyBase64}. {@code durationMillis} runs
+ * from sending the request to the last body byte.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CassetteInteraction(
+        String method,
+        String uri,
+        int status,
+        Map<String, List<String>> headers,
+        long durationMillis,
+        String body,
+        String bodyBase64) {
+
+}
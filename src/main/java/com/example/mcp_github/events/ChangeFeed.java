@@ -0,0 +1,335 @@
+package com.example.mcp_github.events;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.model.GitHubEvent;
+import com.example.mcp_github.model.GitHubEventsPage;
+import com.example.mcp_github.service.GitHubService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cheap change feed for watched repositories, built by polling the Events
+ * API. Every feed is polled with its last ETag, so a quiet repository costs
+ * a 304 that does not count against the rate limit, and no more often than
+ * GitHub's {@code X-Poll-Interval} asks. All feeds share one scheduler
+ * thread.
+ *
+ * <p>
+ * New events invalidate the response cache and are appended to a bounded
+ * in-memory log, numbered by a cursor, so callers can ask what changed
+ * since the cursor they last saw instead of re-listing everything. The
+ * first poll of a feed only sets its baseline.
+ */
+@Component
+public class ChangeFeed {
+
+    private static final String RECEIVED = "received";
+
+    /**
+     * Page size GitHubService requests events with.
+     */
+    private static final int EVENTS_PER_PAGE = 100;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private final GitHubService gitHubService;
+    private final EventInvalidations invalidations;
+    private final boolean cacheEnabled;
+    private final long minIntervalMillis;
+    private final int bufferChanges;
+
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final ArrayDeque<RepositoryChange> changes = new ArrayDeque<>();
+    private final Map<String, Boolean> seenEventIds;
+    private long nextCursor = 1;
+    private ScheduledExecutorService scheduler;
+
+    private final Counter modifiedPolls;
+    private final Counter unmodifiedPolls;
+    private final Counter failedPolls;
+
+    public ChangeFeed(
+            GitHubService gitHubService,
+            GitHubCacheFilter cacheFilter,
+            MeterRegistry registry,
+            @Value("${github.api.base-url:https://api.github.com}") String baseUrl,
+            @Value("${github.events.repos:}") String repos,
+            @Value("${github.events.received:false}") boolean received,
+            @Value("${github.events.min-interval-seconds:60}") long minIntervalSeconds,
+            @Value("${github.events.buffer-changes:2000}") int bufferChanges) {
+        this.gitHubService = gitHubService;
+        String prefix = URI.create(baseUrl.trim()).getRawPath();
+        this.invalidations = new EventInvalidations(
+                prefix == null || prefix.equals("/") ? "" : prefix.replaceAll("/+$", ""), cacheFilter);
+        this.cacheEnabled = cacheFilter.isEnabled();
+        this.minIntervalMillis = TimeUnit.SECONDS.toMillis(minIntervalSeconds);
+        this.bufferChanges = bufferChanges;
+        // Feeds overlap (a repository's events also show up as received events).
+        this.seenEventIds = new LinkedHashMap<>(256, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > 2 * ChangeFeed.this.bufferChanges;
+            }
+        };
+
+        this.modifiedPolls = polls(registry, "modified");
+        this.unmodifiedPolls = polls(registry, "not_modified");
+        this.failedPolls = polls(registry, "error");
+
+        for (String repo : repos.split(",")) {
+            int slash = repo.indexOf('/');
+            if (slash > 0) {
+                watch(repo.substring(0, slash).trim(), repo.substring(slash + 1).trim());
+            }
+        }
+        if (received) {
+            watchReceived();
+        }
+    }
+
+    private static Counter polls(MeterRegistry registry, String result) {
+        return Counter.builder("github.events.polls")
+                .description("Events API polls by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Starts polling a repository's events.
+     *
+     * @return {@code false} if it was already watched
+     */
+    public boolean watch(String owner, String repo) {
+        return watch(owner + "/" + repo, etag -> gitHubService.getRepositoryEvents(owner, repo, etag))
+                && startPolling();
+    }
+
+    /**
+     * Starts polling the authenticated user's received events: activity in
+     * everything they watch or follow.
+     *
+     * @return {@code false} if it was already watched
+     */
+    public boolean watchReceived() {
+        return watch(RECEIVED, new Function<>() {
+            private String login;
+
+            @Override
+            public GitHubEventsPage apply(String etag) {
+                if (login == null) {
+                    login = gitHubService.getAuthenticatedUserProfile().login();
+                }
+                return gitHubService.getReceivedEvents(login, etag);
+            }
+        }) && startPolling();
+    }
+
+    public List<WatchedFeed> feeds() {
+        return feeds.values().stream()
+                .map(Feed::status)
+                .sorted((a, b) -> a.name().compareToIgnoreCase(b.name()))
+                .toList();
+    }
+
+    /**
+     * Cursor of the latest change, {@code 0} if there is none yet.
+     */
+    public synchronized long latestCursor() {
+        return nextCursor - 1;
+    }
+
+    /**
+     * Cursor of the oldest change still buffered; anything before it has
+     * been dropped.
+     */
+    public synchronized long oldestCursor() {
+        return changes.isEmpty() ? nextCursor : changes.peekFirst().cursor();
+    }
+
+    /**
+     * Changes after {@code cursor}, oldest first, optionally only for one
+     * {@code owner/repo}.
+     */
+    public synchronized List<RepositoryChange> changesSince(long cursor, String repository, int limit) {
+        List<RepositoryChange> result = new ArrayList<>();
+        for (RepositoryChange change : changes) {
+            if (result.size() >= limit) {
+                break;
+            }
+            if (change.cursor() > cursor
+                    && (repository == null || repository.equalsIgnoreCase(change.repository()))) {
+                result.add(change);
+            }
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // ==================== POLLING ====================
+    /**
+     * Adds a feed read by {@code fetch}, given the last ETag, without
+     * polling it yet.
+     *
+     * @return {@code false} if one of that name was already watched
+     */
+    boolean watch(String name, Function<String, GitHubEventsPage> fetch) {
+        return feeds.putIfAbsent(name.toLowerCase(Locale.ROOT), new Feed(name, fetch)) == null;
+    }
+
+    private synchronized boolean startPolling() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "events-poller");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(() -> pollDue(System.currentTimeMillis()), 0, 1, TimeUnit.SECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * Polls every feed whose interval has passed at {@code now}.
+     */
+    void pollDue(long now) {
+        for (Feed feed : feeds.values()) {
+            if (now >= feed.nextPollAt) {
+                poll(feed, now);
+            }
+        }
+    }
+
+    private void poll(Feed feed, long now) {
+        feed.lastPolledAt = now;
+        try {
+            GitHubEventsPage page = feed.fetch.apply(feed.etag);
+            feed.intervalMillis = Math.max(minIntervalMillis, TimeUnit.SECONDS.toMillis(page.pollIntervalSeconds()));
+            feed.nextPollAt = now + feed.intervalMillis;
+            feed.failures = 0;
+            feed.lastError = null;
+            if (!page.modified()) {
+                unmodifiedPolls.increment();
+                return;
+            }
+            modifiedPolls.increment();
+            feed.etag = page.etag();
+            accept(feed, page.events());
+        } catch (Exception e) {
+            failedPolls.increment();
+            feed.failures++;
+            feed.lastError = e.getMessage();
+            feed.nextPollAt = now + Math.min(MAX_BACKOFF_MILLIS, feed.intervalMillis << Math.min(feed.failures, 10));
+        }
+    }
+
+    /**
+     * Records the events newer than the feed's last one, oldest first. A
+     * page made only of new events may have skipped some, which is recorded
+     * as a gap.
+     */
+    private void accept(Feed feed, List<GitHubEvent> page) {
+        if (feed.lastEventId < 0) {
+            feed.lastEventId = page.stream().mapToLong(ChangeFeed::eventId).max().orElse(0);
+            return;
+        }
+        List<GitHubEvent> fresh = new ArrayList<>();
+        for (GitHubEvent event : page) {
+            if (eventId(event) > feed.lastEventId) {
+                fresh.add(event);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        boolean gap = fresh.size() == page.size() && page.size() >= EVENTS_PER_PAGE;
+        feed.lastEventId = fresh.stream().mapToLong(ChangeFeed::eventId).max().orElse(feed.lastEventId);
+        synchronized (this) {
+            if (gap) {
+                if (cacheEnabled && !RECEIVED.equals(feed.name)) {
+                    invalidations.repository(feed.name);
+                }
+                append(new RepositoryChange(0, null, RECEIVED.equals(feed.name) ? null : feed.name, "Gap", null,
+                        "more activity than one page of events; some changes were not seen", null));
+            }
+            for (int i = fresh.size() - 1; i >= 0; i--) {
+                GitHubEvent event = fresh.get(i);
+                if (seenEventIds.put(event.id(), Boolean.TRUE) != null) {
+                    continue;
+                }
+                if (cacheEnabled) {
+                    invalidations.apply(event);
+                }
+                append(new RepositoryChange(0, event.id(), event.repo() != null ? event.repo().name() : null,
+                        event.type(), event.actor() != null ? event.actor().login() : null,
+                        EventSummaries.summarize(event), event.createdAt()));
+                feed.changes++;
+            }
+        }
+    }
+
+    private void append(RepositoryChange change) {
+        changes.addLast(new RepositoryChange(nextCursor++, change.eventId(), change.repository(), change.type(),
+                change.actor(), change.summary(), change.createdAt()));
+        while (changes.size() > bufferChanges) {
+            changes.removeFirst();
+        }
+    }
+
+    private static long eventId(GitHubEvent event) {
+        try {
+            return Long.parseLong(event.id());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * One polled feed. Only touched by the poller thread apart from
+     * {@link #status()}.
+     */
+    private final class Feed {
+
+        private final String name;
+        private final Function<String, GitHubEventsPage> fetch;
+        private volatile String etag;
+        private volatile long lastEventId = -1;
+        private volatile long lastPolledAt;
+        private volatile long nextPollAt;
+        private volatile long intervalMillis = minIntervalMillis;
+        private volatile int failures;
+        private volatile long changes;
+        private volatile String lastError;
+
+        Feed(String name, Function<String, GitHubEventsPage> fetch) {
+            this.name = name;
+            this.fetch = fetch;
+        }
+
+        WatchedFeed status() {
+            return new WatchedFeed(name, lastPolledAt, nextPollAt, (int) (intervalMillis / 1000), changes, lastError);
+        }
+    }
+}
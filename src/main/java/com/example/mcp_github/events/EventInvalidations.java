@@ -0,0 +1,98 @@
+package com.example.mcp_github.events;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.web.util.UriUtils;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.model.GitHubEvent;
+
+/**
+ * Which cached reads an Events API event makes out of date. Coarser than
+ * the webhook mapping: push events here list neither the touched files nor
+ * the default branch, so any push drops the contents tree and commit list.
+ *
+ * @see com.example.mcp_github.webhook.GitHubWebhookReceiver
+ */
+final class EventInvalidations {
+
+    private final String prefix;
+    private final GitHubCacheFilter cache;
+
+    /**
+     * @param prefix path of the GitHub API base URL, e.g. {@code /api/v3}
+     * for GitHub Enterprise, or empty
+     */
+    EventInvalidations(String prefix, GitHubCacheFilter cache) {
+        this.prefix = prefix;
+        this.cache = cache;
+    }
+
+    /**
+     * Invalidates everything cached for {@code fullName}, for when events
+     * were missed.
+     */
+    int repository(String fullName) {
+        int slash = fullName.indexOf('/');
+        return slash > 0
+                ? cache.invalidateTree(prefix + "/repos/" + segment(fullName.substring(0, slash)) + "/"
+                        + segment(fullName.substring(slash + 1)))
+                : 0;
+    }
+
+    int apply(GitHubEvent event) {
+        if (event.repo() == null || event.repo().name() == null || event.repo().name().indexOf('/') < 0) {
+            return 0;
+        }
+        String fullName = event.repo().name();
+        int slash = fullName.indexOf('/');
+        String owner = segment(fullName.substring(0, slash));
+        String name = segment(fullName.substring(slash + 1));
+        String repo = prefix + "/repos/" + owner + "/" + name;
+        Map<String, Object> payload = event.payload() != null ? event.payload() : Map.of();
+        return switch (event.type() != null ? event.type() : "") {
+            case "PushEvent" -> {
+                String ref = String.valueOf(payload.get("ref"));
+                yield ref.startsWith("refs/heads/")
+                        ? branch(repo, ref.substring("refs/heads/".length())) + cache.invalidate(repo)
+                        + cache.invalidate(repo + "/commits") + cache.invalidateTree(repo + "/contents")
+                        : 0;
+            }
+            case "PullRequestEvent" ->
+                number(repo, "pulls", payload) + number(repo, "issues", payload) + cache.invalidate(repo);
+            case "IssuesEvent" ->
+                number(repo, "issues", payload) + cache.invalidate(repo);
+            case "ReleaseEvent" ->
+                cache.invalidateTree(repo + "/releases");
+            case "CreateEvent", "DeleteEvent" ->
+                "branch".equals(payload.get("ref_type"))
+                ? branch(repo, String.valueOf(payload.get("ref")))
+                : 0;
+            case "WatchEvent" ->
+                cache.invalidate(repo) + cache.invalidate(prefix + "/user/starred/" + owner + "/" + name);
+            case "ForkEvent" ->
+                cache.invalidate(repo) + cache.invalidate(repo + "/forks");
+            default ->
+                0;
+        };
+    }
+
+    // ==================== HELPER ====================
+    private int branch(String repo, String branch) {
+        return cache.invalidate(repo + "/branches") + cache.invalidate(repo + "/branches/" + segment(branch));
+    }
+
+    private int number(String repo, String collection, Map<String, Object> payload) {
+        Object number = payload.get("number");
+        if (number == null && payload.get("issue") instanceof Map<?, ?> issue) {
+            number = issue.get("number");
+        }
+        int count = cache.invalidate(repo + "/" + collection);
+        return number != null ? count + cache.invalidateTree(repo + "/" + collection + "/" + number) : count;
+    }
+
+    private static String segment(String value) {
+        return UriUtils.encode(value, StandardCharsets.UTF_8);
+    }
+}
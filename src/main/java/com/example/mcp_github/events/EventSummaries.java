@@ -0,0 +1,64 @@
+package com.example.mcp_github.events;
+
+import java.util.Map;
+
+import com.example.mcp_github.model.GitHubEvent;
+
+/**
+ * One-line descriptions of Events API events for the change feed.
+ */
+final class EventSummaries {
+
+    private EventSummaries() {
+    }
+
+    static String summarize(GitHubEvent event) {
+        Map<String, Object> payload = event.payload() != null ? event.payload() : Map.of();
+        String action = text(payload, "action");
+        return switch (event.type() != null ? event.type() : "") {
+            case "PushEvent" -> {
+                Object size = payload.get("size");
+                yield "pushed %s commit(s) to %s".formatted(size != null ? size : "?", branch(text(payload, "ref")));
+            }
+            case "PullRequestEvent" -> {
+                Map<String, Object> pull = map(payload, "pull_request");
+                String verb = "closed".equals(action) && Boolean.TRUE.equals(pull.get("merged")) ? "merged" : action;
+                yield "%s pull request #%s: %s".formatted(verb, payload.get("number"), text(pull, "title"));
+            }
+            case "IssuesEvent" -> {
+                Map<String, Object> issue = map(payload, "issue");
+                yield "%s issue #%s: %s".formatted(action, issue.get("number"), text(issue, "title"));
+            }
+            case "IssueCommentEvent" ->
+                "commented on #%s".formatted(map(payload, "issue").get("number"));
+            case "PullRequestReviewEvent" ->
+                "reviewed pull request #%s".formatted(map(payload, "pull_request").get("number"));
+            case "CreateEvent" ->
+                "created %s %s".formatted(text(payload, "ref_type"), text(payload, "ref"));
+            case "DeleteEvent" ->
+                "deleted %s %s".formatted(text(payload, "ref_type"), text(payload, "ref"));
+            case "ReleaseEvent" ->
+                "%s release %s".formatted(action, text(map(payload, "release"), "tag_name"));
+            case "WatchEvent" ->
+                "starred the repository";
+            case "ForkEvent" ->
+                "forked to %s".formatted(text(map(payload, "forkee"), "full_name"));
+            default ->
+                event.type() + (action.isEmpty() ? "" : " (" + action + ")");
+        };
+    }
+
+    private static String branch(String ref) {
+        return ref.startsWith("refs/heads/") ? ref.substring("refs/heads/".length()) : ref;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> map(Map<String, Object> payload, String field) {
+        return payload.get(field) instanceof Map<?, ?> value ? (Map<String, Object>) value : Map.of();
+    }
+
+    private static String text(Map<String, Object> payload, String field) {
+        Object value = payload.get(field);
+        return value != null ? value.toString() : "";
+    }
+}
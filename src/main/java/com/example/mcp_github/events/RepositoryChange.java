@@ -0,0 +1,17 @@
+package com.example.mcp_github.events;
+
+/**
+ * One entry of the change feed. {@code cursor} increases by one per change
+ * in the order changes were seen; pass the last one back to get what came
+ * after it.
+ */
+public record RepositoryChange(
+        long cursor,
+        String eventId,
+        String repository,
+        String type,
+        String actor,
+        String summary,
+        String createdAt) {
+
+}
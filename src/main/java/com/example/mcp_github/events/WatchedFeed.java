@@ -0,0 +1,15 @@
+package com.example.mcp_github.events;
+
+/**
+ * Polling state of one events feed: a repository's {@code owner/repo}, or
+ * {@code received} for the authenticated user's received events.
+ */
+public record WatchedFeed(
+        String name,
+        long lastPolledAt,
+        long nextPollAt,
+        int pollIntervalSeconds,
+        long changes,
+        String lastError) {
+
+}
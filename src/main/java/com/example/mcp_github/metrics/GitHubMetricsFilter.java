@@ -0,0 +1,185 @@
+package com.example.mcp_github.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.tracing.ActiveTrace;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * WebClient filter recording per-endpoint GitHub API metrics. Endpoints are
+ * identified by their URI template (e.g. {@code /repos/{username}/{repo}}),
+ * so tag cardinality stays bounded.
+ *
+ * <ul>
+ * <li>{@value #REQUESTS}: time until response headers, by status</li>
+ * <li>{@value #RESPONSE_BYTES}: body size as received on the wire</li>
+ * <li>{@value #BODY}: time from headers to the last body byte</li>
+ * <li>{@value #DECODE}: time spent downstream of the last body byte, which is
+ * where aggregated JSON bodies are decoded</li>
+ * <li>{@value #RATE_LIMIT_REMAINING}: last seen
+ * {@code X-RateLimit-Remaining}, {@code -1} until known</li>
+ * </ul>
+ *
+ * Every finished request is also written to the {@link CallLog}.
+ */
+@Component
+public class GitHubMetricsFilter implements ExchangeFilterFunction {
+
+    public static final String REQUESTS = "github.client.requests";
+    public static final String RESPONSE_BYTES = "github.client.response.bytes";
+    public static final String BODY = "github.client.response.body";
+    public static final String DECODE = "github.client.response.decode";
+    public static final String RATE_LIMIT_REMAINING = "github.ratelimit.remaining";
+
+    private static final String URI_TEMPLATE_ATTRIBUTE = WebClient.class.getName() + ".uriTemplate";
+
+    private final MeterRegistry registry;
+    private final CallTracer tracer;
+    private final CallLog callLog;
+    private final AtomicLong rateLimitRemaining = new AtomicLong(-1);
+    private final Map<String, EndpointMeters> endpoints = new ConcurrentHashMap<>();
+
+    public GitHubMetricsFilter(MeterRegistry registry, CallTracer tracer, CallLog callLog) {
+        this.registry = registry;
+        this.tracer = tracer;
+        this.callLog = callLog;
+        Gauge.builder(RATE_LIMIT_REMAINING, rateLimitRemaining, AtomicLong::get)
+                .description("Remaining GitHub API requests in the current rate-limit window")
+                .register(registry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            String endpoint = endpoint(request);
+            String method = request.method().name();
+            ActiveTrace trace = tracer.current();
+            String traceId = trace != null ? trace.traceId() : null;
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnError(e -> {
+                        long elapsed = System.nanoTime() - start;
+                        requestTimer(endpoint, method, "IO_ERROR").record(elapsed, TimeUnit.NANOSECONDS);
+                        callLog.httpRequest(method, endpoint, 0, elapsed, 0, traceId, e.getClass().getSimpleName());
+                    })
+                    .map(response -> {
+                        long headersAt = System.nanoTime();
+                        int status = response.statusCode().value();
+                        requestTimer(endpoint, method, String.valueOf(status))
+                                .record(headersAt - start, TimeUnit.NANOSECONDS);
+                        recordRateLimit(response);
+                        return measureBody(response, meters(endpoint, method), start, headersAt,
+                                (elapsed, bytes) -> callLog.httpRequest(method, endpoint, status, elapsed, bytes,
+                                        traceId, null));
+                    });
+        });
+    }
+
+    private ClientResponse measureBody(ClientResponse response, EndpointMeters meters, long start, long headersAt,
+            BodyListener listener) {
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong completedAt = new AtomicLong();
+        return response.mutate()
+                .body(body -> body
+                .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> completedAt.set(System.nanoTime()))
+                // doFinally runs after the completion signal has been handed
+                // downstream, i.e. after a joined body has been decoded.
+                .doFinally(signal -> {
+                    long now = System.nanoTime();
+                    meters.bytes().record(bytes.get());
+                    if (signal == SignalType.ON_COMPLETE) {
+                        meters.body().record(completedAt.get() - headersAt, TimeUnit.NANOSECONDS);
+                        meters.decode().record(now - completedAt.get(), TimeUnit.NANOSECONDS);
+                    }
+                    listener.finished(now - start, bytes.get());
+                }))
+                .build();
+    }
+
+    private void recordRateLimit(ClientResponse response) {
+        String remaining = response.headers().asHttpHeaders().getFirst("X-RateLimit-Remaining");
+        if (remaining != null) {
+            try {
+                rateLimitRemaining.set(Long.parseLong(remaining.trim()));
+            } catch (NumberFormatException ignored) {
+                // Leave the last known value.
+            }
+        }
+    }
+
+    public long rateLimitRemaining() {
+        return rateLimitRemaining.get();
+    }
+
+    private Timer requestTimer(String endpoint, String method, String status) {
+        return Timer.builder(REQUESTS)
+                .description("GitHub API request latency until response headers")
+                .tags("endpoint", endpoint, "method", method, "status", status)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private EndpointMeters meters(String endpoint, String method) {
+        return endpoints.computeIfAbsent(method + " " + endpoint, k -> new EndpointMeters(
+                DistributionSummary.builder(RESPONSE_BYTES)
+                        .description("GitHub API response body size")
+                        .baseUnit("bytes")
+                        .tags("endpoint", endpoint, "method", method)
+                        .register(registry),
+                Timer.builder(BODY)
+                        .description("Time from response headers to the last body byte")
+                        .tags("endpoint", endpoint, "method", method)
+                        .register(registry),
+                Timer.builder(DECODE)
+                        .description("Time spent decoding the response body after it was received")
+                        .tags("endpoint", endpoint, "method", method)
+                        .register(registry)));
+    }
+
+    @FunctionalInterface
+    private interface BodyListener {
+
+        void finished(long elapsedNanos, long bytes);
+    }
+
+    private record EndpointMeters(DistributionSummary bytes, Timer body, Timer decode) {
+
+    }
+
+    /**
+     * The path part of the request's URI template, e.g.
+     * {@code /repos/{username}/{repo}/issues}. The template attribute
+     * includes the base URL, which is stripped along with the query.
+     */
+    public static String endpoint(ClientRequest request) {
+        return request.attribute(URI_TEMPLATE_ATTRIBUTE)
+                .map(Object::toString)
+                .map(template -> {
+                    int scheme = template.indexOf("://");
+                    int path = scheme >= 0 ? template.indexOf('/', scheme + 3) : 0;
+                    int query = template.indexOf('?');
+                    return path < 0 ? "/" : template.substring(path, query >= 0 ? query : template.length());
+                })
+                .orElse("UNKNOWN");
+    }
+}
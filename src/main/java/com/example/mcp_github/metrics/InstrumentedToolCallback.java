@@ -0,0 +1,101 @@
+package com.example.mcp_github.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.tracing.ActiveTrace;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times, traces and logs every call of a tool. Tools report failures as "Error ..." strings
+ * rather than exceptions, so those results are tagged {@code outcome=error};
+ * exceptions thrown by the callback itself (e.g. bad arguments) are tagged
+ * {@code outcome=exception} and rethrown.
+ */
+public class InstrumentedToolCallback implements ToolCallback {
+
+    public static final String TOOL_CALLS = "mcp.tool.calls";
+
+    private final ToolCallback delegate;
+    private final CallTracer tracer;
+    private final CallLog callLog;
+    private final String tool;
+    private final Timer success;
+    private final Timer error;
+    private final Timer exception;
+
+    public InstrumentedToolCallback(ToolCallback delegate, MeterRegistry registry, CallTracer tracer,
+            CallLog callLog) {
+        this.delegate = delegate;
+        this.tracer = tracer;
+        this.callLog = callLog;
+        this.tool = delegate.getToolDefinition().name();
+        this.success = timer(registry, tool, "success");
+        this.error = timer(registry, tool, "error");
+        this.exception = timer(registry, tool, "exception");
+    }
+
+    private static Timer timer(MeterRegistry registry, String tool, String outcome) {
+        return Timer.builder(TOOL_CALLS)
+                .description("MCP tool call latency")
+                .tags("tool", tool, "outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        long start = System.nanoTime();
+        ActiveTrace trace = tracer.start(tool);
+        String outcome = "exception";
+        String result = null;
+        try {
+            result = toolContext != null ? delegate.call(toolInput, toolContext) : delegate.call(toolInput);
+            outcome = isError(result) ? "error" : "success";
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer timer = switch (outcome) {
+                case "success" ->
+                    success;
+                case "error" ->
+                    error;
+                default ->
+                    exception;
+            };
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            tracer.finish(trace, outcome);
+            callLog.toolCall(tool, outcome, elapsed, trace != null ? trace.traceId() : null, toolInput, result);
+        }
+    }
+
+    private static boolean isError(String result) {
+        // Results are JSON-encoded strings, so skip an opening quote.
+        int start = result != null && result.startsWith("\"") ? 1 : 0;
+        return result != null && result.startsWith("Error", start);
+    }
+}
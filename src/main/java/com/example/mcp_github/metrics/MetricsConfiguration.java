@@ -0,0 +1,42 @@
+package com.example.mcp_github.metrics;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+
+/**
+ * Local metrics registry. The server talks stdio only, so meters are read
+ * back through the {@code serverStats} tool or written to a Prometheus text
+ * file by {@link PrometheusFileExporter}.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PrometheusMeterRegistry meterRegistry() {
+        return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    }
+
+    /**
+     * GC pauses and allocated/promoted bytes; the load driver derives the
+     * server's allocation rate from {@code jvm.gc.memory.allocated}.
+     */
+    @Bean(destroyMethod = "close")
+    public JvmGcMetrics jvmGcMetrics(MeterRegistry meterRegistry) {
+        JvmGcMetrics metrics = new JvmGcMetrics();
+        metrics.bindTo(meterRegistry);
+        return metrics;
+    }
+
+    @Bean
+    public JvmMemoryMetrics jvmMemoryMetrics(MeterRegistry meterRegistry) {
+        JvmMemoryMetrics metrics = new JvmMemoryMetrics();
+        metrics.bindTo(meterRegistry);
+        return metrics;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mcp_github.metrics;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Periodically writes the registry in Prometheus text format to
+ * {@code metrics.prometheus-file}, e.g. for a node_exporter textfile
+ * collector. Disabled when the property is blank.
+ */
+@Component
+public class PrometheusFileExporter {
+
+    private final PrometheusMeterRegistry registry;
+    private final File file;
+    private final ScheduledExecutorService scheduler;
+
+    public PrometheusFileExporter(
+            PrometheusMeterRegistry registry,
+            @Value("${metrics.prometheus-file:}") String file,
+            @Value("${metrics.export-interval-seconds:15}") long intervalSeconds) {
+        this.registry = registry;
+        this.file = file != null && !file.isBlank() ? new File(file) : null;
+        if (this.file == null) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::export, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    private void export() {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            File tmp = new File(parent, file.getName() + ".tmp");
+            Files.writeString(tmp.toPath(), registry.scrape(), StandardCharsets.UTF_8);
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            // Best effort; retried on the next tick.
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            export();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+/**
+ * One conditional page of a branch's commits, newest first. An unmodified
+ * page (HTTP 304) has no commits and did not count against the rate limit.
+ */
+public record GitHubCommitsPage(
+        boolean modified,
+        String etag,
+        List<GitHubCommit> commits) {
+
+}
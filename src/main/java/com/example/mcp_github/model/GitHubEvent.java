@@ -0,0 +1,28 @@
+package com.example.mcp_github.model;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record GitHubEvent(
+        String id,
+        String type,
+        Actor actor,
+        Repo repo,
+        Map<String, Object> payload,
+        @JsonProperty("created_at")
+        String createdAt) {
+
+    public record Actor(
+            String login) {
+
+    }
+
+    /**
+     * {@code name} is the full name, {@code owner/repo}.
+     */
+    public record Repo(
+            String name) {
+
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+/**
+ * One conditional poll of an events feed. An unmodified page (HTTP 304) has
+ * no events and did not count against the rate limit.
+ */
+public record GitHubEventsPage(
+        boolean modified,
+        String etag,
+        int pollIntervalSeconds,
+        List<GitHubEvent> events) {
+
+}
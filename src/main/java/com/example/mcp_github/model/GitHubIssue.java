@@ -1,5 +1,7 @@
 package com.example.mcp_github.model;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record GitHubIssue(
@@ -15,7 +17,11 @@ public record GitHubIssue(
         @JsonProperty("updated_at")
         String updatedAt,
         @JsonProperty("closed_at")
-        String closedAt
+        String closedAt,
+        List<Label> labels,
+        @JsonProperty("pull_request")
+        PullRequestLink pullRequest,
+        Boolean draft
         ) {
 
     public static record IssueUser(
@@ -25,4 +31,20 @@ public record GitHubIssue(
             ) {
 
     }
+
+    public static record Label(
+            String name
+            ) {
+
+    }
+
+    /**
+     * Present only when the issue is a pull request.
+     */
+    public static record PullRequestLink(
+            @JsonProperty("merged_at")
+            String mergedAt
+            ) {
+
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+/**
+ * One conditional page of a repository's issues (pull requests included).
+ * An unmodified page (HTTP 304) has no issues and did not count against the
+ * rate limit.
+ */
+public record GitHubIssuesPage(
+        boolean modified,
+        String etag,
+        List<GitHubIssue> issues) {
+
+}
@@ -12,5 +12,9 @@ public record GitHubRepository(
                 @JsonProperty("forks_count") int forks,
                 @JsonProperty("created_at") String createdAt,
                 @JsonProperty("updated_at") String updatedAt,
-                @JsonProperty("private") boolean isPrivate) {
+                @JsonProperty("private") boolean isPrivate,
+                @JsonProperty("default_branch") String defaultBranch,
+                @JsonProperty("pushed_at") String pushedAt,
+                @JsonProperty("open_issues_count") Integer openIssues,
+                Boolean archived) {
 }
\ No newline at end of file
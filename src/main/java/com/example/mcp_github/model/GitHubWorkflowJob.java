@@ -0,0 +1,27 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record GitHubWorkflowJob(
+        long id,
+        String name,
+        String status,
+        String conclusion,
+        @JsonProperty("started_at")
+        String startedAt,
+        @JsonProperty("completed_at")
+        String completedAt,
+        @JsonProperty("html_url")
+        String htmlUrl,
+        List<Step> steps) {
+
+    public record Step(
+            String name,
+            String status,
+            String conclusion,
+            Integer number) {
+
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record GitHubWorkflowJobsResponse(
+        @JsonProperty("total_count")
+        int totalCount,
+        List<GitHubWorkflowJob> jobs) {
+
+}
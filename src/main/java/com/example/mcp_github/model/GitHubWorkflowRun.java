@@ -14,6 +14,15 @@ public record GitHubWorkflowRun(
         @JsonProperty("created_at")
         String createdAt,
         @JsonProperty("updated_at")
-        String updatedAt) {
+        String updatedAt,
+        @JsonProperty("workflow_id")
+        Long workflowId,
+        @JsonProperty("head_sha")
+        String headSha,
+        String event,
+        @JsonProperty("run_attempt")
+        Integer runAttempt,
+        @JsonProperty("run_started_at")
+        String runStartedAt) {
 
 }
@@ -0,0 +1,16 @@
+package com.example.mcp_github.model;
+
+import java.util.List;
+
+/**
+ * One conditional page of a repository's workflow runs, newest first. An
+ * unmodified page (HTTP 304) has no runs and did not count against the
+ * rate limit.
+ */
+public record GitHubWorkflowRunsPage(
+        boolean modified,
+        String etag,
+        int totalCount,
+        List<GitHubWorkflowRun> runs) {
+
+}
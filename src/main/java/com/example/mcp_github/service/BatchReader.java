@@ -0,0 +1,150 @@
+package com.example.mcp_github.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.service.batch.BatchOperation;
+import com.example.mcp_github.service.batch.BatchRequest;
+import com.example.mcp_github.service.batch.BatchResult;
+import com.example.mcp_github.tracing.CallTracer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs a batch of independent GitHub reads concurrently, so a client that
+ * needs fifteen files or eight issue lists makes one call instead of
+ * fifteen. Identical reads within a batch run once; across batches the
+ * response cache and its ETag revalidation make repeats cheap. At most
+ * {@code batch.concurrency} reads are in flight at once, across all
+ * batches. Reads run on worker threads but stay part of the calling tool
+ * call: stale cache notes and trace spans go to the caller's.
+ */
+@Service
+public class BatchReader {
+
+    private final GitHubService gitHubService;
+    private final GitHubCacheFilter cache;
+    private final CallTracer tracer;
+    private final int maxOperations;
+    private final long timeoutMillis;
+    private final ExecutorService workers;
+
+    public BatchReader(
+            GitHubService gitHubService,
+            GitHubCacheFilter cache,
+            CallTracer tracer,
+            @Value("${batch.concurrency:8}") int concurrency,
+            @Value("${batch.max-operations:50}") int maxOperations,
+            @Value("${batch.timeout-seconds:60}") long timeoutSeconds) {
+        this.gitHubService = gitHubService;
+        this.cache = cache;
+        this.tracer = tracer;
+        this.maxOperations = Math.max(1, maxOperations);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread thread = new Thread(r, "batch-reader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Results keyed by request id, in request order. Requests without an
+     * id are keyed by their 1-based position. A read that fails, or does
+     * not finish within {@code batch.timeout-seconds}, only fails its own
+     * result.
+     *
+     * @throws IllegalArgumentException if there are more than
+     * {@code batch.max-operations} requests or an id repeats
+     */
+    public Map<String, BatchResult> read(List<BatchRequest> requests) throws InterruptedException {
+        if (requests.size() > maxOperations) {
+            throw new IllegalArgumentException("at most %d operations per batch, got %d".formatted(maxOperations,
+                    requests.size()));
+        }
+        Map<String, BatchRequest> byId = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BatchRequest request = requests.get(i);
+            String id = request.id() != null && !request.id().isBlank() ? request.id() : Integer.toString(i + 1);
+            if (byId.putIfAbsent(id, request) != null) {
+                throw new IllegalArgumentException("duplicate id '%s'".formatted(id));
+            }
+        }
+
+        Map<String, Future<Object>> reads = new HashMap<>();
+        Map<String, String> keys = new HashMap<>();
+        Map<String, BatchResult> results = new LinkedHashMap<>();
+        for (Map.Entry<String, BatchRequest> entry : byId.entrySet()) {
+            BatchRequest request = entry.getValue();
+            BatchOperation operation = BatchOperation.parse(request.operation());
+            if (operation == null) {
+                results.put(entry.getKey(), new BatchResult(request.operation(), null,
+                        "unknown operation; use one of: " + BatchOperation.describeAll(), false, true));
+                continue;
+            }
+            String key;
+            try {
+                key = operation.key(request.arguments());
+            } catch (IllegalArgumentException e) {
+                results.put(entry.getKey(), new BatchResult(request.operation(), null, e.getMessage(), false, true));
+                continue;
+            }
+            keys.put(entry.getKey(), key);
+            reads.computeIfAbsent(key, k -> workers.submit(tracer.inCurrentTrace(cache.inCurrentCall(
+                    () -> operation.apply(gitHubService, request.arguments())))));
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Map<String, String> firstId = new HashMap<>();
+        try {
+            for (Map.Entry<String, BatchRequest> entry : byId.entrySet()) {
+                String key = keys.get(entry.getKey());
+                if (key == null) {
+                    continue;
+                }
+                boolean deduplicated = firstId.putIfAbsent(key, entry.getKey()) != null;
+                results.put(entry.getKey(), await(reads.get(key), entry.getValue().operation(), deduplicated,
+                        deadline));
+            }
+        } finally {
+            reads.values().forEach(read -> read.cancel(true));
+        }
+        // Rejected requests went in during the first pass; restore request order.
+        Map<String, BatchResult> ordered = new LinkedHashMap<>();
+        byId.keySet().forEach(id -> ordered.put(id, results.get(id)));
+        return ordered;
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    // ==================== HELPER ====================
+    private static BatchResult await(Future<Object> read, String operation, boolean deduplicated, long deadline)
+            throws InterruptedException {
+        try {
+            Object value = read.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            return new BatchResult(operation, value, null, deduplicated, false);
+        } catch (TimeoutException e) {
+            return new BatchResult(operation, null, "timed out", deduplicated, false);
+        } catch (ExecutionException e) {
+            return new BatchResult(operation, null, String.valueOf(e.getCause().getMessage()), deduplicated,
+                    false);
+        }
+    }
+}
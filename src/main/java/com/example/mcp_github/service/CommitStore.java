@@ -0,0 +1,313 @@
+package com.example.mcp_github.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubCommitsPage;
+import com.example.mcp_github.service.commits.CommitLog;
+import com.example.mcp_github.service.commits.CommitMatches;
+import com.example.mcp_github.service.commits.CommitQuery;
+import com.example.mcp_github.service.commits.CommitSyncStatus;
+import com.example.mcp_github.service.commits.StoredCommit;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local per-branch commit history, kept in a compact {@link CommitLog} and
+ * synced incrementally: each sync reads the branch head with its ETag (a
+ * 304 when nothing was pushed) and pages back only until it reaches the
+ * newest commit already stored. If that commit is gone (a force push), the
+ * branch is reloaded.
+ *
+ * <p>
+ * Older history is filled in on a background thread, 100 commits a
+ * request, by paging through the commits reachable from the head seen on
+ * the first sync, so pages do not shift as new commits arrive. It only
+ * runs while a query finds fewer matches than it asked for, and stops at
+ * the first commit, at {@code commits.store.max-commits} (beyond which new
+ * commits push the oldest out), when the branch is evicted, or while fewer
+ * than {@code commits.store.rate-limit-reserve} requests are left in the
+ * rate-limit window.
+ *
+ * <p>
+ * Until a keyword query has synced a branch, queries without a keyword
+ * are answered by GitHub's own {@code author}/{@code since}/{@code until}
+ * filters and do not build the store. Path filters always go to GitHub,
+ * since the store does not know which files a commit touched.
+ */
+@Service
+public class CommitStore {
+
+    private static final int PER_PAGE = 100;
+
+    private final GitHubService gitHubService;
+    private final GitHubMetricsFilter metrics;
+    private final long syncIntervalMillis;
+    private final int maxPagesPerSync;
+    private final int maxCommits;
+    private final int rateLimitReserve;
+    private final int maxBranches;
+    private final LinkedHashMap<String, BranchCommits> branches = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService backfill;
+
+    public CommitStore(
+            GitHubService gitHubService,
+            GitHubMetricsFilter metrics,
+            @Value("${commits.store.sync-interval-seconds:30}") long syncIntervalSeconds,
+            @Value("${commits.store.max-pages-per-sync:20}") int maxPagesPerSync,
+            @Value("${commits.store.max-commits:5000}") int maxCommits,
+            @Value("${commits.store.rate-limit-reserve:500}") int rateLimitReserve,
+            @Value("${commits.store.max-branches:20}") int maxBranches) {
+        this.gitHubService = gitHubService;
+        this.metrics = metrics;
+        this.syncIntervalMillis = TimeUnit.SECONDS.toMillis(syncIntervalSeconds);
+        this.maxPagesPerSync = Math.max(1, maxPagesPerSync);
+        this.maxCommits = Math.max(PER_PAGE, maxCommits);
+        this.rateLimitReserve = Math.max(0, rateLimitReserve);
+        this.maxBranches = Math.max(1, maxBranches);
+        this.backfill = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "commit-store-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ==================== QUERIES ====================
+    /**
+     * Commits of {@code owner/repo} on {@code branch} (the default branch if
+     * {@code null}) matching {@code query}, newest first.
+     *
+     * @throws IllegalArgumentException if {@code since} or {@code until} is
+     * not an ISO-8601 date or timestamp
+     */
+    public CommitMatches query(String owner, String repo, String branch, CommitQuery query) {
+        long since = query.since() != null ? epochSecond(query.since(), false) : Long.MIN_VALUE;
+        long until = query.until() != null ? epochSecond(query.until(), true) : Long.MAX_VALUE;
+        BranchCommits commits = branch(owner, repo, branch);
+        if (query.path() != null || (commits.status.syncedAt() == 0 && query.keyword() == null)) {
+            return remote(owner, repo, branch, query, since, until, commits.status);
+        }
+        synchronized (commits) {
+            if (System.currentTimeMillis() - commits.status.syncedAt() >= syncIntervalMillis) {
+                syncHead(owner, repo, branch, commits);
+            }
+            List<StoredCommit> matches = new ArrayList<>();
+            int total = commits.log.match(query.author(), since, until, query.keyword(), query.limit(), matches);
+            if (matches.size() < query.limit()) {
+                // Older history may hold the rest.
+                startBackfill(owner, repo, branch, commits);
+            }
+            return new CommitMatches(List.copyOf(matches), total, true, commits.status);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        backfill.shutdownNow();
+    }
+
+    private CommitMatches remote(String owner, String repo, String branch, CommitQuery query, long since, long until,
+            CommitSyncStatus status) {
+        List<GitHubCommit> page = gitHubService.getCommits(owner, repo, branch, query.path(), query.author(),
+                since != Long.MIN_VALUE ? Instant.ofEpochSecond(since).toString() : null,
+                until != Long.MAX_VALUE ? Instant.ofEpochSecond(until).toString() : null,
+                query.keyword() != null ? PER_PAGE : query.limit());
+        CommitLog log = new CommitLog();
+        log.addOlder(page != null ? page : List.of());
+        List<StoredCommit> matches = new ArrayList<>();
+        // GitHub matched the author on login or email; only the keyword is left.
+        int total = log.match(null, Long.MIN_VALUE, Long.MAX_VALUE, query.keyword(), query.limit(), matches);
+        return new CommitMatches(List.copyOf(matches), total, false, status);
+    }
+
+    // ==================== SYNC ====================
+    /**
+     * Brings the newest end of the log up to date. Called with the branch's
+     * monitor held.
+     */
+    private void syncHead(String owner, String repo, String branch, BranchCommits commits) {
+        String known = commits.log.headSha();
+        List<GitHubCommit> fresh = new ArrayList<>();
+        String firstPageEtag = commits.etag;
+        int requests = 0;
+        boolean reached = known == null;
+        try {
+            for (int page = 1; page <= maxPagesPerSync; page++) {
+                GitHubCommitsPage result = gitHubService.getCommitsPage(owner, repo, branch, page,
+                        page == 1 ? commits.etag : null);
+                requests++;
+                if (!result.modified()) {
+                    reached = true;
+                    break;
+                }
+                if (page == 1) {
+                    // Kept only once the whole catch-up is stored, or a 304 would skip what a failure left out.
+                    firstPageEtag = result.etag();
+                }
+                for (GitHubCommit commit : result.commits()) {
+                    if (commit.sha() != null && commit.sha().equals(known)) {
+                        reached = true;
+                        break;
+                    }
+                    fresh.add(commit);
+                }
+                if (known == null) {
+                    // First sync: page 1 sets the head, the rest is backfill.
+                    commits.backfillSha = fresh.isEmpty() ? null : fresh.get(0).sha();
+                    commits.backfillPage = 2;
+                    commits.complete = result.commits().size() < PER_PAGE;
+                    break;
+                }
+                if (reached || result.commits().size() < PER_PAGE) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            if (commits.status.syncedAt() == 0) {
+                throw e;
+            }
+            commits.status = status(commits, requests, commits.status.syncedAt(), e.getMessage());
+            return;
+        }
+        if (!reached) {
+            // The stored head is no longer on the branch, or too far behind.
+            commits.log.clear();
+            commits.backfillSha = fresh.isEmpty() ? null : fresh.get(0).sha();
+            commits.backfillPage = requests + 1;
+            commits.complete = false;
+        }
+        commits.log.addNewer(fresh);
+        if (commits.log.trim(maxCommits) > 0) {
+            // Older history no longer fits: stop where the log now ends.
+            commits.complete = true;
+        }
+        commits.etag = firstPageEtag;
+        commits.status = status(commits, requests, System.currentTimeMillis(), null);
+    }
+
+    /**
+     * Called with the branch's monitor held, after a sync.
+     */
+    private void startBackfill(String owner, String repo, String branch, BranchCommits commits) {
+        if (commits.backfilling || commits.complete || rateLimitLow()) {
+            return;
+        }
+        commits.backfilling = true;
+        backfill.execute(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    String sha;
+                    int pageNumber;
+                    synchronized (commits) {
+                        if (commits.complete || commits.backfillSha == null) {
+                            commits.complete = true;
+                            commits.status = status(commits, commits.status.requests(), commits.status.syncedAt(),
+                                    null);
+                            return;
+                        }
+                        if (commits.evicted || rateLimitLow()) {
+                            return; // resumed by a later query
+                        }
+                        sha = commits.backfillSha;
+                        pageNumber = commits.backfillPage;
+                    }
+                    // Fetched without the lock so queries are not held up.
+                    GitHubCommitsPage page = gitHubService.getCommitsPage(owner, repo, sha, pageNumber, null);
+                    synchronized (commits) {
+                        if (!sha.equals(commits.backfillSha) || pageNumber != commits.backfillPage) {
+                            continue; // the branch was reloaded meanwhile
+                        }
+                        commits.backfillPage++;
+                        int added = commits.log.addOlder(page.commits());
+                        commits.log.trim(maxCommits);
+                        commits.complete = page.commits().size() < PER_PAGE || added == 0
+                                || commits.log.size() >= maxCommits;
+                        commits.status = status(commits, commits.status.requests() + 1, commits.status.syncedAt(),
+                                null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (commits) {
+                    commits.status = status(commits, commits.status.requests(), commits.status.syncedAt(),
+                            e.getMessage());
+                }
+            } finally {
+                synchronized (commits) {
+                    commits.backfilling = false;
+                }
+            }
+        });
+    }
+
+    private boolean rateLimitLow() {
+        long remaining = metrics.rateLimitRemaining();
+        return remaining >= 0 && remaining < rateLimitReserve;
+    }
+
+    // ==================== HELPER ====================
+    private BranchCommits branch(String owner, String repo, String branch) {
+        synchronized (branches) {
+            String key = (owner + "/" + repo + "@" + (branch != null ? branch : "")).toLowerCase(Locale.ROOT);
+            BranchCommits commits = branches.computeIfAbsent(key, k -> new BranchCommits());
+            while (branches.size() > maxBranches) {
+                branches.remove(branches.keySet().iterator().next()).evicted = true;
+            }
+            return commits;
+        }
+    }
+
+    private static CommitSyncStatus status(BranchCommits commits, int requests, long syncedAt, String error) {
+        return new CommitSyncStatus(commits.log.size(), requests, commits.complete, syncedAt,
+                commits.log.oldestDate(), error);
+    }
+
+    /**
+     * Epoch second of an ISO-8601 timestamp, or of the start (or end) of an
+     * ISO-8601 date in UTC.
+     */
+    static long epochSecond(String value, boolean endOfDay) {
+        String text = value.trim();
+        try {
+            if (text.length() == 10) {
+                LocalDate date = LocalDate.parse(text);
+                return (endOfDay ? date.plusDays(1) : date).atStartOfDay(ZoneOffset.UTC).toEpochSecond()
+                        - (endOfDay ? 1 : 0);
+            }
+            return OffsetDateTime.parse(text).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'%s' is not an ISO-8601 date or timestamp".formatted(value));
+        }
+    }
+
+    /**
+     * One branch's log and sync position. Guarded by its own monitor;
+     * {@code status} is also read without it to route cold queries, and
+     * {@code evicted} is set without it to stop the backfill.
+     */
+    private static final class BranchCommits {
+
+        private final CommitLog log = new CommitLog();
+        private String etag;
+        private String backfillSha;
+        private int backfillPage;
+        private boolean complete;
+        private boolean backfilling;
+        private volatile boolean evicted;
+        private volatile CommitSyncStatus status = new CommitSyncStatus(0, 0, false, 0, null, null);
+    }
+}
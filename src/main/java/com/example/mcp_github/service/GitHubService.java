@@ -1,48 +1,99 @@
 package com.example.mcp_github.service;
 
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.cassette.CassetteFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
 import com.example.mcp_github.model.GitHubBranch;
 import com.example.mcp_github.model.GitHubCollaborator;
 import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubCommitsPage;
 import com.example.mcp_github.model.GitHubContent;
+import com.example.mcp_github.model.GitHubEvent;
+import com.example.mcp_github.model.GitHubEventsPage;
 import com.example.mcp_github.model.GitHubFork;
 import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubIssuesPage;
 import com.example.mcp_github.model.GitHubPullRequest;
 import com.example.mcp_github.model.GitHubRelease;
 import com.example.mcp_github.model.GitHubRepository;
 import com.example.mcp_github.model.GitHubSearchResult;
 import com.example.mcp_github.model.GitHubUser;
+import com.example.mcp_github.model.GitHubWorkflowJob;
+import com.example.mcp_github.model.GitHubWorkflowJobsResponse;
 import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.model.GitHubWorkflowRunsPage;
 import com.example.mcp_github.model.GitHubWorkflowRunsResponse;
+import com.example.mcp_github.tracing.GitHubTracingFilter;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
 @Service
 public class GitHubService {
 
     private final WebClient webClient;
+    private final WebClient downloadClient;
     private final boolean hasToken;
 
     public GitHubService(
             @Value("${github.api.base-url}") String baseUrl,
-            @Value("${github.api.token:}") String token) {
+            @Value("${github.api.token:}") String token,
+            GitHubCacheFilter cacheFilter,
+            GitHubMetricsFilter metricsFilter,
+            GitHubTracingFilter tracingFilter,
+            CassetteFilter cassetteFilter) {
 
         this.hasToken = token != null && !token.isEmpty();
 
         WebClient.Builder builder = WebClient.builder()
                 .baseUrl(baseUrl)
-                .defaultHeader("Accept", "application/vnd.github.v3+json");
+                .defaultHeader("Accept", "application/vnd.github.v3+json")
+                .clientConnector(new ReactorClientHttpConnector(tracingFilter.instrument(HttpClient.create())));
+        if (cacheFilter.isEnabled()) {
+            // Outermost, so cache hits are not counted or traced as GitHub requests.
+            builder.filter(cacheFilter);
+        }
+        builder.filter(metricsFilter)
+                .filter(tracingFilter);
+        if (cassetteFilter.isEnabled()) {
+            // Innermost, so metrics and traces also cover replayed responses.
+            builder.filter(cassetteFilter);
+        }
 
         if (token != null && !token.isEmpty()) {
             builder.defaultHeader("Authorization", "Bearer " + token);
         }
 
         this.webClient = builder.build();
+        // Log archives redirect to short-lived signed URLs that must not get the token.
+        WebClient.Builder downloads = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().followRedirect(true)));
+        if (cassetteFilter.isEnabled()) {
+            // Recorded next to the redirect that points at it, so log downloads replay too.
+            downloads.filter(cassetteFilter);
+        }
+        this.downloadClient = downloads.build();
     }
 
     // ==================== REPOSITORIES ====================
@@ -70,6 +121,40 @@ public class GitHubService {
                 .block();
     }
 
+    /**
+     * Up to {@code max} of a user's public repositories, most recently
+     * updated first, following pagination.
+     */
+    public List<GitHubRepository> getUserRepositories(String username, int max) {
+        return listRepositories(max, "/users/{username}/repos?sort=updated&per_page=100&page={page}", username);
+    }
+
+    /**
+     * Up to {@code max} of an organization's repositories visible to the
+     * token, most recently updated first.
+     */
+    public List<GitHubRepository> getOrganizationRepositories(String org, int max) {
+        return listRepositories(max, "/orgs/{org}/repos?sort=updated&per_page=100&page={page}", org);
+    }
+
+    /**
+     * Up to {@code max} repositories the authenticated user owns or can
+     * access, most recently updated first.
+     */
+    public List<GitHubRepository> getAuthenticatedUserRepositories(int max) {
+        if (!hasToken) {
+            throw new IllegalStateException("GitHub token required");
+        }
+        return listRepositories(max, "/user/repos?type=all&sort=updated&per_page=100&page={page}");
+    }
+
+    public Mono<GitHubRepository> getRepositoryAsync(String username, String repo) {
+        return webClient.get()
+                .uri("/repos/{username}/{repo}", username, repo)
+                .retrieve()
+                .bodyToMono(GitHubRepository.class);
+    }
+
     // ==================== REPOSITORY MANAGEMENT ====================
     public GitHubRepository createRepository(String name, String description, boolean isPrivate) {
         if (!hasToken) {
@@ -137,24 +222,92 @@ public class GitHubService {
     }
 
     public GitHubCommit getLastCommit(String username, String repo) {
-        List<GitHubCommit> commits = webClient.get()
+        return getLastCommitAsync(username, repo).block();
+    }
+
+    /**
+     * The newest commit on the default branch; empty if there is none.
+     */
+    public Mono<GitHubCommit> getLastCommitAsync(String username, String repo) {
+        return webClient.get()
                 .uri("/repos/{username}/{repo}/commits?per_page=1", username, repo)
                 .retrieve()
                 .bodyToFlux(GitHubCommit.class)
+                .next();
+    }
+
+    /**
+     * Commits reachable from {@code sha} (a branch, tag or commit; the
+     * default branch if {@code null}), newest first, optionally only those
+     * touching {@code path}, by {@code author} (login or email) or within
+     * {@code since}/{@code until} (ISO-8601 timestamps). GitHub does the
+     * filtering.
+     */
+    public List<GitHubCommit> getCommits(String username, String repo, String sha, String path, String author,
+            String since, String until, int limit) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("username", username);
+        variables.put("repo", repo);
+        variables.put("perPage", Math.min(limit, 100));
+        StringBuilder uri = new StringBuilder("/repos/{username}/{repo}/commits?per_page={perPage}");
+        addQuery(uri, variables, "sha", sha);
+        addQuery(uri, variables, "path", path);
+        addQuery(uri, variables, "author", author);
+        addQuery(uri, variables, "since", since);
+        addQuery(uri, variables, "until", until);
+
+        return webClient.get()
+                .uri(uri.toString(), variables)
+                .retrieve()
+                .bodyToFlux(GitHubCommit.class)
                 .collectList()
                 .block();
+    }
 
-        return commits != null && !commits.isEmpty() ? commits.get(0) : null;
+    /**
+     * One page of 100 commits reachable from {@code sha} (the default branch
+     * if {@code null}), revalidated with {@code etag} if given. Bypasses the
+     * response cache; CommitStore keeps its own copy.
+     */
+    public GitHubCommitsPage getCommitsPage(String username, String repo, String sha, int page, String etag) {
+        WebClient.RequestHeadersSpec<?> request = sha != null
+                ? webClient.get().uri("/repos/{username}/{repo}/commits?sha={sha}&per_page=100&page={page}",
+                        username, repo, sha, page)
+                : webClient.get().uri("/repos/{username}/{repo}/commits?per_page=100&page={page}",
+                        username, repo, page);
+        return request
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody().thenReturn(new GitHubCommitsPage(false, etag, List.of()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToFlux(GitHubCommit.class)
+                            .collectList()
+                            .map(commits -> new GitHubCommitsPage(true, newEtag, commits));
+                })
+                .block();
     }
 
     // ==================== COLLABORATORS ====================
     public List<GitHubCollaborator> getRepositoryCollaborators(String username, String repo) {
+        return getRepositoryCollaboratorsAsync(username, repo).block();
+    }
+
+    public Mono<List<GitHubCollaborator>> getRepositoryCollaboratorsAsync(String username, String repo) {
         return webClient.get()
                 .uri("/repos/{username}/{repo}/collaborators", username, repo)
                 .retrieve()
                 .bodyToFlux(GitHubCollaborator.class)
-                .collectList()
-                .block();
+                .collectList();
     }
 
     // ==================== ISSUES ====================
@@ -170,6 +323,50 @@ public class GitHubService {
                 .block();
     }
 
+    /**
+     * One page of issues and pull requests updated at or after {@code since},
+     * least recently updated first, for incremental sync. Kept out of the
+     * response cache: the caller stores the items itself and revalidates
+     * with {@code etag}.
+     */
+    public GitHubIssuesPage getIssuesUpdatedSince(String username, String repo, String since, int page, String etag) {
+        return issuesPage(webClient.get().uri("/repos/{username}/{repo}/issues?state=all&sort=updated&direction=asc"
+                + "&since={since}&per_page=100&page={page}", username, repo, since, page), etag);
+    }
+
+    /**
+     * One page of all issues and pull requests, most recently updated first,
+     * for the first sync and its backfill. Kept out of the response cache
+     * like {@link #getIssuesUpdatedSince}.
+     */
+    public GitHubIssuesPage getRecentlyUpdatedIssues(String username, String repo, int page) {
+        return issuesPage(webClient.get().uri("/repos/{username}/{repo}/issues?state=all&sort=updated&direction=desc"
+                + "&per_page=100&page={page}", username, repo, page), null);
+    }
+
+    private GitHubIssuesPage issuesPage(WebClient.RequestHeadersSpec<?> request, String etag) {
+        return request
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody().thenReturn(new GitHubIssuesPage(false, etag, List.of()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToFlux(GitHubIssue.class)
+                            .collectList()
+                            .map(issues -> new GitHubIssuesPage(true, newEtag, issues));
+                })
+                .block();
+    }
+
     public GitHubIssue createIssue(String username, String repo, String title, String body) {
         if (!hasToken) {
             throw new IllegalStateException("GitHub token required to create issues");
@@ -191,6 +388,11 @@ public class GitHubService {
 
     // ==================== PULL REQUESTS ====================
     public List<GitHubPullRequest> getRepositoryPullRequests(String username, String repo, String state, int limit) {
+        return getRepositoryPullRequestsAsync(username, repo, state, limit).block();
+    }
+
+    public Mono<List<GitHubPullRequest>> getRepositoryPullRequestsAsync(String username, String repo, String state,
+            int limit) {
         int perPage = Math.min(limit, 100);
 
         return webClient.get()
@@ -198,8 +400,7 @@ public class GitHubService {
                         username, repo, state, perPage)
                 .retrieve()
                 .bodyToFlux(GitHubPullRequest.class)
-                .collectList()
-                .block();
+                .collectList();
     }
 
     public GitHubPullRequest createPullRequest(String username, String repo, String title, String head, String base, String body) {
@@ -223,12 +424,15 @@ public class GitHubService {
 
     // ==================== BRANCHES ====================
     public List<GitHubBranch> getRepositoryBranches(String username, String repo) {
+        return getRepositoryBranchesAsync(username, repo).block();
+    }
+
+    public Mono<List<GitHubBranch>> getRepositoryBranchesAsync(String username, String repo) {
         return webClient.get()
                 .uri("/repos/{username}/{repo}/branches", username, repo)
                 .retrieve()
                 .bodyToFlux(GitHubBranch.class)
-                .collectList()
-                .block();
+                .collectList();
     }
 
     public GitHubBranch createBranch(String username, String repo, String branchName, String fromBranch) {
@@ -236,9 +440,11 @@ public class GitHubService {
             throw new IllegalStateException("GitHub token required to create branches");
         }
 
-        // First, get the SHA of the commit from the source branch
+        // First, get the SHA of the commit from the source branch; a cached
+        // head could be behind the branch, so always read it live
         GitHubBranch sourceBranch = webClient.get()
                 .uri("/repos/{username}/{repo}/branches/{branch}", username, repo, fromBranch)
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
                 .retrieve()
                 .bodyToMono(GitHubBranch.class)
                 .block();
@@ -320,25 +526,276 @@ public class GitHubService {
     }
 
     public GitHubRelease getLatestRelease(String username, String repo) {
+        return getLatestReleaseAsync(username, repo).block();
+    }
+
+    /**
+     * Fails with {@link WebClientResponseException.NotFound} if the
+     * repository has no releases.
+     */
+    public Mono<GitHubRelease> getLatestReleaseAsync(String username, String repo) {
         return webClient.get()
                 .uri("/repos/{username}/{repo}/releases/latest", username, repo)
                 .retrieve()
-                .bodyToMono(GitHubRelease.class)
-                .block();
+                .bodyToMono(GitHubRelease.class);
     }
 
     // ==================== GITHUB ACTIONS ====================
     public List<GitHubWorkflowRun> getWorkflowRuns(String username, String repo, int limit) {
+        return getWorkflowRunsAsync(username, repo, limit).block();
+    }
+
+    public Mono<List<GitHubWorkflowRun>> getWorkflowRunsAsync(String username, String repo, int limit) {
         int perPage = Math.min(limit, 100);
 
-        GitHubWorkflowRunsResponse response = webClient.get()
+        return webClient.get()
                 .uri("/repos/{username}/{repo}/actions/runs?per_page={perPage}",
                         username, repo, perPage)
                 .retrieve()
                 .bodyToMono(GitHubWorkflowRunsResponse.class)
+                .map(response -> response.workflowRuns() != null ? response.workflowRuns() : List.<GitHubWorkflowRun>of())
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * One page of 100 workflow runs, optionally narrowed by GitHub's
+     * {@code created} filter (e.g. {@code >=2024-05-01T00:00:00Z}) and
+     * revalidated with {@code etag}. GitHub returns at most 1000 runs per
+     * filter. Bypasses the response cache; WorkflowRunStore keeps its own
+     * copy.
+     */
+    public GitHubWorkflowRunsPage getWorkflowRunsPage(String username, String repo, String created, int page,
+            String etag) {
+        WebClient.RequestHeadersSpec<?> request = created != null
+                ? webClient.get().uri("/repos/{username}/{repo}/actions/runs?created={created}&per_page=100"
+                        + "&page={page}", username, repo, created, page)
+                : webClient.get().uri("/repos/{username}/{repo}/actions/runs?per_page=100&page={page}",
+                        username, repo, page);
+        return pollWorkflowRuns(request, etag).block();
+    }
+
+    /**
+     * The newest run on {@code branch}, as a page of at most one run,
+     * revalidated with {@code etag}. Bypasses the response cache.
+     */
+    public GitHubWorkflowRunsPage getLatestWorkflowRun(String username, String repo, String branch, String etag) {
+        return getLatestWorkflowRunAsync(username, repo, branch, etag).block();
+    }
+
+    public Mono<GitHubWorkflowRunsPage> getLatestWorkflowRunAsync(String username, String repo, String branch,
+            String etag) {
+        return pollWorkflowRuns(webClient.get()
+                .uri("/repos/{username}/{repo}/actions/runs?branch={branch}&per_page=1", username, repo, branch),
+                etag);
+    }
+
+    /**
+     * One run, as a page of one run, revalidated with {@code etag}. Bypasses
+     * the response cache so a watcher sees every status change.
+     */
+    public GitHubWorkflowRunsPage getWorkflowRun(String username, String repo, long runId, String etag) {
+        return getWorkflowRunAsync(username, repo, runId, etag).block();
+    }
+
+    public Mono<GitHubWorkflowRunsPage> getWorkflowRunAsync(String username, String repo, long runId, String etag) {
+        return webClient.get()
+                .uri("/repos/{username}/{repo}/actions/runs/{runId}", username, repo, runId)
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody()
+                                .thenReturn(new GitHubWorkflowRunsPage(false, etag, 1, List.of()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(GitHubWorkflowRun.class)
+                            .map(run -> new GitHubWorkflowRunsPage(true, newEtag, 1, List.of(run)));
+                });
+    }
+
+    /**
+     * The last {@code limit} completed runs of one workflow, newest first.
+     */
+    public List<GitHubWorkflowRun> getCompletedWorkflowRuns(String username, String repo, long workflowId,
+            int limit) {
+        return getCompletedWorkflowRunsAsync(username, repo, workflowId, limit).block();
+    }
+
+    public Mono<List<GitHubWorkflowRun>> getCompletedWorkflowRunsAsync(String username, String repo, long workflowId,
+            int limit) {
+        return webClient.get()
+                .uri("/repos/{username}/{repo}/actions/workflows/{workflowId}/runs?status=completed"
+                        + "&per_page={perPage}", username, repo, workflowId, Math.min(limit, 100))
+                .retrieve()
+                .bodyToMono(GitHubWorkflowRunsResponse.class)
+                .map(response -> response.workflowRuns() != null ? response.workflowRuns() : List.<GitHubWorkflowRun>of())
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * All jobs of a run's latest attempt, paging through large matrices up
+     * to 1000 jobs.
+     */
+    public List<GitHubWorkflowJob> getWorkflowJobs(String username, String repo, long runId) {
+        List<GitHubWorkflowJob> jobs = new ArrayList<>();
+        for (int page = 1; page <= 10; page++) {
+            GitHubWorkflowJobsResponse response = webClient.get()
+                    .uri("/repos/{username}/{repo}/actions/runs/{runId}/jobs?filter=latest&per_page=100&page={page}",
+                            username, repo, runId, page)
+                    .retrieve()
+                    .bodyToMono(GitHubWorkflowJobsResponse.class)
+                    .block();
+            if (response == null || response.jobs() == null) {
+                break;
+            }
+            jobs.addAll(response.jobs());
+            if (response.jobs().size() < 100 || jobs.size() >= response.totalCount()) {
+                break;
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Streams a run's log archive (a ZIP with one file per job and step) to
+     * {@code target} without buffering it.
+     *
+     * @return the number of bytes written
+     * @throws IllegalStateException if it is larger than {@code maxBytes}
+     */
+    public long downloadRunLogs(String username, String repo, long runId, Path target, long maxBytes) {
+        return download(target, maxBytes, "/repos/{username}/{repo}/actions/runs/{runId}/logs", username, repo, runId);
+    }
+
+    /**
+     * Streams one job's plain-text log to {@code target} without buffering
+     * it.
+     *
+     * @return the number of bytes written
+     * @throws IllegalStateException if it is larger than {@code maxBytes}
+     */
+    public long downloadJobLogs(String username, String repo, long jobId, Path target, long maxBytes) {
+        return download(target, maxBytes, "/repos/{username}/{repo}/actions/jobs/{jobId}/logs", username, repo, jobId);
+    }
+
+    private Mono<GitHubWorkflowRunsPage> pollWorkflowRuns(WebClient.RequestHeadersSpec<?> request, String etag) {
+        return request
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody()
+                                .thenReturn(new GitHubWorkflowRunsPage(false, etag, 0, List.of()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToMono(GitHubWorkflowRunsResponse.class)
+                            .map(runs -> new GitHubWorkflowRunsPage(true, newEtag, runs.totalCount(),
+                                    runs.workflowRuns() != null ? runs.workflowRuns() : List.of()));
+                });
+    }
+
+    /**
+     * GitHub answers log requests with a redirect to a signed URL; that one
+     * is fetched without the API client's token, cache, metrics and traces,
+     * but through the cassette.
+     */
+    private long download(Path target, long maxBytes, String uri, Object... variables) {
+        AtomicLong written = new AtomicLong();
+        Optional<URI> location = webClient.get()
+                .uri(uri, variables)
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is3xxRedirection()) {
+                        return response.releaseBody()
+                                .thenReturn(Optional.ofNullable(response.headers().asHttpHeaders().getLocation()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    return DataBufferUtils.write(limit(response.bodyToFlux(DataBuffer.class), written, maxBytes), target)
+                            .thenReturn(Optional.<URI>empty());
+                })
+                .block();
+        if (location != null && location.isPresent()) {
+            DataBufferUtils.write(limit(downloadClient.get()
+                    .uri(location.get())
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class), written, maxBytes), target)
+                    .block();
+        }
+        return written.get();
+    }
+
+    private static Flux<DataBuffer> limit(Flux<DataBuffer> body, AtomicLong written, long maxBytes) {
+        return body.doOnNext(buffer -> {
+            if (written.addAndGet(buffer.readableByteCount()) > maxBytes) {
+                DataBufferUtils.release(buffer);
+                throw new IllegalStateException("log is larger than %d MB".formatted(maxBytes >> 20));
+            }
+        });
+    }
+
+    // ==================== EVENTS ====================
+    public GitHubEventsPage getRepositoryEvents(String username, String repo, String etag) {
+        return pollEvents(webClient.get()
+                .uri("/repos/{username}/{repo}/events?per_page=100", username, repo), etag);
+    }
+
+    public GitHubEventsPage getReceivedEvents(String username, String etag) {
+        return pollEvents(webClient.get()
+                .uri("/users/{username}/received_events?per_page=100", username), etag);
+    }
+
+    /**
+     * Conditional GET of an events feed. Polls always bypass the response
+     * cache, the first one too: the caller keeps the ETag itself and must
+     * see every 304 and every new page.
+     */
+    private GitHubEventsPage pollEvents(WebClient.RequestHeadersSpec<?> request, String etag) {
+        return request
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    int pollInterval = pollInterval(response.headers().asHttpHeaders().getFirst("X-Poll-Interval"));
+                    if (response.statusCode().value() == 304) {
+                        return response.releaseBody()
+                                .thenReturn(new GitHubEventsPage(false, etag, pollInterval, List.of()));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    String newEtag = response.headers().asHttpHeaders().getETag();
+                    return response.bodyToFlux(GitHubEvent.class)
+                            .collectList()
+                            .map(events -> new GitHubEventsPage(true, newEtag, pollInterval, events));
+                })
                 .block();
+    }
 
-        return response != null ? response.workflowRuns() : List.of();
+    private static int pollInterval(String header) {
+        try {
+            return header != null ? Integer.parseInt(header.trim()) : 60;
+        } catch (NumberFormatException e) {
+            return 60;
+        }
     }
 
     // ==================== FILE CONTENT ====================
@@ -350,6 +807,20 @@ public class GitHubService {
                 .block();
     }
 
+    /**
+     * The live file, bypassing the response cache: updates and deletes are
+     * rejected unless they name the current blob SHA, which a cached
+     * (possibly stale) response may not.
+     */
+    private GitHubContent getFileContentForWrite(String username, String repo, String path) {
+        return webClient.get()
+                .uri("/repos/{username}/{repo}/contents/{path}", username, repo, path)
+                .attribute(GitHubCacheFilter.NO_STORE_ATTRIBUTE, Boolean.TRUE)
+                .retrieve()
+                .bodyToMono(GitHubContent.class)
+                .block();
+    }
+
     // ==================== FILE OPERATIONS ====================
     public String pushFileContent(String username, String repo, String path, String content,
             String message, String branch) {
@@ -360,11 +831,11 @@ public class GitHubService {
         // Check if file exists to get its SHA (required for updates)
         String fileSha = null;
         try {
-            GitHubContent existingFile = getFileContent(username, repo, path);
+            GitHubContent existingFile = getFileContentForWrite(username, repo, path);
             if (existingFile != null) {
                 fileSha = existingFile.sha();
             }
-        } catch (Exception e) {
+        } catch (WebClientResponseException.NotFound e) {
             // File doesn't exist, will be created
         }
 
@@ -387,6 +858,7 @@ public class GitHubService {
 
         PushFileResponse response = webClient.put()
                 .uri("/repos/{username}/{repo}/contents/{path}", username, repo, path)
+                .attribute(GitHubCacheFilter.FILE_WRITE_ATTRIBUTE, new GitHubCacheFilter.FileWrite(encodedContent, branch))
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(PushFileResponse.class)
@@ -404,7 +876,7 @@ public class GitHubService {
         }
 
         // Get the file's SHA (required for deletion)
-        GitHubContent file = getFileContent(username, repo, path);
+        GitHubContent file = getFileContentForWrite(username, repo, path);
         if (file == null) {
             throw new IllegalStateException("File not found: " + path);
         }
@@ -417,6 +889,7 @@ public class GitHubService {
 
         webClient.method(HttpMethod.DELETE)
                 .uri("/repos/{username}/{repo}/contents/{path}", username, repo, path)
+                .attribute(GitHubCacheFilter.FILE_WRITE_ATTRIBUTE, new GitHubCacheFilter.FileWrite(null, branch))
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(Void.class)
@@ -424,17 +897,27 @@ public class GitHubService {
     }
 
     // ==================== SEARCH ====================
+    /**
+     * Up to {@code limit} repositories matching {@code query}, most starred
+     * first; GitHub serves at most 1000 results per query.
+     */
     public List<GitHubRepository> searchRepositories(String query, int limit) {
         int perPage = Math.min(limit, 100);
-
-        GitHubSearchResult result = webClient.get()
-                .uri("/search/repositories?q={query}&per_page={perPage}&sort=stars&order=desc",
-                        query, perPage)
-                .retrieve()
-                .bodyToMono(GitHubSearchResult.class)
-                .block();
-
-        return result != null ? result.items() : List.of();
+        List<GitHubRepository> repositories = new ArrayList<>();
+        for (int page = 1; repositories.size() < limit && page <= 10; page++) {
+            GitHubSearchResult result = webClient.get()
+                    .uri("/search/repositories?q={query}&per_page={perPage}&page={page}&sort=stars&order=desc",
+                            query, perPage, page)
+                    .retrieve()
+                    .bodyToMono(GitHubSearchResult.class)
+                    .block();
+            List<GitHubRepository> items = result != null && result.items() != null ? result.items() : List.of();
+            repositories.addAll(items.subList(0, Math.min(items.size(), limit - repositories.size())));
+            if (items.size() < perPage) {
+                break;
+            }
+        }
+        return repositories;
     }
 
     // ==================== FORKS ====================
@@ -492,6 +975,7 @@ public class GitHubService {
             return false;
         }
 
+        // 204 if starred, 404 if not; anything else is a real failure.
         try {
             webClient.get()
                     .uri("/user/starred/{username}/{repo}", username, repo)
@@ -499,7 +983,7 @@ public class GitHubService {
                     .bodyToMono(Void.class)
                     .block();
             return true;
-        } catch (Exception e) {
+        } catch (WebClientResponseException.NotFound e) {
             return false;
         }
     }
@@ -509,6 +993,35 @@ public class GitHubService {
         return hasToken;
     }
 
+    private List<GitHubRepository> listRepositories(int max, String uri, Object... variables) {
+        Object[] pageVariables = Arrays.copyOf(variables, variables.length + 1);
+        List<GitHubRepository> repositories = new ArrayList<>();
+        for (int page = 1; repositories.size() < max; page++) {
+            pageVariables[variables.length] = page;
+            List<GitHubRepository> items = webClient.get()
+                    .uri(uri, pageVariables)
+                    .retrieve()
+                    .bodyToFlux(GitHubRepository.class)
+                    .collectList()
+                    .block();
+            if (items == null || items.isEmpty()) {
+                break;
+            }
+            repositories.addAll(items.subList(0, Math.min(items.size(), max - repositories.size())));
+            if (items.size() < 100) {
+                break;
+            }
+        }
+        return repositories;
+    }
+
+    private static void addQuery(StringBuilder uri, Map<String, Object> variables, String name, String value) {
+        if (value != null && !value.isBlank()) {
+            uri.append('&').append(name).append("={").append(name).append('}');
+            variables.put(name, value);
+        }
+    }
+
     public void mergePullRequest(String username, String repo, int prNumber, String commitMessage) {
         if (!hasToken) {
             throw new IllegalStateException("GitHub token required to merge pull requests");
@@ -0,0 +1,373 @@
+package com.example.mcp_github.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubIssuesPage;
+import com.example.mcp_github.service.issues.IssueIndex;
+import com.example.mcp_github.service.issues.IssueMatches;
+import com.example.mcp_github.service.issues.IssueQuery;
+import com.example.mcp_github.service.issues.IssueSyncStatus;
+import com.example.mcp_github.service.issues.StoredIssue;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local per-repository copy of issues and pull requests, kept current by
+ * incremental sync instead of re-listing. The first sync reads one page of
+ * the most recently updated items; later ones ask only for items updated
+ * since the newest {@code updated_at} seen (the high-water mark), and
+ * revalidate that request with its ETag, so a quiet repository costs a
+ * single 304.
+ *
+ * <p>
+ * Older items are filled in on a background thread, a page at a time,
+ * newest first, until the repository is exhausted or
+ * {@code issues.store.max-items} are stored. A repository cut off at that
+ * limit is reported as truncated rather than complete: queries then cover
+ * only its most recently updated items. The backfill pauses while
+ * fewer than {@code issues.store.rate-limit-reserve} requests are left in
+ * the rate-limit window, and resumes on a later query.
+ *
+ * <p>
+ * A repository is synced on the first query after
+ * {@code issues.store.sync-interval-seconds}. A sync that hits
+ * {@code issues.store.max-pages-per-sync} keeps what it got and resumes
+ * from its high-water mark next time. Issues that were deleted or
+ * transferred away stay in the store; GitHub does not report them.
+ *
+ * <p>
+ * The issues endpoint returns pull requests as well, with their merge time
+ * and draft flag, so one sync serves both the issue and pull request tools.
+ * Least recently used repositories beyond {@code issues.store.max-repositories}
+ * are dropped.
+ *
+ * <p>
+ * Titles and bodies are also kept in an {@link IssueIndex}, updated as
+ * items sync, so "is there an issue about X" needs no search API call.
+ */
+@Service
+public class IssueStore {
+
+    /**
+     * Page size GitHubService requests issues with.
+     */
+    private static final int PER_PAGE = 100;
+
+    private final GitHubService gitHubService;
+    private final GitHubMetricsFilter metrics;
+    private final long syncIntervalMillis;
+    private final int maxPagesPerSync;
+    private final int maxItems;
+    private final int rateLimitReserve;
+    private final int maxRepositories;
+    private final LinkedHashMap<String, RepositoryIssues> repositories = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService backfill;
+
+    public IssueStore(
+            GitHubService gitHubService,
+            GitHubMetricsFilter metrics,
+            @Value("${issues.store.sync-interval-seconds:15}") long syncIntervalSeconds,
+            @Value("${issues.store.max-pages-per-sync:10}") int maxPagesPerSync,
+            @Value("${issues.store.max-items:10000}") int maxItems,
+            @Value("${issues.store.rate-limit-reserve:500}") int rateLimitReserve,
+            @Value("${issues.store.max-repositories:50}") int maxRepositories) {
+        this.gitHubService = gitHubService;
+        this.metrics = metrics;
+        this.syncIntervalMillis = TimeUnit.SECONDS.toMillis(syncIntervalSeconds);
+        this.maxPagesPerSync = Math.max(1, maxPagesPerSync);
+        this.maxItems = Math.max(PER_PAGE, maxItems);
+        this.rateLimitReserve = Math.max(0, rateLimitReserve);
+        this.maxRepositories = Math.max(1, maxRepositories);
+        this.backfill = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "issue-store-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // ==================== QUERIES ====================
+    /**
+     * Issues and pull requests of {@code owner/repo} matching {@code query},
+     * syncing the repository first if it is due. If the sync fails but
+     * earlier data exists, that data is returned and the failure reported
+     * in {@link IssueMatches#sync()}.
+     */
+    public IssueMatches query(String owner, String repo, IssueQuery query) {
+        RepositoryIssues issues = repository(owner, repo);
+        synchronized (issues) {
+            syncIfDue(owner, repo, issues);
+            startBackfill(owner, repo, issues);
+            List<StoredIssue> matches = new ArrayList<>();
+            for (StoredIssue issue : issues.byNumber.values()) {
+                if (matches(issue, query)) {
+                    matches.add(issue);
+                }
+            }
+            matches.sort(Comparator.comparingInt(StoredIssue::number).reversed());
+            int limit = Math.min(query.limit(), matches.size());
+            return new IssueMatches(List.copyOf(matches.subList(0, limit)), matches.size(), issues.status);
+        }
+    }
+
+    /**
+     * Full-text search over the titles and bodies of {@code owner/repo}'s
+     * issues and pull requests matching {@code query}, best match first.
+     * Syncs first like {@link #query}.
+     */
+    public IssueMatches search(String owner, String repo, String text, IssueQuery query) {
+        RepositoryIssues issues = repository(owner, repo);
+        synchronized (issues) {
+            syncIfDue(owner, repo, issues);
+            startBackfill(owner, repo, issues);
+            List<StoredIssue> matches = new ArrayList<>();
+            int total = 0;
+            for (int number : issues.index.search(text)) {
+                StoredIssue issue = issues.byNumber.get(number);
+                if (issue != null && matches(issue, query)) {
+                    if (matches.size() < query.limit()) {
+                        matches.add(issue);
+                    }
+                    total++;
+                }
+            }
+            return new IssueMatches(List.copyOf(matches), total, issues.status);
+        }
+    }
+
+    /**
+     * Makes the next query of {@code owner/repo} sync first, e.g. after
+     * creating an issue.
+     */
+    public void markStale(String owner, String repo) {
+        RepositoryIssues issues;
+        synchronized (repositories) {
+            issues = repositories.get(key(owner, repo));
+        }
+        if (issues != null) {
+            synchronized (issues) {
+                IssueSyncStatus s = issues.status;
+                issues.status = new IssueSyncStatus(s.stored(), s.requests(), s.received(), s.complete(),
+                        s.truncated(), 0, s.error());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        backfill.shutdownNow();
+    }
+
+    // ==================== SYNC ====================
+    private void syncIfDue(String owner, String repo, RepositoryIssues issues) {
+        if (System.currentTimeMillis() - issues.status.syncedAt() >= syncIntervalMillis) {
+            sync(owner, repo, issues);
+        }
+    }
+
+    private void sync(String owner, String repo, RepositoryIssues issues) {
+        if (issues.highWaterMark == null && issues.byNumber.isEmpty()) {
+            firstSync(owner, repo, issues);
+            return;
+        }
+        int requests = 0;
+        int received = 0;
+        boolean caughtUp = false;
+        String since = issues.highWaterMark;
+        String newest = since;
+        String firstPageEtag = null;
+        try {
+            for (int page = 1; page <= maxPagesPerSync; page++) {
+                GitHubIssuesPage result = gitHubService.getIssuesUpdatedSince(owner, repo, since, page,
+                        page == 1 ? issues.etag : null);
+                requests++;
+                if (!result.modified()) {
+                    // Only sent with an ETag, which is only kept once caught up.
+                    caughtUp = true;
+                    firstPageEtag = issues.etag;
+                    break;
+                }
+                if (page == 1) {
+                    firstPageEtag = result.etag();
+                }
+                for (GitHubIssue issue : result.issues()) {
+                    store(issues, issue);
+                    newest = newer(newest, issue.updatedAt());
+                    received++;
+                }
+                if (result.issues().size() < PER_PAGE) {
+                    caughtUp = true;
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            IssueSyncStatus s = issues.status;
+            issues.status = new IssueSyncStatus(issues.byNumber.size(), requests, received, s.complete(),
+                    s.truncated(), s.syncedAt(), e.getMessage());
+            return;
+        }
+        // The ETag belongs to the request for this high-water mark only.
+        issues.etag = caughtUp && Objects.equals(newest, since) ? firstPageEtag : null;
+        issues.highWaterMark = newest;
+        issues.caughtUp = caughtUp;
+        issues.status = new IssueSyncStatus(issues.byNumber.size(), requests, received,
+                caughtUp && issues.complete, issues.truncated, System.currentTimeMillis(), null);
+    }
+
+    /**
+     * Reads the most recently updated page, so a partial store holds the
+     * items queries most likely ask about; the rest is backfill.
+     */
+    private void firstSync(String owner, String repo, RepositoryIssues issues) {
+        GitHubIssuesPage result = gitHubService.getRecentlyUpdatedIssues(owner, repo, 1);
+        String newest = null;
+        for (GitHubIssue issue : result.issues()) {
+            store(issues, issue);
+            newest = newer(newest, issue.updatedAt());
+        }
+        issues.highWaterMark = newest;
+        issues.backfillPage = 2;
+        issues.complete = result.issues().size() < PER_PAGE;
+        issues.truncated = !issues.complete && issues.byNumber.size() >= maxItems;
+        issues.caughtUp = true;
+        issues.status = new IssueSyncStatus(issues.byNumber.size(), 1, result.issues().size(), issues.complete,
+                issues.truncated, System.currentTimeMillis(), null);
+    }
+
+    /**
+     * Pages on through the newest-first listing in the background. Items
+     * updated meanwhile move to the front and come in through
+     * {@link #sync} instead. Called with the repository's monitor held.
+     */
+    private void startBackfill(String owner, String repo, RepositoryIssues issues) {
+        if (issues.complete || issues.truncated || issues.backfilling || issues.backfillPage == 0 || rateLimitLow()) {
+            return;
+        }
+        issues.backfilling = true;
+        backfill.execute(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int page;
+                    synchronized (issues) {
+                        if (issues.complete || issues.truncated || issues.evicted || rateLimitLow()) {
+                            return;
+                        }
+                        page = issues.backfillPage;
+                    }
+                    // Fetched without the lock so queries are not held up.
+                    GitHubIssuesPage result = gitHubService.getRecentlyUpdatedIssues(owner, repo, page);
+                    synchronized (issues) {
+                        issues.backfillPage++;
+                        for (GitHubIssue issue : result.issues()) {
+                            store(issues, issue);
+                        }
+                        issues.complete = result.issues().size() < PER_PAGE;
+                        issues.truncated = !issues.complete && issues.byNumber.size() >= maxItems;
+                        IssueSyncStatus s = issues.status;
+                        issues.status = new IssueSyncStatus(issues.byNumber.size(), s.requests() + 1,
+                                s.received() + result.issues().size(), issues.caughtUp && issues.complete,
+                                issues.truncated, s.syncedAt(), s.error());
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (issues) {
+                    IssueSyncStatus s = issues.status;
+                    issues.status = new IssueSyncStatus(s.stored(), s.requests(), s.received(), s.complete(),
+                            s.truncated(), s.syncedAt(), e.getMessage());
+                }
+            } finally {
+                synchronized (issues) {
+                    issues.backfilling = false;
+                }
+            }
+        });
+    }
+
+    private boolean rateLimitLow() {
+        long remaining = metrics.rateLimitRemaining();
+        return remaining >= 0 && remaining < rateLimitReserve;
+    }
+
+    /**
+     * Stores {@code issue} unless a newer copy is already stored, as one
+     * from a backfill page fetched before a sync can be.
+     */
+    private static void store(RepositoryIssues issues, GitHubIssue issue) {
+        StoredIssue stored = issues.byNumber.get(issue.number());
+        if (stored != null && stored.updatedAt() != null && issue.updatedAt() != null
+                && stored.updatedAt().compareTo(issue.updatedAt()) > 0) {
+            return;
+        }
+        issues.byNumber.put(issue.number(), StoredIssue.from(issue));
+        issues.index.add(issue.number(), issue.title(), issue.body());
+    }
+
+    private static String newer(String newest, String updatedAt) {
+        return updatedAt != null && (newest == null || updatedAt.compareTo(newest) > 0) ? updatedAt : newest;
+    }
+
+    // ==================== HELPER ====================
+    private RepositoryIssues repository(String owner, String repo) {
+        synchronized (repositories) {
+            RepositoryIssues issues = repositories.computeIfAbsent(key(owner, repo), k -> new RepositoryIssues());
+            while (repositories.size() > maxRepositories) {
+                repositories.remove(repositories.keySet().iterator().next()).evicted = true;
+            }
+            return issues;
+        }
+    }
+
+    private static String key(String owner, String repo) {
+        return (owner + "/" + repo).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean matches(StoredIssue issue, IssueQuery query) {
+        if (query.pullRequests() != null && issue.pullRequest() != query.pullRequests()) {
+            return false;
+        }
+        if (query.state() != null && !"all".equalsIgnoreCase(query.state())
+                && !query.state().equalsIgnoreCase(issue.state())) {
+            return false;
+        }
+        if (query.author() != null && !query.author().equalsIgnoreCase(issue.author())) {
+            return false;
+        }
+        if (query.label() != null && issue.labels().stream().noneMatch(query.label()::equalsIgnoreCase)) {
+            return false;
+        }
+        return query.since() == null || (issue.updatedAt() != null && issue.updatedAt().compareTo(query.since()) >= 0);
+    }
+
+    /**
+     * One repository's stored items and sync position. Guarded by its own
+     * monitor; {@code evicted} is set without it and stops the backfill.
+     */
+    private static final class RepositoryIssues {
+
+        private final Map<Integer, StoredIssue> byNumber = new HashMap<>();
+        private final IssueIndex index = new IssueIndex();
+        private String highWaterMark;
+        private String etag;
+        private int backfillPage;
+        private boolean complete;
+        private boolean truncated;
+        private boolean caughtUp;
+        private boolean backfilling;
+        private volatile boolean evicted;
+        private IssueSyncStatus status = new IssueSyncStatus(0, 0, 0, false, false, 0, null);
+    }
+}
@@ -1,73 +1,874 @@
 package com.example.mcp_github.service;
 
 import java.io.File;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.mcp_github.service.memory.MemoryEntry;
+import com.example.mcp_github.service.memory.MemoryNamespaceStats;
+import com.example.mcp_github.service.memory.MemoryPage;
+import com.example.mcp_github.service.memory.MemorySearchHit;
+import com.example.mcp_github.service.memory.MemorySnapshot;
+import com.example.mcp_github.service.memory.MemoryTextIndex;
+import com.example.mcp_github.service.memory.MemoryValue;
+import com.example.mcp_github.service.memory.MemoryVersion;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import jakarta.annotation.PreDestroy;
+
 /**
- * Service for persistent memory management using a local JSON file.
+ * Service for persistent memory management. Entries live in memory, grouped
+ * by namespace in key order, with optional per-entry TTLs and a global byte
+ * budget enforced by LRU eviction. Larger values are kept off-heap (and
+ * compressed above a second threshold) so the resident heap mostly holds keys
+ * and indexes. Values are also kept in a trigram index for full-text search.
+ * The store is streamed once from a local JSON file and written back in the
+ * background after mutations.
+ *
+ * <p>
+ * Reads are lock-free. Writes to the same key are serialized by a striped lock
+ * so the map, the byte accounting and the text index always change together.
+ *
+ * <p>
+ * Every write (including {@code forget}, which leaves a tombstone) gets the
+ * next version from a store-wide sequence and becomes the new head of the
+ * key's version chain. Versions become visible in sequence order, so a
+ * {@link MemorySnapshot} taken at version {@code v} sees exactly the writes up
+ * to {@code v} without blocking writers. History is bounded per key by count
+ * and age, lives in memory only, and is dropped together with the key when it
+ * expires or is evicted.
  */
 @Service
 public class MemoryService {
 
-    private static final String MEMORY_FILE
-            = "C:\\Users\\user\\Desktop\\MCPgithubtest\\memory.json";
+    public static final String DEFAULT_NAMESPACE = "default";
+
+    private static final long FLUSH_DELAY_MILLIS = 500;
+    private static final int WRITE_LOCK_STRIPES = 64;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final File memoryFile;
+    private final long maxBytes;
+    private final long defaultTtlMillis;
+    private final int offHeapThresholdBytes;
+    private final int compressionThresholdBytes;
+    private final int maxVersions;
+    private final long historyRetentionMillis;
 
-    public void remember(String key, String value) {
-        try {
-            Map<String, String> memory = loadMemory();
-            memory.put(key, value);
-            objectMapper.writeValue(new File(MEMORY_FILE), memory);
-        } catch (Exception e) {
-            throw new RuntimeException("Error saving memory: " + e.getMessage());
+    private final Map<String, ConcurrentSkipListMap<String, MemoryEntry>> namespaces = new ConcurrentHashMap<>();
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong offHeapBytes = new AtomicLong();
+    private final AtomicLong accessClock = new AtomicLong();
+    private final AtomicLong nextVersion = new AtomicLong();
+    private final AtomicLong stableVersion = new AtomicLong();
+    private final Set<Long> completedVersions = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object evictionLock = new Object();
+    private final Object[] writeLocks = new Object[WRITE_LOCK_STRIPES];
+    private final MemoryTextIndex textIndex = new MemoryTextIndex();
+    private final Object persistLock = new Object();
+    private final ScheduledExecutorService scheduler;
+
+    public MemoryService(
+            @Value("${memory.file:memory.json}") String memoryFile,
+            @Value("${memory.max-bytes:16777216}") long maxBytes,
+            @Value("${memory.default-ttl-seconds:0}") long defaultTtlSeconds,
+            @Value("${memory.sweep-interval-seconds:60}") long sweepIntervalSeconds,
+            @Value("${memory.off-heap-threshold-bytes:256}") int offHeapThresholdBytes,
+            @Value("${memory.compression-threshold-bytes:2048}") int compressionThresholdBytes,
+            @Value("${memory.history.max-versions:10}") int maxVersions,
+            @Value("${memory.history.retention-seconds:3600}") long historyRetentionSeconds) {
+        this.memoryFile = new File(memoryFile);
+        this.maxBytes = maxBytes;
+        this.defaultTtlMillis = TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        this.offHeapThresholdBytes = offHeapThresholdBytes;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        this.maxVersions = Math.max(1, maxVersions);
+        this.historyRetentionMillis = TimeUnit.SECONDS.toMillis(historyRetentionSeconds);
+        for (int i = 0; i < writeLocks.length; i++) {
+            writeLocks[i] = new Object();
         }
+
+        loadMemory();
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "memory-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            sweepExpired();
+            pruneHistory();
+            if (textIndex.needsCompaction()) {
+                textIndex.compact();
+            }
+            flushIfDirty();
+        }, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+
+        evictIfOverBudget();
+    }
+
+    // ==================== DEFAULT NAMESPACE ====================
+    public long remember(String key, String value) {
+        return remember(DEFAULT_NAMESPACE, key, value, null);
     }
 
     public String recall(String key) {
-        try {
-            return loadMemory().getOrDefault(key, null);
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading memory: " + e.getMessage());
-        }
+        return recall(DEFAULT_NAMESPACE, key);
     }
 
     public Map<String, String> recallAll() {
+        return recallAll(DEFAULT_NAMESPACE);
+    }
+
+    public void forget(String key) {
+        forget(DEFAULT_NAMESPACE, key);
+    }
+
+    public void forgetAll() {
+        forgetAll(DEFAULT_NAMESPACE);
+    }
+
+    // ==================== NAMESPACED ====================
+    /**
+     * Stores a value. A {@code null} TTL applies the configured default; a zero
+     * or negative TTL keeps the entry until it is forgotten or evicted.
+     *
+     * @return the version of this write
+     */
+    public long remember(String namespace, String key, String value, Duration ttl) {
+        if (key == null || key.isBlank()) {
+            throw new IllegalArgumentException("Key must not be blank");
+        }
+        long ttlMillis = ttl != null ? ttl.toMillis() : defaultTtlMillis;
+        long expiresAt = ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0;
+
+        // Encode outside the stripe lock; compression is the expensive part.
+        MemoryValue encoded = MemoryValue.encode(value, offHeapThresholdBytes, compressionThresholdBytes);
+        String ns = resolveNamespace(namespace);
+        long version = append(ns, entries(ns), key, encoded, value, expiresAt, false);
+        evictIfOverBudget();
+        markDirty();
+        return version;
+    }
+
+    public String recall(String namespace, String key) {
+        MemoryEntry entry = liveEntry(resolveNamespace(namespace), key);
+        if (entry == null) {
+            return null;
+        }
+        entry.touch(accessClock.incrementAndGet());
+        return entry.value();
+    }
+
+    public Map<String, String> recallAll(String namespace) {
+        Map<String, String> result = new TreeMap<>();
+        iterate(namespace, null, null, null, null).forEachRemaining(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    /**
+     * Deletes a key by writing a tombstone version; earlier values remain in
+     * its history and can be restored.
+     */
+    public void forget(String namespace, String key) {
+        String ns = resolveNamespace(namespace);
+        Map<String, MemoryEntry> entries = namespaces.get(ns);
+        if (entries == null || key == null) {
+            return;
+        }
+        if (append(ns, entries, key, null, null, 0, true) > 0) {
+            markDirty();
+        }
+    }
+
+    /**
+     * Tombstones every key of the namespace. Each key gets its own version,
+     * so the namespace is not cleared atomically.
+     */
+    public void forgetAll(String namespace) {
+        String ns = resolveNamespace(namespace);
+        Map<String, MemoryEntry> entries = namespaces.get(ns);
+        if (entries == null) {
+            return;
+        }
+        boolean changed = false;
+        for (String key : entries.keySet()) {
+            changed |= append(ns, entries, key, null, null, 0, true) > 0;
+        }
+        if (changed) {
+            markDirty();
+        }
+    }
+
+    // ==================== VERSIONS & SNAPSHOTS ====================
+    /**
+     * Highest version whose write, and every write before it, is visible.
+     */
+    public long currentVersion() {
+        return stableVersion.get();
+    }
+
+    public MemorySnapshot snapshot() {
+        return new MemorySnapshot(stableVersion.get(), System.currentTimeMillis());
+    }
+
+    /**
+     * Snapshot as of an earlier version. TTLs are judged as of now, so values
+     * that have expired since are not resurrected.
+     */
+    public MemorySnapshot snapshot(long version) {
+        long current = stableVersion.get();
+        if (version < 0 || version > current) {
+            throw new IllegalArgumentException("Version %d is out of range (current version is %d)"
+                    .formatted(version, current));
+        }
+        return new MemorySnapshot(version, System.currentTimeMillis());
+    }
+
+    /**
+     * Reads a key as of {@code snapshot}. Returns {@code null} if the key did
+     * not exist then, or if the version it had then is no longer retained.
+     */
+    public String recall(String namespace, String key, MemorySnapshot snapshot) {
+        if (snapshot == null) {
+            return recall(namespace, key);
+        }
+        MemoryEntry entry = visibleEntry(resolveNamespace(namespace), key, snapshot);
+        return entry != null ? entry.value() : null;
+    }
+
+    /**
+     * Retained versions of a key, newest first.
+     */
+    public List<MemoryVersion> history(String namespace, String key) {
+        Map<String, MemoryEntry> entries = namespaces.get(resolveNamespace(namespace));
+        List<MemoryVersion> versions = new ArrayList<>();
+        if (entries == null || key == null) {
+            return versions;
+        }
+        for (MemoryEntry e = entries.get(key); e != null; e = e.previous()) {
+            versions.add(new MemoryVersion(e.version(), e.writtenAt(), e.isDeleted(), e.value()));
+        }
+        return versions;
+    }
+
+    /**
+     * Writes the value a key had at {@code version} as a new version, with
+     * what was left of that version's TTL.
+     *
+     * @return the version of the restoring write
+     */
+    public long restore(String namespace, String key, long version) {
+        String ns = resolveNamespace(namespace);
+        Map<String, MemoryEntry> entries = namespaces.get(ns);
+        MemoryEntry head = entries != null && key != null ? entries.get(key) : null;
+        MemoryEntry target = head != null ? head.visibleAt(version) : null;
+        if (target == null || target.version() != version) {
+            throw new IllegalArgumentException("Version %d of '%s' is not retained".formatted(version, key));
+        }
+        if (target.isDeleted()) {
+            throw new IllegalArgumentException("Version %d of '%s' is a deletion".formatted(version, key));
+        }
+        long now = System.currentTimeMillis();
+        if (target.isExpired(now)) {
+            throw new IllegalArgumentException("Version %d of '%s' has expired".formatted(version, key));
+        }
+        Duration ttl = target.expiresAt() > 0 ? Duration.ofMillis(target.expiresAt() - now) : Duration.ZERO;
+        return remember(ns, key, target.value(), ttl);
+    }
+
+    // ==================== FULL-TEXT SEARCH ====================
+    /**
+     * Ranked case-insensitive keyword/substring search over values.
+     *
+     * @param namespace namespace to search, or {@code null} for all of them
+     */
+    public List<MemorySearchHit> search(String namespace, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String ns = (namespace != null && !namespace.isBlank()) ? namespace.trim() : null;
+        return textIndex.search(ns, query, limit, (hitNamespace, key) -> {
+            MemoryEntry entry = liveEntry(hitNamespace, key);
+            return entry != null ? entry.value() : null;
+        });
+    }
+
+    // ==================== ORDERED QUERIES ====================
+    /**
+     * Returns one page of live entries in key order. Keys are restricted to
+     * those starting with {@code prefix} and lying in {@code [fromKey, toKey)};
+     * any of these may be {@code null}. Pass the returned cursor back to fetch
+     * the next page.
+     */
+    public MemoryPage scan(String namespace, String prefix, String fromKey, String toKey, String cursor, int limit) {
+        return scan(namespace, prefix, fromKey, toKey, cursor, limit, null);
+    }
+
+    /**
+     * Same as {@link #scan(String, String, String, String, String, int)}, but
+     * reads as of {@code snapshot} when it is not {@code null}.
+     */
+    public MemoryPage scan(String namespace, String prefix, String fromKey, String toKey, String cursor, int limit,
+            MemorySnapshot snapshot) {
+        Iterator<Map.Entry<String, String>> it = iterate(namespace, prefix, fromKey, toKey, decodeCursor(cursor),
+                snapshot);
+        List<Map.Entry<String, String>> page = new ArrayList<>(Math.min(limit, 256));
+        while (page.size() < limit && it.hasNext()) {
+            page.add(it.next());
+        }
+        String next = it.hasNext() && !page.isEmpty() ? encodeCursor(page.get(page.size() - 1).getKey()) : null;
+        return new MemoryPage(page, next);
+    }
+
+    /**
+     * Lazily walks live entries in key order without copying the namespace.
+     * The iterator is weakly consistent: it never fails on concurrent writes
+     * and may or may not reflect them.
+     */
+    public Iterator<Map.Entry<String, String>> iterate(String namespace, String prefix, String fromKey, String toKey,
+            String afterKey) {
+        return iterate(namespace, prefix, fromKey, toKey, afterKey, null);
+    }
+
+    /**
+     * Walks entries as they were at {@code snapshot}, or live entries when it
+     * is {@code null}. Snapshot iteration is stable under concurrent writes.
+     */
+    public Iterator<Map.Entry<String, String>> iterate(String namespace, String prefix, String fromKey, String toKey,
+            String afterKey, MemorySnapshot snapshot) {
+        String ns = resolveNamespace(namespace);
+        ConcurrentSkipListMap<String, MemoryEntry> entries = namespaces.get(ns);
+        if (entries == null) {
+            return Collections.emptyIterator();
+        }
+
+        // Lower bound: the greatest of fromKey (inclusive), prefix (inclusive)
+        // and afterKey (exclusive).
+        String lower = null;
+        boolean inclusive = true;
+        for (String bound : new String[]{fromKey, prefix}) {
+            if (bound != null && (lower == null || bound.compareTo(lower) > 0)) {
+                lower = bound;
+            }
+        }
+        if (afterKey != null && (lower == null || afterKey.compareTo(lower) >= 0)) {
+            lower = afterKey;
+            inclusive = false;
+        }
+        if (lower != null && toKey != null && lower.compareTo(toKey) >= 0) {
+            return Collections.emptyIterator();
+        }
+
+        NavigableMap<String, MemoryEntry> view = entries;
+        if (lower != null) {
+            view = view.tailMap(lower, inclusive);
+        }
+        if (toKey != null) {
+            view = view.headMap(toKey, false);
+        }
+        return new LiveEntryIterator(ns, entries, view.entrySet().iterator(), prefix, snapshot);
+    }
+
+    /**
+     * Skips expired and deleted entries, stops at the end of the prefix range
+     * and touches each returned entry for LRU. With a snapshot, each key is
+     * resolved to its version at that snapshot instead.
+     */
+    private final class LiveEntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        private final String namespace;
+        private final Map<String, MemoryEntry> entries;
+        private final Iterator<Map.Entry<String, MemoryEntry>> source;
+        private final String prefix;
+        private final MemorySnapshot snapshot;
+        private Map.Entry<String, String> next;
+        private boolean done;
+
+        LiveEntryIterator(String namespace, Map<String, MemoryEntry> entries,
+                Iterator<Map.Entry<String, MemoryEntry>> source, String prefix, MemorySnapshot snapshot) {
+            this.namespace = namespace;
+            this.entries = entries;
+            this.source = source;
+            this.prefix = prefix;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                if (!source.hasNext()) {
+                    done = true;
+                    break;
+                }
+                Map.Entry<String, MemoryEntry> e = source.next();
+                if (prefix != null && !e.getKey().startsWith(prefix)) {
+                    done = true;
+                    break;
+                }
+                MemoryEntry entry = e.getValue();
+                if (snapshot != null) {
+                    entry = visibleAt(entry, snapshot);
+                    if (entry == null) {
+                        continue;
+                    }
+                } else if (entry.isExpired(System.currentTimeMillis())) {
+                    if (removeEntry(namespace, entries, e.getKey(), entry)) {
+                        markDirty();
+                    }
+                    continue;
+                } else if (entry.isDeleted()) {
+                    continue;
+                }
+                entry.touch(accessClock.incrementAndGet());
+                next = Map.entry(e.getKey(), entry.value() != null ? entry.value() : "");
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, String> result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
         try {
-            return loadMemory();
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading memory: " + e.getMessage());
+            return new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
         }
     }
 
-    public void forget(String key) {
+    public List<MemoryNamespaceStats> namespaceStats() {
+        List<MemoryNamespaceStats> stats = new ArrayList<>();
+        namespaces.forEach((namespace, entries) -> {
+            int count = 0;
+            int versions = 0;
+            int compressed = 0;
+            long heap = 0;
+            long offHeap = 0;
+            for (MemoryEntry head : entries.values()) {
+                if (!head.isDeleted()) {
+                    count++;
+                }
+                for (MemoryEntry entry = head; entry != null; entry = entry.previous()) {
+                    versions++;
+                    heap += entry.heapBytes();
+                    offHeap += entry.offHeapBytes();
+                    if (entry.isCompressed()) {
+                        compressed++;
+                    }
+                }
+            }
+            if (versions > 0) {
+                stats.add(new MemoryNamespaceStats(namespace, count, versions, heap, offHeap, compressed));
+            }
+        });
+        stats.sort(Comparator.comparing(MemoryNamespaceStats::namespace));
+        return stats;
+    }
+
+    public long usedBytes() {
+        return usedBytes.get();
+    }
+
+    public long offHeapBytes() {
+        return offHeapBytes.get();
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    // ==================== EXPIRY & EVICTION ====================
+    /**
+     * Removes every expired entry and every tombstone older than the history
+     * retention. Runs periodically in the background; reads also drop expired
+     * entries lazily as they encounter them.
+     */
+    public int sweepExpired() {
+        long now = System.currentTimeMillis();
+        long cutoff = now - historyRetentionMillis;
+        int removed = 0;
+        for (Map.Entry<String, ConcurrentSkipListMap<String, MemoryEntry>> ns : namespaces.entrySet()) {
+            for (Map.Entry<String, MemoryEntry> e : ns.getValue().entrySet()) {
+                MemoryEntry entry = e.getValue();
+                boolean stale = entry.isExpired(now) || (entry.isDeleted() && entry.writtenAt() < cutoff);
+                if (stale && removeEntry(ns.getKey(), ns.getValue(), e.getKey(), entry)) {
+                    removed++;
+                }
+            }
+        }
+        if (removed > 0) {
+            markDirty();
+        }
+        return removed;
+    }
+
+    /**
+     * Drops versions that fell out of the retention window since they were
+     * last pruned on write.
+     */
+    private void pruneHistory() {
+        long cutoff = System.currentTimeMillis() - historyRetentionMillis;
+        namespaces.forEach((ns, entries) -> entries.forEach((key, head) -> {
+            if (head.previous() == null) {
+                return;
+            }
+            synchronized (lockFor(ns, key)) {
+                if (entries.get(key) == head) {
+                    release(head.pruneHistory(maxVersions, cutoff));
+                }
+            }
+        }));
+    }
+
+    private void evictIfOverBudget() {
+        if (usedBytes.get() <= maxBytes) {
+            return;
+        }
+        synchronized (evictionLock) {
+            if (usedBytes.get() <= maxBytes) {
+                return;
+            }
+            // Evict down to 90% of the budget so a burst of writes does not
+            // trigger a full scan on every put.
+            long target = maxBytes - maxBytes / 10;
+            long now = System.currentTimeMillis();
+
+            record Candidate(String namespace, Map<String, MemoryEntry> entries, String key, MemoryEntry entry,
+                    long rank) {
+
+            }
+
+            List<Candidate> candidates = new ArrayList<>();
+            namespaces.forEach((ns, entries) -> entries.forEach((key, entry)
+                    -> candidates.add(new Candidate(ns, entries, key, entry,
+                            entry.isExpired(now) || entry.isDeleted() ? Long.MIN_VALUE : entry.lastAccess()))));
+            candidates.sort(Comparator.comparingLong(Candidate::rank));
+
+            for (Candidate c : candidates) {
+                if (usedBytes.get() <= target) {
+                    break;
+                }
+                removeEntry(c.namespace(), c.entries(), c.key(), c.entry());
+            }
+        }
+    }
+
+    /**
+     * Returns the current entry for a key, dropping it first if it expired.
+     * Deleted keys read as absent.
+     */
+    private MemoryEntry liveEntry(String namespace, String key) {
+        Map<String, MemoryEntry> entries = namespaces.get(namespace);
+        if (entries == null || key == null) {
+            return null;
+        }
+        MemoryEntry entry = entries.get(key);
+        if (entry == null || entry.isDeleted()) {
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            if (removeEntry(namespace, entries, key, entry)) {
+                markDirty();
+            }
+            return null;
+        }
+        return entry;
+    }
+
+    private MemoryEntry visibleEntry(String namespace, String key, MemorySnapshot snapshot) {
+        Map<String, MemoryEntry> entries = namespaces.get(namespace);
+        MemoryEntry head = entries != null && key != null ? entries.get(key) : null;
+        return head != null ? visibleAt(head, snapshot) : null;
+    }
+
+    private static MemoryEntry visibleAt(MemoryEntry head, MemorySnapshot snapshot) {
+        MemoryEntry entry = head.visibleAt(snapshot.version());
+        return entry == null || entry.isDeleted() || entry.isExpired(snapshot.timestamp()) ? null : entry;
+    }
+
+    /**
+     * Installs a new head version for a key: a value, or a tombstone when
+     * {@code delete} is set. The version is allocated under the key's stripe
+     * lock and published before the lock is released.
+     *
+     * @return the new version, or {@code -1} if there was nothing to delete
+     */
+    private long append(String namespace, Map<String, MemoryEntry> entries, String key, MemoryValue value,
+            String text, long expiresAt, boolean delete) {
+        synchronized (lockFor(namespace, key)) {
+            MemoryEntry head = entries.get(key);
+            if (delete && (head == null || head.isDeleted())) {
+                return -1;
+            }
+            long now = System.currentTimeMillis();
+            long version = nextVersion.incrementAndGet();
+            try {
+                MemoryEntry entry = delete
+                        ? MemoryEntry.tombstone(key, version, now, accessClock.incrementAndGet(), head)
+                        : MemoryEntry.of(key, value, version, now, expiresAt, accessClock.incrementAndGet(), head);
+                if (entry.sizeBytes() > maxBytes) {
+                    throw new IllegalArgumentException("Value for '%s' (%d bytes) exceeds the memory budget of %d bytes"
+                            .formatted(key, entry.sizeBytes(), maxBytes));
+                }
+                entries.put(key, entry);
+                account(entry, 1);
+                release(entry.pruneHistory(maxVersions, now - historyRetentionMillis));
+                if (delete) {
+                    textIndex.remove(namespace, key);
+                } else {
+                    textIndex.put(namespace, key, text);
+                }
+                return version;
+            } finally {
+                publish(version);
+            }
+        }
+    }
+
+    /**
+     * Marks {@code version} as installed and advances the visible version
+     * over every contiguous installed one, so snapshots never see gaps.
+     * Writers never wait for each other: whichever finishes last moves the
+     * watermark past versions completed out of order.
+     */
+    private void publish(long version) {
+        completedVersions.add(version);
+        while (true) {
+            long stable = stableVersion.get();
+            if (!completedVersions.remove(stable + 1)) {
+                return;
+            }
+            stableVersion.set(stable + 1);
+        }
+    }
+
+    /**
+     * Removes {@code entry} and its history only if it is still the current
+     * head of the key.
+     */
+    private boolean removeEntry(String namespace, Map<String, MemoryEntry> entries, String key, MemoryEntry entry) {
+        synchronized (lockFor(namespace, key)) {
+            if (!entries.remove(key, entry)) {
+                return false;
+            }
+            release(entry);
+            textIndex.remove(namespace, key);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the bytes of a detached version chain to the budget.
+     */
+    private void release(MemoryEntry chain) {
+        for (MemoryEntry e = chain; e != null; e = e.previous()) {
+            account(e, -1);
+        }
+    }
+
+    private void account(MemoryEntry entry, int sign) {
+        usedBytes.addAndGet(sign * entry.sizeBytes());
+        offHeapBytes.addAndGet(sign * entry.offHeapBytes());
+    }
+
+    private Object lockFor(String namespace, String key) {
+        int hash = 31 * namespace.hashCode() + key.hashCode();
+        return writeLocks[(hash ^ (hash >>> 16)) & (WRITE_LOCK_STRIPES - 1)];
+    }
+
+    private Map<String, MemoryEntry> entries(String namespace) {
+        return namespaces.computeIfAbsent(resolveNamespace(namespace), ns -> new ConcurrentSkipListMap<>());
+    }
+
+    private String resolveNamespace(String namespace) {
+        return (namespace != null && !namespace.isBlank()) ? namespace.trim() : DEFAULT_NAMESPACE;
+    }
+
+    // ==================== PERSISTENCE ====================
+    private void markDirty() {
+        dirty.set(true);
+        if (flushScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                flushScheduled.set(false);
+                flushIfDirty();
+            }, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flushIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
         try {
-            Map<String, String> memory = loadMemory();
-            memory.remove(key);
-            objectMapper.writeValue(new File(MEMORY_FILE), memory);
+            saveMemory();
         } catch (Exception e) {
-            throw new RuntimeException("Error deleting memory: " + e.getMessage());
+            // Retried on the next sweep.
+            dirty.set(true);
         }
     }
 
-    public void forgetAll() {
-        try {
-            objectMapper.writeValue(new File(MEMORY_FILE), new HashMap<>());
+    /**
+     * Streams every live entry (latest versions only) to a temporary file and atomically replaces
+     * the memory file with it. Values are decoded one at a time.
+     * <pre>{ "namespaces": { ns: { key: { "value": ..., "expiresAt": ... } } } }</pre>
+     */
+    private void saveMemory() throws Exception {
+        long now = System.currentTimeMillis();
+        synchronized (persistLock) {
+            File parent = memoryFile.getAbsoluteFile().getParentFile();
+            File tmp = new File(parent, memoryFile.getName() + ".tmp");
+            try (JsonGenerator gen = objectMapper.getFactory().createGenerator(tmp, JsonEncoding.UTF8)) {
+                gen.writeStartObject();
+                gen.writeObjectFieldStart("namespaces");
+                for (String namespace : new TreeMap<>(namespaces).keySet()) {
+                    ConcurrentSkipListMap<String, MemoryEntry> entries = namespaces.get(namespace);
+                    if (entries.isEmpty()) {
+                        continue;
+                    }
+                    gen.writeObjectFieldStart(namespace);
+                    for (Map.Entry<String, MemoryEntry> e : entries.entrySet()) {
+                        MemoryEntry entry = e.getValue();
+                        if (entry.isDeleted() || entry.isExpired(now)) {
+                            continue;
+                        }
+                        gen.writeObjectFieldStart(e.getKey());
+                        gen.writeStringField("value", entry.value());
+                        gen.writeNumberField("expiresAt", entry.expiresAt());
+                        gen.writeEndObject();
+                    }
+                    gen.writeEndObject();
+                }
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+            Files.move(tmp.toPath(), memoryFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Streams the memory file into the store without materializing a JSON
+     * tree. Also accepts the legacy flat {@code { "key": "value" }} format,
+     * which is loaded into the default namespace.
+     */
+    private void loadMemory() {
+        if (!memoryFile.exists()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (JsonParser parser = objectMapper.getFactory().createParser(memoryFile)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("namespaces".equals(field) && token == JsonToken.START_OBJECT) {
+                    loadNamespaces(parser, now);
+                } else if (token.isScalarValue()) {
+                    load(DEFAULT_NAMESPACE, field, parser.getValueAsString(), 0);
+                } else {
+                    parser.skipChildren();
+                }
+            }
         } catch (Exception e) {
-            throw new RuntimeException("Error clearing memory: " + e.getMessage());
+            throw new IllegalStateException("Error reading memory: " + e.getMessage(), e);
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private Map<String, String> loadMemory() throws Exception {
-        File file = new File(MEMORY_FILE);
-        if (!file.exists()) {
-            return new HashMap<>();
+    private void loadNamespaces(JsonParser parser, long now) throws Exception {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String namespace = parser.getCurrentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.getCurrentName();
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                String value = null;
+                long expiresAt = 0;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "value" ->
+                            value = parser.getValueAsString();
+                        case "expiresAt" ->
+                            expiresAt = parser.getValueAsLong(0);
+                        default ->
+                            parser.skipChildren();
+                    }
+                }
+                if (expiresAt == 0 || expiresAt > now) {
+                    load(namespace, key, value, expiresAt);
+                }
+            }
         }
-        return objectMapper.readValue(file, Map.class);
+    }
+
+    private void load(String namespace, String key, String value, long expiresAt) {
+        long version = nextVersion.incrementAndGet();
+        publish(version);
+        MemoryEntry entry = MemoryEntry.of(key,
+                MemoryValue.encode(value, offHeapThresholdBytes, compressionThresholdBytes),
+                version, System.currentTimeMillis(), expiresAt, accessClock.incrementAndGet(), null);
+        entries(namespace).put(key, entry);
+        account(entry, 1);
+        textIndex.put(namespace, key, value);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        flushIfDirty();
     }
 }
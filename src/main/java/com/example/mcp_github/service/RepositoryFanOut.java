@@ -0,0 +1,153 @@
+package com.example.mcp_github.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.service.fanout.FanOutResult;
+import com.example.mcp_github.service.fanout.RepoResult;
+import com.example.mcp_github.tracing.CallTracer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs one operation across many repositories in parallel. At most
+ * {@code fanout.concurrency} repositories are in flight at once, across all
+ * callers, which keeps well clear of GitHub's secondary rate limits.
+ *
+ * <p>
+ * Each batch gets a request budget: the rate limit remaining when it
+ * starts, minus {@code fanout.rate-limit-reserve} so other tools keep
+ * working. A repository whose operation could exceed it is skipped rather
+ * than run, as is every repository once the live remaining count drops to
+ * the reserve. A failing repository only fails its own result.
+ *
+ * <p>
+ * Operations run on worker threads but stay part of the calling tool call:
+ * stale cache notes and trace spans go to the caller's.
+ */
+@Service
+public class RepositoryFanOut {
+
+    private final GitHubMetricsFilter metrics;
+    private final GitHubCacheFilter cache;
+    private final CallTracer tracer;
+    private final int rateLimitReserve;
+    private final long timeoutMillis;
+    private final ExecutorService workers;
+
+    public RepositoryFanOut(
+            GitHubMetricsFilter metrics,
+            GitHubCacheFilter cache,
+            CallTracer tracer,
+            @Value("${fanout.concurrency:16}") int concurrency,
+            @Value("${fanout.rate-limit-reserve:100}") int rateLimitReserve,
+            @Value("${fanout.timeout-seconds:120}") long timeoutSeconds) {
+        this.metrics = metrics;
+        this.cache = cache;
+        this.tracer = tracer;
+        this.rateLimitReserve = Math.max(0, rateLimitReserve);
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, concurrency), r -> {
+            Thread thread = new Thread(r, "repo-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Applies {@code operation} to every repository and waits for all of
+     * them, or {@code fanout.timeout-seconds}.
+     *
+     * @param requestsPerRepository most API requests {@code operation}
+     * makes for one repository; cached responses are free, so this
+     * over-counts
+     * @param onResult called as each repository finishes, one at a time, so
+     * results can be streamed
+     */
+    public <T> FanOutResult<T> run(List<GitHubRepository> repositories, int requestsPerRepository,
+            Function<GitHubRepository, T> operation, Consumer<RepoResult<T>> onResult) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        long remaining = metrics.rateLimitRemaining();
+        AtomicLong budget = new AtomicLong(remaining >= 0 ? remaining - rateLimitReserve : Long.MAX_VALUE);
+        List<Future<RepoResult<T>>> futures = new ArrayList<>(repositories.size());
+        for (GitHubRepository repository : repositories) {
+            Callable<RepoResult<T>> task = () -> {
+                RepoResult<T> result = apply(repository, requestsPerRepository, budget, operation);
+                synchronized (onResult) {
+                    try {
+                        onResult.accept(result);
+                    } catch (RuntimeException e) {
+                        // Streaming is best effort; the result is still returned.
+                    }
+                }
+                return result;
+            };
+            futures.add(workers.submit(tracer.inCurrentTrace(cache.inCurrentCall(task))));
+        }
+
+        List<RepoResult<T>> results = new ArrayList<>(futures.size());
+        long deadline = start + timeoutMillis;
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), repositories.get(i).fullName(), deadline));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        int succeeded = (int) results.stream().filter(RepoResult::succeeded).count();
+        int skipped = (int) results.stream().filter(RepoResult::skipped).count();
+        return new FanOutResult<>(results, succeeded, results.size() - succeeded - skipped, skipped,
+                System.currentTimeMillis() - start, metrics.rateLimitRemaining());
+    }
+
+    @PreDestroy
+    public void close() {
+        workers.shutdownNow();
+    }
+
+    // ==================== HELPER ====================
+    private <T> RepoResult<T> apply(GitHubRepository repository, int cost, AtomicLong budget,
+            Function<GitHubRepository, T> operation) {
+        long live = metrics.rateLimitRemaining();
+        if (cost > 0 && (budget.addAndGet(-cost) < 0 || live >= 0 && live < rateLimitReserve + cost)) {
+            return new RepoResult<>(repository.fullName(), null, "rate-limit budget exhausted", true, 0);
+        }
+        long start = System.currentTimeMillis();
+        try {
+            return new RepoResult<>(repository.fullName(), operation.apply(repository), null, false,
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            return new RepoResult<>(repository.fullName(), null, e.getMessage(), false,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    private static <T> RepoResult<T> await(Future<RepoResult<T>> future, String repository, long deadline)
+            throws InterruptedException {
+        try {
+            return future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return new RepoResult<>(repository, null, "timed out", false, 0);
+        } catch (ExecutionException e) {
+            return new RepoResult<>(repository, null, String.valueOf(e.getCause().getMessage()), false, 0);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.mcp_github.service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.mcp_github.service.overview.RepositoryOverview;
+import com.example.mcp_github.service.overview.Section;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Assembles a {@link RepositoryOverview} from seven GitHub requests issued
+ * at once and joined with {@code Mono.zip}, so it takes as long as the
+ * slowest part rather than the sum of all of them. Each part has its own
+ * {@code overview.part-timeout-ms}; a part that times out or fails is
+ * reported as missing and the rest are still shown.
+ *
+ * <p>
+ * The requests are subscribed on the calling thread, so they share its
+ * tool call's cache notes and trace.
+ */
+@Service
+public class RepositoryOverviewService {
+
+    private final GitHubService gitHubService;
+    private final Duration partTimeout;
+    private final int workflowRuns;
+
+    public RepositoryOverviewService(
+            GitHubService gitHubService,
+            @Value("${overview.part-timeout-ms:4000}") long partTimeoutMillis,
+            @Value("${overview.workflow-runs:5}") int workflowRuns) {
+        this.gitHubService = gitHubService;
+        this.partTimeout = Duration.ofMillis(Math.max(1, partTimeoutMillis));
+        this.workflowRuns = Math.max(1, workflowRuns);
+    }
+
+    public RepositoryOverview overview(String owner, String repo) {
+        long start = System.nanoTime();
+        return Mono.zip(
+                section(gitHubService.getRepositoryAsync(owner, repo)),
+                section(gitHubService.getRepositoryBranchesAsync(owner, repo)),
+                section(gitHubService.getLastCommitAsync(owner, repo)
+                        // GitHub answers 409 for a repository without commits.
+                        .onErrorResume(WebClientResponseException.Conflict.class, e -> Mono.empty())),
+                section(gitHubService.getRepositoryPullRequestsAsync(owner, repo, "open", 100)),
+                section(gitHubService.getLatestReleaseAsync(owner, repo)
+                        .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty())),
+                section(gitHubService.getWorkflowRunsAsync(owner, repo, workflowRuns)),
+                section(gitHubService.getRepositoryCollaboratorsAsync(owner, repo)))
+                .map(parts -> new RepositoryOverview(parts.getT1(), parts.getT2(), parts.getT3(), parts.getT4(),
+                        parts.getT5(), parts.getT6(), parts.getT7(), elapsedMillis(start)))
+                .block();
+    }
+
+    // ==================== HELPER ====================
+    /**
+     * Never fails and never completes empty, so one part cannot cancel the
+     * others in the zip.
+     */
+    private <T> Mono<Section<T>> section(Mono<T> part) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return part
+                    .timeout(partTimeout)
+                    .map(value -> new Section<>(value, null, elapsedMillis(start)))
+                    .switchIfEmpty(Mono.fromSupplier(() -> new Section<>(null, null, elapsedMillis(start))))
+                    .onErrorResume(e -> Mono.just(new Section<>(null, message(e), elapsedMillis(start))));
+        });
+    }
+
+    private String message(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return "timed out after %d ms".formatted(partTimeout.toMillis());
+        }
+        if (e instanceof WebClientResponseException response) {
+            return "%d %s".formatted(response.getStatusCode().value(), response.getStatusText());
+        }
+        return String.valueOf(e.getMessage());
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
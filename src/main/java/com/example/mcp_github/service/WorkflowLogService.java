@@ -0,0 +1,223 @@
+package com.example.mcp_github.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.model.GitHubWorkflowJob;
+import com.example.mcp_github.service.logs.JobLogReport;
+import com.example.mcp_github.service.logs.LogScanner;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Finds the error output in GitHub Actions logs. The log is streamed to a
+ * spool file, never into the heap, then each job's log is read back as a
+ * stream through a {@link LogScanner}, several jobs in parallel, so memory
+ * stays bounded however large the logs are. The spool file is deleted
+ * afterwards.
+ *
+ * <p>
+ * A run's archive holds one file per job at the top level (and per step
+ * below it); only the job files of failed jobs are scanned, or all of them
+ * if none are marked failed.
+ */
+@Service
+public class WorkflowLogService {
+
+    private static final Set<String> FAILED = Set.of("failure", "timed_out", "cancelled", "startup_failure");
+
+    private final GitHubService gitHubService;
+    private final Pattern defaultPattern;
+    private final int defaultContextLines;
+    private final int maxRegionsPerJob;
+    private final int maxLineChars;
+    private final long maxBytes;
+    private final Path spoolDirectory;
+    private final ExecutorService scanners;
+
+    public WorkflowLogService(
+            GitHubService gitHubService,
+            @Value("${actions.logs.error-pattern:##\\[error\\]|(?i:\\berror\\b|\\bfailed\\b|exception|traceback|panic:)}") String errorPattern,
+            @Value("${actions.logs.context-lines:5}") int contextLines,
+            @Value("${actions.logs.max-regions-per-job:8}") int maxRegionsPerJob,
+            @Value("${actions.logs.max-line-chars:500}") int maxLineChars,
+            @Value("${actions.logs.max-bytes:1073741824}") long maxBytes,
+            @Value("${actions.logs.spool-dir:}") String spoolDirectory,
+            @Value("${actions.logs.scan-threads:4}") int scanThreads) {
+        this.gitHubService = gitHubService;
+        this.defaultPattern = Pattern.compile(errorPattern);
+        this.defaultContextLines = contextLines;
+        this.maxRegionsPerJob = maxRegionsPerJob;
+        this.maxLineChars = maxLineChars;
+        this.maxBytes = maxBytes;
+        this.spoolDirectory = spoolDirectory.isBlank() ? null : Path.of(spoolDirectory);
+        AtomicInteger threads = new AtomicInteger();
+        this.scanners = Executors.newFixedThreadPool(Math.max(1, scanThreads), r -> {
+            Thread thread = new Thread(r, "log-scanner-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Error regions of a run's failed jobs, or of one job if {@code jobId}
+     * is given.
+     *
+     * @param pattern regular expression overriding
+     * {@code actions.logs.error-pattern}, or {@code null}
+     * @param contextLines lines to keep around each match, or {@code null}
+     * for {@code actions.logs.context-lines}
+     * @throws IllegalArgumentException if {@code pattern} does not compile
+     */
+    public List<JobLogReport> failures(String owner, String repo, long runId, Long jobId, String pattern,
+            Integer contextLines) throws IOException {
+        LogScanner scanner = scanner(pattern, contextLines);
+        List<GitHubWorkflowJob> jobs = gitHubService.getWorkflowJobs(owner, repo, runId);
+        Path spool = spoolDirectory != null
+                ? Files.createTempFile(Files.createDirectories(spoolDirectory), "run-" + runId + "-", ".log")
+                : Files.createTempFile("run-" + runId + "-", ".log");
+        try {
+            if (jobId != null) {
+                GitHubWorkflowJob job = jobs.stream().filter(j -> j.id() == jobId).findFirst().orElse(null);
+                gitHubService.downloadJobLogs(owner, repo, jobId, spool, maxBytes);
+                try (InputStream in = Files.newInputStream(spool)) {
+                    return List.of(scanner.scan(job != null ? job.name() : "job " + jobId, in, failedSteps(job)));
+                }
+            }
+            gitHubService.downloadRunLogs(owner, repo, runId, spool, maxBytes);
+            return scanArchive(spool, jobs, scanner);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scanners.shutdownNow();
+    }
+
+    // ==================== SCANNING ====================
+    private List<JobLogReport> scanArchive(Path archive, List<GitHubWorkflowJob> jobs, LogScanner scanner)
+            throws IOException {
+        Map<String, GitHubWorkflowJob> failedJobs = new HashMap<>();
+        for (GitHubWorkflowJob job : jobs) {
+            if (FAILED.contains(job.conclusion())) {
+                failedJobs.put(normalize(job.name()), job);
+            }
+        }
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            List<ZipEntry> jobFiles = new ArrayList<>();
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                if (!entry.isDirectory() && entry.getName().indexOf('/') < 0 && entry.getName().endsWith(".txt")) {
+                    jobFiles.add(entry);
+                }
+            }
+            List<ZipEntry> selected = jobFiles.stream()
+                    .filter(entry -> failedJobs.containsKey(normalize(jobName(entry))))
+                    .toList();
+            List<Future<JobLogReport>> reports = new ArrayList<>();
+            for (ZipEntry entry : selected.isEmpty() ? jobFiles : selected) {
+                GitHubWorkflowJob job = failedJobs.get(normalize(jobName(entry)));
+                // ZipFile streams are independent, so jobs can be read concurrently.
+                reports.add(scanners.submit(() -> {
+                    try (InputStream in = zip.getInputStream(entry)) {
+                        return scanner.scan(job != null ? job.name() : jobName(entry), in, failedSteps(job));
+                    }
+                }));
+            }
+            List<JobLogReport> result = new ArrayList<>(reports.size());
+            for (Future<JobLogReport> report : reports) {
+                result.add(await(report));
+            }
+            return result;
+        }
+    }
+
+    private LogScanner scanner(String pattern, Integer contextLines) {
+        Pattern compiled = defaultPattern;
+        if (pattern != null && !pattern.isBlank()) {
+            try {
+                compiled = Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("invalid pattern: " + e.getDescription());
+            }
+        }
+        int context = contextLines != null && contextLines >= 0 ? Math.min(contextLines, 50) : defaultContextLines;
+        return new LogScanner(compiled, context, maxRegionsPerJob, maxLineChars);
+    }
+
+    // ==================== HELPER ====================
+    private static JobLogReport await(Future<JobLogReport> report) throws IOException {
+        try {
+            return report.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while scanning logs", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static List<String> failedSteps(GitHubWorkflowJob job) {
+        if (job == null || job.steps() == null) {
+            return List.of();
+        }
+        return job.steps().stream()
+                .filter(step -> FAILED.contains(step.conclusion()))
+                .map(step -> "%s (%s)".formatted(step.name(), step.conclusion()))
+                .toList();
+    }
+
+    /**
+     * {@code 2_test (ubuntu).txt} → {@code test (ubuntu)}.
+     */
+    private static String jobName(ZipEntry entry) {
+        String name = entry.getName().substring(0, entry.getName().length() - ".txt".length());
+        int underscore = name.indexOf('_');
+        return underscore > 0 && name.substring(0, underscore).chars().allMatch(Character::isDigit)
+                ? name.substring(underscore + 1)
+                : name;
+    }
+
+    /**
+     * Archive file names drop characters such as {@code /} and {@code :}
+     * from job names, so both sides are compared on letters and digits.
+     */
+    private static String normalize(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : (name != null ? name : "").toLowerCase(Locale.ROOT).toCharArray()) {
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
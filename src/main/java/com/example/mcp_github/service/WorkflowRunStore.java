@@ -0,0 +1,323 @@
+package com.example.mcp_github.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.model.GitHubWorkflowRunsPage;
+import com.example.mcp_github.service.runs.RunAnalysis;
+import com.example.mcp_github.service.runs.RunSyncStatus;
+import com.example.mcp_github.service.runs.WorkflowRunTable;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Per-repository workflow run history in a columnar {@link WorkflowRunTable},
+ * for analytics over far more than the last 100 runs.
+ *
+ * <p>
+ * The first analysis of a repository loads up to
+ * {@code actions.store.max-pages-per-sync} pages, newest first; the rest of
+ * the history streams in on a background thread, page by page, up to
+ * {@code actions.store.max-runs}. The backfill pauses while fewer than
+ * {@code actions.store.rate-limit-reserve} requests are left in the
+ * rate-limit window, resuming on a later analysis, and stops once the
+ * repository is evicted.
+ *
+ * <p>
+ * Later syncs only ask for runs created since the newest one listed,
+ * revalidated with an ETag; a catch-up too large for one sync or one
+ * filtered listing is finished by narrowing the window. Older runs still
+ * queued or running are re-read by id, a few per sync; ones pending for
+ * longer than {@link #PENDING_CUTOFF} are left as they are.
+ */
+@Service
+public class WorkflowRunStore {
+
+    private static final int PER_PAGE = 100;
+    private static final int MAX_FILTERED_RESULTS = 1000;
+    private static final int PENDING_REFRESHES_PER_SYNC = 10;
+    private static final Duration PENDING_CUTOFF = Duration.ofDays(1);
+
+    private final GitHubService gitHubService;
+    private final GitHubMetricsFilter metrics;
+    private final long syncIntervalMillis;
+    private final int maxPagesPerSync;
+    private final int maxRuns;
+    private final int rateLimitReserve;
+    private final int maxRepositories;
+    private final LinkedHashMap<String, RepositoryRuns> repositories = new LinkedHashMap<>(16, 0.75f, true);
+    private final ExecutorService backfill;
+
+    public WorkflowRunStore(
+            GitHubService gitHubService,
+            GitHubMetricsFilter metrics,
+            @Value("${actions.store.sync-interval-seconds:60}") long syncIntervalSeconds,
+            @Value("${actions.store.max-pages-per-sync:20}") int maxPagesPerSync,
+            @Value("${actions.store.max-runs:10000}") int maxRuns,
+            @Value("${actions.store.rate-limit-reserve:500}") int rateLimitReserve,
+            @Value("${actions.store.max-repositories:20}") int maxRepositories) {
+        this.gitHubService = gitHubService;
+        this.metrics = metrics;
+        this.syncIntervalMillis = TimeUnit.SECONDS.toMillis(syncIntervalSeconds);
+        this.maxPagesPerSync = Math.max(1, maxPagesPerSync);
+        this.maxRuns = Math.max(PER_PAGE, maxRuns);
+        this.rateLimitReserve = Math.max(0, rateLimitReserve);
+        this.maxRepositories = Math.max(1, maxRepositories);
+        this.backfill = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "workflow-run-backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs {@code analysis} over {@code owner/repo}'s stored runs, syncing
+     * first if due. If the sync fails but runs are stored, those are
+     * analysed and the failure reported in {@link RunAnalysis#sync()}.
+     */
+    public <T> RunAnalysis<T> analyze(String owner, String repo, Function<WorkflowRunTable, T> analysis) {
+        RepositoryRuns runs = repository(owner, repo);
+        synchronized (runs) {
+            if (System.currentTimeMillis() - runs.status.syncedAt() >= syncIntervalMillis) {
+                sync(owner, repo, runs);
+            }
+            if (!runs.complete) {
+                startBackfill(owner, repo, runs);
+            }
+            return new RunAnalysis<>(analysis.apply(runs.table), runs.status);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        backfill.shutdownNow();
+    }
+
+    // ==================== SYNC ====================
+    /**
+     * Called with the repository's monitor held.
+     */
+    private void sync(String owner, String repo, RepositoryRuns runs) {
+        try {
+            if (runs.table.size() == 0) {
+                loadNewest(owner, repo, runs);
+            } else {
+                long listedFrom = runs.listedFrom;
+                catchUp(owner, repo, runs);
+                refreshPending(owner, repo, runs, listedFrom);
+            }
+        } catch (RuntimeException e) {
+            if (runs.table.size() == 0) {
+                throw e;
+            }
+            runs.status = status(runs, runs.status.syncedAt(), e.getMessage());
+            return;
+        }
+        runs.status = status(runs, System.currentTimeMillis(), null);
+    }
+
+    /**
+     * Reads the newest pages of an empty table; the backfill takes it from
+     * there.
+     */
+    private void loadNewest(String owner, String repo, RepositoryRuns runs) {
+        boolean first = !runs.complete;
+        for (int page = 1; page <= maxPagesPerSync; page++) {
+            GitHubWorkflowRunsPage result = gitHubService.getWorkflowRunsPage(owner, repo, null, page, null);
+            for (GitHubWorkflowRun run : result.runs()) {
+                runs.table.upsert(run);
+            }
+            if (result.runs().size() < PER_PAGE) {
+                runs.complete |= first;
+                break;
+            }
+            if (first) {
+                runs.backfillPage = page + 1;
+            }
+        }
+        if (runs.table.size() > 0) {
+            runs.listedFrom = runs.table.newestCreated();
+        }
+    }
+
+    /**
+     * Lists the runs created since {@code listedFrom}, newest first. GitHub
+     * returns at most {@link #MAX_FILTERED_RESULTS} runs for a created
+     * filter, and a sync reads at most {@code max-pages-per-sync} pages, so
+     * a listing cut short narrows the window to end at the oldest run it
+     * read and carries on there, in this sync or the next. {@code listedFrom}
+     * only moves once the runs below it are all stored.
+     */
+    private void catchUp(String owner, String repo, RepositoryRuns runs) {
+        int pages = 0;
+        while (pages < maxPagesPerSync) {
+            String from = Instant.ofEpochSecond(runs.listedFrom).toString();
+            String created = runs.gapEnd < 0 ? ">=" + from : from + ".." + Instant.ofEpochSecond(runs.gapEnd);
+            String firstPageEtag = null;
+            long oldest = Long.MAX_VALUE;
+            boolean listed = false;
+            for (int page = 1; page <= MAX_FILTERED_RESULTS / PER_PAGE && pages < maxPagesPerSync; page++) {
+                String etag = page == 1 && created.equals(runs.etagFilter) ? runs.etag : null;
+                GitHubWorkflowRunsPage result = gitHubService.getWorkflowRunsPage(owner, repo, created, page, etag);
+                pages++;
+                if (!result.modified()) {
+                    listed = true;
+                    break;
+                }
+                if (page == 1) {
+                    firstPageEtag = result.etag();
+                }
+                for (GitHubWorkflowRun run : result.runs()) {
+                    runs.table.upsert(run);
+                    oldest = Math.min(oldest, createdAt(run));
+                }
+                if (result.runs().size() < PER_PAGE) {
+                    listed = true;
+                    break;
+                }
+            }
+            if (!listed) {
+                if (runs.gapEnd < 0) {
+                    runs.gapTop = runs.table.newestCreated();
+                }
+                // Inclusive, so runs created in the same second are read again rather than skipped.
+                runs.gapEnd = oldest;
+                continue;
+            }
+            if (firstPageEtag != null) {
+                // Kept only for a complete listing, or a 304 would skip what was cut off.
+                runs.etag = firstPageEtag;
+                runs.etagFilter = created;
+            }
+            if (runs.gapEnd < 0) {
+                runs.listedFrom = Math.max(runs.listedFrom, runs.table.newestCreated());
+                return;
+            }
+            // The gap is covered; list what arrived above it.
+            runs.listedFrom = runs.gapTop;
+            runs.gapEnd = -1;
+        }
+    }
+
+    /**
+     * Re-reads runs still pending that were created before {@code listedFrom},
+     * which the incremental listing no longer covers. Takes turns through
+     * them when there are more than fit in one sync.
+     */
+    private void refreshPending(String owner, String repo, RepositoryRuns runs, long listedFrom) {
+        long[] ids = runs.table.pendingIds(Instant.now().minus(PENDING_CUTOFF).getEpochSecond(), listedFrom);
+        int count = Math.min(ids.length, PENDING_REFRESHES_PER_SYNC);
+        for (int i = 0; i < count; i++) {
+            long id = ids[(runs.pendingCursor + i) % ids.length];
+            try {
+                gitHubService.getWorkflowRun(owner, repo, id, null).runs().forEach(runs.table::upsert);
+            } catch (WebClientResponseException.NotFound e) {
+                runs.table.settle(id); // deleted
+            }
+        }
+        runs.pendingCursor = ids.length > 0 ? (runs.pendingCursor + count) % ids.length : 0;
+    }
+
+    private void startBackfill(String owner, String repo, RepositoryRuns runs) {
+        if (runs.backfilling || rateLimitLow()) {
+            return;
+        }
+        runs.backfilling = true;
+        backfill.execute(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    int page;
+                    synchronized (runs) {
+                        if (runs.complete || runs.table.size() >= maxRuns) {
+                            runs.complete = true;
+                            runs.status = status(runs, runs.status.syncedAt(), null);
+                            return;
+                        }
+                        if (runs.evicted || rateLimitLow()) {
+                            return; // resumed by a later analysis
+                        }
+                        page = runs.backfillPage;
+                    }
+                    // Fetched without the lock so analyses are not held up. New runs
+                    // shift the unfiltered listing down, which only causes repeats.
+                    GitHubWorkflowRunsPage result = gitHubService.getWorkflowRunsPage(owner, repo, null, page, null);
+                    synchronized (runs) {
+                        for (GitHubWorkflowRun run : result.runs()) {
+                            runs.table.upsert(run);
+                        }
+                        runs.backfillPage = page + 1;
+                        runs.complete = result.runs().size() < PER_PAGE;
+                        runs.status = status(runs, runs.status.syncedAt(), null);
+                    }
+                }
+            } catch (RuntimeException e) {
+                synchronized (runs) {
+                    runs.status = status(runs, runs.status.syncedAt(), e.getMessage());
+                }
+            } finally {
+                synchronized (runs) {
+                    runs.backfilling = false;
+                }
+            }
+        });
+    }
+
+    private boolean rateLimitLow() {
+        long remaining = metrics.rateLimitRemaining();
+        return remaining >= 0 && remaining < rateLimitReserve;
+    }
+
+    // ==================== HELPER ====================
+    private RepositoryRuns repository(String owner, String repo) {
+        synchronized (repositories) {
+            RepositoryRuns runs = repositories.computeIfAbsent((owner + "/" + repo).toLowerCase(Locale.ROOT),
+                    k -> new RepositoryRuns());
+            while (repositories.size() > maxRepositories) {
+                repositories.remove(repositories.keySet().iterator().next()).evicted = true;
+            }
+            return runs;
+        }
+    }
+
+    private static long createdAt(GitHubWorkflowRun run) {
+        return run.createdAt() != null ? Instant.parse(run.createdAt()).getEpochSecond() : 0;
+    }
+
+    private static RunSyncStatus status(RepositoryRuns runs, long syncedAt, String error) {
+        WorkflowRunTable table = runs.table;
+        return new RunSyncStatus(table.size(), table.pending(), runs.complete, syncedAt,
+                table.size() > 0 ? Instant.ofEpochSecond(table.oldestCreated()).toString() : null, error);
+    }
+
+    /**
+     * One repository's runs and sync position. Guarded by its own monitor;
+     * {@code evicted} is set without it to stop the backfill.
+     */
+    private static final class RepositoryRuns {
+
+        private final WorkflowRunTable table = new WorkflowRunTable();
+        private long listedFrom;
+        private long gapEnd = -1;
+        private long gapTop;
+        private String etag;
+        private String etagFilter;
+        private int backfillPage = 1;
+        private int pendingCursor;
+        private boolean complete;
+        private boolean backfilling;
+        private volatile boolean evicted;
+        private RunSyncStatus status = new RunSyncStatus(0, 0, false, 0, null, null);
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.mcp_github.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.model.GitHubWorkflowRunsPage;
+import com.example.mcp_github.service.runs.RunProgress;
+import com.example.mcp_github.service.runs.RunWaitResult;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Waits for workflow runs to complete without hammering the API. Every
+ * watched run is polled with its last ETag, so an unchanged run costs a
+ * 304 that does not count against the rate limit, and at intervals set by
+ * the workflow's typical duration: sparse while the run is far from done,
+ * every {@code actions.watch.min-interval-seconds} around the time it
+ * usually finishes, backing off again if it overruns. Callers waiting for
+ * the same run share one watch.
+ *
+ * <p>
+ * Polls are sent without blocking and given up after
+ * {@code actions.watch.poll-timeout-seconds}, so a hung request delays
+ * only its own watch. Their results are handled on one scheduler thread
+ * shared by all watches.
+ *
+ * <p>
+ * A branch watch follows the newest run on the branch. If that run had
+ * already completed before the watch started, the watch gives a
+ * just-triggered run {@code actions.watch.new-run-grace-seconds} to show
+ * up before settling for it.
+ */
+@Service
+public class WorkflowRunWatcher {
+
+    private static final int HISTORY_RUNS = 20;
+    private static final int MAX_FAILURES = 5;
+
+    private final GitHubService gitHubService;
+    private final long minIntervalMillis;
+    private final long maxIntervalMillis;
+    private final long newRunGraceMillis;
+    private final Duration pollTimeout;
+    private final Map<String, Watch> watches = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public WorkflowRunWatcher(
+            GitHubService gitHubService,
+            @Value("${actions.watch.min-interval-seconds:5}") long minIntervalSeconds,
+            @Value("${actions.watch.max-interval-seconds:60}") long maxIntervalSeconds,
+            @Value("${actions.watch.new-run-grace-seconds:30}") long newRunGraceSeconds,
+            @Value("${actions.watch.poll-timeout-seconds:15}") long pollTimeoutSeconds) {
+        this.gitHubService = gitHubService;
+        this.minIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(1, minIntervalSeconds));
+        this.maxIntervalMillis = Math.max(minIntervalMillis, TimeUnit.SECONDS.toMillis(maxIntervalSeconds));
+        this.newRunGraceMillis = TimeUnit.SECONDS.toMillis(newRunGraceSeconds);
+        this.pollTimeout = Duration.ofSeconds(Math.max(1, pollTimeoutSeconds));
+    }
+
+    /**
+     * Blocks until run {@code runId}, or else the newest run on
+     * {@code branch}, completes or {@code timeout} passes. {@code progress}
+     * is called from the scheduler thread after every poll.
+     *
+     * @throws IllegalStateException if the run cannot be found or keeps
+     * failing to load
+     */
+    public RunWaitResult await(String owner, String repo, Long runId, String branch, Duration timeout,
+            Consumer<RunProgress> progress) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Watch watch;
+        synchronized (watches) {
+            watch = register(owner, repo, runId, branch, start, progress);
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                    Thread thread = new Thread(r, "workflow-run-watcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                scheduler.scheduleWithFixedDelay(() -> pollDue(System.currentTimeMillis()), 0, 1, TimeUnit.SECONDS);
+            }
+        }
+        try {
+            GitHubWorkflowRun run = watch.done.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return result(watch, run, true, start);
+        } catch (TimeoutException e) {
+            return result(watch, watch.run, false, start);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        } finally {
+            synchronized (watches) {
+                watch.listeners.remove(progress);
+                if (watch.listeners.isEmpty()) {
+                    watches.remove(watch.key, watch);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (watches) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+            }
+        }
+    }
+
+    // ==================== POLLING ====================
+    /**
+     * Adds {@code progress} to the watch of a run or branch, which starts at
+     * {@code now} if there is none yet, without polling it.
+     *
+     * @return completes with the run once it has completed
+     */
+    CompletableFuture<GitHubWorkflowRun> watch(String owner, String repo, Long runId, String branch, long now,
+            Consumer<RunProgress> progress) {
+        synchronized (watches) {
+            return register(owner, repo, runId, branch, now, progress).done;
+        }
+    }
+
+    private Watch register(String owner, String repo, Long runId, String branch, long now,
+            Consumer<RunProgress> progress) {
+        String key = (owner + "/" + repo).toLowerCase(Locale.ROOT) + (runId != null ? "#" + runId : "@" + branch);
+        Watch watch = watches.computeIfAbsent(key, k -> new Watch(key, owner, repo, runId, branch, now));
+        watch.listeners.add(progress);
+        return watch;
+    }
+
+    /**
+     * Polls every watch whose interval has passed at {@code now}.
+     */
+    void pollDue(long now) {
+        List<Watch> due;
+        synchronized (watches) {
+            due = new ArrayList<>(watches.values());
+        }
+        for (Watch watch : due) {
+            if (!watch.polling && now >= watch.nextPollAt && !watch.done.isDone()) {
+                poll(watch, now);
+            }
+        }
+    }
+
+    /**
+     * Sends one poll; its result is handled on {@code scheduler}. Called on
+     * the scheduler thread.
+     */
+    private void poll(Watch watch, long now) {
+        Executor scheduler = resultExecutor();
+        watch.polling = true;
+        watch.polls++;
+        Mono<GitHubWorkflowRunsPage> request = watch.runId == null
+                ? gitHubService.getLatestWorkflowRunAsync(watch.owner, watch.repo, watch.branch, watch.etag)
+                : gitHubService.getWorkflowRunAsync(watch.owner, watch.repo, watch.runId, watch.etag);
+        request.single()
+                .timeout(pollTimeout)
+                .subscribe(page -> execute(scheduler, () -> polled(watch, now, page, null)),
+                        error -> execute(scheduler, () -> polled(watch, now, null, error)));
+    }
+
+    private void polled(Watch watch, long now, GitHubWorkflowRunsPage page, Throwable error) {
+        watch.polling = false;
+        try {
+            if (error instanceof RuntimeException e) {
+                throw e;
+            } else if (error != null) {
+                throw new IllegalStateException(error);
+            }
+            if (watch.runId == null) {
+                followBranch(watch, page, now);
+            } else if (page.modified()) {
+                watch.etag = page.etag();
+                watch.run = page.runs().get(0);
+            } else {
+                watch.notModified++;
+            }
+            watch.failures = 0;
+            watch.error = null;
+        } catch (RuntimeException e) {
+            boolean timedOut = e.getCause() instanceof TimeoutException;
+            watch.failures++;
+            watch.error = timedOut ? "no answer within %ds".formatted(pollTimeout.toSeconds()) : e.getMessage();
+            // A run that never loaded is most likely a wrong ID or branch.
+            if (watch.run == null && watch.candidate == null && !timedOut || watch.failures >= MAX_FAILURES) {
+                finish(watch, null, new IllegalStateException(watch.error, e));
+                return;
+            }
+        }
+        GitHubWorkflowRun run = watch.run;
+        if (run != null && "completed".equals(run.status())) {
+            notify(watch, new RunProgress(run, elapsedSeconds(run, now), typicalSeconds(watch), 0, null));
+            finish(watch, run, null);
+            return;
+        }
+        if (run != null && watch.typicalMillis == null && run.workflowId() != null) {
+            loadTypicalMillis(watch, run.workflowId());
+        }
+        long interval = Math.min(maxIntervalMillis, interval(watch, now) << Math.min(watch.failures, 4));
+        watch.nextPollAt = now + interval;
+        notify(watch, new RunProgress(run, run != null ? elapsedSeconds(run, now) : 0, typicalSeconds(watch),
+                TimeUnit.MILLISECONDS.toSeconds(interval), watch.error));
+    }
+
+    /**
+     * Settles a branch watch on the newest run once it is a new one, or the
+     * grace period for a new one to appear is over.
+     */
+    private void followBranch(Watch watch, GitHubWorkflowRunsPage page, long now) {
+        if (page.modified()) {
+            watch.etag = page.etag();
+            watch.candidate = page.runs().isEmpty() ? null : page.runs().get(0);
+        } else {
+            watch.notModified++;
+        }
+        GitHubWorkflowRun latest = watch.candidate;
+        boolean graceOver = now - watch.startedAt >= newRunGraceMillis;
+        if (latest != null && (graceOver || !"completed".equals(latest.status())
+                || epochMillis(latest.createdAt(), 0) >= watch.startedAt - newRunGraceMillis)) {
+            watch.runId = latest.id();
+            watch.run = latest;
+            watch.etag = null;
+        } else if (latest == null && graceOver) {
+            throw new IllegalStateException("no workflow runs on branch '%s'".formatted(watch.branch));
+        }
+    }
+
+    /**
+     * Poll sparsely while the run is far from its typical duration, densely
+     * around it, and back off as it overruns. Without history, poll at a
+     * fifth of the time elapsed so far.
+     */
+    private long interval(Watch watch, long now) {
+        GitHubWorkflowRun run = watch.run;
+        if (run == null) {
+            return minIntervalMillis;
+        }
+        long elapsed = now - started(run, now);
+        long interval;
+        if (watch.typicalMillis == null || watch.typicalMillis <= 0 || !"in_progress".equals(run.status())) {
+            interval = elapsed / 5;
+        } else {
+            long remaining = watch.typicalMillis - elapsed;
+            interval = remaining > 0 ? remaining / 3 : -remaining / 4;
+        }
+        return Math.max(minIntervalMillis, Math.min(maxIntervalMillis, interval));
+    }
+
+    /**
+     * Loads the median duration of the workflow's last completed runs in
+     * the background; {@code 0} if there are none or they cannot be loaded.
+     * Called on the scheduler thread.
+     */
+    private void loadTypicalMillis(Watch watch, long workflowId) {
+        Executor scheduler = resultExecutor();
+        watch.typicalMillis = 0L;
+        gitHubService.getCompletedWorkflowRunsAsync(watch.owner, watch.repo, workflowId, HISTORY_RUNS)
+                .timeout(pollTimeout)
+                .map(runs -> {
+                    long[] durations = runs.stream()
+                            .mapToLong(run -> epochMillis(run.updatedAt(), 0) - started(run, 0))
+                            .filter(duration -> duration > 0)
+                            .sorted()
+                            .toArray();
+                    return durations.length > 0 ? durations[durations.length / 2] : 0L;
+                })
+                .onErrorReturn(0L)
+                .subscribe(typical -> execute(scheduler, () -> watch.typicalMillis = typical));
+    }
+
+    private void finish(Watch watch, GitHubWorkflowRun run, RuntimeException error) {
+        synchronized (watches) {
+            watches.remove(watch.key, watch);
+        }
+        if (error != null) {
+            watch.done.completeExceptionally(error);
+        } else {
+            watch.done.complete(run);
+        }
+    }
+
+    private static void notify(Watch watch, RunProgress progress) {
+        for (Consumer<RunProgress> listener : watch.listeners) {
+            try {
+                listener.accept(progress);
+            } catch (RuntimeException e) {
+                // A client that went away must not stop the others' watch.
+            }
+        }
+    }
+
+    // ==================== HELPER ====================
+    /**
+     * The scheduler thread, or whichever thread answers when the watches
+     * are polled directly through {@link #pollDue(long)}.
+     */
+    private Executor resultExecutor() {
+        Executor scheduler = this.scheduler;
+        return scheduler != null ? scheduler : Runnable::run;
+    }
+
+    private static void execute(Executor scheduler, Runnable task) {
+        try {
+            scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shut down meanwhile.
+        }
+    }
+
+    private static RunWaitResult result(Watch watch, GitHubWorkflowRun run, boolean completed, long start) {
+        return new RunWaitResult(run, completed, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - start),
+                watch.polls, watch.notModified);
+    }
+
+    private static Long typicalSeconds(Watch watch) {
+        Long typical = watch.typicalMillis;
+        return typical != null && typical > 0 ? TimeUnit.MILLISECONDS.toSeconds(typical) : null;
+    }
+
+    private static long elapsedSeconds(GitHubWorkflowRun run, long now) {
+        long end = "completed".equals(run.status()) ? epochMillis(run.updatedAt(), now) : now;
+        return Math.max(0, TimeUnit.MILLISECONDS.toSeconds(end - started(run, now)));
+    }
+
+    private static long started(GitHubWorkflowRun run, long fallback) {
+        return epochMillis(run.runStartedAt() != null ? run.runStartedAt() : run.createdAt(), fallback);
+    }
+
+    private static long epochMillis(String timestamp, long fallback) {
+        try {
+            return timestamp != null ? Instant.parse(timestamp).toEpochMilli() : fallback;
+        } catch (DateTimeParseException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * One watched run or branch. Only the scheduler thread sends its polls
+     * and handles their results, one at a time; the volatile fields are
+     * read by waiters.
+     */
+    private static final class Watch {
+
+        private final String key;
+        private final String owner;
+        private final String repo;
+        private final String branch;
+        private final long startedAt;
+        private final List<Consumer<RunProgress>> listeners = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<GitHubWorkflowRun> done = new CompletableFuture<>();
+        private Long runId;
+        private String etag;
+        private GitHubWorkflowRun candidate;
+        private Long typicalMillis;
+        private long nextPollAt;
+        private boolean polling;
+        private int failures;
+        private String error;
+        private volatile GitHubWorkflowRun run;
+        private volatile int polls;
+        private volatile int notModified;
+
+        Watch(String key, String owner, String repo, Long runId, String branch, long startedAt) {
+            this.key = key;
+            this.owner = owner;
+            this.repo = repo;
+            this.runId = runId;
+            this.branch = branch;
+            this.startedAt = startedAt;
+        }
+    }
+}
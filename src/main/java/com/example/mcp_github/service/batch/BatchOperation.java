@@ -0,0 +1,182 @@
+package com.example.mcp_github.service.batch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import com.example.mcp_github.model.GitHubContent;
+import com.example.mcp_github.service.GitHubService;
+
+/**
+ * Read operations a batch can contain, each a single {@link GitHubService}
+ * call. Arguments use the same names as the corresponding tools.
+ */
+public enum BatchOperation {
+
+    FILE_CONTENT("username, repository, path",
+            (github, args) -> file(github.getFileContent(args.string("username"), args.string("repository"),
+                    args.string("path")))),
+    ISSUES("username, repository, state?, limit?",
+            (github, args) -> github.getRepositoryIssues(args.string("username"), args.string("repository"),
+                    args.optional("state"), args.limit())),
+    PULL_REQUESTS("username, repository, state?, limit?",
+            (github, args) -> github.getRepositoryPullRequests(args.string("username"), args.string("repository"),
+                    args.optional("state"), args.limit())),
+    COMMITS("username, repository, sha?, path?, author?, since?, until?, limit?",
+            (github, args) -> github.getCommits(args.string("username"), args.string("repository"),
+                    args.optional("sha"), args.optional("path"), args.optional("author"),
+                    args.optional("since"), args.optional("until"), args.limit())),
+    LAST_COMMIT("username, repository",
+            (github, args) -> github.getLastCommit(args.string("username"), args.string("repository"))),
+    BRANCHES("username, repository",
+            (github, args) -> github.getRepositoryBranches(args.string("username"), args.string("repository"))),
+    RELEASES("username, repository, limit?",
+            (github, args) -> github.getRepositoryReleases(args.string("username"), args.string("repository"),
+                    args.limit())),
+    LATEST_RELEASE("username, repository",
+            (github, args) -> github.getLatestRelease(args.string("username"), args.string("repository"))),
+    WORKFLOW_RUNS("username, repository, limit?",
+            (github, args) -> github.getWorkflowRuns(args.string("username"), args.string("repository"),
+                    args.limit())),
+    WORKFLOW_JOBS("username, repository, runId",
+            (github, args) -> github.getWorkflowJobs(args.string("username"), args.string("repository"),
+                    args.number("runId"))),
+    COLLABORATORS("username, repository",
+            (github, args) -> github.getRepositoryCollaborators(args.string("username"), args.string("repository"))),
+    FORKS("username, repository, limit?",
+            (github, args) -> github.getRepositoryForks(args.string("username"), args.string("repository"),
+                    args.limit())),
+    USER_REPOSITORIES("username",
+            (github, args) -> github.getUserRepositories(args.string("username"))),
+    USER_PROFILE("username",
+            (github, args) -> github.getUserProfile(args.string("username"))),
+    SEARCH_REPOSITORIES("query, limit?",
+            (github, args) -> github.searchRepositories(args.string("query"), args.limit()));
+
+    /**
+     * Values of optional arguments left out; the others default to
+     * {@code null}, {@code limit} to 10.
+     */
+    private static final Map<String, String> DEFAULTS = Map.of("state", "open");
+
+    private final String arguments;
+    private final List<String> parameters;
+    private final BiFunction<GitHubService, Arguments, Object> call;
+
+    BatchOperation(String arguments, BiFunction<GitHubService, Arguments, Object> call) {
+        this.arguments = arguments;
+        this.parameters = List.of(arguments.split(", "));
+        this.call = call;
+    }
+
+    /**
+     * The operation named {@code name}, case-insensitively, or {@code null}.
+     */
+    public static BatchOperation parse(String name) {
+        try {
+            return name != null ? valueOf(name.trim().toUpperCase(Locale.ROOT)) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@code file_content(username, repository, path), ...}; optional
+     * arguments end with {@code ?}.
+     */
+    public static String describeAll() {
+        StringBuilder sb = new StringBuilder();
+        for (BatchOperation operation : values()) {
+            if (!sb.isEmpty()) {
+                sb.append("; ");
+            }
+            sb.append(operation.name().toLowerCase(Locale.ROOT)).append('(').append(operation.arguments).append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @throws IllegalArgumentException if a required argument is missing
+     */
+    public Object apply(GitHubService gitHubService, Map<String, Object> arguments) {
+        return call.apply(gitHubService, new Arguments(arguments));
+    }
+
+    /**
+     * Identifies a read by operation and arguments as the call sees them,
+     * so identical reads in a batch run once: argument order, defaults
+     * spelled out or left out ({@code limit=10}), and arguments the
+     * operation does not take make no difference.
+     *
+     * @throws IllegalArgumentException if a required argument is missing
+     */
+    public String key(Map<String, Object> arguments) {
+        Arguments args = new Arguments(arguments);
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        for (String parameter : parameters) {
+            String name = parameter.endsWith("?") ? parameter.substring(0, parameter.length() - 1) : parameter;
+            resolved.put(name, name.equals("limit") ? args.limit()
+                    : parameter.endsWith("?") ? args.optional(name) : args.string(name));
+        }
+        return name() + resolved;
+    }
+
+    /**
+     * File content decoded to text, without the Base64 payload.
+     */
+    private static Map<String, Object> file(GitHubContent content) {
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("path", content.path());
+        file.put("sha", content.sha());
+        file.put("size", content.size());
+        file.put("type", content.type());
+        if (content.content() != null && "base64".equals(content.encoding())) {
+            file.put("content", new String(Base64.getMimeDecoder().decode(content.content()), StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    private record Arguments(Map<String, Object> values) {
+
+        Arguments {
+            values = values != null ? values : Map.of();
+        }
+
+        String string(String name) {
+            Object value = values.get(name);
+            if (value == null || value.toString().isBlank()) {
+                throw new IllegalArgumentException("missing argument '%s'".formatted(name));
+            }
+            return value.toString();
+        }
+
+        String optional(String name) {
+            Object value = values.get(name);
+            return value != null && !value.toString().isBlank() ? value.toString() : DEFAULTS.get(name);
+        }
+
+        long number(String name) {
+            Object value = values.get(name);
+            if (value instanceof Number number) {
+                return number.longValue();
+            }
+            try {
+                return Long.parseLong(string(name).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("argument '%s' is not a number".formatted(name));
+            }
+        }
+
+        int limit() {
+            if (values.get("limit") == null) {
+                return 10;
+            }
+            long limit = number("limit");
+            return limit > 0 ? (int) Math.min(limit, 100) : 10;
+        }
+    }
+}
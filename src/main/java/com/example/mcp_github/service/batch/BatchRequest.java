@@ -0,0 +1,14 @@
+package com.example.mcp_github.service.batch;
+
+import java.util.Map;
+
+/**
+ * One read in a batch: a {@link BatchOperation} name, its arguments, and
+ * the caller's key for the result.
+ */
+public record BatchRequest(
+        String id,
+        String operation,
+        Map<String, Object> arguments) {
+
+}
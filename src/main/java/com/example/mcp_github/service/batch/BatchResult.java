@@ -0,0 +1,16 @@
+package com.example.mcp_github.service.batch;
+
+/**
+ * The outcome of one read in a batch: its value, or the error it failed
+ * with. {@code deduplicated} is set when an identical read earlier in the
+ * batch supplied the value, {@code rejected} when the read was never sent
+ * because its operation is unknown or a required argument is missing.
+ */
+public record BatchResult(
+        String operation,
+        Object value,
+        String error,
+        boolean deduplicated,
+        boolean rejected) {
+
+}
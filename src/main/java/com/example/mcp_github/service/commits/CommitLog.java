@@ -0,0 +1,352 @@
+package com.example.mcp_github.service.commits;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.example.mcp_github.model.GitHubCommit;
+
+/**
+ * One branch's commits, newest first, stored column-wise: 20-byte SHAs in
+ * one array, author dates as epoch seconds, authors interned to an index,
+ * and messages as UTF-8 in one shared arena. Tens of thousands of commits
+ * fit in a few megabytes and are scanned without decoding anything but the
+ * messages a keyword query has to look at.
+ *
+ * <p>
+ * Not thread-safe; CommitStore guards it with the branch's monitor.
+ */
+public final class CommitLog {
+
+    private static final int SHA_BYTES = 20;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private int size;
+    private byte[] shas = new byte[16 * SHA_BYTES];
+    private long[] times = new long[16];
+    private int[] authors = new int[16];
+    private int[] messageOffsets = new int[16];
+    private int[] messageLengths = new int[16];
+
+    private byte[] arena = new byte[4096];
+    private int arenaSize;
+
+    private final List<String> authorNames = new ArrayList<>();
+    private final List<String> authorEmails = new ArrayList<>();
+    private final Map<String, Integer> authorIds = new HashMap<>();
+
+    /**
+     * Open-addressed set of 64-bit SHA hashes; 0 marks a free slot.
+     */
+    private long[] shaIndex = new long[64];
+    private int indexed;
+    private String htmlUrlPrefix;
+
+    public int size() {
+        return size;
+    }
+
+    public String headSha() {
+        return size > 0 ? sha(0) : null;
+    }
+
+    /**
+     * Author date of the oldest stored commit, {@code null} if empty.
+     */
+    public String oldestDate() {
+        return size > 0 ? Instant.ofEpochSecond(times[size - 1]).toString() : null;
+    }
+
+    public boolean contains(String sha) {
+        byte[] bytes = parseSha(sha);
+        return bytes != null && indexContains(key(bytes));
+    }
+
+    /**
+     * Adds commits newer than everything stored, given newest first.
+     *
+     * @return how many were not already stored
+     */
+    public int addNewer(List<GitHubCommit> commits) {
+        return insert(0, commits);
+    }
+
+    /**
+     * Adds commits older than everything stored, given newest first.
+     *
+     * @return how many were not already stored
+     */
+    public int addOlder(List<GitHubCommit> commits) {
+        return insert(size, commits);
+    }
+
+    public void clear() {
+        size = 0;
+        arenaSize = 0;
+        authorNames.clear();
+        authorEmails.clear();
+        authorIds.clear();
+        shaIndex = new long[64];
+        indexed = 0;
+        htmlUrlPrefix = null;
+    }
+
+    /**
+     * Drops the oldest commits beyond {@code max}, compacting the message
+     * arena and rebuilding the SHA index from what is left.
+     *
+     * @return how many were dropped
+     */
+    public int trim(int max) {
+        if (size <= max) {
+            return 0;
+        }
+        int dropped = size - max;
+        size = max;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            kept += messageLengths[i];
+        }
+        byte[] compacted = new byte[Math.max(4096, kept)];
+        arenaSize = 0;
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(arena, messageOffsets[i], compacted, arenaSize, messageLengths[i]);
+            messageOffsets[i] = arenaSize;
+            arenaSize += messageLengths[i];
+        }
+        arena = compacted;
+        shaIndex = new long[64];
+        indexed = 0;
+        for (int i = 0; i < size; i++) {
+            indexAdd(key(Arrays.copyOfRange(shas, i * SHA_BYTES, (i + 1) * SHA_BYTES)));
+        }
+        return dropped;
+    }
+
+    public StoredCommit get(int index) {
+        String sha = sha(index);
+        return new StoredCommit(sha, authorNames.get(authors[index]), authorEmails.get(authors[index]),
+                Instant.ofEpochSecond(times[index]).toString(),
+                new String(arena, messageOffsets[index], messageLengths[index], StandardCharsets.UTF_8),
+                htmlUrlPrefix != null ? htmlUrlPrefix + sha : null);
+    }
+
+    /**
+     * Collects the first {@code limit} commits matching every given filter
+     * into {@code out}, newest first.
+     *
+     * @param since epoch second, or {@link Long#MIN_VALUE}
+     * @param until epoch second, or {@link Long#MAX_VALUE}
+     * @return the number of matching commits
+     */
+    public int match(String author, long since, long until, String keyword, int limit, List<StoredCommit> out) {
+        boolean[] authorMatches = null;
+        if (author != null) {
+            String needle = author.toLowerCase(Locale.ROOT);
+            authorMatches = new boolean[authorNames.size()];
+            for (int i = 0; i < authorMatches.length; i++) {
+                authorMatches[i] = contains(authorNames.get(i), needle) || contains(authorEmails.get(i), needle);
+            }
+        }
+        String lowerKeyword = keyword != null ? keyword.toLowerCase(Locale.ROOT) : null;
+        byte[] asciiKeyword = lowerKeyword != null && lowerKeyword.chars().allMatch(c -> c < 0x80)
+                ? lowerKeyword.getBytes(StandardCharsets.US_ASCII)
+                : null;
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            if (times[i] < since || times[i] > until) {
+                continue;
+            }
+            if (authorMatches != null && !authorMatches[authors[i]]) {
+                continue;
+            }
+            if (lowerKeyword != null && !(asciiKeyword != null
+                    ? arenaContains(messageOffsets[i], messageLengths[i], asciiKeyword)
+                    : contains(new String(arena, messageOffsets[i], messageLengths[i], StandardCharsets.UTF_8),
+                            lowerKeyword))) {
+                continue;
+            }
+            if (out.size() < limit) {
+                out.add(get(i));
+            }
+            total++;
+        }
+        return total;
+    }
+
+    // ==================== STORAGE ====================
+    private int insert(int at, List<GitHubCommit> commits) {
+        List<GitHubCommit> fresh = new ArrayList<>(commits.size());
+        for (GitHubCommit commit : commits) {
+            byte[] sha = parseSha(commit.sha());
+            if (sha != null && !indexContains(key(sha))) {
+                indexAdd(key(sha));
+                fresh.add(commit);
+            }
+        }
+        int count = fresh.size();
+        if (count == 0) {
+            return 0;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(shas, at * SHA_BYTES, shas, (at + count) * SHA_BYTES, (size - at) * SHA_BYTES);
+        System.arraycopy(times, at, times, at + count, size - at);
+        System.arraycopy(authors, at, authors, at + count, size - at);
+        System.arraycopy(messageOffsets, at, messageOffsets, at + count, size - at);
+        System.arraycopy(messageLengths, at, messageLengths, at + count, size - at);
+        for (int i = 0; i < count; i++) {
+            write(at + i, fresh.get(i));
+        }
+        size += count;
+        return count;
+    }
+
+    private void write(int index, GitHubCommit commit) {
+        System.arraycopy(parseSha(commit.sha()), 0, shas, index * SHA_BYTES, SHA_BYTES);
+        GitHubCommit.Commit details = commit.commit();
+        GitHubCommit.Author author = details != null ? details.author() : null;
+        times[index] = author != null ? epochSecond(author.date()) : 0;
+        authors[index] = intern(author != null ? author.name() : null, author != null ? author.email() : null);
+        byte[] message = details != null && details.message() != null
+                ? details.message().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        if (arenaSize + message.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + message.length));
+        }
+        System.arraycopy(message, 0, arena, arenaSize, message.length);
+        messageOffsets[index] = arenaSize;
+        messageLengths[index] = message.length;
+        arenaSize += message.length;
+        if (htmlUrlPrefix == null && commit.htmlUrl() != null && commit.htmlUrl().endsWith(commit.sha())) {
+            htmlUrlPrefix = commit.htmlUrl().substring(0, commit.htmlUrl().length() - commit.sha().length());
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= times.length) {
+            return;
+        }
+        int grown = Math.max(capacity, times.length * 2);
+        shas = Arrays.copyOf(shas, grown * SHA_BYTES);
+        times = Arrays.copyOf(times, grown);
+        authors = Arrays.copyOf(authors, grown);
+        messageOffsets = Arrays.copyOf(messageOffsets, grown);
+        messageLengths = Arrays.copyOf(messageLengths, grown);
+    }
+
+    private int intern(String name, String email) {
+        String n = name != null ? name : "";
+        String e = email != null ? email : "";
+        return authorIds.computeIfAbsent(n + '\0' + e, k -> {
+            authorNames.add(n);
+            authorEmails.add(e);
+            return authorNames.size() - 1;
+        });
+    }
+
+    private String sha(int index) {
+        return HEX.formatHex(shas, index * SHA_BYTES, (index + 1) * SHA_BYTES);
+    }
+
+    // ==================== HELPER ====================
+    private boolean arenaContains(int offset, int length, byte[] needle) {
+        int last = offset + length - needle.length;
+        outer:
+        for (int i = offset; i <= last; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                byte b = arena[i + j];
+                if (b >= 'A' && b <= 'Z') {
+                    b += 'a' - 'A';
+                }
+                if (b != needle[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean indexContains(long key) {
+        int mask = shaIndex.length - 1;
+        for (int slot = (int) mix(key) & mask;; slot = (slot + 1) & mask) {
+            if (shaIndex[slot] == 0) {
+                return false;
+            }
+            if (shaIndex[slot] == key) {
+                return true;
+            }
+        }
+    }
+
+    private void indexAdd(long key) {
+        if (++indexed * 2L > shaIndex.length) {
+            long[] old = shaIndex;
+            shaIndex = new long[old.length * 2];
+            for (long k : old) {
+                if (k != 0) {
+                    place(k);
+                }
+            }
+        }
+        place(key);
+    }
+
+    private void place(long key) {
+        int mask = shaIndex.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (shaIndex[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        shaIndex[slot] = key;
+    }
+
+    private static boolean contains(String haystack, String lowerNeedle) {
+        return haystack.toLowerCase(Locale.ROOT).contains(lowerNeedle);
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        return key ^ (key >>> 33);
+    }
+
+    /**
+     * 64-bit hash of all SHA bytes, never 0. SHAs are not always uniformly
+     * spread (fixtures, test repositories), so no prefix is used as is.
+     */
+    private static long key(byte[] sha) {
+        long key = 0xcbf29ce484222325L;
+        for (byte b : sha) {
+            key = (key ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        key = mix(key);
+        return key != 0 ? key : 1;
+    }
+
+    private static byte[] parseSha(String sha) {
+        if (sha == null || sha.length() != 2 * SHA_BYTES) {
+            return null;
+        }
+        try {
+            return HEX.parseHex(sha);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long epochSecond(String date) {
+        try {
+            return date != null ? Instant.parse(date).getEpochSecond() : 0;
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+}
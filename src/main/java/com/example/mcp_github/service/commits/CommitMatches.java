@@ -0,0 +1,16 @@
+package com.example.mcp_github.service.commits;
+
+import java.util.List;
+
+/**
+ * The first {@code limit} commits matching a query, newest first, out of
+ * {@code total} matches. {@code local} is {@code false} when GitHub
+ * answered, in which case {@code total} only counts what it returned.
+ */
+public record CommitMatches(
+        List<StoredCommit> commits,
+        int total,
+        boolean local,
+        CommitSyncStatus sync) {
+
+}
@@ -0,0 +1,19 @@
+package com.example.mcp_github.service.commits;
+
+/**
+ * Filter over a branch's commits. {@code null} fields match everything.
+ * {@code author} matches part of the author name or email (GitHub, when the
+ * query goes there, wants a login or email); {@code since}/{@code until}
+ * are ISO-8601 dates or timestamps, dates covering the whole day;
+ * {@code keyword} matches part of the message, ignoring case. A
+ * {@code path} can only be filtered on by GitHub.
+ */
+public record CommitQuery(
+        String author,
+        String since,
+        String until,
+        String keyword,
+        String path,
+        int limit) {
+
+}
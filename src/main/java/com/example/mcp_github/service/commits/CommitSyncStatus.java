@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.commits;
+
+/**
+ * What the syncs of a branch have done so far: commits stored, requests
+ * sent by the last one (304s included), and whether the store reaches back
+ * to the first commit or is still filling in older history, currently back
+ * to {@code oldestDate}. {@code error} is set if the last sync failed.
+ */
+public record CommitSyncStatus(
+        int stored,
+        int requests,
+        boolean complete,
+        long syncedAt,
+        String oldestDate,
+        String error) {
+
+}
@@ -0,0 +1,15 @@
+package com.example.mcp_github.service.commits;
+
+/**
+ * A commit as read back from a {@link CommitLog}, or from GitHub when the
+ * query had to go there. {@code date} is the author date.
+ */
+public record StoredCommit(
+        String sha,
+        String authorName,
+        String authorEmail,
+        String date,
+        String message,
+        String htmlUrl) {
+
+}
@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.fanout;
+
+import java.util.List;
+
+/**
+ * All repositories' outcomes, in the order they were given, with counts
+ * and the rate limit left afterwards ({@code -1} if unknown).
+ */
+public record FanOutResult<T>(
+        List<RepoResult<T>> results,
+        int succeeded,
+        int failed,
+        int skipped,
+        long elapsedMillis,
+        long rateLimitRemaining) {
+
+}
@@ -0,0 +1,18 @@
+package com.example.mcp_github.service.fanout;
+
+/**
+ * One repository's outcome in a fan-out: a value, or the error it failed
+ * with, including not finishing in time. A repository that was never run
+ * is {@code skipped}, with the reason in {@code error}.
+ */
+public record RepoResult<T>(
+        String repository,
+        T value,
+        String error,
+        boolean skipped,
+        long elapsedMillis) {
+
+    public boolean succeeded() {
+        return error == null && !skipped;
+    }
+}
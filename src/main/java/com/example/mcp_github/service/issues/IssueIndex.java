@@ -0,0 +1,212 @@
+package com.example.mcp_github.service.issues;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index over one repository's issue and pull request titles and
+ * bodies, ranked with BM25. Postings are parallel primitive arrays of issue
+ * numbers and term frequencies, so a large repository costs a few ints per
+ * term occurrence rather than a boxed object each. Each document remembers
+ * its slot in every postings list it is in, so removing it does not scan
+ * the lists.
+ *
+ * <p>
+ * Updated in place as the store syncs: re-adding an issue first removes its
+ * previous postings. Title terms count {@link #TITLE_WEIGHT} times, since
+ * titles are where triage phrasing usually matches. Not thread-safe; the
+ * store guards it with the repository's monitor.
+ */
+public final class IssueIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have", "if", "in", "into",
+            "is", "it", "its", "not", "of", "on", "or", "so", "that", "the", "then", "there", "this", "to", "was",
+            "we", "when", "which", "will", "with");
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Indexes {@code title} and {@code body} under {@code number},
+     * replacing whatever was indexed for it before.
+     */
+    public void add(int number, String title, String body) {
+        remove(number);
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        int length = 0;
+        for (String term : tokenize(title)) {
+            frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+            length += TITLE_WEIGHT;
+        }
+        for (String term : tokenize(body)) {
+            frequencies.merge(term, 1, Integer::sum);
+            length++;
+        }
+        if (frequencies.isEmpty()) {
+            return;
+        }
+        Document document = new Document(frequencies.keySet().toArray(String[]::new), length);
+        for (int t = 0; t < document.terms.length; t++) {
+            document.slots[t] = postings.computeIfAbsent(document.terms[t], term -> new Postings())
+                    .add(number, frequencies.get(document.terms[t]), t);
+        }
+        documents.put(number, document);
+        totalLength += length;
+    }
+
+    public void remove(int number) {
+        Document document = documents.remove(number);
+        if (document == null) {
+            return;
+        }
+        for (int t = 0; t < document.terms.length; t++) {
+            Postings list = postings.get(document.terms[t]);
+            int slot = document.slots[t];
+            if (list.removeAt(slot)) {
+                // The last entry moved into the freed slot.
+                documents.get(list.numbers[slot]).slots[list.termIndexes[slot]] = slot;
+            }
+            if (list.size == 0) {
+                postings.remove(document.terms[t]);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Issue numbers matching any term of {@code query}, best first. Ties go
+     * to the newer issue.
+     */
+    public List<Integer> search(String query) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        int count = documents.size();
+        if (terms.isEmpty() || count == 0) {
+            return List.of();
+        }
+        double averageLength = (double) totalLength / count;
+        Map<Integer, double[]> scores = new HashMap<>();
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (count - list.size + 0.5) / (list.size + 0.5));
+            for (int i = 0; i < list.size; i++) {
+                int number = list.numbers[i];
+                int frequency = list.frequencies[i];
+                double norm = K1 * (1 - B + B * documents.get(number).length / averageLength);
+                scores.computeIfAbsent(number, n -> new double[1])[0]
+                        += idf * frequency * (K1 + 1) / (frequency + norm);
+            }
+        }
+        List<Integer> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((a, b) -> {
+            int byScore = Double.compare(scores.get(b)[0], scores.get(a)[0]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        });
+        return ranked;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, without stop words and
+     * one-character tokens.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (i - start > 1) {
+                    String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(term)) {
+                        terms.add(term);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * One indexed issue: its distinct terms, its slot in each term's
+     * postings, and its weighted length.
+     */
+    private static final class Document {
+
+        private final String[] terms;
+        private final int[] slots;
+        private final int length;
+
+        Document(String[] terms, int length) {
+            this.terms = terms;
+            this.slots = new int[terms.length];
+            this.length = length;
+        }
+    }
+
+    /**
+     * One term's postings, unordered; removal swaps in the last entry. Each
+     * entry also keeps the term's index in its document's term array, to
+     * update the moved entry's slot.
+     */
+    private static final class Postings {
+
+        private int[] numbers = new int[2];
+        private int[] frequencies = new int[2];
+        private int[] termIndexes = new int[2];
+        private int size;
+
+        /**
+         * Appends an entry and returns its slot.
+         */
+        int add(int number, int frequency, int termIndex) {
+            if (size == numbers.length) {
+                numbers = Arrays.copyOf(numbers, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+                termIndexes = Arrays.copyOf(termIndexes, size * 2);
+            }
+            numbers[size] = number;
+            frequencies[size] = frequency;
+            termIndexes[size] = termIndex;
+            return size++;
+        }
+
+        /**
+         * Removes the entry in {@code slot}; true if another entry was moved
+         * into it.
+         */
+        boolean removeAt(int slot) {
+            size--;
+            if (slot == size) {
+                return false;
+            }
+            numbers[slot] = numbers[size];
+            frequencies[slot] = frequencies[size];
+            termIndexes[slot] = termIndexes[size];
+            return true;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mcp_github.service.issues;
+
+import java.util.List;
+
+/**
+ * The first {@code limit} stored issues matching a query, out of
+ * {@code total} matches: newest number first, or best match first for a
+ * search.
+ */
+public record IssueMatches(
+        List<StoredIssue> issues,
+        int total,
+        IssueSyncStatus sync) {
+
+}
@@ -0,0 +1,16 @@
+package com.example.mcp_github.service.issues;
+
+/**
+ * Filter over a repository's stored issues and pull requests. {@code null}
+ * fields match everything; {@code since} is an ISO-8601 date or timestamp
+ * compared against {@code updated_at}.
+ */
+public record IssueQuery(
+        String state,
+        Boolean pullRequests,
+        String author,
+        String label,
+        String since,
+        int limit) {
+
+}
@@ -0,0 +1,21 @@
+package com.example.mcp_github.service.issues;
+
+/**
+ * What the last sync of a repository did: how many requests it sent (304s
+ * included) and items it received, counting the background backfill, and
+ * whether the store now holds the whole repository or is still filling in
+ * older items. {@code truncated} is set once the backfill stopped at
+ * {@code issues.store.max-items} with older items left on GitHub; such a
+ * repository never becomes complete. {@code error} is set if a sync failed
+ * and older data was served.
+ */
+public record IssueSyncStatus(
+        int stored,
+        int requests,
+        int received,
+        boolean complete,
+        boolean truncated,
+        long syncedAt,
+        String error) {
+
+}
@@ -0,0 +1,44 @@
+package com.example.mcp_github.service.issues;
+
+import java.util.List;
+
+import com.example.mcp_github.model.GitHubIssue;
+
+/**
+ * An issue or pull request as kept by the local issue store: the fields the
+ * tools filter and render on, without the rest of the API payload.
+ */
+public record StoredIssue(
+        int number,
+        boolean pullRequest,
+        String title,
+        String state,
+        String author,
+        List<String> labels,
+        String createdAt,
+        String updatedAt,
+        String closedAt,
+        String mergedAt,
+        boolean draft,
+        String htmlUrl,
+        String body) {
+
+    public static StoredIssue from(GitHubIssue issue) {
+        return new StoredIssue(
+                issue.number(),
+                issue.pullRequest() != null,
+                issue.title(),
+                issue.state(),
+                issue.user() != null ? issue.user().login() : null,
+                issue.labels() != null
+                        ? issue.labels().stream().map(GitHubIssue.Label::name).toList()
+                        : List.of(),
+                issue.createdAt(),
+                issue.updatedAt(),
+                issue.closedAt(),
+                issue.pullRequest() != null ? issue.pullRequest().mergedAt() : null,
+                Boolean.TRUE.equals(issue.draft()),
+                issue.htmlUrl(),
+                issue.body());
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.mcp_github.service.logs;
+
+import java.util.List;
+
+/**
+ * Consecutive log lines around one or more error matches, starting at
+ * 1-based {@code firstLine}. {@code step} is the last {@code ##[group]}
+ * header seen before it, usually the step's command, or {@code null}.
+ */
+public record ErrorRegion(
+        String step,
+        long firstLine,
+        List<String> lines) {
+
+}
@@ -0,0 +1,18 @@
+package com.example.mcp_github.service.logs;
+
+import java.util.List;
+
+/**
+ * What scanning one job's log found: the last error regions (older ones
+ * are dropped once there are more than the limit), how many lines matched
+ * in total, and the steps the jobs API reports as failed.
+ */
+public record JobLogReport(
+        String job,
+        long lines,
+        int matches,
+        List<ErrorRegion> regions,
+        int droppedRegions,
+        List<String> failedSteps) {
+
+}
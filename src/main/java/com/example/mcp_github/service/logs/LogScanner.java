@@ -0,0 +1,168 @@
+package com.example.mcp_github.service.logs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Single pass over a job log that keeps only what it will report: a ring
+ * of the last {@code contextLines} lines, the region being built, and the
+ * last {@code maxRegions} regions. Lines are cut at {@code maxLineChars}
+ * while reading, so a log without newlines cannot exhaust the heap either.
+ * Timestamps GitHub prefixes each line with are stripped.
+ */
+public final class LogScanner {
+
+    private static final String GROUP = "##[group]";
+    private static final int MAX_REGION_LINES = 200;
+
+    private final Pattern pattern;
+    private final int contextLines;
+    private final int maxRegions;
+    private final int maxLineChars;
+
+    public LogScanner(Pattern pattern, int contextLines, int maxRegions, int maxLineChars) {
+        this.pattern = pattern;
+        this.contextLines = Math.max(0, contextLines);
+        this.maxRegions = Math.max(1, maxRegions);
+        this.maxLineChars = Math.max(80, maxLineChars);
+    }
+
+    public JobLogReport scan(String job, InputStream log, List<String> failedSteps) throws IOException {
+        LineReader reader = new LineReader(new InputStreamReader(log, StandardCharsets.UTF_8), maxLineChars);
+        ArrayDeque<String> before = new ArrayDeque<>(contextLines + 1);
+        ArrayDeque<ErrorRegion> regions = new ArrayDeque<>(maxRegions + 1);
+        List<String> current = null;
+        String currentStep = null;
+        long currentStart = 0;
+        int after = 0;
+        String step = null;
+        long lineNumber = 0;
+        int matches = 0;
+        int regionCount = 0;
+
+        for (String text = reader.next(); text != null; text = reader.next()) {
+            lineNumber++;
+            if (text.startsWith(GROUP)) {
+                step = text.substring(GROUP.length()).trim();
+            }
+            if (pattern.matcher(text).find()) {
+                matches++;
+                if (current == null) {
+                    current = new ArrayList<>(before);
+                    currentStart = lineNumber - before.size();
+                    currentStep = step;
+                    before.clear();
+                }
+                after = contextLines;
+                add(current, text);
+            } else if (current != null && after > 0) {
+                after--;
+                add(current, text);
+            } else {
+                if (current != null) {
+                    keep(regions, new ErrorRegion(currentStep, currentStart, List.copyOf(current)));
+                    regionCount++;
+                    current = null;
+                }
+                if (contextLines > 0) {
+                    if (before.size() == contextLines) {
+                        before.removeFirst();
+                    }
+                    before.addLast(text);
+                }
+            }
+        }
+        if (current != null) {
+            keep(regions, new ErrorRegion(currentStep, currentStart, List.copyOf(current)));
+            regionCount++;
+        }
+        return new JobLogReport(job, lineNumber, matches, List.copyOf(regions), regionCount - regions.size(),
+                failedSteps);
+    }
+
+    private static void add(List<String> region, String line) {
+        if (region.size() < MAX_REGION_LINES) {
+            region.add(line);
+        }
+    }
+
+    private void keep(ArrayDeque<ErrorRegion> regions, ErrorRegion region) {
+        regions.addLast(region);
+        if (regions.size() > maxRegions) {
+            regions.removeFirst();
+        }
+    }
+
+    /**
+     * The line without its {@code 2024-05-01T10:00:00.1234567Z } prefix or
+     * trailing carriage return, marked if it was cut.
+     */
+    private static String strip(StringBuilder line, boolean cut) {
+        int start = 0;
+        if (line.length() > 20 && line.charAt(4) == '-' && line.charAt(10) == 'T') {
+            int space = line.indexOf(" ");
+            if (space > 0 && space < 40 && line.charAt(space - 1) == 'Z') {
+                start = space + 1;
+            }
+        }
+        int end = line.length();
+        if (end > start && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        String text = line.substring(start, end);
+        return cut ? text + " …" : text;
+    }
+
+    /**
+     * Lines of at most {@code maxChars}; the rest of a longer line is read
+     * and dropped.
+     */
+    private static final class LineReader {
+
+        private final Reader reader;
+        private final int maxChars;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder line = new StringBuilder();
+        private int position;
+        private int limit;
+
+        LineReader(Reader reader, int maxChars) {
+            this.reader = reader;
+            this.maxChars = maxChars;
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            boolean cut = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit < 0) {
+                        limit = 0;
+                        return line.length() > 0 || cut ? strip(line, cut) : null;
+                    }
+                }
+                int start = position;
+                while (position < limit && buffer[position] != '\n') {
+                    position++;
+                }
+                int room = maxChars - line.length();
+                int length = position - start;
+                line.append(buffer, start, Math.min(room, length));
+                cut |= length > room;
+                if (position < limit) {
+                    position++;
+                    return strip(line, cut);
+                }
+            }
+        }
+    }
+}
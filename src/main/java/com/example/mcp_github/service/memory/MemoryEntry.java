@@ -0,0 +1,147 @@
+package com.example.mcp_github.service.memory;
+
+/**
+ * One version of a memory key. Versions are immutable apart from LRU and
+ * history bookkeeping: a write creates a new head that links to the version
+ * it replaced, and forgetting a key writes a tombstone instead of discarding
+ * it, so earlier values stay readable until history retention drops them.
+ */
+public final class MemoryEntry {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 112;
+
+    private final MemoryValue value;
+    private final boolean deleted;
+    private final long version;
+    private final long writtenAt;
+    private final long expiresAt;
+    private final long heapBytes;
+    private volatile MemoryEntry previous;
+    private volatile long lastAccess;
+
+    private MemoryEntry(String key, MemoryValue value, boolean deleted, long version, long writtenAt,
+            long expiresAt, long accessTick, MemoryEntry previous) {
+        this.value = value;
+        this.deleted = deleted;
+        this.version = version;
+        this.writtenAt = writtenAt;
+        this.expiresAt = expiresAt;
+        this.heapBytes = ENTRY_OVERHEAD_BYTES + 2L * key.length() + (value != null ? value.heapBytes() : 0);
+        this.lastAccess = accessTick;
+        this.previous = previous;
+    }
+
+    public static MemoryEntry of(String key, MemoryValue value, long version, long writtenAt, long expiresAt,
+            long accessTick, MemoryEntry previous) {
+        return new MemoryEntry(key, value, false, version, writtenAt, expiresAt, accessTick, previous);
+    }
+
+    public static MemoryEntry tombstone(String key, long version, long writtenAt, long accessTick,
+            MemoryEntry previous) {
+        return new MemoryEntry(key, null, true, version, writtenAt, 0, accessTick, previous);
+    }
+
+    /**
+     * Decodes the stored value; off-heap and compressed values are copied
+     * back onto the heap on every call.
+     */
+    public String value() {
+        return value != null ? value.decode() : null;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Position of this write in the store-wide sequence.
+     */
+    public long version() {
+        return version;
+    }
+
+    public long writtenAt() {
+        return writtenAt;
+    }
+
+    /**
+     * Epoch millis after which the entry is expired, or {@code 0} if it never
+     * expires.
+     */
+    public long expiresAt() {
+        return expiresAt;
+    }
+
+    public MemoryEntry previous() {
+        return previous;
+    }
+
+    /**
+     * Newest version in this chain written at or before {@code version}, or
+     * {@code null} if the key did not exist yet (or its history was dropped).
+     */
+    public MemoryEntry visibleAt(long version) {
+        MemoryEntry e = this;
+        while (e != null && e.version > version) {
+            e = e.previous;
+        }
+        return e;
+    }
+
+    /**
+     * Cuts the chain after at most {@code maxVersions} versions and drops
+     * versions superseded before {@code cutoff}.
+     *
+     * @return the first dropped version (itself a chain), or {@code null}
+     */
+    public MemoryEntry pruneHistory(int maxVersions, long cutoff) {
+        MemoryEntry e = this;
+        int kept = 1;
+        while (e.previous != null) {
+            // e.previous was superseded when e was written.
+            if (kept >= maxVersions || e.writtenAt < cutoff) {
+                MemoryEntry dropped = e.previous;
+                e.previous = null;
+                return dropped;
+            }
+            e = e.previous;
+            kept++;
+        }
+        return null;
+    }
+
+    /**
+     * Approximate heap footprint of the entry, key and any on-heap value
+     * bytes.
+     */
+    public long heapBytes() {
+        return heapBytes;
+    }
+
+    public long offHeapBytes() {
+        return value != null ? value.offHeapBytes() : 0;
+    }
+
+    public boolean isCompressed() {
+        return value != null && value.isCompressed();
+    }
+
+    /**
+     * Bytes charged against the memory budget: heap and off-heap together.
+     */
+    public long sizeBytes() {
+        return heapBytes + offHeapBytes();
+    }
+
+    public long lastAccess() {
+        return lastAccess;
+    }
+
+    public void touch(long accessTick) {
+        this.lastAccess = accessTick;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt > 0 && now >= expiresAt;
+    }
+}
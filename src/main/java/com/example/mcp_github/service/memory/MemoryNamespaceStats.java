@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.memory;
+
+/**
+ * Size summary of one memory namespace, split into the resident heap share
+ * (keys, entry metadata and small values) and off-heap value storage.
+ * {@code entries} counts live keys; {@code versions} counts every retained
+ * version, tombstones included, and the byte figures cover all of them.
+ */
+public record MemoryNamespaceStats(
+        String namespace,
+        int entries,
+        int versions,
+        long heapBytes,
+        long offHeapBytes,
+        int compressedValues) {
+
+}
@@ -0,0 +1,14 @@
+package com.example.mcp_github.service.memory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a key-ordered memory scan. {@code nextCursor} is {@code null}
+ * when there are no further entries.
+ */
+public record MemoryPage(
+        List<Map.Entry<String, String>> entries,
+        String nextCursor) {
+
+}
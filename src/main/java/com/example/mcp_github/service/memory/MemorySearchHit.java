@@ -0,0 +1,12 @@
+package com.example.mcp_github.service.memory;
+
+/**
+ * A ranked full-text match from the memory store.
+ */
+public record MemorySearchHit(
+        String namespace,
+        String key,
+        String value,
+        double score) {
+
+}
@@ -0,0 +1,12 @@
+package com.example.mcp_github.service.memory;
+
+/**
+ * A point-in-time view of the memory store: every write with a version up to
+ * {@code version} is visible, later ones are not. {@code timestamp} is used
+ * to judge TTL expiry as of the snapshot.
+ */
+public record MemorySnapshot(
+        long version,
+        long timestamp) {
+
+}
@@ -0,0 +1,397 @@
+package com.example.mcp_github.service.memory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Trigram inverted index over memory values, maintained incrementally on
+ * every write.
+ *
+ * <p>
+ * Every stored version of a value gets a fresh int document id, and each
+ * lower-cased trigram maps to an append-only, ascending int array of ids.
+ * Replacing or removing a value only marks its old id dead; dead ids are
+ * skipped at query time and dropped by {@link #compact()}, which builds a new
+ * generation and swaps it in. Writers are serialized by a single lock,
+ * readers never take it. Candidates are always verified against the current
+ * value, so a search can never return a stale match.
+ *
+ * <p>
+ * Only the first {@code MAX_INDEXED_CHARS} of a value are indexed. Longer
+ * values are remembered apart and verified on every indexed search, so terms
+ * past the indexed prefix are still found, at the cost of scanning those
+ * values in full.
+ */
+public final class MemoryTextIndex {
+
+    /**
+     * Values longer than this are only indexed up to this many characters;
+     * see {@link #longDocs}.
+     */
+    private static final int MAX_INDEXED_CHARS = 64 * 1024;
+
+    public record DocRef(String namespace, String key) {
+
+    }
+
+    private record IdSlice(int[] ids, int length) {
+
+    }
+
+    private static final class Posting {
+
+        private volatile int[] ids = new int[4];
+        private volatile int size;
+
+        // Callers hold the index write lock.
+        void add(int id) {
+            int[] current = ids;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[size] = id;
+            ids = current;
+            size = size + 1;
+        }
+
+        int[] snapshot() {
+            int n = size;
+            return Arrays.copyOf(ids, n);
+        }
+
+        /**
+         * Live view of the first {@code size} ids, read without copying.
+         */
+        IdSlice view() {
+            int n = size;
+            return new IdSlice(ids, n);
+        }
+    }
+
+    /**
+     * Postings and the id-to-document table; readers load both from the same
+     * generation so ids always resolve against the numbering they were
+     * written with.
+     */
+    private static final class Generation {
+
+        private final Map<Long, Posting> postings = new ConcurrentHashMap<>();
+        private volatile DocRef[] docs;
+
+        Generation(int capacity) {
+            this.docs = new DocRef[capacity];
+        }
+    }
+
+    private final Object writeLock = new Object();
+    private final Map<DocRef, Integer> liveIds = new HashMap<>();
+    private volatile Generation generation = new Generation(1024);
+    private int[] trigramCounts = new int[1024];
+    private int nextId;
+    private long livePostings;
+    private long deadPostings;
+    /**
+     * Live documents whose value is longer than {@link #MAX_INDEXED_CHARS},
+     * replaced on write so readers can iterate it without the lock.
+     */
+    private volatile Set<DocRef> longDocs = Set.of();
+
+    // ==================== WRITES ====================
+    public void put(String namespace, String key, String value) {
+        long[] trigrams = trigrams(value);
+        synchronized (writeLock) {
+            retire(new DocRef(namespace, key));
+            if (trigrams.length == 0) {
+                return;
+            }
+            DocRef ref = new DocRef(namespace, key);
+            Generation gen = generation;
+            int id = nextId++;
+            if (id == gen.docs.length) {
+                gen.docs = Arrays.copyOf(gen.docs, id * 2);
+                trigramCounts = Arrays.copyOf(trigramCounts, id * 2);
+            }
+            gen.docs[id] = ref;
+            trigramCounts[id] = trigrams.length;
+            liveIds.put(ref, id);
+            if (value.length() > MAX_INDEXED_CHARS) {
+                Set<DocRef> next = new HashSet<>(longDocs);
+                next.add(ref);
+                longDocs = Set.copyOf(next);
+            }
+            for (long trigram : trigrams) {
+                gen.postings.computeIfAbsent(trigram, t -> new Posting()).add(id);
+            }
+            livePostings += trigrams.length;
+        }
+    }
+
+    public void remove(String namespace, String key) {
+        synchronized (writeLock) {
+            retire(new DocRef(namespace, key));
+        }
+    }
+
+    private void retire(DocRef ref) {
+        Integer old = liveIds.remove(ref);
+        if (old != null) {
+            generation.docs[old] = null;
+            livePostings -= trigramCounts[old];
+            deadPostings += trigramCounts[old];
+        }
+        if (longDocs.contains(ref)) {
+            Set<DocRef> next = new HashSet<>(longDocs);
+            next.remove(ref);
+            longDocs = Set.copyOf(next);
+        }
+    }
+
+    public boolean needsCompaction() {
+        synchronized (writeLock) {
+            return deadPostings > 100_000 && deadPostings > livePostings;
+        }
+    }
+
+    /**
+     * Drops dead ids from every posting and renumbers live documents densely
+     * into a new generation. Searches already running keep using the old one.
+     */
+    public void compact() {
+        synchronized (writeLock) {
+            Generation old = generation;
+            Generation compacted = new Generation(Math.max(1024, liveIds.size() * 2));
+            int[] counts = new int[compacted.docs.length];
+            int[] remap = new int[nextId];
+            int next = 0;
+            for (int id = 0; id < nextId; id++) {
+                DocRef ref = old.docs[id];
+                if (ref != null) {
+                    remap[id] = next;
+                    compacted.docs[next] = ref;
+                    counts[next] = trigramCounts[id];
+                    liveIds.put(ref, next);
+                    next++;
+                } else {
+                    remap[id] = -1;
+                }
+            }
+            old.postings.forEach((trigram, posting) -> {
+                Posting rebuilt = new Posting();
+                for (int id : posting.snapshot()) {
+                    if (remap[id] >= 0) {
+                        rebuilt.add(remap[id]);
+                    }
+                }
+                if (rebuilt.size > 0) {
+                    compacted.postings.put(trigram, rebuilt);
+                }
+            });
+            trigramCounts = counts;
+            nextId = next;
+            deadPostings = 0;
+            generation = compacted;
+        }
+    }
+
+    public int size() {
+        synchronized (writeLock) {
+            return liveIds.size();
+        }
+    }
+
+    // ==================== SEARCH ====================
+    /**
+     * Ranked keyword/substring search. Every whitespace-separated term is
+     * matched as a case-insensitive substring; documents matching more terms
+     * rank first, then by a damped occurrence score with a bonus for matching
+     * the whole query as a phrase. {@code lookup} returns the current value of
+     * a document, or {@code null} if it no longer exists.
+     *
+     * @param namespace restricts results to one namespace, or {@code null}
+     * for all
+     */
+    public List<MemorySearchHit> search(String namespace, String query, int limit,
+            BiFunction<String, String, String> lookup) {
+        String phrase = normalize(query).trim();
+        List<String> terms = Arrays.stream(phrase.split("\\s+")).filter(t -> !t.isEmpty()).distinct().toList();
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        Generation gen = generation;
+        Set<DocRef> candidates = new LinkedHashSet<>();
+        boolean indexedTerm = false;
+        for (String term : terms) {
+            if (term.length() >= 3) {
+                indexedTerm = true;
+                collect(gen, candidates, candidateIds(gen, term), namespace);
+            }
+        }
+        Iterable<DocRef> unindexed;
+        if (indexedTerm) {
+            // Terms past the indexed prefix of a long value are not in the postings.
+            unindexed = longDocs;
+        } else {
+            // Terms shorter than a trigram cannot use the index.
+            synchronized (writeLock) {
+                unindexed = List.copyOf(liveIds.keySet());
+            }
+        }
+        for (DocRef ref : unindexed) {
+            if (namespace == null || namespace.equals(ref.namespace())) {
+                candidates.add(ref);
+            }
+        }
+
+        record Ranked(MemorySearchHit hit, int matchedTerms) {
+
+        }
+
+        List<Ranked> ranked = new ArrayList<>();
+        for (DocRef ref : candidates) {
+            String value = lookup.apply(ref.namespace(), ref.key());
+            if (value == null) {
+                continue;
+            }
+            String text = normalize(value);
+            String key = normalize(ref.key());
+            int matched = 0;
+            double score = 0;
+            for (String term : terms) {
+                int occurrences = countOccurrences(text, term, 16);
+                if (occurrences > 0) {
+                    matched++;
+                    score += 1 + Math.log(occurrences);
+                }
+                if (key.contains(term)) {
+                    score += 0.5;
+                }
+            }
+            if (matched == 0) {
+                continue;
+            }
+            if (terms.size() > 1 && text.contains(phrase)) {
+                score += 1.5;
+            }
+            score /= 1 + Math.log1p(text.length() / 1024.0);
+            ranked.add(new Ranked(new MemorySearchHit(ref.namespace(), ref.key(), value, score), matched));
+        }
+
+        return ranked.stream()
+                .sorted(Comparator.comparingInt(Ranked::matchedTerms).reversed()
+                        .thenComparing(Comparator.comparingDouble((Ranked r) -> r.hit().score()).reversed()))
+                .limit(limit)
+                .map(Ranked::hit)
+                .toList();
+    }
+
+    private static void collect(Generation gen, Set<DocRef> candidates, int[] ids, String namespace) {
+        DocRef[] snapshot = gen.docs;
+        for (int id : ids) {
+            DocRef ref = id < snapshot.length ? snapshot[id] : null;
+            if (ref != null && (namespace == null || namespace.equals(ref.namespace()))) {
+                candidates.add(ref);
+            }
+        }
+    }
+
+    /**
+     * Intersects the postings of every trigram of {@code term}, smallest
+     * first.
+     */
+    private static int[] candidateIds(Generation gen, String term) {
+        long[] trigrams = trigrams(term);
+        List<IdSlice> lists = new ArrayList<>(trigrams.length);
+        for (long trigram : trigrams) {
+            Posting posting = gen.postings.get(trigram);
+            if (posting == null) {
+                return new int[0];
+            }
+            lists.add(posting.view());
+        }
+        lists.sort(Comparator.comparingInt(IdSlice::length));
+        IdSlice smallest = lists.get(0);
+        int[] result = Arrays.copyOf(smallest.ids(), smallest.length());
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Intersects a small sorted array with a (possibly much larger) sorted
+     * posting by binary-searching forward through the posting.
+     */
+    private static int[] intersect(int[] small, IdSlice large) {
+        int[] out = new int[small.length];
+        int n = 0;
+        int from = 0;
+        for (int id : small) {
+            int at = Arrays.binarySearch(large.ids(), from, large.length(), id);
+            if (at >= 0) {
+                out[n++] = id;
+                from = at + 1;
+            } else {
+                from = -at - 1;
+            }
+            if (from >= large.length()) {
+                break;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // ==================== TEXT ====================
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Distinct, sorted trigrams of the lower-cased text, each packed as three
+     * 16-bit chars into a long.
+     */
+    static long[] trigrams(String text) {
+        if (text == null || text.length() < 3) {
+            return new long[0];
+        }
+        String normalized = normalize(text.length() > MAX_INDEXED_CHARS ? text.substring(0, MAX_INDEXED_CHARS) : text);
+        long[] grams = new long[normalized.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int n = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[n++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, n);
+    }
+
+    private static int countOccurrences(String text, String term, int max) {
+        int count = 0;
+        int from = 0;
+        while (count < max) {
+            int at = text.indexOf(term, from);
+            if (at < 0) {
+                break;
+            }
+            count++;
+            from = at + 1;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.mcp_github.service.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encoded storage of a memory value. Small values stay on the heap as UTF-8
+ * bytes; larger ones are copied into a direct (off-heap) buffer so the heap
+ * only holds this small handle, and values above the compression threshold
+ * are deflated first when that actually saves space.
+ */
+public final class MemoryValue {
+
+    private static final int HANDLE_OVERHEAD_BYTES = 32;
+    private static final int DIRECT_BUFFER_OVERHEAD_BYTES = 96;
+
+    private final byte[] heap;
+    private final ByteBuffer offHeap;
+    private final boolean compressed;
+    private final int rawLength;
+
+    private MemoryValue(byte[] heap, ByteBuffer offHeap, boolean compressed, int rawLength) {
+        this.heap = heap;
+        this.offHeap = offHeap;
+        this.compressed = compressed;
+        this.rawLength = rawLength;
+    }
+
+    /**
+     * @param offHeapThreshold UTF-8 size from which values move off-heap
+     * @param compressionThreshold UTF-8 size from which values are deflated
+     */
+    public static MemoryValue encode(String value, int offHeapThreshold, int compressionThreshold) {
+        if (value == null) {
+            return null;
+        }
+        byte[] raw = value.getBytes(StandardCharsets.UTF_8);
+        if (raw.length < offHeapThreshold) {
+            return new MemoryValue(raw, null, false, raw.length);
+        }
+        byte[] stored = raw;
+        boolean compressed = false;
+        if (raw.length >= compressionThreshold) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length - raw.length / 8) {
+                stored = deflated;
+                compressed = true;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(stored.length);
+        buffer.put(stored).flip();
+        return new MemoryValue(null, buffer.asReadOnlyBuffer(), compressed, raw.length);
+    }
+
+    public String decode() {
+        if (heap != null) {
+            return new String(heap, StandardCharsets.UTF_8);
+        }
+        byte[] stored = new byte[offHeap.capacity()];
+        offHeap.duplicate().get(stored);
+        return new String(compressed ? inflate(stored, rawLength) : stored, StandardCharsets.UTF_8);
+    }
+
+    public boolean isOffHeap() {
+        return offHeap != null;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    /**
+     * Approximate heap footprint of this handle, including on-heap bytes.
+     */
+    public long heapBytes() {
+        return heap != null
+                ? HANDLE_OVERHEAD_BYTES + heap.length
+                : HANDLE_OVERHEAD_BYTES + DIRECT_BUFFER_OVERHEAD_BYTES;
+    }
+
+    public long offHeapBytes() {
+        return offHeap != null ? offHeap.capacity() : 0;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, int rawLength) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            byte[] raw = new byte[rawLength];
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int inflated = inflater.inflate(raw, n, rawLength - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated input");
+                }
+                n += inflated;
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed memory value", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
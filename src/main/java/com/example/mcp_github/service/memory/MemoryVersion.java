@@ -0,0 +1,13 @@
+package com.example.mcp_github.service.memory;
+
+/**
+ * One retained version of a memory key, newest first in history listings.
+ * Forgotten keys show up as {@code deleted} versions without a value.
+ */
+public record MemoryVersion(
+        long version,
+        long writtenAt,
+        boolean deleted,
+        String value) {
+
+}
@@ -0,0 +1,27 @@
+package com.example.mcp_github.service.overview;
+
+import java.util.List;
+
+import com.example.mcp_github.model.GitHubBranch;
+import com.example.mcp_github.model.GitHubCollaborator;
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubPullRequest;
+import com.example.mcp_github.model.GitHubRelease;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRun;
+
+/**
+ * Everything a first look at a repository needs, each part fetched on its
+ * own, plus how long assembling it took.
+ */
+public record RepositoryOverview(
+        Section<GitHubRepository> repository,
+        Section<List<GitHubBranch>> branches,
+        Section<GitHubCommit> lastCommit,
+        Section<List<GitHubPullRequest>> openPullRequests,
+        Section<GitHubRelease> latestRelease,
+        Section<List<GitHubWorkflowRun>> workflowRuns,
+        Section<List<GitHubCollaborator>> collaborators,
+        long elapsedMillis) {
+
+}
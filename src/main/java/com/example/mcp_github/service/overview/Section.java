@@ -0,0 +1,15 @@
+package com.example.mcp_github.service.overview;
+
+/**
+ * One part of a repository overview: its value ({@code null} if GitHub has
+ * none, e.g. no releases), or why it is missing, and how long it took.
+ */
+public record Section<T>(
+        T value,
+        String error,
+        long elapsedMillis) {
+
+    public boolean ok() {
+        return error == null;
+    }
+}
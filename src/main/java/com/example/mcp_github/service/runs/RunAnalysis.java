@@ -0,0 +1,11 @@
+package com.example.mcp_github.service.runs;
+
+/**
+ * An aggregation over a repository's stored runs, with the sync state it
+ * was computed on.
+ */
+public record RunAnalysis<T>(
+        T result,
+        RunSyncStatus sync) {
+
+}
@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.runs;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+
+/**
+ * One poll of a watched run. {@code run} is {@code null} while a branch has
+ * no new run yet; {@code typicalSeconds} is the workflow's median duration,
+ * {@code null} if it has no completed runs.
+ */
+public record RunProgress(
+        GitHubWorkflowRun run,
+        long elapsedSeconds,
+        Long typicalSeconds,
+        long nextPollSeconds,
+        String error) {
+
+}
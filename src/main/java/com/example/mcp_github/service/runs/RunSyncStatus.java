@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.runs;
+
+/**
+ * How much of a repository's run history is stored: runs held, runs still
+ * queued or running, and whether older history is still being loaded,
+ * currently back to {@code oldestCreated}. {@code error} is set if the last
+ * sync failed.
+ */
+public record RunSyncStatus(
+        int stored,
+        int pending,
+        boolean complete,
+        long syncedAt,
+        String oldestCreated,
+        String error) {
+
+}
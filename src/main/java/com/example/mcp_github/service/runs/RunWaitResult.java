@@ -0,0 +1,17 @@
+package com.example.mcp_github.service.runs;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+
+/**
+ * Outcome of waiting for a run: the run as last seen, whether it completed
+ * before the timeout, and how many polls it took, of which how many were
+ * free 304s.
+ */
+public record RunWaitResult(
+        GitHubWorkflowRun run,
+        boolean completed,
+        long waitedSeconds,
+        int polls,
+        int notModified) {
+
+}
@@ -0,0 +1,515 @@
+package com.example.mcp_github.service.runs;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+
+/**
+ * One repository's workflow runs in columns: primitive arrays for times,
+ * durations, outcomes and attempts, and workflow and branch names interned
+ * to small ints. Aggregations are single passes over the arrays plus a sort
+ * where percentiles need one, so 100k runs take milliseconds.
+ *
+ * <p>
+ * Runs are upserted by id, so a run seen queued and later completed keeps
+ * one row. GitHub's run listing has no completion time; a completed run's
+ * duration is {@code updated_at - run_started_at}, its queue time
+ * {@code run_started_at - created_at}.
+ *
+ * <p>
+ * Not thread-safe; WorkflowRunStore guards it with the repository's monitor.
+ */
+public final class WorkflowRunTable {
+
+    public static final byte SUCCESS = 0;
+    public static final byte FAILURE = 1;
+    public static final byte CANCELLED = 2;
+    public static final byte SKIPPED = 3;
+    public static final byte OTHER = 4;
+    public static final byte PENDING = 5;
+
+    private int size;
+    private long[] ids = new long[64];
+    private int[] workflows = new int[64];
+    private int[] branches = new int[64];
+    private byte[] outcomes = new byte[64];
+    private long[] created = new long[64];
+    private int[] queueSeconds = new int[64];
+    private int[] durationSeconds = new int[64];
+    private int[] attempts = new int[64];
+    private long[] commits = new long[64];
+
+    private final Names workflowNames = new Names();
+    private final Names branchNames = new Names();
+    private final LongIntIndex rowsById = new LongIntIndex();
+    private int pending;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Rows still queued or running.
+     */
+    public int pending() {
+        return pending;
+    }
+
+    /**
+     * Creation time of the newest run: where an incremental sync starts.
+     */
+    public long newestCreated() {
+        long newest = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            newest = Math.max(newest, created[i]);
+        }
+        return newest;
+    }
+
+    /**
+     * Ids of pending runs created at or after {@code from} and before
+     * {@code until}, oldest row first.
+     */
+    public long[] pendingIds(long from, long until) {
+        long[] found = new long[pending];
+        int count = 0;
+        for (int i = 0; i < size && count < found.length; i++) {
+            if (outcomes[i] == PENDING && created[i] >= from && created[i] < until) {
+                found[count++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    public long oldestCreated() {
+        long oldest = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            oldest = Math.min(oldest, created[i]);
+        }
+        return oldest;
+    }
+
+    /**
+     * Inserts or updates {@code run}.
+     *
+     * @return {@code true} if it was not stored before
+     */
+    public boolean upsert(GitHubWorkflowRun run) {
+        int row = rowsById.get(run.id());
+        boolean added = row < 0;
+        if (added) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rowsById.put(run.id(), row);
+        } else if (outcomes[row] == PENDING) {
+            pending--;
+        }
+        long createdAt = epochSecond(run.createdAt());
+        long startedAt = run.runStartedAt() != null ? epochSecond(run.runStartedAt()) : createdAt;
+        byte outcome = outcome(run.status(), run.conclusion());
+        ids[row] = run.id();
+        workflows[row] = workflowNames.id(run.name() != null ? run.name() : String.valueOf(run.workflowId()));
+        branches[row] = branchNames.id(run.headBranch() != null ? run.headBranch() : "");
+        outcomes[row] = outcome;
+        created[row] = createdAt;
+        queueSeconds[row] = (int) Math.max(0, startedAt - createdAt);
+        durationSeconds[row] = outcome == PENDING ? -1 : (int) Math.max(0, epochSecond(run.updatedAt()) - startedAt);
+        attempts[row] = run.runAttempt() != null ? run.runAttempt() : 1;
+        commits[row] = hash(run.headSha());
+        if (outcome == PENDING) {
+            pending++;
+        }
+        return added;
+    }
+
+    /**
+     * Stops counting run {@code id} as pending, e.g. once it was deleted.
+     * It is left out of the analytics like a run with an unknown conclusion.
+     */
+    public void settle(long id) {
+        int row = rowsById.get(id);
+        if (row >= 0 && outcomes[row] == PENDING) {
+            outcomes[row] = OTHER;
+            pending--;
+        }
+    }
+
+    // ==================== ANALYTICS ====================
+    public record FailureRate(String name, int runs, int failures, int cancelled) {
+
+        /**
+         * Failures over runs that succeeded or failed.
+         */
+        public double rate() {
+            int decided = runs - cancelled;
+            return decided > 0 ? (double) failures / decided : 0;
+        }
+    }
+
+    public record DurationStats(String workflow, int runs, int p50, int p90, int p95, int p99, int max) {
+
+    }
+
+    /**
+     * Per workflow: commits with at least one completed run, commits whose
+     * runs both failed and succeeded, and runs that only succeeded on a
+     * re-run attempt.
+     */
+    public record Flakiness(String workflow, int commits, int flakyCommits, int rerunSuccesses) {
+
+        public double rate() {
+            return commits > 0 ? (double) flakyCommits / commits : 0;
+        }
+    }
+
+    public record QueueTimeBucket(long start, int runs, int p50, int p90, int max) {
+
+    }
+
+    /**
+     * Failure rates of completed runs created at or after {@code since},
+     * grouped by workflow or by branch, worst first.
+     */
+    public List<FailureRate> failureRates(boolean byBranch, long since) {
+        int[] keys = byBranch ? branches : workflows;
+        Names names = byBranch ? branchNames : workflowNames;
+        int[] runs = new int[names.size()];
+        int[] failures = new int[names.size()];
+        int[] cancelled = new int[names.size()];
+        for (int i = 0; i < size; i++) {
+            byte outcome = outcomes[i];
+            if (created[i] < since || outcome == PENDING || outcome == SKIPPED || outcome == OTHER) {
+                continue;
+            }
+            int key = keys[i];
+            runs[key]++;
+            if (outcome == FAILURE) {
+                failures[key]++;
+            } else if (outcome == CANCELLED) {
+                cancelled[key]++;
+            }
+        }
+        List<FailureRate> rates = new ArrayList<>();
+        for (int key = 0; key < runs.length; key++) {
+            if (runs[key] > 0) {
+                rates.add(new FailureRate(names.name(key), runs[key], failures[key], cancelled[key]));
+            }
+        }
+        rates.sort(Comparator.comparingDouble(FailureRate::rate).reversed()
+                .thenComparing(Comparator.comparingInt(FailureRate::runs).reversed()));
+        return rates;
+    }
+
+    /**
+     * Duration percentiles in seconds of successful runs created at or
+     * after {@code since}, per workflow, optionally only for one workflow or
+     * branch. Slowest (by p50) first.
+     */
+    public List<DurationStats> durations(String workflow, String branch, long since) {
+        int workflowFilter = workflow != null ? workflowNames.find(workflow) : -1;
+        int branchFilter = branch != null ? branchNames.find(branch) : -1;
+        if ((workflow != null && workflowFilter < 0) || (branch != null && branchFilter < 0)) {
+            return List.of();
+        }
+        int groups = workflowNames.size();
+        int[] counts = new int[groups];
+        for (int i = 0; i < size; i++) {
+            if (durationMatches(i, workflowFilter, branchFilter, since)) {
+                counts[workflows[i]]++;
+            }
+        }
+        int[][] values = new int[groups][];
+        for (int g = 0; g < groups; g++) {
+            values[g] = new int[counts[g]];
+            counts[g] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            if (durationMatches(i, workflowFilter, branchFilter, since)) {
+                values[workflows[i]][counts[workflows[i]]++] = durationSeconds[i];
+            }
+        }
+        List<DurationStats> stats = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            int[] sorted = values[g];
+            if (sorted.length == 0) {
+                continue;
+            }
+            Arrays.sort(sorted);
+            stats.add(new DurationStats(workflowNames.name(g), sorted.length, percentile(sorted, 50),
+                    percentile(sorted, 90), percentile(sorted, 95), percentile(sorted, 99),
+                    sorted[sorted.length - 1]));
+        }
+        stats.sort(Comparator.comparingInt(DurationStats::p50).reversed());
+        return stats;
+    }
+
+    /**
+     * Flakiness per workflow over runs created at or after {@code since},
+     * flakiest first. A commit is flaky for a workflow if its runs there
+     * both failed and succeeded, or one succeeded only on a re-run.
+     */
+    public List<Flakiness> flakiness(long since) {
+        int groups = workflowNames.size();
+        // Outcome bits per (workflow, commit): 1 success, 2 failure, 4 re-run success.
+        LongIntIndex seen = new LongIntIndex();
+        int[] commitsPerWorkflow = new int[groups];
+        int[] flakyPerWorkflow = new int[groups];
+        int[] rerunSuccesses = new int[groups];
+        for (int i = 0; i < size; i++) {
+            byte outcome = outcomes[i];
+            if (created[i] < since || (outcome != SUCCESS && outcome != FAILURE) || commits[i] == 0) {
+                continue;
+            }
+            int workflow = workflows[i];
+            int bit = outcome == FAILURE ? 2 : attempts[i] > 1 ? 5 : 1;
+            if (bit == 5) {
+                rerunSuccesses[workflow]++;
+            }
+            long key = commits[i] * 31 + workflow;
+            int before = Math.max(0, seen.get(key));
+            int after = before | bit;
+            if (before == after) {
+                continue;
+            }
+            seen.put(key, after);
+            if (before == 0) {
+                commitsPerWorkflow[workflow]++;
+            }
+            if (!isFlaky(before) && isFlaky(after)) {
+                flakyPerWorkflow[workflow]++;
+            }
+        }
+        List<Flakiness> result = new ArrayList<>();
+        for (int g = 0; g < groups; g++) {
+            if (commitsPerWorkflow[g] > 0) {
+                result.add(new Flakiness(workflowNames.name(g), commitsPerWorkflow[g], flakyPerWorkflow[g],
+                        rerunSuccesses[g]));
+            }
+        }
+        result.sort(Comparator.comparingDouble(Flakiness::rate).reversed()
+                .thenComparing(Comparator.comparingInt(Flakiness::flakyCommits).reversed()));
+        return result;
+    }
+
+    /**
+     * Queue time percentiles in seconds of runs created at or after
+     * {@code since}, in buckets of {@code bucketSeconds}, oldest first.
+     */
+    public List<QueueTimeBucket> queueTimes(long since, long bucketSeconds) {
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (created[i] >= since && outcomes[i] != SKIPPED) {
+                first = Math.min(first, created[i]);
+                last = Math.max(last, created[i]);
+            }
+        }
+        if (first > last) {
+            return List.of();
+        }
+        long origin = Math.floorDiv(first, bucketSeconds) * bucketSeconds;
+        int buckets = (int) ((last - origin) / bucketSeconds) + 1;
+        int[] counts = new int[buckets];
+        for (int i = 0; i < size; i++) {
+            if (created[i] >= since && outcomes[i] != SKIPPED) {
+                counts[(int) ((created[i] - origin) / bucketSeconds)]++;
+            }
+        }
+        int[][] values = new int[buckets][];
+        for (int b = 0; b < buckets; b++) {
+            values[b] = new int[counts[b]];
+            counts[b] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            if (created[i] >= since && outcomes[i] != SKIPPED) {
+                int b = (int) ((created[i] - origin) / bucketSeconds);
+                values[b][counts[b]++] = queueSeconds[i];
+            }
+        }
+        List<QueueTimeBucket> result = new ArrayList<>(buckets);
+        for (int b = 0; b < buckets; b++) {
+            int[] sorted = values[b];
+            Arrays.sort(sorted);
+            result.add(sorted.length == 0
+                    ? new QueueTimeBucket(origin + b * bucketSeconds, 0, 0, 0, 0)
+                    : new QueueTimeBucket(origin + b * bucketSeconds, sorted.length, percentile(sorted, 50),
+                            percentile(sorted, 90), sorted[sorted.length - 1]));
+        }
+        return result;
+    }
+
+    // ==================== HELPER ====================
+    private boolean durationMatches(int row, int workflowFilter, int branchFilter, long since) {
+        return outcomes[row] == SUCCESS && created[row] >= since
+                && (workflowFilter < 0 || workflows[row] == workflowFilter)
+                && (branchFilter < 0 || branches[row] == branchFilter);
+    }
+
+    private static boolean isFlaky(int bits) {
+        return (bits & 3) == 3 || (bits & 4) != 0;
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted, non-empty array.
+     */
+    private static int percentile(int[] sorted, int p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static byte outcome(String status, String conclusion) {
+        if (!"completed".equals(status) || conclusion == null) {
+            return PENDING;
+        }
+        return switch (conclusion) {
+            case "success" ->
+                SUCCESS;
+            case "failure", "timed_out", "startup_failure" ->
+                FAILURE;
+            case "cancelled" ->
+                CANCELLED;
+            case "skipped" ->
+                SKIPPED;
+            default ->
+                OTHER;
+        };
+    }
+
+    private void grow() {
+        int grown = ids.length * 2;
+        ids = Arrays.copyOf(ids, grown);
+        workflows = Arrays.copyOf(workflows, grown);
+        branches = Arrays.copyOf(branches, grown);
+        outcomes = Arrays.copyOf(outcomes, grown);
+        created = Arrays.copyOf(created, grown);
+        queueSeconds = Arrays.copyOf(queueSeconds, grown);
+        durationSeconds = Arrays.copyOf(durationSeconds, grown);
+        attempts = Arrays.copyOf(attempts, grown);
+        commits = Arrays.copyOf(commits, grown);
+    }
+
+    private static long epochSecond(String date) {
+        try {
+            return date != null ? Instant.parse(date).getEpochSecond() : 0;
+        } catch (DateTimeParseException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 64-bit hash of a head SHA, 0 for none.
+     */
+    private static long hash(String sha) {
+        if (sha == null || sha.isEmpty()) {
+            return 0;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < sha.length(); i++) {
+            h = (h ^ sha.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * Interned names and their ids, in first-seen order.
+     */
+    private static final class Names {
+
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        int id(String name) {
+            return ids.computeIfAbsent(name, n -> {
+                names.add(n);
+                return names.size() - 1;
+            });
+        }
+
+        int find(String name) {
+            Integer id = ids.get(name);
+            if (id != null) {
+                return id;
+            }
+            for (int i = 0; i < names.size(); i++) {
+                if (names.get(i).equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        String name(int id) {
+            return names.get(id);
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+
+    /**
+     * Open-addressed long to non-negative int map; {@code get} returns -1
+     * for absent keys. Values are stored +1 so 0 can mark a free slot and
+     * every key, 0 and -1 included, is usable.
+     */
+    private static final class LongIntIndex {
+
+        private long[] keys = new long[128];
+        private int[] values = new int[128];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask);; slot = (slot + 1) & mask) {
+                if (values[slot] == 0) {
+                    return -1;
+                }
+                if (keys[slot] == key) {
+                    return values[slot] - 1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                long[] oldKeys = keys;
+                int[] oldValues = values;
+                keys = new long[oldKeys.length * 2];
+                values = new int[oldKeys.length * 2];
+                size = 0;
+                for (int i = 0; i < oldKeys.length; i++) {
+                    if (oldValues[i] != 0) {
+                        put(oldKeys[i], oldValues[i] - 1);
+                    }
+                }
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (values[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value + 1;
+        }
+
+        private static int slot(long key, int mask) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            return (int) key & mask;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.mcp_github.tools;
+
+import java.util.function.Consumer;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+
+import io.modelcontextprotocol.spec.McpSchema.LoggingLevel;
+import io.modelcontextprotocol.spec.McpSchema.LoggingMessageNotification;
+
+/**
+ * Sends text to the MCP client while a tool is still running, as log
+ * messages through the exchange Spring AI passes in the tool context.
+ * Without one (e.g. when a tool is called outside MCP) messages are
+ * dropped.
+ */
+public final class ToolNotifications {
+
+    private ToolNotifications() {
+    }
+
+    public static Consumer<String> forTool(ToolContext toolContext, String tool) {
+        if (toolContext == null) {
+            return message -> {
+            };
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+                .<Consumer<String>>map(exchange -> message -> exchange.loggingNotification(
+                        LoggingMessageNotification.builder()
+                                .level(LoggingLevel.INFO)
+                                .logger(tool)
+                                .data(message)
+                                .build()))
+                .orElse(message -> {
+                });
+    }
+}
@@ -1,25 +1,56 @@
 package com.example.mcp_github.tools.actions;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import org.springframework.ai.chat.model.ToolContext;
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
 import com.example.mcp_github.model.GitHubWorkflowRun;
 import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.WorkflowLogService;
+import com.example.mcp_github.service.WorkflowRunStore;
+import com.example.mcp_github.service.WorkflowRunWatcher;
+import com.example.mcp_github.service.logs.ErrorRegion;
+import com.example.mcp_github.service.logs.JobLogReport;
+import com.example.mcp_github.service.runs.RunAnalysis;
+import com.example.mcp_github.service.runs.RunProgress;
+import com.example.mcp_github.service.runs.RunSyncStatus;
+import com.example.mcp_github.service.runs.RunWaitResult;
+import com.example.mcp_github.service.runs.WorkflowRunTable.DurationStats;
+import com.example.mcp_github.service.runs.WorkflowRunTable.FailureRate;
+import com.example.mcp_github.service.runs.WorkflowRunTable.Flakiness;
+import com.example.mcp_github.service.runs.WorkflowRunTable.QueueTimeBucket;
+import com.example.mcp_github.tools.ToolNotifications;
 
 /**
  * MCP Tools — GitHub Actions domain. Covers: listing workflow runs with their
- * status and conclusion.
+ * status and conclusion, and analytics over the run history kept by
+ * {@link WorkflowRunStore}: failure rates, durations, flakiness and queue
+ * times, error output extracted from run logs, and waiting for a run to
+ * complete.
  */
 @Component
 public class GitHubActionsTools {
 
+    private static final int MAX_LOG_OUTPUT_CHARS = 40_000;
+
     private final GitHubService gitHubService;
+    private final WorkflowRunStore runStore;
+    private final WorkflowLogService logService;
+    private final WorkflowRunWatcher runWatcher;
 
-    public GitHubActionsTools(GitHubService gitHubService) {
+    public GitHubActionsTools(GitHubService gitHubService, WorkflowRunStore runStore, WorkflowLogService logService,
+            WorkflowRunWatcher runWatcher) {
         this.gitHubService = gitHubService;
+        this.runStore = runStore;
+        this.logService = logService;
+        this.runWatcher = runWatcher;
     }
 
     @Tool(name = "getWorkflowRuns",
@@ -52,7 +83,248 @@ public class GitHubActionsTools {
         }
     }
 
+    @Tool(name = "getWorkflowFailureRates",
+            description = "Failure rates of GitHub Actions runs per workflow or per branch, worst first, computed over the repository's full run history kept locally.")
+    public String getWorkflowFailureRates(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Group by 'workflow' or 'branch' (default: workflow)", required = false) String groupBy,
+            @ToolParam(description = "Only runs from the last N days (default 30, 0 for all history)", required = false) Integer days) {
+        try {
+            boolean byBranch = "branch".equalsIgnoreCase(groupBy != null ? groupBy.trim() : "");
+            RunAnalysis<List<FailureRate>> analysis = runStore.analyze(username, repository,
+                    table -> table.failureRates(byBranch, since(days, 30)));
+            if (analysis.result().isEmpty()) {
+                return "No completed workflow runs found for repository: %s/%s".formatted(username, repository)
+                        + coverage(analysis.sync());
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("📉 Failure rates per %s for %s/%s (%s):\n\n".formatted(byBranch ? "branch" : "workflow",
+                    username, repository, window(days, 30)));
+            for (FailureRate rate : analysis.result().subList(0, Math.min(25, analysis.result().size()))) {
+                sb.append("%s %s\n".formatted(rate.failures() == 0 ? "✅" : rate.rate() >= 0.2 ? "❌" : "⚠️",
+                        rate.name()));
+                sb.append("   Failed : %.1f%% (%d of %d)\n".formatted(100 * rate.rate(), rate.failures(),
+                        rate.runs() - rate.cancelled()));
+                if (rate.cancelled() > 0) {
+                    sb.append("   Cancelled: %d\n".formatted(rate.cancelled()));
+                }
+            }
+            return sb.append(coverage(analysis.sync())).toString();
+        } catch (Exception e) {
+            return "Error computing failure rates for '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "getWorkflowDurations",
+            description = "Duration percentiles (p50/p90/p95/p99/max) of successful GitHub Actions runs per workflow, slowest first, optionally for one workflow or branch.")
+    public String getWorkflowDurations(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Only this workflow name (optional)", required = false) String workflow,
+            @ToolParam(description = "Only runs on this branch (optional)", required = false) String branch,
+            @ToolParam(description = "Only runs from the last N days (default 30, 0 for all history)", required = false) Integer days) {
+        try {
+            String workflowName = workflow != null && !workflow.isBlank() ? workflow.trim() : null;
+            String branchName = branch != null && !branch.isBlank() ? branch.trim() : null;
+            RunAnalysis<List<DurationStats>> analysis = runStore.analyze(username, repository,
+                    table -> table.durations(workflowName, branchName, since(days, 30)));
+            if (analysis.result().isEmpty()) {
+                return "No successful workflow runs found for repository: %s/%s".formatted(username, repository)
+                        + coverage(analysis.sync());
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("⏱️ Run durations for %s/%s%s (%s):\n\n".formatted(username, repository,
+                    branchName != null ? " on " + branchName : "", window(days, 30)));
+            for (DurationStats stats : analysis.result()) {
+                sb.append("%s (%d runs)\n".formatted(stats.workflow(), stats.runs()));
+                sb.append("   p50 %s · p90 %s · p95 %s · p99 %s · max %s\n".formatted(duration(stats.p50()),
+                        duration(stats.p90()), duration(stats.p95()), duration(stats.p99()), duration(stats.max())));
+            }
+            return sb.append(coverage(analysis.sync())).toString();
+        } catch (Exception e) {
+            return "Error computing run durations for '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "getFlakyWorkflows",
+            description = "Find flaky GitHub Actions workflows: commits whose runs of the same workflow both failed and succeeded, or that only passed on a re-run. Flakiest first.")
+    public String getFlakyWorkflows(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Only runs from the last N days (default 90, 0 for all history)", required = false) Integer days) {
+        try {
+            RunAnalysis<List<Flakiness>> analysis = runStore.analyze(username, repository,
+                    table -> table.flakiness(since(days, 90)));
+            List<Flakiness> flaky = analysis.result().stream().filter(f -> f.flakyCommits() > 0).toList();
+            if (flaky.isEmpty()) {
+                return "No flaky workflows found for repository: %s/%s (%s)".formatted(username, repository,
+                        window(days, 90)) + coverage(analysis.sync());
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("🎲 Flaky workflows for %s/%s (%s):\n\n".formatted(username, repository, window(days, 90)));
+            for (Flakiness f : flaky) {
+                sb.append("%s\n".formatted(f.workflow()));
+                sb.append("   Flaky commits : %.1f%% (%d of %d)\n".formatted(100 * f.rate(), f.flakyCommits(),
+                        f.commits()));
+                sb.append("   Passed on rerun: %d\n".formatted(f.rerunSuccesses()));
+            }
+            return sb.append(coverage(analysis.sync())).toString();
+        } catch (Exception e) {
+            return "Error detecting flaky workflows for '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "getWorkflowQueueTimes",
+            description = "Trend of GitHub Actions queue times (time from a run being created to it starting) per day or week, with median, p90 and max.")
+    public String getWorkflowQueueTimes(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Bucket size: 'day' or 'week' (default: week)", required = false) String bucket,
+            @ToolParam(description = "Number of buckets to show (default 12, max 90)", required = false) Integer buckets) {
+        try {
+            boolean daily = "day".equalsIgnoreCase(bucket != null ? bucket.trim() : "");
+            long bucketSeconds = TimeUnit.DAYS.toSeconds(daily ? 1 : 7);
+            int count = buckets != null && buckets > 0 ? Math.min(buckets, 90) : 12;
+            long now = Instant.now().getEpochSecond();
+            long since = (Math.floorDiv(now, bucketSeconds) - count + 1) * bucketSeconds;
+            RunAnalysis<List<QueueTimeBucket>> analysis = runStore.analyze(username, repository,
+                    table -> table.queueTimes(since, bucketSeconds));
+            if (analysis.result().isEmpty()) {
+                return "No workflow runs in the last %d %s for repository: %s/%s".formatted(count,
+                        daily ? "days" : "weeks", username, repository) + coverage(analysis.sync());
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("🕒 Queue times per %s for %s/%s:\n\n".formatted(daily ? "day" : "week", username, repository));
+            for (QueueTimeBucket b : analysis.result()) {
+                String start = Instant.ofEpochSecond(b.start()).toString().substring(0, 10);
+                sb.append(b.runs() == 0
+                        ? "%s  no runs\n".formatted(start)
+                        : "%s  %5d runs · p50 %s · p90 %s · max %s\n".formatted(start, b.runs(), duration(b.p50()),
+                                duration(b.p90()), duration(b.max())));
+            }
+            return sb.append(coverage(analysis.sync())).toString();
+        } catch (Exception e) {
+            return "Error computing queue times for '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "getWorkflowRunFailures",
+            description = "Extract the error output of a failed GitHub Actions run: downloads the run's logs and returns the lines matching error patterns, with context, per failed job and with the failed steps. Works on logs of any size. Requires authentication.")
+    public String getWorkflowRunFailures(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Workflow run ID") Long runId,
+            @ToolParam(description = "Only this job ID (optional; downloads just that job's log)", required = false) Long jobId,
+            @ToolParam(description = "Regular expression for error lines (optional; default matches ##[error], error, failed, exception, traceback, panic)", required = false) String pattern,
+            @ToolParam(description = "Lines of context around each match (default 5, max 50)", required = false) Integer contextLines) {
+        try {
+            if (!gitHubService.hasAuthentication()) {
+                return "Error: Cannot download workflow logs. GitHub token is not configured.";
+            }
+            List<JobLogReport> reports = logService.failures(username, repository, runId, jobId, pattern, contextLines);
+            if (reports.isEmpty()) {
+                return "No job logs found for run %d in %s/%s".formatted(runId, username, repository);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("🪵 Error output of run %d in %s/%s (%d job(s) scanned):\n".formatted(runId, username, repository,
+                    reports.size()));
+            for (JobLogReport report : reports) {
+                sb.append("\n%s %s — %d lines, %d matching\n".formatted(report.matches() > 0 ? "❌" : "✅",
+                        report.job(), report.lines(), report.matches()));
+                if (!report.failedSteps().isEmpty()) {
+                    sb.append("   Failed steps: %s\n".formatted(String.join(", ", report.failedSteps())));
+                }
+                if (report.droppedRegions() > 0) {
+                    sb.append("   (showing the last %d regions, %d earlier ones omitted)\n".formatted(
+                            report.regions().size(), report.droppedRegions()));
+                }
+                for (ErrorRegion region : report.regions()) {
+                    sb.append("   ── line %d%s\n".formatted(region.firstLine(),
+                            region.step() != null ? " · " + region.step() : ""));
+                    for (String line : region.lines()) {
+                        sb.append("   │ ").append(line).append('\n');
+                    }
+                    if (sb.length() > MAX_LOG_OUTPUT_CHARS) {
+                        return sb.append("\n… output truncated; narrow it down with jobId or pattern.").toString();
+                    }
+                }
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading logs of run %d in '%s/%s': %s".formatted(runId, username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "waitForWorkflowRun",
+            description = "Wait until a GitHub Actions run completes and return its conclusion: a given run, or the newest run on a branch (a just-triggered run is given a moment to appear). Polls with conditional requests at intervals adapted to the workflow's typical duration and reports progress while waiting. Use this instead of calling getWorkflowRuns repeatedly; if it times out, call it again to keep waiting.")
+    public String waitForWorkflowRun(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Workflow run ID (optional if branch is given)", required = false) Long runId,
+            @ToolParam(description = "Branch whose newest run to wait for (used when runId is not given)", required = false) String branch,
+            @ToolParam(description = "Maximum seconds to wait (default 45, so the call returns before common client timeouts; max 1800)", required = false) Integer timeoutSeconds,
+            ToolContext toolContext) {
+        String target = runId != null ? "run %d".formatted(runId) : "branch '%s'".formatted(branch);
+        try {
+            if (runId == null && (branch == null || branch.isBlank())) {
+                return "Error: Provide either runId or branch.";
+            }
+            Consumer<String> notifier = ToolNotifications.forTool(toolContext, "waitForWorkflowRun");
+            int seconds = timeoutSeconds != null && timeoutSeconds > 0 ? Math.min(timeoutSeconds, 1800) : 45;
+            RunWaitResult result = runWatcher.await(username, repository, runId, branch, Duration.ofSeconds(seconds),
+                    progress -> notifier.accept(progressMessage(progress)));
+            GitHubWorkflowRun run = result.run();
+            StringBuilder sb = new StringBuilder();
+            if (result.completed()) {
+                sb.append("%s %s completed: %s\n".formatted(statusEmoji(run), run.name(), run.conclusion()));
+            } else if (run != null) {
+                sb.append("⏳ %s is still %s after %s; call again to keep waiting.\n".formatted(run.name(), run.status(),
+                        duration((int) result.waitedSeconds())));
+            } else {
+                return "⏳ No new run on %s after %s.".formatted(target, duration((int) result.waitedSeconds()));
+            }
+            sb.append("   Run    : %d (attempt %d)\n".formatted(run.id(), run.runAttempt() != null ? run.runAttempt() : 1));
+            sb.append("   Branch : %s\n".formatted(run.headBranch()));
+            sb.append("   Started: %s\n".formatted(run.runStartedAt() != null ? run.runStartedAt() : run.createdAt()));
+            sb.append("   URL    : %s\n".formatted(run.htmlUrl()));
+            sb.append("   Polls  : %d (%d unchanged, not counted against the rate limit)\n".formatted(result.polls(),
+                    result.notModified()));
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error waiting for %s in '%s/%s': %s".formatted(target, username, repository, e.getMessage());
+        }
+    }
+
     // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private long since(Integer days, int defaultDays) {
+        int window = days != null ? days : defaultDays;
+        return window > 0 ? Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(window) : Long.MIN_VALUE;
+    }
+
+    private String window(Integer days, int defaultDays) {
+        int window = days != null ? days : defaultDays;
+        return window > 0 ? "last %d days".formatted(window) : "all history";
+    }
+
+    private String duration(int seconds) {
+        return seconds >= 60 ? "%dm%02ds".formatted(seconds / 60, seconds % 60) : "%ds".formatted(seconds);
+    }
+
+    private String coverage(RunSyncStatus sync) {
+        StringBuilder sb = new StringBuilder("\n📚 Based on %d stored runs".formatted(sync.stored()));
+        if (sync.oldestCreated() != null) {
+            sb.append(" back to %s".formatted(sync.oldestCreated()));
+        }
+        if (!sync.complete()) {
+            sb.append("; older history is still loading");
+        }
+        if (sync.error() != null) {
+            sb.append("\n⚠️ Could not refresh from GitHub (%s).".formatted(sync.error()));
+        }
+        return sb.toString();
+    }
+
     private String statusEmoji(GitHubWorkflowRun run) {
         String key = run.conclusion() != null ? run.conclusion() : run.status();
         return switch (key) {
@@ -69,6 +341,26 @@ public class GitHubActionsTools {
         };
     }
 
+    private String progressMessage(RunProgress progress) {
+        GitHubWorkflowRun run = progress.run();
+        if (run == null) {
+            return "Waiting for a run to start; checking again in %ds".formatted(progress.nextPollSeconds());
+        }
+        StringBuilder sb = new StringBuilder("%s %s: %s".formatted(statusEmoji(run), run.name(),
+                run.conclusion() != null ? run.conclusion() : run.status()));
+        sb.append(", %s elapsed".formatted(duration((int) progress.elapsedSeconds())));
+        if (progress.typicalSeconds() != null) {
+            sb.append(" (usually takes %s)".formatted(duration(progress.typicalSeconds().intValue())));
+        }
+        if (progress.nextPollSeconds() > 0) {
+            sb.append("; next check in %ds".formatted(progress.nextPollSeconds()));
+        }
+        if (progress.error() != null) {
+            sb.append("; last check failed: %s".formatted(progress.error()));
+        }
+        return sb.toString();
+    }
+
     private int resolveLimit(Integer limit) {
         return (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
     }
@@ -0,0 +1,57 @@
+package com.example.mcp_github.tools.batch;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+
+import com.example.mcp_github.service.BatchReader;
+import com.example.mcp_github.service.batch.BatchRequest;
+import com.example.mcp_github.service.batch.BatchResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * MCP Tools — Batch domain. Covers: many independent GitHub reads (files,
+ * issues, pull requests, commits, releases, runs...) in one call, run
+ * concurrently by {@link BatchReader}, with results keyed by request id.
+ */
+@Component
+public class GitHubBatchTools {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    private final BatchReader batchReader;
+
+    public GitHubBatchTools(BatchReader batchReader) {
+        this.batchReader = batchReader;
+    }
+
+    @Tool(name = "batchRead",
+            description = "Run many GitHub read operations in one call, concurrently, instead of one tool call each; e.g. 15 files or issue lists of 8 repositories. Identical requests run once, also when one spells out a default the other leaves out. Returns JSON results keyed by request id; a failing request only fails its own result, and requests with an unknown operation or a missing argument are rejected without running. Operations and arguments: file_content(username, repository, path); issues(username, repository, state?, limit?); pull_requests(username, repository, state?, limit?); commits(username, repository, sha?, path?, author?, since?, until?, limit?); last_commit(username, repository); branches(username, repository); releases(username, repository, limit?); latest_release(username, repository); workflow_runs(username, repository, limit?); workflow_jobs(username, repository, runId); collaborators(username, repository); forks(username, repository, limit?); user_repositories(username); user_profile(username); search_repositories(query, limit?).")
+    public String batchRead(
+            @ToolParam(description = "Reads to run: each has an 'id' (key for its result), an 'operation' and its 'arguments' object") List<BatchRequest> requests) {
+        try {
+            if (requests == null || requests.isEmpty()) {
+                return "Error: No requests given.";
+            }
+            long start = System.currentTimeMillis();
+            Map<String, BatchResult> results = batchReader.read(requests);
+            long rejected = results.values().stream().filter(BatchResult::rejected).count();
+            long distinct = results.values().stream()
+                    .filter(result -> !result.deduplicated() && !result.rejected())
+                    .count();
+            long failed = results.values().stream()
+                    .filter(result -> result.error() != null && !result.rejected())
+                    .count();
+            return "📦 %d reads (%d distinct, %d failed, %d rejected) in %d ms:\n%s".formatted(results.size(),
+                    distinct, failed, rejected, System.currentTimeMillis() - start,
+                    MAPPER.writeValueAsString(results));
+        } catch (Exception e) {
+            return "Error running batch: " + e.getMessage();
+        }
+    }
+}
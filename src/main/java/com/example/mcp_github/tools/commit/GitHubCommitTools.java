@@ -7,19 +7,26 @@ import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
 import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.service.CommitStore;
 import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.commits.CommitMatches;
+import com.example.mcp_github.service.commits.CommitQuery;
+import com.example.mcp_github.service.commits.CommitSyncStatus;
+import com.example.mcp_github.service.commits.StoredCommit;
 
 /**
- * MCP Tools — Commit domain. Covers: listing commits and retrieving the latest
- * commit.
+ * MCP Tools — Commit domain. Covers: listing commits, retrieving the latest
+ * commit and searching history through the local {@link CommitStore}.
  */
 @Component
 public class GitHubCommitTools {
 
     private final GitHubService gitHubService;
+    private final CommitStore commitStore;
 
-    public GitHubCommitTools(GitHubService gitHubService) {
+    public GitHubCommitTools(GitHubService gitHubService, CommitStore commitStore) {
         this.gitHubService = gitHubService;
+        this.commitStore = commitStore;
     }
 
     @Tool(name = "getRepositoryCommits",
@@ -80,7 +87,65 @@ public class GitHubCommitTools {
         }
     }
 
+    @Tool(name = "searchCommits",
+            description = "Search a branch's commit history by author, date range, message keyword or changed path, newest first. Use it for questions like 'when did we change X' instead of paging through getRepositoryCommits. History is kept locally and synced incrementally; path filters are answered by GitHub.")
+    public String searchCommits(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Branch, tag or SHA (default: the default branch)", required = false) String branch,
+            @ToolParam(description = "Part of the author name or email (a login or email when filtering by path)", required = false) String author,
+            @ToolParam(description = "Only commits on or after this ISO date or timestamp, e.g. 2024-05-01", required = false) String since,
+            @ToolParam(description = "Only commits on or before this ISO date or timestamp", required = false) String until,
+            @ToolParam(description = "Word or phrase in the commit message", required = false) String keyword,
+            @ToolParam(description = "Only commits touching this file or directory", required = false) String path,
+            @ToolParam(description = "Max results (default 10, max 100)", required = false) Integer limit) {
+        try {
+            CommitMatches matches = commitStore.query(username, repository, blankToNull(branch),
+                    new CommitQuery(blankToNull(author), blankToNull(since), blankToNull(until), blankToNull(keyword),
+                            blankToNull(path), resolveLimit(limit)));
+            String where = "%s/%s%s".formatted(username, repository, branch != null && !branch.isBlank() ? "@" + branch : "");
+            if (matches.commits().isEmpty()) {
+                return "No matching commits found in %s".formatted(where) + syncNote(matches);
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("🔎 %d matching commit(s) in %s".formatted(matches.total(), where));
+            if (matches.total() > matches.commits().size()) {
+                sb.append(", newest %d".formatted(matches.commits().size()));
+            }
+            sb.append(":\n\n");
+            for (int i = 0; i < matches.commits().size(); i++) {
+                StoredCommit c = matches.commits().get(i);
+                sb.append("%d. %s\n".formatted(i + 1, c.message().split("\n")[0]));
+                sb.append("   SHA   : %s\n".formatted(c.sha().substring(0, 7)));
+                sb.append("   Author: %s <%s>\n".formatted(c.authorName(), c.authorEmail()));
+                sb.append("   Date  : %s\n".formatted(c.date()));
+                sb.append("   URL   : %s\n\n".formatted(c.htmlUrl()));
+            }
+            return sb.append(syncNote(matches)).toString();
+        } catch (Exception e) {
+            return "Error searching commits for '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
     // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+    private String syncNote(CommitMatches matches) {
+        CommitSyncStatus sync = matches.sync();
+        if (sync.error() != null) {
+            return "\n⚠️ Could not sync commit history from GitHub (%s).".formatted(sync.error());
+        }
+        if (!matches.local()) {
+            return "";
+        }
+        return sync.complete()
+                ? ""
+                : "\n⏳ History is still syncing; %d commits so far, back to %s.".formatted(sync.stored(),
+                        sync.oldestDate());
+    }
+
     private int resolveLimit(Integer limit) {
         return (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
     }
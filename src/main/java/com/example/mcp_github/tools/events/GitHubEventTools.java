@@ -0,0 +1,136 @@
+package com.example.mcp_github.tools.events;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+
+import com.example.mcp_github.events.ChangeFeed;
+import com.example.mcp_github.events.RepositoryChange;
+import com.example.mcp_github.events.WatchedFeed;
+
+/**
+ * MCP Tools — Events domain. Covers: watching repositories through the
+ * Events API and reading what changed since a cursor.
+ */
+@Component
+public class GitHubEventTools {
+
+    private final ChangeFeed changeFeed;
+
+    public GitHubEventTools(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @Tool(name = "watchRepository",
+            description = "Start watching a repository for activity (pushes, issues, pull requests, releases, branches, stars). Polling is cheap and runs in the background; read the results with getRepositoryChanges.")
+    public String watchRepository(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository) {
+        try {
+            boolean added = changeFeed.watch(username, repository);
+            return "%s %s/%s\n   Cursor : %d (pass it to getRepositoryChanges to see what happens from now on)".formatted(
+                    added ? "👀 Now watching" : "👀 Already watching", username, repository, changeFeed.latestCursor());
+        } catch (Exception e) {
+            return "Error watching '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
+    @Tool(name = "getRepositoryChanges",
+            description = "List activity in watched repositories since a cursor, oldest first, and the cursor to use next time. Much cheaper than re-listing commits, issues and pull requests to find out what changed. Without a cursor, shows the watched repositories and the current cursor.")
+    public String getRepositoryChanges(
+            @ToolParam(description = "Cursor returned by a previous call; omit to get the current one", required = false) Long cursor,
+            @ToolParam(description = "Only this repository, as owner/repo (optional)", required = false) String repository,
+            @ToolParam(description = "Max results (default 50, max 500)", required = false) Integer limit) {
+        try {
+            List<WatchedFeed> feeds = changeFeed.feeds();
+            if (feeds.isEmpty()) {
+                return "No repositories are watched. Use watchRepository first.";
+            }
+            if (cursor == null) {
+                StringBuilder sb = new StringBuilder("👀 Watching %d feed(s):\n\n".formatted(feeds.size()));
+                long now = System.currentTimeMillis();
+                for (WatchedFeed feed : feeds) {
+                    sb.append("%s %s\n".formatted(feed.lastError() == null ? "✅" : "⚠️", feed.name()));
+                    sb.append("   Polled : %s, every %ds\n".formatted(
+                            feed.lastPolledAt() == 0 ? "not yet" : ago(now - feed.lastPolledAt()),
+                            feed.pollIntervalSeconds()));
+                    sb.append("   Changes: %d\n".formatted(feed.changes()));
+                    if (feed.lastError() != null) {
+                        sb.append("   Error  : %s\n".formatted(feed.lastError()));
+                    }
+                }
+                sb.append("\nCurrent cursor: %d".formatted(changeFeed.latestCursor()));
+                return sb.toString();
+            }
+
+            String filter = repository == null || repository.isBlank() ? null : repository.trim();
+            List<RepositoryChange> changes = changeFeed.changesSince(cursor, filter, resolveLimit(limit));
+            StringBuilder sb = new StringBuilder();
+            if (cursor + 1 < changeFeed.oldestCursor()) {
+                sb.append("⚠️ Changes before cursor %d are no longer buffered; re-list to catch up.\n\n"
+                        .formatted(changeFeed.oldestCursor()));
+            }
+            if (changes.isEmpty()) {
+                sb.append("No changes since cursor %d%s.\n".formatted(cursor, filter != null ? " in " + filter : ""));
+                sb.append("\nNext cursor: %d".formatted(Math.max(cursor, changeFeed.latestCursor())));
+                return sb.toString();
+            }
+            sb.append("📰 %d change(s) since cursor %d:\n\n".formatted(changes.size(), cursor));
+            for (RepositoryChange change : changes) {
+                sb.append("%s [%d] %s\n".formatted(typeEmoji(change.type()), change.cursor(),
+                        change.repository() != null ? change.repository() : "(several repositories)"));
+                sb.append("   %s%s\n".formatted(change.actor() != null ? change.actor() + " " : "", change.summary()));
+                if (change.createdAt() != null) {
+                    sb.append("   At: %s\n".formatted(change.createdAt()));
+                }
+            }
+            long next = changes.get(changes.size() - 1).cursor();
+            sb.append("\nNext cursor: %d".formatted(filter != null && changes.size() < resolveLimit(limit)
+                    ? Math.max(next, changeFeed.latestCursor())
+                    : next));
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading repository changes: %s".formatted(e.getMessage());
+        }
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private String typeEmoji(String type) {
+        return switch (type != null ? type : "") {
+            case "PushEvent" ->
+                "⬆️";
+            case "PullRequestEvent", "PullRequestReviewEvent" ->
+                "🔀";
+            case "IssuesEvent", "IssueCommentEvent" ->
+                "🐛";
+            case "ReleaseEvent" ->
+                "🏷️";
+            case "CreateEvent" ->
+                "🌱";
+            case "DeleteEvent" ->
+                "🗑️";
+            case "WatchEvent" ->
+                "⭐";
+            case "ForkEvent" ->
+                "🍴";
+            case "Gap" ->
+                "⚠️";
+            default ->
+                "•";
+        };
+    }
+
+    private String ago(long millis) {
+        Duration duration = Duration.ofMillis(millis);
+        return duration.toMinutes() > 0
+                ? "%dm%02ds ago".formatted(duration.toMinutes(), duration.toSecondsPart())
+                : "%ds ago".formatted(duration.toSeconds());
+    }
+
+    private int resolveLimit(Integer limit) {
+        return (limit != null && limit > 0) ? Math.min(limit, 500) : 50;
+    }
+}
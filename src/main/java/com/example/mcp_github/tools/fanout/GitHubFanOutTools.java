@@ -0,0 +1,213 @@
+package com.example.mcp_github.tools.fanout;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubRelease;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.RepositoryFanOut;
+import com.example.mcp_github.service.fanout.FanOutResult;
+import com.example.mcp_github.service.fanout.RepoResult;
+import com.example.mcp_github.tools.ToolNotifications;
+
+/**
+ * MCP Tools — Fan-out domain. Covers: running one read-only operation
+ * (latest commit, open pull requests, CI status, latest release, open
+ * issues) across a whole set of repositories in a single call, through
+ * {@link RepositoryFanOut}.
+ */
+@Component
+public class GitHubFanOutTools {
+
+    private static final int MAX_REPOSITORIES = 1000;
+
+    private final GitHubService gitHubService;
+    private final RepositoryFanOut fanOut;
+
+    public GitHubFanOutTools(GitHubService gitHubService, RepositoryFanOut fanOut) {
+        this.gitHubService = gitHubService;
+        this.fanOut = fanOut;
+    }
+
+    @Tool(name = "runAcrossRepositories",
+            description = "Run one operation across many repositories at once, in parallel, instead of one tool call per repository. Operations: 'last_commit', 'open_pull_requests', 'ci_status' (latest workflow run), 'latest_release', 'open_issues'. Repository sets: 'mine' (authenticated user, requires a token), 'user', 'org' or 'search' (GitHub repository search query). Failures are reported per repository; repositories are skipped rather than run if the rate limit runs low. Results are streamed as they arrive.")
+    public String runAcrossRepositories(
+            @ToolParam(description = "Repository set: 'mine', 'user', 'org' or 'search'") String scope,
+            @ToolParam(description = "Username, organization or search query (not needed for 'mine')", required = false) String target,
+            @ToolParam(description = "Operation: 'last_commit', 'open_pull_requests', 'ci_status', 'latest_release' or 'open_issues'") String operation,
+            @ToolParam(description = "Max repositories (default 100, max 1000), most recently updated first (most starred for search)", required = false) Integer limit,
+            ToolContext toolContext) {
+        try {
+            Operation op = Operation.parse(operation);
+            if (op == null) {
+                return "Error: Unknown operation '%s'. Use last_commit, open_pull_requests, ci_status, latest_release or open_issues."
+                        .formatted(operation);
+            }
+            int max = limit != null && limit > 0 ? Math.min(limit, MAX_REPOSITORIES) : 100;
+            String normalizedScope = scope != null ? scope.trim().toLowerCase(Locale.ROOT) : "";
+            if (!normalizedScope.equals("mine") && (target == null || target.isBlank())) {
+                return "Error: A target is required for scope '%s'.".formatted(scope);
+            }
+            List<GitHubRepository> repositories;
+            String description;
+            switch (normalizedScope) {
+                case "mine" -> {
+                    if (!gitHubService.hasAuthentication()) {
+                        return "Error: Cannot list your repositories. GitHub token is not configured.";
+                    }
+                    repositories = gitHubService.getAuthenticatedUserRepositories(max);
+                    description = "your repositories";
+                }
+                case "user" -> {
+                    repositories = gitHubService.getUserRepositories(target, max);
+                    description = "repositories of user '%s'".formatted(target);
+                }
+                case "org" -> {
+                    repositories = gitHubService.getOrganizationRepositories(target, max);
+                    description = "repositories of organization '%s'".formatted(target);
+                }
+                case "search" -> {
+                    repositories = gitHubService.searchRepositories(target, max);
+                    description = "repositories matching '%s'".formatted(target);
+                }
+                default -> {
+                    return "Error: Unknown scope '%s'. Use mine, user, org or search.".formatted(scope);
+                }
+            }
+            if (repositories.isEmpty()) {
+                return "No %s found.".formatted(description);
+            }
+
+            Consumer<String> notifier = ToolNotifications.forTool(toolContext, "runAcrossRepositories");
+            AtomicInteger done = new AtomicInteger();
+            int total = repositories.size();
+            FanOutResult<String> result = fanOut.run(repositories, op.requests, repo -> apply(op, repo),
+                    repoResult -> notifier.accept("[%d/%d] %s".formatted(done.incrementAndGet(), total,
+                            line(repoResult))));
+
+            StringBuilder sb = new StringBuilder();
+            sb.append("🔀 %s across %d %s in %.1fs: %d ok, %d failed, %d skipped\n".formatted(op.label, total,
+                    description, result.elapsedMillis() / 1000.0, result.succeeded(), result.failed(),
+                    result.skipped()));
+            if (result.rateLimitRemaining() >= 0) {
+                sb.append("⏳ Rate limit remaining: %d\n".formatted(result.rateLimitRemaining()));
+            }
+            sb.append("\n");
+            for (RepoResult<String> repoResult : result.results()) {
+                sb.append(line(repoResult)).append("\n");
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error running '%s' across %s repositories: %s".formatted(operation, scope, e.getMessage());
+        }
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private String apply(Operation op, GitHubRepository repository) {
+        String[] parts = repository.fullName().split("/", 2);
+        String owner = parts[0];
+        String repo = parts[1];
+        return switch (op) {
+            case LAST_COMMIT -> {
+                try {
+                    GitHubCommit commit = gitHubService.getLastCommit(owner, repo);
+                    if (commit == null) {
+                        yield "no commits";
+                    }
+                    String message = commit.commit().message().lines().findFirst().orElse("");
+                    yield "%s %s (%s, %s)".formatted(commit.sha().substring(0, 7), message,
+                            commit.commit().author().name(), commit.commit().author().date());
+                } catch (WebClientResponseException.Conflict e) {
+                    yield "empty repository";
+                }
+            }
+            case OPEN_PULL_REQUESTS -> {
+                int open = gitHubService.getRepositoryPullRequests(owner, repo, "open", 100).size();
+                yield open >= 100 ? "100+ open pull requests" : "%d open pull requests".formatted(open);
+            }
+            case CI_STATUS -> {
+                List<GitHubWorkflowRun> runs = gitHubService.getWorkflowRuns(owner, repo, 1);
+                if (runs == null || runs.isEmpty()) {
+                    yield "no workflow runs";
+                }
+                GitHubWorkflowRun run = runs.get(0);
+                yield "%s %s on %s: %s (%s)".formatted(statusEmoji(run), run.name(), run.headBranch(),
+                        run.conclusion() != null ? run.conclusion() : run.status(), run.createdAt());
+            }
+            case LATEST_RELEASE -> {
+                try {
+                    GitHubRelease release = gitHubService.getLatestRelease(owner, repo);
+                    yield release != null
+                            ? "%s (%s)".formatted(release.tagName(), release.publishedAt())
+                            : "no releases";
+                } catch (WebClientResponseException.NotFound e) {
+                    yield "no releases";
+                }
+            }
+            case OPEN_ISSUES ->
+                // Already in the repository listing; GitHub counts open pull requests in it too.
+                "%d open issues and pull requests".formatted(repository.openIssues() != null ? repository.openIssues() : 0);
+        };
+    }
+
+    private String line(RepoResult<String> result) {
+        if (result.skipped()) {
+            return "⏭️ %s — skipped: %s".formatted(result.repository(), result.error());
+        }
+        if (result.error() != null) {
+            return "⚠️ %s — failed: %s".formatted(result.repository(), result.error());
+        }
+        return "📦 %s — %s".formatted(result.repository(), result.value());
+    }
+
+    private String statusEmoji(GitHubWorkflowRun run) {
+        String key = run.conclusion() != null ? run.conclusion() : run.status();
+        return switch (key) {
+            case "success" ->
+                "✅";
+            case "failure" ->
+                "❌";
+            case "cancelled" ->
+                "🚫";
+            case "in_progress" ->
+                "🔄";
+            default ->
+                "⏸️";
+        };
+    }
+
+    private enum Operation {
+        LAST_COMMIT("Latest commit", 1),
+        OPEN_PULL_REQUESTS("Open pull requests", 1),
+        CI_STATUS("CI status", 1),
+        LATEST_RELEASE("Latest release", 1),
+        OPEN_ISSUES("Open issues", 0);
+
+        private final String label;
+        private final int requests;
+
+        Operation(String label, int requests) {
+            this.label = label;
+            this.requests = requests;
+        }
+
+        static Operation parse(String value) {
+            try {
+                return value != null ? valueOf(value.trim().toUpperCase(Locale.ROOT)) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
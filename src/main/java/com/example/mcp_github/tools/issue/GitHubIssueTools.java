@@ -1,6 +1,6 @@
 package com.example.mcp_github.tools.issue;
 
-import java.util.List;
+import java.util.Locale;
 
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
@@ -8,48 +8,115 @@ import org.springframework.stereotype.Component;
 
 import com.example.mcp_github.model.GitHubIssue;
 import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.IssueStore;
+import com.example.mcp_github.service.issues.IssueMatches;
+import com.example.mcp_github.service.issues.IssueQuery;
+import com.example.mcp_github.service.issues.IssueSyncStatus;
+import com.example.mcp_github.service.issues.StoredIssue;
 
 /**
- * MCP Tools — Issue domain. Covers: listing and creating issues.
+ * MCP Tools — Issue domain. Covers: listing and searching issues from the
+ * local {@link IssueStore} and creating issues.
  */
 @Component
 public class GitHubIssueTools {
 
     private final GitHubService gitHubService;
+    private final IssueStore issueStore;
 
-    public GitHubIssueTools(GitHubService gitHubService) {
+    public GitHubIssueTools(GitHubService gitHubService, IssueStore issueStore) {
         this.gitHubService = gitHubService;
+        this.issueStore = issueStore;
     }
 
     @Tool(name = "getRepositoryIssues",
-            description = "List issues from a GitHub repository filtered by state.")
+            description = "List issues from a GitHub repository filtered by state, and optionally by author, label and last update. Served from a local copy that is synced incrementally, so large repositories stay cheap to query; for very large ones it holds only the most recently updated items, and the reply says so.")
     public String getRepositoryIssues(
             @ToolParam(description = "Repository owner username") String username,
             @ToolParam(description = "Repository name") String repository,
             @ToolParam(description = "Filter by state: 'open', 'closed', or 'all' (default: open)") String state,
-            @ToolParam(description = "Max results (default 10, max 100)") Integer limit) {
+            @ToolParam(description = "Max results (default 10, max 100)") Integer limit,
+            @ToolParam(description = "Only issues opened by this user (optional)", required = false) String author,
+            @ToolParam(description = "Only issues with this label (optional)", required = false) String label,
+            @ToolParam(description = "Only issues updated on or after this ISO date, e.g. 2024-05-01 (optional)", required = false) String since) {
         try {
             String issueState = (state != null && !state.isBlank()) ? state : "open";
-            List<GitHubIssue> issues = gitHubService.getRepositoryIssues(
-                    username, repository, issueState, resolveLimit(limit));
-            if (issues == null || issues.isEmpty()) {
-                return "No %s issues found for repository: %s/%s".formatted(issueState, username, repository);
+            IssueMatches matches = issueStore.query(username, repository,
+                    new IssueQuery(issueState, false, blankToNull(author), blankToNull(label), blankToNull(since),
+                            resolveLimit(limit)));
+            if (matches.issues().isEmpty()) {
+                return "No %s issues found for repository: %s/%s".formatted(issueState, username, repository)
+                        + syncNote(matches.sync());
             }
             StringBuilder sb = new StringBuilder();
-            sb.append("%s issues for %s/%s:\n\n".formatted(issueState.toUpperCase(), username, repository));
-            for (GitHubIssue i : issues) {
+            sb.append("%s issues for %s/%s".formatted(issueState.toUpperCase(), username, repository));
+            if (matches.total() > matches.issues().size()) {
+                sb.append(" (%d of %d)".formatted(matches.issues().size(), matches.total()));
+            }
+            sb.append(":\n\n");
+            for (StoredIssue i : matches.issues()) {
                 sb.append("#%d — %s\n".formatted(i.number(), i.title()));
                 sb.append("   State  : %s\n".formatted(i.state()));
-                sb.append("   Author : %s\n".formatted(i.user().login()));
+                sb.append("   Author : %s\n".formatted(i.author()));
+                if (!i.labels().isEmpty()) {
+                    sb.append("   Labels : %s\n".formatted(String.join(", ", i.labels())));
+                }
                 sb.append("   Created: %s\n".formatted(i.createdAt()));
                 sb.append("   URL    : %s\n\n".formatted(i.htmlUrl()));
             }
-            return sb.toString();
+            return sb.append(syncNote(matches.sync())).toString();
         } catch (Exception e) {
             return "Error fetching issues for '%s/%s': %s".formatted(username, repository, e.getMessage());
         }
     }
 
+    @Tool(name = "searchIssues",
+            description = "Full-text search over a repository's issue and pull request titles and bodies, best match first. Use it to check for an existing issue about something before filing one; it does not use GitHub's rate-limited search API. Very large repositories are searched over their most recently updated items only, and the reply says so.")
+    public String searchIssues(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository,
+            @ToolParam(description = "Words to search for") String query,
+            @ToolParam(description = "Filter by state: 'open', 'closed', or 'all' (default: all)", required = false) String state,
+            @ToolParam(description = "Filter by type: 'issue', 'pr', or 'all' (default: all)", required = false) String type,
+            @ToolParam(description = "Max results (default 10, max 100)", required = false) Integer limit) {
+        try {
+            if (query == null || query.isBlank()) {
+                return "Error searching issues: query is required.";
+            }
+            String issueState = (state != null && !state.isBlank()) ? state : "all";
+            Boolean pullRequests = switch (type != null ? type.trim().toLowerCase(Locale.ROOT) : "") {
+                case "issue", "issues" ->
+                    false;
+                case "pr", "prs", "pull", "pulls" ->
+                    true;
+                default ->
+                    null;
+            };
+            IssueMatches matches = issueStore.search(username, repository, query,
+                    new IssueQuery(issueState, pullRequests, null, null, null, resolveLimit(limit)));
+            if (matches.issues().isEmpty()) {
+                return "No issues or pull requests in %s/%s match \"%s\"".formatted(username, repository, query)
+                        + syncNote(matches.sync());
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append("🔎 %d match(es) for \"%s\" in %s/%s".formatted(matches.total(), query, username, repository));
+            if (matches.total() > matches.issues().size()) {
+                sb.append(", best %d".formatted(matches.issues().size()));
+            }
+            sb.append(":\n\n");
+            for (StoredIssue i : matches.issues()) {
+                sb.append("%s #%d — %s\n".formatted(i.pullRequest() ? "🔀" : "🐛", i.number(), i.title()));
+                sb.append("   State  : %s\n".formatted(i.state()));
+                sb.append("   Author : %s\n".formatted(i.author()));
+                sb.append("   Updated: %s\n".formatted(i.updatedAt()));
+                sb.append("   URL    : %s\n\n".formatted(i.htmlUrl()));
+            }
+            return sb.append(syncNote(matches.sync())).toString();
+        } catch (Exception e) {
+            return "Error searching issues in '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
     @Tool(name = "createIssue",
             description = "Create a new issue in a GitHub repository. Requires authentication.")
     public String createIssue(
@@ -61,6 +128,7 @@ public class GitHubIssueTools {
             requireAuth();
             GitHubIssue issue = gitHubService.createIssue(
                     username, repository, title, body != null ? body : "");
+            issueStore.markStale(username, repository);
             return """
                     ✅ Issue created successfully!
 
@@ -81,6 +149,21 @@ public class GitHubIssueTools {
         }
     }
 
+    private String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+    private String syncNote(IssueSyncStatus sync) {
+        if (sync.error() != null) {
+            return "\n⚠️ Could not refresh from GitHub (%s); showing the local copy.".formatted(sync.error());
+        }
+        if (sync.truncated()) {
+            return "\nℹ️ This repository has more items than are stored; results cover only the %d most recently updated items."
+                    .formatted(sync.stored());
+        }
+        return sync.complete() ? "" : "\n⏳ Still syncing this repository; %d items so far.".formatted(sync.stored());
+    }
+
     private int resolveLimit(Integer limit) {
         return (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
     }
@@ -1,5 +1,8 @@
 package com.example.mcp_github.tools.memory;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.ai.tool.annotation.Tool;
@@ -7,14 +10,24 @@ import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
 import com.example.mcp_github.service.MemoryService;
+import com.example.mcp_github.service.memory.MemoryNamespaceStats;
+import com.example.mcp_github.service.memory.MemoryPage;
+import com.example.mcp_github.service.memory.MemorySearchHit;
+import com.example.mcp_github.service.memory.MemorySnapshot;
+import com.example.mcp_github.service.memory.MemoryVersion;
 
 /**
  * MCP Tools — Memory domain. Covers: saving, reading and deleting persistent
- * context via JSON file.
+ * context, grouped by namespace (e.g. per repository, project or session).
+ * Tools default to the {@code default} namespace when none is given. Every
+ * write gets a version number that can be used to read or restore earlier
+ * values.
  */
 @Component
 public class MemoryTools {
 
+    private static final int RECALL_ALL_LIMIT = 200;
+
     private final MemoryService memoryService;
 
     public MemoryTools(MemoryService memoryService) {
@@ -25,23 +38,30 @@ public class MemoryTools {
             description = "Save a key-value pair to persistent memory. Use this to remember project context, branch names, usernames, etc.")
     public String rememberContext(
             @ToolParam(description = "Key to save (e.g. 'current_project', 'current_branch')") String key,
-            @ToolParam(description = "Value to associate with the key") String value) {
+            @ToolParam(description = "Value to associate with the key") String value,
+            @ToolParam(description = "Namespace (e.g. 'repo:owner/name', 'session:42'). Optional, defaults to 'default'", required = false) String namespace,
+            @ToolParam(description = "Time to live in seconds. Optional, 0 keeps the entry until forgotten", required = false) Integer ttlSeconds) {
         try {
-            memoryService.remember(key, value);
-            return "✅ Remembered: %s = %s".formatted(key, value);
+            long version = memoryService.remember(namespace, key, value,
+                    ttlSeconds != null ? Duration.ofSeconds(ttlSeconds) : null);
+            return "✅ Remembered%s: %s = %s (version %d)".formatted(describeNamespace(namespace), key, value, version);
         } catch (Exception e) {
             return "Error saving memory: " + e.getMessage();
         }
     }
 
     @Tool(name = "recallContext",
-            description = "Retrieve a previously saved value from memory by its key.")
+            description = "Retrieve a previously saved value from memory by its key, optionally as it was at an earlier version.")
     public String recallContext(
-            @ToolParam(description = "Key to retrieve (e.g. 'current_project')") String key) {
+            @ToolParam(description = "Key to retrieve (e.g. 'current_project')") String key,
+            @ToolParam(description = "Namespace to read from. Optional, defaults to 'default'", required = false) String namespace,
+            @ToolParam(description = "Read the value as of this version (optional, defaults to the latest)", required = false) Long asOfVersion) {
         try {
-            String value = memoryService.recall(key);
+            MemorySnapshot snapshot = asOfVersion != null ? memoryService.snapshot(asOfVersion) : null;
+            String value = memoryService.recall(namespace, key, snapshot);
             if (value == null) {
-                return "No memory found for key: " + key;
+                return "No memory found for key: " + key + describeNamespace(namespace)
+                        + (asOfVersion != null ? " at version " + asOfVersion : "");
             }
             return "🧠 %s = %s".formatted(key, value);
         } catch (Exception e) {
@@ -50,41 +70,195 @@ public class MemoryTools {
     }
 
     @Tool(name = "recallAllContext",
-            description = "Retrieve all saved memory entries.")
-    public String recallAllContext() {
+            description = "Retrieve saved memory entries of a namespace in key order. Large namespaces are truncated; use scanContext to page through them.")
+    public String recallAllContext(
+            @ToolParam(description = "Namespace to read from. Optional, defaults to 'default'", required = false) String namespace) {
+        try {
+            MemoryPage page = memoryService.scan(namespace, null, null, null, null, RECALL_ALL_LIMIT);
+            if (page.entries().isEmpty()) {
+                return "Memory is empty" + describeNamespace(namespace) + ".";
+            }
+            StringBuilder sb = new StringBuilder("🧠 All memory%s:\n\n".formatted(describeNamespace(namespace)));
+            appendPage(sb, page, false);
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading memory: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "scanContext",
+            description = "Page through memory entries in key order, optionally restricted to a key prefix (e.g. 'issue:') and/or a key range [fromKey, toKey).")
+    public String scanContext(
+            @ToolParam(description = "Namespace to read from. Optional, defaults to 'default'", required = false) String namespace,
+            @ToolParam(description = "Only keys starting with this prefix (optional)", required = false) String prefix,
+            @ToolParam(description = "Inclusive lower key bound (optional)", required = false) String fromKey,
+            @ToolParam(description = "Exclusive upper key bound (optional)", required = false) String toKey,
+            @ToolParam(description = "Cursor returned by a previous call to continue from (optional)", required = false) String cursor,
+            @ToolParam(description = "Max entries per page (default 50, max 500)", required = false) Integer limit) {
+        try {
+            MemoryPage page = memoryService.scan(namespace, prefix, fromKey, toKey, cursor, resolveLimit(limit));
+            if (page.entries().isEmpty()) {
+                return "No matching memory entries" + describeNamespace(namespace) + ".";
+            }
+            StringBuilder sb = new StringBuilder("🧠 Memory entries%s:\n\n".formatted(describeNamespace(namespace)));
+            appendPage(sb, page, false);
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading memory: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "listContextKeys",
+            description = "List memory keys in key order without their values, optionally restricted to a key prefix.")
+    public String listContextKeys(
+            @ToolParam(description = "Namespace to read from. Optional, defaults to 'default'", required = false) String namespace,
+            @ToolParam(description = "Only keys starting with this prefix (optional)", required = false) String prefix,
+            @ToolParam(description = "Cursor returned by a previous call to continue from (optional)", required = false) String cursor,
+            @ToolParam(description = "Max keys per page (default 50, max 500)", required = false) Integer limit) {
         try {
-            Map<String, String> memory = memoryService.recallAll();
-            if (memory.isEmpty()) {
-                return "Memory is empty.";
+            MemoryPage page = memoryService.scan(namespace, prefix, null, null, cursor, resolveLimit(limit));
+            if (page.entries().isEmpty()) {
+                return "No matching memory keys" + describeNamespace(namespace) + ".";
             }
-            StringBuilder sb = new StringBuilder("🧠 All memory:\n\n");
-            memory.forEach((k, v) -> sb.append("   %s = %s\n".formatted(k, v)));
+            StringBuilder sb = new StringBuilder("🔑 Memory keys%s:\n\n".formatted(describeNamespace(namespace)));
+            appendPage(sb, page, true);
             return sb.toString();
         } catch (Exception e) {
             return "Error reading memory: " + e.getMessage();
         }
     }
 
+    @Tool(name = "searchContext",
+            description = "Full-text search over saved memory values. Matches each word as a case-insensitive substring and returns the best matches first.")
+    public String searchContext(
+            @ToolParam(description = "Words or text fragments to look for (e.g. 'release branch', 'JIRA-123')") String query,
+            @ToolParam(description = "Namespace to search. Optional, searches every namespace when omitted", required = false) String namespace,
+            @ToolParam(description = "Max results (default 10, max 100)", required = false) Integer limit) {
+        try {
+            int max = (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
+            List<MemorySearchHit> hits = memoryService.search(namespace, query, max);
+            if (hits.isEmpty()) {
+                return "No memory entries match: " + query;
+            }
+            StringBuilder sb = new StringBuilder("🔎 %d match(es) for '%s':\n\n".formatted(hits.size(), query));
+            for (MemorySearchHit hit : hits) {
+                sb.append("   [%s] %s = %s\n".formatted(hit.namespace(), hit.key(), preview(hit.value())));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error searching memory: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "contextHistory",
+            description = "List the retained earlier versions of a memory key, newest first, including deletions.")
+    public String contextHistory(
+            @ToolParam(description = "Key to inspect") String key,
+            @ToolParam(description = "Namespace to read from. Optional, defaults to 'default'", required = false) String namespace) {
+        try {
+            List<MemoryVersion> versions = memoryService.history(namespace, key);
+            if (versions.isEmpty()) {
+                return "No history for key: " + key + describeNamespace(namespace);
+            }
+            StringBuilder sb = new StringBuilder("🕘 History of %s%s:\n\n".formatted(key, describeNamespace(namespace)));
+            for (MemoryVersion v : versions) {
+                sb.append("   v%d  %s  %s\n".formatted(v.version(), Instant.ofEpochMilli(v.writtenAt()),
+                        v.deleted() ? "🗑️ deleted" : preview(v.value())));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading memory: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "restoreContext",
+            description = "Restore a memory key to the value it had at an earlier version (see contextHistory). The restore is saved as a new version.")
+    public String restoreContext(
+            @ToolParam(description = "Key to restore") String key,
+            @ToolParam(description = "Version to restore") Long version,
+            @ToolParam(description = "Namespace of the key. Optional, defaults to 'default'", required = false) String namespace) {
+        try {
+            long restored = memoryService.restore(namespace, key, version);
+            return "♻️ Restored%s: %s from version %d (version %d)".formatted(describeNamespace(namespace), key,
+                    version, restored);
+        } catch (Exception e) {
+            return "Error restoring memory: " + e.getMessage();
+        }
+    }
+
     @Tool(name = "forgetContext",
-            description = "Delete a specific key from memory.")
+            description = "Delete a specific key from memory. Earlier values stay in its history for a while and can be restored.")
     public String forgetContext(
-            @ToolParam(description = "Key to delete") String key) {
+            @ToolParam(description = "Key to delete") String key,
+            @ToolParam(description = "Namespace to delete from. Optional, defaults to 'default'", required = false) String namespace) {
         try {
-            memoryService.forget(key);
-            return "🗑️ Forgot: " + key;
+            memoryService.forget(namespace, key);
+            return "🗑️ Forgot: " + key + describeNamespace(namespace);
         } catch (Exception e) {
             return "Error deleting memory: " + e.getMessage();
         }
     }
 
     @Tool(name = "forgetAllContext",
-            description = "Clear all saved memory. ⚠️ Irreversible.")
-    public String forgetAllContext() {
+            description = "Clear all saved memory of a namespace. ⚠️ Only recoverable through contextHistory/restoreContext until the history retention expires.")
+    public String forgetAllContext(
+            @ToolParam(description = "Namespace to clear. Optional, defaults to 'default'", required = false) String namespace) {
         try {
-            memoryService.forgetAll();
-            return "🗑️ All memory cleared.";
+            memoryService.forgetAll(namespace);
+            return "🗑️ All memory cleared" + describeNamespace(namespace) + ".";
         } catch (Exception e) {
             return "Error clearing memory: " + e.getMessage();
         }
     }
+
+    @Tool(name = "listMemoryNamespaces",
+            description = "List memory namespaces with their entry counts and heap/off-heap sizes, plus the overall memory budget usage.")
+    public String listMemoryNamespaces() {
+        try {
+            List<MemoryNamespaceStats> stats = memoryService.namespaceStats();
+            StringBuilder sb = new StringBuilder();
+            sb.append("🧠 Memory usage: %.1f KB of %.1f KB (%.1f KB off-heap), version %d\n\n"
+                    .formatted(memoryService.usedBytes() / 1024.0, memoryService.maxBytes() / 1024.0,
+                            memoryService.offHeapBytes() / 1024.0, memoryService.currentVersion()));
+            if (stats.isEmpty()) {
+                sb.append("No namespaces in use.\n");
+            }
+            for (MemoryNamespaceStats s : stats) {
+                sb.append("📁 %s — %d entries (%d versions retained)\n".formatted(s.namespace(), s.entries(),
+                        s.versions()));
+                sb.append("   Heap    : %.1f KB\n".formatted(s.heapBytes() / 1024.0));
+                sb.append("   Off-heap: %.1f KB (%d compressed values)\n".formatted(
+                        s.offHeapBytes() / 1024.0, s.compressedValues()));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading memory: " + e.getMessage();
+        }
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private void appendPage(StringBuilder sb, MemoryPage page, boolean keysOnly) {
+        for (Map.Entry<String, String> e : page.entries()) {
+            if (keysOnly) {
+                sb.append("   %s (%d chars)\n".formatted(e.getKey(), e.getValue().length()));
+            } else {
+                sb.append("   %s = %s\n".formatted(e.getKey(), e.getValue()));
+            }
+        }
+        if (page.nextCursor() != null) {
+            sb.append("\n… more entries available — continue with cursor: %s\n".formatted(page.nextCursor()));
+        }
+    }
+
+    private String preview(String value) {
+        return value.length() > 200 ? value.substring(0, 200) + "…" : value;
+    }
+
+    private int resolveLimit(Integer limit) {
+        return (limit != null && limit > 0) ? Math.min(limit, 500) : 50;
+    }
+
+    private String describeNamespace(String namespace) {
+        return (namespace != null && !namespace.isBlank()) ? " [" + namespace.trim() + "]" : "";
+    }
 }
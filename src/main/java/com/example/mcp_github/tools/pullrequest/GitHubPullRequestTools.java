@@ -1,53 +1,71 @@
 package com.example.mcp_github.tools.pullrequest;
 
-import java.util.List;
-
 import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
 import com.example.mcp_github.model.GitHubPullRequest;
 import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.IssueStore;
+import com.example.mcp_github.service.issues.IssueMatches;
+import com.example.mcp_github.service.issues.IssueQuery;
+import com.example.mcp_github.service.issues.IssueSyncStatus;
+import com.example.mcp_github.service.issues.StoredIssue;
 
 /**
- * MCP Tools — Pull Request domain. Covers: listing and creating pull requests.
+ * MCP Tools — Pull Request domain. Covers: listing pull requests from the
+ * local {@link IssueStore}, creating and merging them.
  */
 @Component
 public class GitHubPullRequestTools {
 
     private final GitHubService gitHubService;
+    private final IssueStore issueStore;
 
-    public GitHubPullRequestTools(GitHubService gitHubService) {
+    public GitHubPullRequestTools(GitHubService gitHubService, IssueStore issueStore) {
         this.gitHubService = gitHubService;
+        this.issueStore = issueStore;
     }
 
     @Tool(name = "getRepositoryPullRequests",
-            description = "List pull requests from a GitHub repository filtered by state.")
+            description = "List pull requests from a GitHub repository filtered by state, and optionally by author, label and last update. Served from a local copy that is synced incrementally, so large repositories stay cheap to query; for very large ones it holds only the most recently updated items, and the reply says so.")
     public String getRepositoryPullRequests(
             @ToolParam(description = "Repository owner username") String username,
             @ToolParam(description = "Repository name") String repository,
             @ToolParam(description = "Filter by state: 'open', 'closed', or 'all' (default: open)") String state,
-            @ToolParam(description = "Max results (default 10, max 100)") Integer limit) {
+            @ToolParam(description = "Max results (default 10, max 100)") Integer limit,
+            @ToolParam(description = "Only pull requests opened by this user (optional)", required = false) String author,
+            @ToolParam(description = "Only pull requests with this label (optional)", required = false) String label,
+            @ToolParam(description = "Only pull requests updated on or after this ISO date, e.g. 2024-05-01 (optional)", required = false) String since) {
         try {
             String prState = (state != null && !state.isBlank()) ? state : "open";
-            List<GitHubPullRequest> prs = gitHubService.getRepositoryPullRequests(
-                    username, repository, prState, resolveLimit(limit));
-            if (prs == null || prs.isEmpty()) {
-                return "No %s pull requests found for repository: %s/%s".formatted(prState, username, repository);
+            IssueMatches matches = issueStore.query(username, repository,
+                    new IssueQuery(prState, true, blankToNull(author), blankToNull(label), blankToNull(since),
+                            resolveLimit(limit)));
+            if (matches.issues().isEmpty()) {
+                return "No %s pull requests found for repository: %s/%s".formatted(prState, username, repository)
+                        + syncNote(matches.sync());
             }
             StringBuilder sb = new StringBuilder();
-            sb.append("%s pull requests for %s/%s:\n\n".formatted(prState.toUpperCase(), username, repository));
-            for (GitHubPullRequest pr : prs) {
+            sb.append("%s pull requests for %s/%s".formatted(prState.toUpperCase(), username, repository));
+            if (matches.total() > matches.issues().size()) {
+                sb.append(" (%d of %d)".formatted(matches.issues().size(), matches.total()));
+            }
+            sb.append(":\n\n");
+            for (StoredIssue pr : matches.issues()) {
                 sb.append("#%d — %s%s\n".formatted(pr.number(), pr.title(), pr.draft() ? "  🚧 DRAFT" : ""));
                 sb.append("   State  : %s\n".formatted(pr.state()));
-                sb.append("   Author : %s\n".formatted(pr.user().login()));
+                sb.append("   Author : %s\n".formatted(pr.author()));
+                if (!pr.labels().isEmpty()) {
+                    sb.append("   Labels : %s\n".formatted(String.join(", ", pr.labels())));
+                }
                 sb.append("   Created: %s\n".formatted(pr.createdAt()));
                 if (pr.mergedAt() != null) {
                     sb.append("   Merged : %s\n".formatted(pr.mergedAt()));
                 }
                 sb.append("   URL    : %s\n\n".formatted(pr.htmlUrl()));
             }
-            return sb.toString();
+            return sb.append(syncNote(matches.sync())).toString();
         } catch (Exception e) {
             return "Error fetching pull requests for '%s/%s': %s".formatted(username, repository, e.getMessage());
         }
@@ -66,6 +84,7 @@ public class GitHubPullRequestTools {
             requireAuth();
             GitHubPullRequest pr = gitHubService.createPullRequest(
                     username, repository, title, head, base, body != null ? body : "");
+            issueStore.markStale(username, repository);
             return """
                     ✅ Pull request created successfully!
 
@@ -87,6 +106,21 @@ public class GitHubPullRequestTools {
         }
     }
 
+    private String blankToNull(String value) {
+        return value != null && !value.isBlank() ? value.trim() : null;
+    }
+
+    private String syncNote(IssueSyncStatus sync) {
+        if (sync.error() != null) {
+            return "\n⚠️ Could not refresh from GitHub (%s); showing the local copy.".formatted(sync.error());
+        }
+        if (sync.truncated()) {
+            return "\nℹ️ This repository has more items than are stored; results cover only the %d most recently updated items."
+                    .formatted(sync.stored());
+        }
+        return sync.complete() ? "" : "\n⏳ Still syncing this repository; %d items so far.".formatted(sync.stored());
+    }
+
     private int resolveLimit(Integer limit) {
         return (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
     }
@@ -104,6 +138,7 @@ public class GitHubPullRequestTools {
                     ? commitMessage
                     : "Merged PR #" + prNumber;
             gitHubService.mergePullRequest(username, repository, prNumber, message);
+            issueStore.markStale(username, repository);
             return "✅ Pull request #%d merged successfully in %s/%s."
                     .formatted(prNumber, username, repository);
         } catch (Exception e) {
@@ -6,20 +6,31 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Component;
 
+import com.example.mcp_github.model.GitHubBranch;
+import com.example.mcp_github.model.GitHubCollaborator;
+import com.example.mcp_github.model.GitHubCommit;
+import com.example.mcp_github.model.GitHubPullRequest;
+import com.example.mcp_github.model.GitHubRelease;
 import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.model.GitHubWorkflowRun;
 import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.service.RepositoryOverviewService;
+import com.example.mcp_github.service.overview.RepositoryOverview;
+import com.example.mcp_github.service.overview.Section;
 
 /**
  * MCP Tools — Repository domain. Covers: listing, creating, updating, deleting
- * and searching repositories.
+ * and searching repositories, and a one-call overview of a repository.
  */
 @Component
 public class GitHubRepositoryTools {
 
     private final GitHubService gitHubService;
+    private final RepositoryOverviewService overviewService;
 
-    public GitHubRepositoryTools(GitHubService gitHubService) {
+    public GitHubRepositoryTools(GitHubService gitHubService, RepositoryOverviewService overviewService) {
         this.gitHubService = gitHubService;
+        this.overviewService = overviewService;
     }
 
     @Tool(name = "getUserRepositories",
@@ -144,7 +155,99 @@ public class GitHubRepositoryTools {
         }
     }
 
+    @Tool(name = "getRepositoryOverview",
+            description = "Get a compact overview of a repository in one call: description and stats, branches, last commit, open pull requests, latest release, recent CI runs and collaborators, all fetched in parallel. A good first call for any repository; sections that are slow or unavailable are marked and the rest is still returned.")
+    public String getRepositoryOverview(
+            @ToolParam(description = "Repository owner username") String username,
+            @ToolParam(description = "Repository name") String repository) {
+        try {
+            RepositoryOverview overview = overviewService.overview(username, repository);
+            StringBuilder sb = new StringBuilder();
+
+            GitHubRepository repo = overview.repository().value();
+            if (repo != null) {
+                sb.append("📦 %s%s — %s\n".formatted(repo.fullName(), repo.isPrivate() ? " 🔒" : "",
+                        nullOr(repo.description(), "No description")));
+                sb.append("   ⭐ %d | 🍴 %d | %s | default branch %s | pushed %s%s\n".formatted(repo.stars(),
+                        repo.forks(), nullOr(repo.language(), "Unknown"), nullOr(repo.defaultBranch(), "?"),
+                        nullOr(repo.pushedAt(), repo.updatedAt()), Boolean.TRUE.equals(repo.archived()) ? " | archived" : ""));
+            } else {
+                sb.append("📦 %s/%s%s\n".formatted(username, repository, unavailable(overview.repository())));
+            }
+
+            List<GitHubBranch> branches = overview.branches().value();
+            if (branches != null) {
+                sb.append("🌿 Branches (%d%s): %s\n".formatted(branches.size(), branches.size() >= 30 ? "+" : "",
+                        joinFirst(branches.stream().map(GitHubBranch::name).toList(), 8)));
+            } else {
+                sb.append("🌿 Branches%s\n".formatted(unavailable(overview.branches())));
+            }
+
+            GitHubCommit commit = overview.lastCommit().value();
+            if (commit != null) {
+                sb.append("📝 Last commit: %s %s — %s, %s\n".formatted(commit.sha().substring(0, 7),
+                        commit.commit().message().lines().findFirst().orElse(""),
+                        commit.commit().author().name(), commit.commit().author().date()));
+            } else {
+                sb.append("📝 Last commit%s\n".formatted(overview.lastCommit().ok() ? ": none (empty repository)"
+                        : unavailable(overview.lastCommit())));
+            }
+
+            List<GitHubPullRequest> pulls = overview.openPullRequests().value();
+            if (pulls != null) {
+                sb.append("🔀 Open PRs (%d%s)%s\n".formatted(pulls.size(), pulls.size() >= 100 ? "+" : "",
+                        pulls.isEmpty() ? "" : ": " + joinFirst(pulls.stream()
+                                .map(pr -> "#%d %s (%s)".formatted(pr.number(), pr.title(),
+                                        pr.user() != null ? pr.user().login() : "?"))
+                                .toList(), 3)));
+            } else {
+                sb.append("🔀 Open PRs%s\n".formatted(unavailable(overview.openPullRequests())));
+            }
+
+            GitHubRelease release = overview.latestRelease().value();
+            if (release != null) {
+                sb.append("🏷️ Latest release: %s (%s)\n".formatted(release.tagName(), release.publishedAt()));
+            } else {
+                sb.append("🏷️ Latest release%s\n".formatted(overview.latestRelease().ok() ? ": none"
+                        : unavailable(overview.latestRelease())));
+            }
+
+            List<GitHubWorkflowRun> runs = overview.workflowRuns().value();
+            if (runs != null) {
+                sb.append("⚙️ CI%s\n".formatted(runs.isEmpty() ? ": no workflow runs" : ":"));
+                for (GitHubWorkflowRun run : runs) {
+                    sb.append("   %s on %s: %s (%s)\n".formatted(run.name(), run.headBranch(),
+                            run.conclusion() != null ? run.conclusion() : run.status(), run.createdAt()));
+                }
+            } else {
+                sb.append("⚙️ CI%s\n".formatted(unavailable(overview.workflowRuns())));
+            }
+
+            List<GitHubCollaborator> collaborators = overview.collaborators().value();
+            if (collaborators != null) {
+                sb.append("👥 Collaborators (%d): %s\n".formatted(collaborators.size(),
+                        joinFirst(collaborators.stream().map(GitHubCollaborator::login).toList(), 10)));
+            } else {
+                sb.append("👥 Collaborators%s\n".formatted(unavailable(overview.collaborators())));
+            }
+
+            sb.append("⏱️ Assembled in %d ms".formatted(overview.elapsedMillis()));
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error building overview of '%s/%s': %s".formatted(username, repository, e.getMessage());
+        }
+    }
+
     // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private String unavailable(Section<?> section) {
+        return ": ⚠️ unavailable (%s)".formatted(section.error());
+    }
+
+    private String joinFirst(List<String> items, int max) {
+        String shown = String.join(", ", items.subList(0, Math.min(max, items.size())));
+        return items.size() > max ? shown + ", …" : shown;
+    }
+
     private void requireAuth() {
         if (!gitHubService.hasAuthentication()) {
             throw new IllegalStateException("GitHub token is not configured.");
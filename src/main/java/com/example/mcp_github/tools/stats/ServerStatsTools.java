@@ -0,0 +1,284 @@
+package com.example.mcp_github.tools.stats;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.metrics.InstrumentedToolCallback;
+import com.example.mcp_github.tracing.CallTracer;
+import com.example.mcp_github.tracing.TraceSpan;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+/**
+ * MCP Tools — Server domain. Covers: runtime statistics of this server, read
+ * from the local metrics registry, and per-call latency traces.
+ */
+@Component
+public class ServerStatsTools {
+
+    private final MeterRegistry registry;
+    private final GitHubMetricsFilter gitHubMetrics;
+    private final GitHubCacheFilter cache;
+    private final CallTracer tracer;
+    private final String traceExportFile;
+
+    public ServerStatsTools(
+            MeterRegistry registry,
+            GitHubMetricsFilter gitHubMetrics,
+            GitHubCacheFilter cache,
+            CallTracer tracer,
+            @Value("${tracing.export-file:traces.json}") String traceExportFile) {
+        this.registry = registry;
+        this.gitHubMetrics = gitHubMetrics;
+        this.cache = cache;
+        this.tracer = tracer;
+        this.traceExportFile = traceExportFile;
+    }
+
+    @Tool(name = "serverStats",
+            description = "Show server statistics: latency and error counts per MCP tool, and latency, status codes, response sizes and decode time per GitHub API endpoint, plus response cache hit rates and the remaining rate limit.")
+    public String serverStats() {
+        try {
+            StringBuilder sb = new StringBuilder();
+            Duration uptime = Duration.ofMillis(ManagementFactory.getRuntimeMXBean().getUptime());
+            sb.append("📊 Server stats (uptime %dh %02dm)\n\n".formatted(uptime.toHours(), uptime.toMinutesPart()));
+
+            appendTools(sb);
+            appendGitHub(sb);
+            appendCache(sb);
+
+            long remaining = gitHubMetrics.rateLimitRemaining();
+            sb.append("\n⏳ Rate limit remaining: %s\n".formatted(remaining >= 0 ? remaining : "unknown"));
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading server stats: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "recentTraces",
+            description = "Show the latency breakdown of recent tool calls: scheduler queueing, and per GitHub request the connect, send, server, body and decode phases, then result rendering. Use slowestFirst and minDurationMs to find outliers.")
+    public String recentTraces(
+            @ToolParam(description = "Only calls of this tool (optional)", required = false) String tool,
+            @ToolParam(description = "Only calls that took at least this many milliseconds (optional)", required = false) Integer minDurationMs,
+            @ToolParam(description = "Sort by duration instead of recency (optional, default false)", required = false) Boolean slowestFirst,
+            @ToolParam(description = "Max calls to show (default 10, max 100)", required = false) Integer limit) {
+        try {
+            Map<String, List<TraceSpan>> byTrace = new LinkedHashMap<>();
+            for (TraceSpan span : tracer.spans()) {
+                byTrace.computeIfAbsent(span.traceId(), k -> new ArrayList<>()).add(span);
+            }
+            long minNanos = minDurationMs != null ? TimeUnit.MILLISECONDS.toNanos(minDurationMs) : 0;
+            List<List<TraceSpan>> traces = new ArrayList<>();
+            for (List<TraceSpan> spans : byTrace.values()) {
+                TraceSpan root = root(spans);
+                if (root != null && root.durationNanos() >= minNanos
+                        && (tool == null || tool.isBlank() || root.name().equals(tool.trim()))) {
+                    traces.add(spans);
+                }
+            }
+            if (traces.isEmpty()) {
+                return "No traced calls match.";
+            }
+            Comparator<List<TraceSpan>> order = Boolean.TRUE.equals(slowestFirst)
+                    ? Comparator.comparingLong((List<TraceSpan> t) -> root(t).durationNanos()).reversed()
+                    : Comparator.comparingLong((List<TraceSpan> t) -> root(t).endNanos()).reversed();
+            traces.sort(order);
+
+            int max = (limit != null && limit > 0) ? Math.min(limit, 100) : 10;
+            StringBuilder sb = new StringBuilder("🔬 %d traced call(s):\n".formatted(Math.min(max, traces.size())));
+            for (List<TraceSpan> spans : traces.subList(0, Math.min(max, traces.size()))) {
+                appendTrace(sb, spans);
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            return "Error reading traces: " + e.getMessage();
+        }
+    }
+
+    @Tool(name = "exportTraces",
+            description = "Write all buffered trace spans to a local file in OTLP/JSON format for import into a trace viewer.")
+    public String exportTraces() {
+        try {
+            File file = new File(traceExportFile);
+            int count = tracer.exportOtlp(file);
+            return "📤 Exported %d span(s) to %s".formatted(count, file.getAbsolutePath());
+        } catch (Exception e) {
+            return "Error exporting traces: " + e.getMessage();
+        }
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+    private void appendTrace(StringBuilder sb, List<TraceSpan> spans) {
+        TraceSpan root = root(spans);
+        sb.append("\n%s %s — %.1f ms%s\n".formatted(root.error() ? "❌" : "✅", root.name(), millis(root),
+                root.error() ? " (" + root.attributes().get("outcome") + ")" : ""));
+        for (TraceSpan child : children(spans, root.spanId())) {
+            sb.append("   %-40s %8.1f ms".formatted(child.name(), millis(child)));
+            List<TraceSpan> phases = children(spans, child.spanId());
+            if (!phases.isEmpty()) {
+                sb.append("  [");
+                for (int i = 0; i < phases.size(); i++) {
+                    sb.append(i > 0 ? ", " : "").append("%s %.1f".formatted(phases.get(i).name(), millis(phases.get(i))));
+                }
+                sb.append("]");
+            }
+            String status = child.attributes().get("http.status_code");
+            if (status != null) {
+                sb.append("  HTTP ").append(status);
+            }
+            sb.append("\n");
+        }
+    }
+
+    private TraceSpan root(List<TraceSpan> spans) {
+        for (TraceSpan span : spans) {
+            if (span.isRoot()) {
+                return span;
+            }
+        }
+        return null;
+    }
+
+    private List<TraceSpan> children(List<TraceSpan> spans, String parentSpanId) {
+        List<TraceSpan> children = new ArrayList<>();
+        for (TraceSpan span : spans) {
+            if (parentSpanId.equals(span.parentSpanId())) {
+                children.add(span);
+            }
+        }
+        children.sort(Comparator.comparingLong(TraceSpan::startNanos));
+        return children;
+    }
+
+    private double millis(TraceSpan span) {
+        return span.durationNanos() / 1_000_000.0;
+    }
+
+    private void appendTools(StringBuilder sb) {
+        Map<String, List<Timer>> byTool = group(registry.find(InstrumentedToolCallback.TOOL_CALLS).timers(), "tool");
+        sb.append("🛠️ Tools\n");
+        boolean any = false;
+        for (Map.Entry<String, List<Timer>> e : byTool.entrySet()) {
+            long calls = 0;
+            long failures = 0;
+            for (Timer t : e.getValue()) {
+                calls += t.count();
+                if (!"success".equals(t.getId().getTag("outcome"))) {
+                    failures += t.count();
+                }
+            }
+            if (calls == 0) {
+                continue;
+            }
+            any = true;
+            sb.append("   %s — %d calls, %d errors, %s\n".formatted(e.getKey(), calls, failures,
+                    latency(e.getValue())));
+        }
+        if (!any) {
+            sb.append("   No tool calls yet.\n");
+        }
+    }
+
+    private void appendGitHub(StringBuilder sb) {
+        Map<String, List<Timer>> byEndpoint = new TreeMap<>();
+        for (Timer t : registry.find(GitHubMetricsFilter.REQUESTS).timers()) {
+            byEndpoint.computeIfAbsent(t.getId().getTag("method") + " " + t.getId().getTag("endpoint"),
+                    k -> new ArrayList<>()).add(t);
+        }
+        sb.append("\n🌐 GitHub API\n");
+        if (byEndpoint.isEmpty()) {
+            sb.append("   No requests yet.\n");
+        }
+        for (Map.Entry<String, List<Timer>> e : byEndpoint.entrySet()) {
+            Timer first = e.getValue().get(0);
+            String endpoint = first.getId().getTag("endpoint");
+            String method = first.getId().getTag("method");
+            long calls = e.getValue().stream().mapToLong(Timer::count).sum();
+            StringBuilder statuses = new StringBuilder();
+            e.getValue().stream()
+                    .sorted(Comparator.comparing(t -> t.getId().getTag("status")))
+                    .forEach(t -> statuses.append(statuses.isEmpty() ? "" : ", ")
+                    .append(t.getId().getTag("status")).append("×").append(t.count()));
+            sb.append("   %s — %d requests (%s), %s\n".formatted(e.getKey(), calls, statuses, latency(e.getValue())));
+
+            DistributionSummary bytes = registry.find(GitHubMetricsFilter.RESPONSE_BYTES)
+                    .tags("endpoint", endpoint, "method", method).summary();
+            Timer decode = registry.find(GitHubMetricsFilter.DECODE)
+                    .tags("endpoint", endpoint, "method", method).timer();
+            if (bytes != null && bytes.count() > 0) {
+                sb.append("      body avg %.1f KB, max %.1f KB".formatted(bytes.mean() / 1024.0, bytes.max() / 1024.0));
+                if (decode != null && decode.count() > 0) {
+                    sb.append(", decode avg %.2f ms".formatted(decode.mean(TimeUnit.MILLISECONDS)));
+                }
+                sb.append("\n");
+            }
+        }
+    }
+
+    private void appendCache(StringBuilder sb) {
+        if (!cache.isEnabled()) {
+            return;
+        }
+        Map<String, Long> byResult = new TreeMap<>();
+        for (Counter c : registry.find(GitHubCacheFilter.REQUESTS).counters()) {
+            byResult.merge(c.getId().getTag("result"), (long) c.count(), Long::sum);
+        }
+        long total = byResult.values().stream().mapToLong(Long::longValue).sum();
+        long served = total - byResult.getOrDefault("miss", 0L);
+        sb.append("\n🗄️ Response cache: %d entries, %.1f KB\n".formatted(cache.size(), cache.sizeBytes() / 1024.0));
+        sb.append("   %d lookups, %.0f%% served from cache (fresh %d, stale %d, fallback %d, known 404 %d, miss %d)\n"
+                .formatted(total, total > 0 ? 100.0 * served / total : 0.0, byResult.getOrDefault("hit", 0L),
+                        byResult.getOrDefault("stale", 0L), byResult.getOrDefault("fallback", 0L),
+                        byResult.getOrDefault("not_found", 0L), byResult.getOrDefault("miss", 0L)));
+    }
+
+    /**
+     * Mean over all timers; percentiles and max from the busiest one, since
+     * client-side percentiles cannot be merged.
+     */
+    private String latency(List<Timer> timers) {
+        long count = 0;
+        double total = 0;
+        Timer busiest = timers.get(0);
+        for (Timer t : timers) {
+            count += t.count();
+            total += t.totalTime(TimeUnit.MILLISECONDS);
+            if (t.count() > busiest.count()) {
+                busiest = t;
+            }
+        }
+        StringBuilder sb = new StringBuilder("mean %.1f ms".formatted(count > 0 ? total / count : 0));
+        for (ValueAtPercentile p : busiest.takeSnapshot().percentileValues()) {
+            sb.append(", p%d %.1f ms".formatted(Math.round(p.percentile() * 100), p.value(TimeUnit.MILLISECONDS)));
+        }
+        sb.append(", max %.1f ms".formatted(busiest.max(TimeUnit.MILLISECONDS)));
+        return sb.toString();
+    }
+
+    private Map<String, List<Timer>> group(Iterable<Timer> timers, String tag) {
+        Map<String, List<Timer>> grouped = new TreeMap<>();
+        for (Timer t : timers) {
+            grouped.computeIfAbsent(t.getId().getTag(tag), k -> new ArrayList<>()).add(t);
+        }
+        return grouped;
+    }
+}
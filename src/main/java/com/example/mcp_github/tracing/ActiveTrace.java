@@ -0,0 +1,112 @@
+package com.example.mcp_github.tracing;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The trace of one tool call while it runs. Child spans may be recorded from
+ * any thread (e.g. Reactor Netty event loops); the root span is recorded by
+ * {@link CallTracer#finish} once the call returns.
+ */
+public final class ActiveTrace {
+
+    private final CallTracer tracer;
+    private final String traceId;
+    private final String rootSpanId;
+    private final String name;
+    private final long queuedAt;
+    private final long taskStartedAt;
+    private final long startNanos;
+    private int pendingHttp;
+    private long lastHttpEnd;
+    private long finishedAt;
+
+    ActiveTrace(CallTracer tracer, String name, long queuedAt, long taskStartedAt, long startNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.tracer = tracer;
+        this.traceId = hex(random.nextLong()) + hex(random.nextLong());
+        this.rootSpanId = hex(random.nextLong());
+        this.name = name;
+        this.queuedAt = queuedAt;
+        this.taskStartedAt = taskStartedAt;
+        this.startNanos = startNanos;
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String rootSpanId() {
+        return rootSpanId;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /**
+     * When the task running this call was handed to its scheduler, or
+     * {@code 0} if it ran on the caller's thread.
+     */
+    long queuedAt() {
+        return queuedAt;
+    }
+
+    long taskStartedAt() {
+        return taskStartedAt;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    public String newSpanId() {
+        return hex(ThreadLocalRandom.current().nextLong());
+    }
+
+    public void span(String spanId, String parentSpanId, String name, long start, long end, boolean error,
+            Map<String, String> attributes) {
+        tracer.record(new TraceSpan(traceId, spanId, parentSpanId, name, start, end, error, attributes));
+    }
+
+    public void span(String parentSpanId, String name, long start, long end) {
+        span(newSpanId(), parentSpanId, name, start, end, false, Map.of());
+    }
+
+    public synchronized void httpStarted() {
+        pendingHttp++;
+    }
+
+    /**
+     * Marks a GitHub request as fully decoded. This runs on the event loop
+     * and can race the tool thread, which resumes as soon as the value is
+     * handed over, so whichever side comes last records the render span.
+     */
+    public synchronized void httpFinished(long end) {
+        pendingHttp--;
+        lastHttpEnd = Math.max(lastHttpEnd, end);
+        if (finishedAt > 0 && pendingHttp == 0) {
+            recordRender();
+        }
+    }
+
+    synchronized void callFinished(long end) {
+        finishedAt = end;
+        if (lastHttpEnd > 0 && pendingHttp == 0) {
+            recordRender();
+        }
+    }
+
+    /**
+     * Everything after the last decoded GitHub response until the tool
+     * returned is rendering.
+     */
+    private void recordRender() {
+        span(rootSpanId, "render", Math.min(lastHttpEnd, finishedAt), finishedAt);
+    }
+
+    private static String hex(long value) {
+        String s = Long.toHexString(value);
+        return "0".repeat(16 - s.length()) + s;
+    }
+}
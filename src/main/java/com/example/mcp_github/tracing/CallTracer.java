@@ -0,0 +1,181 @@
+package com.example.mcp_github.tracing;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Lightweight in-process tracing of tool calls. Each call gets a root span
+ * with children for scheduler queueing, every GitHub request (split into
+ * connect, send, server, body and decode) and the final rendering of the
+ * result.
+ *
+ * <p>
+ * Finished spans go into a fixed-size ring buffer: writers claim a slot with
+ * one atomic increment and overwrite the oldest span, so recording never
+ * blocks and memory stays bounded. Reads are a best-effort copy.
+ */
+@Component
+public class CallTracer {
+
+    private static final String SCHEDULE_HOOK = CallTracer.class.getName();
+    private static final ThreadLocal<ActiveTrace> CURRENT = new ThreadLocal<>();
+    // {queuedAt, startedAt} of the scheduler task running on this thread.
+    private static final ThreadLocal<long[]> TASK_TIMES = ThreadLocal.withInitial(() -> new long[2]);
+
+    private final boolean enabled;
+    private final AtomicReferenceArray<TraceSpan> ring;
+    private final int mask;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private final long epochAnchorNanos;
+    private final long nanoAnchor;
+
+    public CallTracer(
+            @Value("${tracing.enabled:true}") boolean enabled,
+            @Value("${tracing.buffer-spans:8192}") int bufferSpans) {
+        this.enabled = enabled;
+        int capacity = Integer.highestOneBit(Math.max(64, bufferSpans) - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.epochAnchorNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+        this.nanoAnchor = System.nanoTime();
+
+        if (enabled) {
+            // Stamp every task handed to a Reactor scheduler so a tool call
+            // can tell how long it waited for a worker thread.
+            Schedulers.onScheduleHook(SCHEDULE_HOOK, task -> {
+                long queuedAt = System.nanoTime();
+                return () -> {
+                    long[] times = TASK_TIMES.get();
+                    long outerQueuedAt = times[0];
+                    long outerStartedAt = times[1];
+                    times[0] = queuedAt;
+                    times[1] = System.nanoTime();
+                    try {
+                        task.run();
+                    } finally {
+                        times[0] = outerQueuedAt;
+                        times[1] = outerStartedAt;
+                    }
+                };
+            });
+        }
+    }
+
+    /**
+     * Starts the trace of a tool call on the current thread, or returns
+     * {@code null} when tracing is disabled.
+     */
+    public ActiveTrace start(String name) {
+        if (!enabled) {
+            return null;
+        }
+        long[] task = TASK_TIMES.get();
+        ActiveTrace trace = new ActiveTrace(this, name, task[0], task[1], System.nanoTime());
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * Records the schedule, render and root spans of a call started on this
+     * thread.
+     */
+    public void finish(ActiveTrace trace, String outcome) {
+        if (trace == null) {
+            return;
+        }
+        CURRENT.remove();
+        long end = System.nanoTime();
+        long start = trace.queuedAt() > 0 ? trace.queuedAt() : trace.startNanos();
+        if (trace.queuedAt() > 0) {
+            trace.span(trace.rootSpanId(), "schedule", trace.queuedAt(), trace.taskStartedAt());
+        }
+        trace.callFinished(end);
+        trace.span(trace.rootSpanId(), null, trace.name(), start, end, !"success".equals(outcome),
+                Map.of("tool", trace.name(), "outcome", outcome));
+    }
+
+    /**
+     * The trace of the tool call running on this thread, if any.
+     */
+    public ActiveTrace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps {@code task} so that GitHub requests it makes, on whichever
+     * thread runs it, are traced under the call running on this thread.
+     */
+    public <T> Callable<T> inCurrentTrace(Callable<T> task) {
+        ActiveTrace trace = CURRENT.get();
+        if (trace == null) {
+            return task;
+        }
+        return () -> {
+            ActiveTrace outer = CURRENT.get();
+            CURRENT.set(trace);
+            try {
+                return task.call();
+            } finally {
+                if (outer != null) {
+                    CURRENT.set(outer);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+
+    void record(TraceSpan span) {
+        ring.set((int) (nextSlot.getAndIncrement() & mask), span);
+    }
+
+    /**
+     * Spans currently in the buffer, oldest first.
+     */
+    public List<TraceSpan> spans() {
+        long end = nextSlot.get();
+        long start = Math.max(0, end - ring.length());
+        List<TraceSpan> spans = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            TraceSpan span = ring.get((int) (i & mask));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Writes the buffered spans to {@code file} in OTLP/JSON format.
+     *
+     * @return the number of spans written
+     */
+    public int exportOtlp(File file) throws Exception {
+        List<TraceSpan> spans = spans();
+        OtlpJsonWriter.write(spans, this, file);
+        return spans.size();
+    }
+
+    public long toEpochNanos(long nanoTime) {
+        return epochAnchorNanos + (nanoTime - nanoAnchor);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (enabled) {
+            Schedulers.resetOnScheduleHook(SCHEDULE_HOOK);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.mcp_github.tracing;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+/**
+ * Records a span per GitHub request of the current tool call. The trace is
+ * picked up on the subscribing thread and carried to Reactor Netty through
+ * the Reactor context, where {@link #instrument(HttpClient)} timestamps the
+ * connection, request and response phases.
+ */
+@Component
+public class GitHubTracingFilter implements ExchangeFilterFunction {
+
+    private final CallTracer tracer;
+
+    public GitHubTracingFilter(CallTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Adds the Reactor Netty callbacks feeding the connect, send and server
+     * phases.
+     */
+    public HttpClient instrument(HttpClient client) {
+        return client
+                .doOnRequest((request, connection)
+                        -> timings(request.currentContextView()).ifPresent(t -> t.requestStart = System.nanoTime()))
+                .doAfterRequest((request, connection)
+                        -> timings(request.currentContextView()).ifPresent(t -> t.requestSent = System.nanoTime()))
+                .doOnResponse((response, connection)
+                        -> timings(response.currentContextView()).ifPresent(t -> t.headers = System.nanoTime()));
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            ActiveTrace trace = tracer.current();
+            if (trace == null) {
+                return next.exchange(request);
+            }
+            HttpTimings timings = new HttpTimings(trace, System.nanoTime(), request.method().name(),
+                    GitHubMetricsFilter.endpoint(request));
+            trace.httpStarted();
+            return next.exchange(request)
+                    .contextWrite(ctx -> ctx.put(HttpTimings.class, timings))
+                    .doOnError(e -> timings.finish(System.nanoTime(), 0, -1, -1, e.getClass().getSimpleName()))
+                    .map(response -> traceBody(response, timings));
+        });
+    }
+
+    private ClientResponse traceBody(ClientResponse response, HttpTimings timings) {
+        int status = response.statusCode().value();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong completedAt = new AtomicLong();
+        return response.mutate()
+                .body(body -> body
+                .doOnNext(buffer -> bytes.addAndGet(buffer.readableByteCount()))
+                .doOnComplete(() -> completedAt.set(System.nanoTime()))
+                .doFinally(signal -> timings.finish(System.nanoTime(), status, bytes.get(), completedAt.get(), null)))
+                .build();
+    }
+
+    private static Optional<HttpTimings> timings(ContextView context) {
+        return context.getOrEmpty(HttpTimings.class);
+    }
+
+    /**
+     * Phase timestamps of one request; {@code 0} means the phase was not
+     * reached.
+     */
+    private static final class HttpTimings {
+
+        private final ActiveTrace trace;
+        private final long start;
+        private final String method;
+        private final String route;
+        volatile long requestStart;
+        volatile long requestSent;
+        volatile long headers;
+
+        HttpTimings(ActiveTrace trace, long start, String method, String route) {
+            this.trace = trace;
+            this.start = start;
+            this.method = method;
+            this.route = route;
+        }
+
+        void finish(long end, int status, long bytes, long bodyCompletedAt, String error) {
+            String spanId = trace.newSpanId();
+            phase(spanId, "connect", start, requestStart);
+            phase(spanId, "send", requestStart, requestSent);
+            phase(spanId, "server", requestSent, headers);
+            phase(spanId, "body", headers, bodyCompletedAt);
+            phase(spanId, "decode", bodyCompletedAt, bodyCompletedAt > 0 ? end : 0);
+            trace.span(spanId, trace.rootSpanId(), method + " " + route, start, end, error != null || status >= 400,
+                    error != null
+                            ? Map.of("http.method", method, "http.route", route, "error", error)
+                            : Map.of("http.method", method, "http.route", route,
+                                    "http.status_code", String.valueOf(status),
+                                    "http.response_bytes", String.valueOf(bytes)));
+            trace.httpFinished(end);
+        }
+
+        private void phase(String parent, String phase, long from, long to) {
+            if (from > 0 && to >= from) {
+                trace.span(parent, phase, from, to);
+            }
+        }
+    }
+}
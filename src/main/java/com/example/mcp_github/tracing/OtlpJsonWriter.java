@@ -0,0 +1,89 @@
+package com.example.mcp_github.tracing;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes spans in the OTLP/JSON trace format ({@code ExportTraceServiceRequest}),
+ * which OpenTelemetry collectors and most trace viewers can import.
+ */
+final class OtlpJsonWriter {
+
+    private static final String SERVICE_NAME = "mcp-github";
+    private static final int KIND_INTERNAL = 1;
+    private static final int KIND_CLIENT = 3;
+    private static final int STATUS_ERROR = 2;
+
+    private OtlpJsonWriter() {
+    }
+
+    static void write(List<TraceSpan> spans, CallTracer tracer, File file) throws Exception {
+        File parent = file.getAbsoluteFile().getParentFile();
+        File tmp = new File(parent, file.getName() + ".tmp");
+        try (JsonGenerator gen = new JsonFactory().createGenerator(tmp, JsonEncoding.UTF8)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("resourceSpans");
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("resource");
+            writeAttributes(gen, Map.of("service.name", SERVICE_NAME));
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("scopeSpans");
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("scope");
+            gen.writeStringField("name", CallTracer.class.getName());
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("spans");
+            for (TraceSpan span : spans) {
+                writeSpan(gen, span, tracer);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeSpan(JsonGenerator gen, TraceSpan span, CallTracer tracer) throws Exception {
+        gen.writeStartObject();
+        gen.writeStringField("traceId", span.traceId());
+        gen.writeStringField("spanId", span.spanId());
+        if (span.parentSpanId() != null) {
+            gen.writeStringField("parentSpanId", span.parentSpanId());
+        }
+        gen.writeStringField("name", span.name());
+        gen.writeNumberField("kind", span.attributes().containsKey("http.method") ? KIND_CLIENT : KIND_INTERNAL);
+        // 64-bit integers are strings in OTLP/JSON.
+        gen.writeStringField("startTimeUnixNano", Long.toString(tracer.toEpochNanos(span.startNanos())));
+        gen.writeStringField("endTimeUnixNano", Long.toString(tracer.toEpochNanos(span.endNanos())));
+        writeAttributes(gen, span.attributes());
+        if (span.error()) {
+            gen.writeObjectFieldStart("status");
+            gen.writeNumberField("code", STATUS_ERROR);
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeAttributes(JsonGenerator gen, Map<String, String> attributes) throws Exception {
+        gen.writeArrayFieldStart("attributes");
+        for (Map.Entry<String, String> a : attributes.entrySet()) {
+            gen.writeStartObject();
+            gen.writeStringField("key", a.getKey());
+            gen.writeObjectFieldStart("value");
+            gen.writeStringField("stringValue", a.getValue());
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.mcp_github.tracing;
+
+import java.util.Map;
+
+/**
+ * A finished span. Times are {@link System#nanoTime()} readings; see
+ * {@link CallTracer#toEpochNanos(long)} for wall-clock conversion.
+ */
+public record TraceSpan(
+        String traceId,
+        String spanId,
+        String parentSpanId,
+        String name,
+        long startNanos,
+        long endNanos,
+        boolean error,
+        Map<String, String> attributes) {
+
+    public long durationNanos() {
+        return endNanos - startNanos;
+    }
+
+    public boolean isRoot() {
+        return parentSpanId == null;
+    }
+}
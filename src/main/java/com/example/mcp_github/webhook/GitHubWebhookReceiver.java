@@ -0,0 +1,204 @@
+package com.example.mcp_github.webhook;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+/**
+ * Local endpoint for GitHub webhook deliveries that invalidates the response
+ * cache as repositories change, so it can run with long freshness windows
+ * and still catch up within seconds. Disabled unless
+ * {@code github.webhook.enabled} is set.
+ *
+ * <p>
+ * Every delivery must carry a valid {@code X-Hub-Signature-256} HMAC of the
+ * payload under {@code github.webhook.secret}; the receiver refuses to start
+ * without one. Handled events are {@code push}, {@code pull_request},
+ * {@code issues}, {@code release}, {@code workflow_run}, {@code create},
+ * {@code delete} and {@code star}, see {@link WebhookInvalidations}.
+ * {@code ping} is acknowledged, anything else accepted and ignored.
+ *
+ * <p>
+ * The server is plain HTTP on {@code github.webhook.host}, loopback by
+ * default; expose it through a tunnel or reverse proxy that terminates TLS.
+ */
+@Component
+public class GitHubWebhookReceiver {
+
+    private static final String SIGNATURE_PREFIX = "sha256=";
+
+    private final String path;
+    private final long maxPayloadBytes;
+    private final SecretKeySpec secret;
+    private final WebhookInvalidations invalidations;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry registry;
+    private final DisposableServer server;
+
+    public GitHubWebhookReceiver(
+            GitHubCacheFilter cacheFilter,
+            MeterRegistry registry,
+            @Value("${github.api.base-url:https://api.github.com}") String baseUrl,
+            @Value("${github.webhook.enabled:false}") boolean enabled,
+            @Value("${github.webhook.host:127.0.0.1}") String host,
+            @Value("${github.webhook.port:8788}") int port,
+            @Value("${github.webhook.path:/github/webhook}") String path,
+            @Value("${github.webhook.secret:}") String secret,
+            @Value("${github.webhook.max-payload-bytes:26214400}") long maxPayloadBytes) {
+        this.path = path;
+        this.maxPayloadBytes = maxPayloadBytes;
+        this.registry = registry;
+        String prefix = URI.create(baseUrl.trim()).getRawPath();
+        this.invalidations = new WebhookInvalidations(
+                prefix == null || prefix.equals("/") ? "" : prefix.replaceAll("/+$", ""), cacheFilter);
+        if (!enabled) {
+            this.secret = null;
+            this.server = null;
+            return;
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("github.webhook.secret is required when github.webhook.enabled=true");
+        }
+        if (!cacheFilter.isEnabled()) {
+            throw new IllegalStateException("github.webhook.enabled requires github.cache.enabled");
+        }
+        this.secret = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.server = HttpServer.create()
+                .host(host)
+                .port(port)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    /**
+     * Port the receiver is listening on, or {@code -1} if disabled.
+     */
+    public int port() {
+        return server != null ? server.port() : -1;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    // ==================== DELIVERIES ====================
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        if (!request.uri().equals(path) && !request.uri().startsWith(path + "?")) {
+            return reply(response, HttpResponseStatus.NOT_FOUND, "unknown", "rejected");
+        }
+        if (request.method() != HttpMethod.POST) {
+            return reply(response, HttpResponseStatus.METHOD_NOT_ALLOWED, "unknown", "rejected");
+        }
+        // GitHub always sends a length; refuse to buffer open-ended bodies.
+        String length = request.requestHeaders().get("Content-Length");
+        long contentLength;
+        try {
+            contentLength = length != null ? Long.parseLong(length) : -1;
+        } catch (NumberFormatException e) {
+            contentLength = -1;
+        }
+        if (contentLength < 0) {
+            return reply(response, HttpResponseStatus.LENGTH_REQUIRED, "unknown", "rejected");
+        }
+        if (contentLength > maxPayloadBytes) {
+            return reply(response, HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, "unknown", "rejected");
+        }
+        String signature = request.requestHeaders().get("X-Hub-Signature-256");
+        String event = request.requestHeaders().get("X-GitHub-Event");
+        return request.receive().aggregate().asByteArray()
+                .defaultIfEmpty(new byte[0])
+                .flatMap(payload -> {
+                    if (!verify(payload, signature)) {
+                        return reply(response, HttpResponseStatus.UNAUTHORIZED, "unknown", "rejected");
+                    }
+                    if (event == null || event.isBlank()) {
+                        return reply(response, HttpResponseStatus.BAD_REQUEST, "unknown", "rejected");
+                    }
+                    if ("ping".equals(event)) {
+                        return reply(response, HttpResponseStatus.OK, event, "ignored");
+                    }
+                    if (!WebhookInvalidations.handles(event)) {
+                        return reply(response, HttpResponseStatus.ACCEPTED, "other", "ignored");
+                    }
+                    JsonNode json;
+                    try {
+                        json = objectMapper.readTree(payload);
+                    } catch (IOException e) {
+                        return reply(response, HttpResponseStatus.BAD_REQUEST, event, "rejected");
+                    }
+                    int invalidated = invalidations.apply(event, json);
+                    return reply(response, HttpResponseStatus.ACCEPTED, event, "applied",
+                            "invalidated " + invalidated + " cached responses\n");
+                });
+    }
+
+    /**
+     * Checks the payload's HMAC-SHA256 against the header in constant time.
+     */
+    private boolean verify(byte[] payload, String signature) {
+        if (signature == null || !signature.startsWith(SIGNATURE_PREFIX)) {
+            return false;
+        }
+        byte[] provided;
+        try {
+            provided = HexFormat.of().parseHex(signature.substring(SIGNATURE_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(secret);
+            return MessageDigest.isEqual(mac.doFinal(payload), provided);
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    private Mono<Void> reply(HttpServerResponse response, HttpResponseStatus status, String event, String result) {
+        return reply(response, status, event, result, status.reasonPhrase() + "\n");
+    }
+
+    private Mono<Void> reply(HttpServerResponse response, HttpResponseStatus status, String event, String result,
+            String body) {
+        deliveries(event, result).increment();
+        return response.status(status)
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .sendString(Mono.just(body))
+                .then();
+    }
+
+    private Counter deliveries(String event, String result) {
+        return Counter.builder("github.webhook.deliveries")
+                .description("GitHub webhook deliveries by event and outcome")
+                .tag("event", event)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.mcp_github.webhook;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.web.util.UriUtils;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Which cached reads each webhook event makes out of date. Paths are built
+ * the way GitHubService's URI templates expand them, so branch names and
+ * file paths are encoded as single segments.
+ *
+ * @see com.example.mcp_github.service.GitHubService
+ */
+final class WebhookInvalidations {
+
+    /**
+     * GitHub lists at most this many commits in a push payload; a push with
+     * that many may have touched files it does not mention.
+     */
+    private static final int PUSH_COMMIT_LIMIT = 20;
+
+    private final String prefix;
+    private final GitHubCacheFilter cache;
+
+    /**
+     * @param prefix path of the GitHub API base URL, e.g. {@code /api/v3}
+     * for GitHub Enterprise, or empty
+     */
+    WebhookInvalidations(String prefix, GitHubCacheFilter cache) {
+        this.prefix = prefix;
+        this.cache = cache;
+    }
+
+    static boolean handles(String event) {
+        return switch (event) {
+            case "push", "pull_request", "issues", "release", "workflow_run", "create", "delete", "star" ->
+                true;
+            default ->
+                false;
+        };
+    }
+
+    /**
+     * Invalidates what {@code event} changed.
+     *
+     * @return the number of cache entries invalidated
+     */
+    int apply(String event, JsonNode payload) {
+        JsonNode repository = payload.path("repository");
+        String owner = repository.path("owner").path("login").asText("");
+        String name = repository.path("name").asText("");
+        if (owner.isEmpty() || name.isEmpty()) {
+            return 0;
+        }
+        String repo = prefix + "/repos/" + segment(owner) + "/" + segment(name);
+        return switch (event) {
+            case "push" ->
+                push(repo, payload);
+            case "pull_request" ->
+                number(repo, "pulls", payload.path("pull_request")) + number(repo, "issues", payload.path("pull_request"))
+                + cache.invalidate(repo);
+            case "issues" ->
+                number(repo, "issues", payload.path("issue")) + cache.invalidate(repo);
+            case "release" ->
+                cache.invalidateTree(repo + "/releases");
+            case "workflow_run" ->
+                cache.invalidate(repo + "/actions/runs")
+                + cache.invalidateTree(repo + "/actions/runs/" + payload.path("workflow_run").path("id").asText());
+            case "create", "delete" ->
+                "branch".equals(payload.path("ref_type").asText())
+                ? branch(repo, payload.path("ref").asText())
+                : 0;
+            case "star" ->
+                cache.invalidate(repo) + cache.invalidate(prefix + "/user/starred/" + segment(owner) + "/" + segment(name));
+            default ->
+                0;
+        };
+    }
+
+    // ==================== HELPER ====================
+    /**
+     * A push moves the branch head and, on the default branch, changes the
+     * commit list and the files it touched along with their directories.
+     */
+    private int push(String repo, JsonNode payload) {
+        String ref = payload.path("ref").asText();
+        if (!ref.startsWith("refs/heads/")) {
+            return 0;
+        }
+        String branch = ref.substring("refs/heads/".length());
+        int count = branch(repo, branch) + cache.invalidate(repo);
+        if (!branch.equals(payload.path("repository").path("default_branch").asText())) {
+            return count;
+        }
+        count += cache.invalidate(repo + "/commits");
+        JsonNode commits = payload.path("commits");
+        if (payload.path("forced").asBoolean() || commits.size() >= PUSH_COMMIT_LIMIT) {
+            return count + cache.invalidateTree(repo + "/contents");
+        }
+        Set<String> paths = new LinkedHashSet<>();
+        for (JsonNode commit : commits) {
+            for (String field : new String[] { "added", "modified", "removed" }) {
+                for (JsonNode file : commit.path(field)) {
+                    // The file and each directory listing above it.
+                    String path = file.asText();
+                    while (!path.isEmpty()) {
+                        paths.add(path);
+                        int slash = path.lastIndexOf('/');
+                        path = slash > 0 ? path.substring(0, slash) : "";
+                    }
+                }
+            }
+        }
+        if (!paths.isEmpty()) {
+            count += cache.invalidate(repo + "/contents") + cache.invalidate(repo + "/contents/");
+        }
+        for (String path : paths) {
+            count += cache.invalidate(repo + "/contents/" + segment(path));
+        }
+        return count;
+    }
+
+    private int branch(String repo, String branch) {
+        return cache.invalidate(repo + "/branches") + cache.invalidate(repo + "/branches/" + segment(branch));
+    }
+
+    private int number(String repo, String collection, JsonNode item) {
+        return cache.invalidate(repo + "/" + collection)
+                + cache.invalidateTree(repo + "/" + collection + "/" + item.path("number").asText());
+    }
+
+    private static String segment(String value) {
+        return UriUtils.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.mcp_github.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CacheDependenciesTests {
+
+	private static final String REPO = "/repos/octo/hello";
+
+	private final StubExchange github = new StubExchange();
+	private final GitHubCacheFilter cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20,
+			3600, "", 0, 0, 60, 100);
+
+	private String get(String path) {
+		return send(StubExchange.get(path));
+	}
+
+	private String send(ClientRequest request) {
+		ClientResponse response = cache.filter(request, github).block();
+		return response.statusCode().value() + " " + response.bodyToMono(String.class).defaultIfEmpty("").block();
+	}
+
+	private static ClientRequest write(HttpMethod method, String template, Object... variables) {
+		return StubExchange.request(method, template, variables);
+	}
+
+	@Test
+	void newIssuesHeadCachedOpenListsOnly() {
+		github.reply(200, "[{\"id\":1},{\"id\":2}]")
+				.reply(200, "[{\"id\":9}]")
+				.reply(201, "{\"id\":3}");
+		get(REPO + "/issues?state=open&per_page=2");
+		get(REPO + "/issues?state=closed");
+
+		send(write(HttpMethod.POST, "/repos/{username}/{repo}/issues", "octo", "hello"));
+
+		assertThat(get(REPO + "/issues?state=open&per_page=2")).isEqualTo("200 [{\"id\":3},{\"id\":1}]");
+		assertThat(get(REPO + "/issues?state=closed")).isEqualTo("200 [{\"id\":9}]");
+		assertThat(github.requests).hasSize(3);
+	}
+
+	@Test
+	void editedListsStayInvalidated() {
+		github.reply(200, "[{\"id\":1}]")
+				.reply(201, "{\"id\":3}")
+				.reply(200, "[{\"id\":3},{\"id\":2},{\"id\":1}]");
+		get(REPO + "/issues?state=open");
+		cache.invalidate(REPO + "/issues");
+
+		send(write(HttpMethod.POST, "/repos/{username}/{repo}/issues", "octo", "hello"));
+
+		assertThat(get(REPO + "/issues?state=open")).isEqualTo("200 [{\"id\":3},{\"id\":2},{\"id\":1}]");
+		assertThat(github.requests).hasSize(3);
+	}
+
+	@Test
+	void mergedPullRequestsLeaveTheOpenListAndDropOtherLists() {
+		github.reply(200, "[{\"number\":5},{\"number\":6}]")
+				.reply(200, "[{\"number\":1}]")
+				.reply(200, "{\"merged\":true}")
+				.reply(200, "[{\"number\":5},{\"number\":1}]");
+		get(REPO + "/pulls?state=open");
+		get(REPO + "/pulls?state=closed");
+
+		send(write(HttpMethod.PUT, "/repos/{username}/{repo}/pulls/{prNumber}/merge", "octo", "hello", 5));
+
+		assertThat(get(REPO + "/pulls?state=open")).isEqualTo("200 [{\"number\":6}]");
+		assertThat(get(REPO + "/pulls?state=closed")).isEqualTo("200 [{\"number\":5},{\"number\":1}]");
+		assertThat(github.requests).hasSize(4);
+	}
+
+	@Test
+	void createdBranchesAreInsertedByNameAndWrittenThrough() {
+		github.reply(200, "[{\"name\":\"a\"},{\"name\":\"c\"}]")
+				.reply(201, "{\"ref\":\"refs/heads/b\",\"object\":{\"sha\":\"abc\"}}");
+		get(REPO + "/branches");
+
+		send(write(HttpMethod.POST, "/repos/{username}/{repo}/git/refs", "octo", "hello"));
+
+		assertThat(get(REPO + "/branches"))
+				.containsSubsequence("{\"name\":\"a\"}", "{\"name\":\"b\",", "{\"name\":\"c\"}");
+		assertThat(get(REPO + "/branches/b")).contains("\"sha\":\"abc\"");
+		assertThat(github.requests).hasSize(2);
+	}
+
+	@Test
+	void fileWritesToTheDefaultBranchAreWrittenThrough() {
+		github.reply(200, "{\"default_branch\":\"main\"}")
+				.reply(200, "[{\"sha\":\"old\"}]")
+				.reply(200, "{\"content\":{\"path\":\"README.md\",\"sha\":\"new\"},\"commit\":{}}")
+				.reply(200, "[{\"sha\":\"new\"}]");
+		get(REPO);
+		get(REPO + "/commits");
+
+		ClientRequest put = ClientRequest.from(write(HttpMethod.PUT, "/repos/{username}/{repo}/contents/{path}",
+				"octo", "hello", "README.md"))
+				.attribute(GitHubCacheFilter.FILE_WRITE_ATTRIBUTE, new GitHubCacheFilter.FileWrite("aGk=", "main"))
+				.build();
+		send(put);
+
+		assertThat(get(REPO + "/contents/README.md"))
+				.contains("\"sha\":\"new\"").contains("\"content\":\"aGk=\"").contains("\"encoding\":\"base64\"");
+		assertThat(get(REPO + "/commits")).isEqualTo("200 [{\"sha\":\"new\"}]");
+		assertThat(github.requests).hasSize(4);
+	}
+
+	@Test
+	void fileWritesToOtherBranchesOnlyEvict() {
+		github.reply(200, "{\"default_branch\":\"main\"}")
+				.reply(200, "{\"path\":\"README.md\",\"sha\":\"old\"}")
+				.reply(200, "{\"content\":{\"path\":\"README.md\",\"sha\":\"new\"}}")
+				.reply(200, "{\"path\":\"README.md\",\"sha\":\"old\"}");
+		get(REPO);
+		get(REPO + "/contents/README.md");
+
+		ClientRequest put = ClientRequest.from(write(HttpMethod.PUT, "/repos/{username}/{repo}/contents/{path}",
+				"octo", "hello", "README.md"))
+				.attribute(GitHubCacheFilter.FILE_WRITE_ATTRIBUTE, new GitHubCacheFilter.FileWrite("aGk=", "dev"))
+				.build();
+		send(put);
+
+		assertThat(get(REPO + "/contents/README.md")).contains("\"sha\":\"old\"");
+		assertThat(github.requests).hasSize(4);
+	}
+
+	@Test
+	void unexpectedResponsesEvictTheWholeRepository() {
+		github.reply(200, "[{\"id\":1}]")
+				.reply(200, "{\"name\":\"other\"}")
+				.reply(201, "not json")
+				.reply(200, "[{\"id\":1}]");
+		get(REPO + "/issues");
+		get("/repos/octo/other");
+
+		send(write(HttpMethod.POST, "/repos/{username}/{repo}/issues", "octo", "hello"));
+
+		assertThat(cache.size()).isEqualTo(1);
+		get("/repos/octo/other");
+		get(REPO + "/issues");
+		assertThat(github.requests).hasSize(4);
+	}
+
+	@Test
+	void failedWritesLeaveTheCacheAlone() {
+		github.reply(200, "[{\"id\":1}]").reply(422, "{\"message\":\"Validation Failed\"}");
+		get(REPO + "/issues");
+
+		assertThat(send(write(HttpMethod.POST, "/repos/{username}/{repo}/issues", "octo", "hello")))
+				.startsWith("422");
+		assertThat(get(REPO + "/issues")).isEqualTo("200 [{\"id\":1}]");
+		assertThat(github.requests).hasSize(2);
+	}
+
+	@Test
+	void writesUnderAnApiPathPrefixAreMatched() {
+		github.reply(200, "[{\"name\":\"main\"}]").reply(204, "");
+		ClientRequest list = StubExchange.request(HttpMethod.GET, "/api/v3/repos/octo/hello/branches");
+		send(list);
+
+		send(write(HttpMethod.DELETE, "/api/v3/repos/{username}/{repo}/git/refs/heads/{branch}", "octo", "hello",
+				"main"));
+
+		assertThat(send(list)).isEqualTo("200 []");
+		assertThat(github.requests).hasSize(2);
+	}
+}
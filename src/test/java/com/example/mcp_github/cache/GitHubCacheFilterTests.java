@@ -0,0 +1,318 @@
+package com.example.mcp_github.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Sinks;
+
+class GitHubCacheFilterTests {
+
+	private static final String REPO = "/repos/octo/hello";
+
+	private final StubExchange github = new StubExchange();
+	private GitHubCacheFilter cache;
+
+	@AfterEach
+	void finishCall() {
+		if (cache != null) {
+			cache.finishCall();
+		}
+	}
+
+	private GitHubCacheFilter create(long freshSeconds, long staleWhileRevalidateSeconds, long staleIfErrorSeconds) {
+		cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20, freshSeconds, "",
+				staleWhileRevalidateSeconds, staleIfErrorSeconds, 60, 100);
+		cache.startCall();
+		return cache;
+	}
+
+	private String get(String path) {
+		ClientResponse response = cache.filter(StubExchange.get(path), github).block();
+		return response.statusCode().value() + " " + response.bodyToMono(String.class).defaultIfEmpty("").block();
+	}
+
+	/**
+	 * Like {@link #get}, without the codecs' in-memory limit.
+	 */
+	private String getLarge(String path) {
+		ClientResponse response = cache.filter(StubExchange.get(path), github).block();
+		return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class))
+				.map(buffer -> {
+					String body = buffer.toString(StandardCharsets.UTF_8);
+					DataBufferUtils.release(buffer);
+					return body;
+				})
+				.block();
+	}
+
+	private static void age() throws InterruptedException {
+		// Entries of age 0 are within a 0-second window.
+		Thread.sleep(5);
+	}
+
+	@Test
+	void freshEntriesAreServedWithoutRequest() {
+		create(60, 0, 0);
+		github.reply(200, "{\"v\":1}", "ETag", "\"a\"");
+
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(github.requests).hasSize(1);
+		assertThat(cache.finishCall()).isNull();
+	}
+
+	@Test
+	void expiredEntriesAreRevalidatedWithTheirEtag() throws Exception {
+		create(0, 0, 0);
+		github.reply(200, "{\"v\":1}", "ETag", "\"a\"").reply(304, "");
+
+		get(REPO);
+		age();
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(github.ifNoneMatch(0)).isNull();
+		assertThat(github.ifNoneMatch(1)).isEqualTo("\"a\"");
+	}
+
+	@Test
+	void staleEntriesAreServedWhileRefreshingInTheBackground() throws Exception {
+		create(0, 3600, 0);
+		github.reply(200, "{\"v\":1}", "ETag", "\"a\"").reply(200, "{\"v\":2}", "ETag", "\"b\"");
+
+		get(REPO);
+		age();
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(cache.finishCall()).startsWith("🕒 Cached data from");
+
+		awaitRequests(2);
+		assertThat(github.ifNoneMatch(1)).isEqualTo("\"a\"");
+		awaitBody(REPO, "200 {\"v\":2}");
+	}
+
+	@Test
+	void serverErrorsFallBackToStaleEntries() throws Exception {
+		create(0, 0, 3600);
+		github.reply(200, "{\"v\":1}").reply(503, "{\"message\":\"unavailable\"}");
+
+		get(REPO);
+		age();
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(cache.finishCall()).contains("GitHub returned HTTP 503").contains("last known data");
+	}
+
+	@Test
+	void connectionErrorsFallBackToStaleEntries() throws Exception {
+		create(0, 0, 3600);
+		github.reply(200, "{\"v\":1}").fail(new RuntimeException(new ConnectException("refused")));
+
+		get(REPO);
+		age();
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(cache.finishCall()).contains("GitHub unreachable");
+	}
+
+	@Test
+	void staleReadsOnOtherThreadsAreNotedOnTheCallingCall() throws Exception {
+		create(0, 0, 3600);
+		github.reply(200, "{\"v\":1}").reply(503, "{\"message\":\"unavailable\"}");
+
+		get(REPO);
+		age();
+		Callable<String> read = cache.inCurrentCall(() -> get(REPO));
+		String body = CompletableFuture.supplyAsync(() -> {
+			try {
+				return read.call();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).get(5, TimeUnit.SECONDS);
+		assertThat(body).isEqualTo("200 {\"v\":1}");
+		assertThat(cache.finishCall()).contains("GitHub returned HTTP 503");
+	}
+
+	@Test
+	void entriesPastStaleIfErrorAreNotUsedAsFallback() throws Exception {
+		create(0, 0, 0);
+		github.reply(200, "{\"v\":1}").reply(503, "{\"message\":\"unavailable\"}");
+
+		get(REPO);
+		age();
+		assertThat(get(REPO)).startsWith("503");
+		assertThat(cache.finishCall()).isNull();
+	}
+
+	@Test
+	void exhaustedRateLimitServesStaleEntriesWithoutAsking() throws Exception {
+		create(0, 0, 3600);
+		String reset = String.valueOf(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + 600);
+		github.reply(200, "{\"v\":1}")
+				.reply(200, "{\"other\":true}", "X-RateLimit-Remaining", "0", "X-RateLimit-Reset", reset);
+
+		get(REPO);
+		get(REPO + "/branches");
+		age();
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(github.requests).hasSize(2);
+		assertThat(cache.finishCall()).contains("GitHub rate limit exhausted");
+	}
+
+	@Test
+	void invalidatedEntriesAreRevalidatedBeforeBeingServed() {
+		create(3600, 3600, 3600);
+		github.reply(200, "{\"v\":1}", "ETag", "\"a\"").reply(200, "{\"v\":2}", "ETag", "\"b\"");
+
+		get(REPO + "/branches?per_page=30");
+		assertThat(cache.invalidate("/REPOS/octo/Hello/branches")).isEqualTo(1);
+		assertThat(get(REPO + "/branches?per_page=30")).isEqualTo("200 {\"v\":2}");
+		assertThat(github.ifNoneMatch(1)).isEqualTo("\"a\"");
+		assertThat(cache.finishCall()).isNull();
+	}
+
+	@Test
+	void invalidatedEntriesStayUsableAsFallback() throws Exception {
+		create(3600, 3600, 3600);
+		github.reply(200, "{\"v\":1}").reply(502, "");
+
+		get(REPO);
+		cache.invalidateTree("/repos/octo");
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(cache.finishCall()).contains("GitHub returned HTTP 502");
+	}
+
+	@Test
+	void notModifiedFromBeforeAnInvalidationDoesNotConfirmTheEntry() throws Exception {
+		create(3600, 3600, 3600);
+		Sinks.One<ClientResponse> notModified = Sinks.one();
+		github.reply(200, "{\"v\":1}", "ETag", "\"a\"")
+				.reply(notModified.asMono())
+				.reply(200, "{\"v\":2}", "ETag", "\"b\"");
+		get(REPO);
+		cache.invalidate(REPO);
+
+		CompletableFuture<String> revalidation = CompletableFuture.supplyAsync(() -> get(REPO));
+		awaitRequests(2);
+		cache.invalidate(REPO);
+		notModified.tryEmitValue(StubExchange.response(304, ""));
+
+		assertThat(revalidation.get(5, TimeUnit.SECONDS)).isEqualTo("200 {\"v\":1}");
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":2}");
+		assertThat(github.requests).hasSize(3);
+	}
+
+	@Test
+	void responsesFromBeforeAnInvalidationAreStoredInvalidated() throws Exception {
+		create(3600, 3600, 3600);
+		Sinks.One<ClientResponse> ok = Sinks.one();
+		github.reply(ok.asMono()).reply(304, "");
+
+		CompletableFuture<String> fetch = CompletableFuture.supplyAsync(() -> get(REPO));
+		awaitRequests(1);
+		cache.invalidateTree("/repos/octo");
+		ok.tryEmitValue(StubExchange.response(200, "{\"v\":1}", "ETag", "\"a\""));
+
+		assertThat(fetch.get(5, TimeUnit.SECONDS)).isEqualTo("200 {\"v\":1}");
+		assertThat(get(REPO)).isEqualTo("200 {\"v\":1}");
+		assertThat(github.ifNoneMatch(1)).isEqualTo("\"a\"");
+	}
+
+	@Test
+	void writesMatchCachedReadsInAnyCase() {
+		create(3600, 0, 0);
+		github.reply(200, "[{\"id\":1}]")
+				.reply(200, "{\"open_issues\":1}")
+				.reply(201, "{\"id\":3}")
+				.reply(200, "{\"open_issues\":2}");
+		get(REPO + "/issues?state=open");
+		get(REPO);
+
+		cache.filter(StubExchange.request(HttpMethod.POST, "/repos/{username}/{repo}/issues", "Octo", "Hello"),
+				github).block();
+
+		assertThat(get(REPO + "/issues?state=open")).isEqualTo("200 [{\"id\":3},{\"id\":1}]");
+		assertThat(get(REPO)).isEqualTo("200 {\"open_issues\":2}");
+		assertThat(github.requests).hasSize(4);
+	}
+
+	@Test
+	void requestsWithTheirOwnEtagPassThrough() {
+		create(3600, 0, 0);
+		github.reply(200, "{\"v\":1}").reply(304, "");
+
+		get(REPO);
+		ClientRequest conditional = ClientRequest.from(StubExchange.get(REPO)).header("If-None-Match", "\"z\"").build();
+		ClientResponse response = cache.filter(conditional, github).block();
+		assertThat(response.statusCode().value()).isEqualTo(304);
+		assertThat(github.requests).hasSize(2);
+	}
+
+	@Test
+	void bodiesOverTheCodecLimitAreCached() {
+		create(3600, 0, 0);
+		String page = "[" + "{\"sha\":\"0123456789abcdef\"},".repeat(20_000) + "{}]";
+		github.reply(200, page);
+
+		assertThat(page.length()).isGreaterThan(256 * 1024);
+		assertThat(getLarge(REPO + "/commits")).isEqualTo(page);
+		assertThat(getLarge(REPO + "/commits")).isEqualTo(page);
+		assertThat(github.requests).hasSize(1);
+	}
+
+	@Test
+	void bodiesLargerThanTheCacheArePassedThrough() {
+		create(3600, 0, 0);
+		String file = "{\"content\":\"" + "A".repeat(2 << 20) + "\"}";
+		github.reply(200, file, "Content-Length", String.valueOf(file.length()))
+				.reply(200, file, "Content-Length", String.valueOf(file.length()));
+
+		assertThat(getLarge(REPO + "/contents/big.bin")).isEqualTo(file);
+		assertThat(getLarge(REPO + "/contents/big.bin")).isEqualTo(file);
+		assertThat(cache.size()).isZero();
+		assertThat(github.requests).hasSize(2);
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvictedOverMaxEntries() {
+		cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 2, 1 << 20, 3600, "", 0, 0, 60, 100);
+		github.reply(200, "1").reply(200, "2").reply(200, "3");
+
+		get(REPO + "/a");
+		get(REPO + "/b");
+		get(REPO + "/a");
+		get(REPO + "/c");
+		assertThat(cache.size()).isEqualTo(2);
+		get(REPO + "/a");
+		assertThat(github.requests).hasSize(3);
+	}
+
+	private void awaitRequests(int count) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (github.requests.size() < count && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(github.requests).hasSizeGreaterThanOrEqualTo(count);
+	}
+
+	private void awaitBody(String path, String expected) throws InterruptedException {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		String body = get(path);
+		while (!body.equals(expected) && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+			body = get(path);
+		}
+		assertThat(body).isEqualTo(expected);
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.mcp_github.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class NegativeCacheTests {
+
+	private static final Map<String, List<String>> HEADERS = Map.of("Content-Type", List.of("application/json"));
+	private static final byte[] BODY = "{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8);
+
+	private static String key(String path) {
+		return GitHubCacheFilter.key(StubExchange.BASE_URL + path, "application/vnd.github+json");
+	}
+
+	@Test
+	void notFoundIsRememberedUntilItExpires() {
+		NegativeCache cache = new NegativeCache(10, 1_000);
+		cache.put(key("/repos/octo/hello/contents/a.md"), HEADERS, BODY, 0);
+
+		ClientResponse response = cache.lookup(key("/repos/octo/hello/contents/a.md"), 999);
+		assertThat(response.statusCode().value()).isEqualTo(404);
+		assertThat(response.bodyToMono(String.class).block()).contains("Not Found");
+		assertThat(cache.lookup(key("/repos/octo/hello/contents/b.md"), 999)).isNull();
+		assertThat(cache.lookup(key("/repos/octo/hello/contents/a.md"), 1_000)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	void pathsAreForgottenWithAnyQuery() {
+		NegativeCache cache = new NegativeCache(10, 1_000);
+		cache.put(key("/repos/octo/hello/contents/a.md?ref=main"), HEADERS, BODY, 0);
+		cache.put(key("/repos/octo/hello/contents/a.md?ref=dev"), HEADERS, BODY, 0);
+		cache.put(key("/repos/octo/hello/contents/b.md"), HEADERS, BODY, 0);
+
+		cache.removeIf(path -> path.equals("/repos/octo/hello/contents/a.md"));
+
+		assertThat(cache.lookup(key("/repos/octo/hello/contents/a.md?ref=main"), 1)).isNull();
+		assertThat(cache.lookup(key("/repos/octo/hello/contents/a.md?ref=dev"), 1)).isNull();
+		assertThat(cache.lookup(key("/repos/octo/hello/contents/b.md"), 1)).isNotNull();
+	}
+
+	@Test
+	void oldestEntriesAreDroppedOverMaxEntries() {
+		NegativeCache cache = new NegativeCache(3, 1_000);
+		for (int i = 0; i < 5; i++) {
+			cache.put(key("/repos/octo/r" + i), HEADERS, BODY, 0);
+		}
+
+		assertThat(cache.size()).isEqualTo(3);
+		assertThat(cache.lookup(key("/repos/octo/r0"), 1)).isNull();
+		assertThat(cache.lookup(key("/repos/octo/r1"), 1)).isNull();
+		assertThat(cache.lookup(key("/repos/octo/r4"), 1)).isNotNull();
+	}
+
+	@Test
+	void rebuildingTheFilterKeepsLiveEntriesAndDropsExpiredOnes() {
+		NegativeCache cache = new NegativeCache(4, 100);
+		cache.put(key("/repos/octo/old"), HEADERS, BODY, 0);
+		for (int i = 0; i < 20; i++) {
+			cache.put(key("/repos/octo/r" + i), HEADERS, BODY, 200 + i);
+		}
+
+		assertThat(cache.size()).isEqualTo(4);
+		for (int i = 16; i < 20; i++) {
+			assertThat(cache.lookup(key("/repos/octo/r" + i), 250)).isNotNull();
+		}
+		assertThat(cache.lookup(key("/repos/octo/old"), 250)).isNull();
+	}
+
+	@Test
+	void disabledWithoutEntriesOrTtl() {
+		assertThat(new NegativeCache(0, 1_000).isEnabled()).isFalse();
+		assertThat(new NegativeCache(10, 0).isEnabled()).isFalse();
+		assertThat(new NegativeCache(10, 1_000).isEnabled()).isTrue();
+	}
+
+	@Test
+	void filterAnswersRememberedNotFoundUntilThePathChanges() {
+		StubExchange github = new StubExchange();
+		GitHubCacheFilter filter = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20, 60, "", 0, 0,
+				60, 100);
+		github.reply(404, "{\"message\":\"Not Found\"}").reply(200, "{\"name\":\"a.md\"}");
+
+		assertThat(status(filter, github, "/repos/octo/hello/contents/a.md")).isEqualTo(404);
+		assertThat(status(filter, github, "/repos/octo/hello/contents/a.md")).isEqualTo(404);
+		assertThat(github.requests).hasSize(1);
+
+		filter.invalidateTree("/repos/octo/hello");
+		assertThat(status(filter, github, "/repos/octo/hello/contents/a.md")).isEqualTo(200);
+		assertThat(github.requests).hasSize(2);
+	}
+
+	private static int status(GitHubCacheFilter filter, StubExchange github, String path) {
+		ClientResponse response = filter.filter(StubExchange.get(path), github).block();
+		response.releaseBody().block();
+		return response.statusCode().value();
+	}
+}
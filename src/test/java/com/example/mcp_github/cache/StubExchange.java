@@ -0,0 +1,88 @@
+package com.example.mcp_github.cache;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Plays queued replies to the requests a filter passes on, and records
+ * those requests. A request with no reply queued fails the test.
+ */
+final class StubExchange implements ExchangeFunction {
+
+	static final String BASE_URL = "https://api.github.com";
+
+	private final Deque<Supplier<Mono<ClientResponse>>> replies = new ArrayDeque<>();
+	final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Queues a reply; {@code headers} are name/value pairs.
+	 */
+	synchronized StubExchange reply(int status, String body, String... headers) {
+		replies.add(() -> Mono.just(response(status, body, headers)));
+		return this;
+	}
+
+	synchronized StubExchange reply(Mono<ClientResponse> response) {
+		replies.add(() -> response);
+		return this;
+	}
+
+	synchronized StubExchange fail(RuntimeException error) {
+		replies.add(() -> Mono.error(error));
+		return this;
+	}
+
+	@Override
+	public Mono<ClientResponse> exchange(ClientRequest request) {
+		requests.add(request);
+		Supplier<Mono<ClientResponse>> reply;
+		synchronized (this) {
+			reply = replies.poll();
+		}
+		return reply != null ? reply.get() : Mono.error(new AssertionError("Unexpected request " + request.url()));
+	}
+
+	String ifNoneMatch(int request) {
+		return requests.get(request).headers().getFirst(HttpHeaders.IF_NONE_MATCH);
+	}
+
+	static ClientResponse response(int status, String body, String... headers) {
+		ClientResponse.Builder builder = ClientResponse.create(HttpStatusCode.valueOf(status))
+				.header(HttpHeaders.CONTENT_TYPE, "application/json");
+		for (int i = 0; i + 1 < headers.length; i += 2) {
+			builder.header(headers[i], headers[i + 1]);
+		}
+		return builder.body(body).build();
+	}
+
+	static ClientRequest get(String path) {
+		return request(HttpMethod.GET, path);
+	}
+
+	/**
+	 * A request as WebClient sends it for {@code template}, URI template
+	 * attribute included.
+	 */
+	static ClientRequest request(HttpMethod method, String template, Object... variables) {
+		URI url = new DefaultUriBuilderFactory().expand(BASE_URL + template, variables);
+		return ClientRequest.create(method, url)
+				.header(HttpHeaders.ACCEPT, "application/vnd.github+json")
+				.attribute(WebClient.class.getName() + ".uriTemplate", BASE_URL + template)
+				.build();
+	}
+}
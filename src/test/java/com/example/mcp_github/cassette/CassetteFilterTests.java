@@ -0,0 +1,263 @@
+package com.example.mcp_github.cassette;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.service.GitHubService;
+import com.example.mcp_github.tracing.CallTracer;
+import com.example.mcp_github.tracing.GitHubTracingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+class CassetteFilterTests {
+
+	@TempDir
+	Path dir;
+
+	/**
+	 * One exchange as GitHub answered it, or as replayed.
+	 */
+	private record Reply(int status, List<String> header, String body) {
+
+	}
+
+	private Path cassette() {
+		return dir.resolve("github.jsonl.gz");
+	}
+
+	private CassetteFilter recorder() {
+		return new CassetteFilter("record", cassette().toString(), "exact", "none");
+	}
+
+	private CassetteFilter player(String matching) {
+		return new CassetteFilter("replay", cassette().toString(), matching, "none");
+	}
+
+	private static ClientRequest request(HttpMethod method, String uri) {
+		return ClientRequest.create(method, URI.create("https://api.github.com" + uri)).build();
+	}
+
+	/**
+	 * Records GitHub answering {@code uri} with {@code body} and the given
+	 * header name/value pairs.
+	 */
+	private static void record(CassetteFilter recorder, String uri, int status, String body, String... headers) {
+		ClientResponse response = recorder.filter(request(HttpMethod.GET, uri), r -> {
+			ClientResponse.Builder github = ClientResponse.create(HttpStatusCode.valueOf(status));
+			for (int i = 0; i < headers.length; i += 2) {
+				github.header(headers[i], headers[i + 1]);
+			}
+			return Mono.just(github.body(body).build());
+		}).block();
+		assertThat(response.bodyToMono(String.class).defaultIfEmpty("").block()).isEqualTo(body);
+	}
+
+	/**
+	 * Sends a request to a replaying cassette, with {@code header} read off
+	 * the reply.
+	 */
+	private static Reply replay(CassetteFilter player, HttpMethod method, String uri, String header) {
+		ClientResponse response = player.filter(request(method, uri),
+				r -> Mono.error(new AssertionError("GitHub called during replay"))).block();
+		return new Reply(response.statusCode().value(), response.headers().header(header),
+				response.bodyToMono(String.class).defaultIfEmpty("").block());
+	}
+
+	private static Reply replay(CassetteFilter player, String uri) {
+		return replay(player, HttpMethod.GET, uri, "ETag");
+	}
+
+	private List<CassetteInteraction> recorded() throws Exception {
+		List<CassetteInteraction> interactions = new ArrayList<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new GZIPInputStream(Files.newInputStream(cassette())), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				interactions.add(new ObjectMapper().readValue(line, CassetteInteraction.class));
+			}
+		}
+		return interactions;
+	}
+
+	@Test
+	void recordedResponsesReplayWithoutGitHub() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/repos/octo/hello", 200, "{\"name\":\"hello\"}", "ETag", "\"a\"");
+		record(recorder, "/repos/octo/gone", 404, "{\"message\":\"Not Found\"}");
+		recorder.close();
+
+		CassetteFilter player = player("exact");
+
+		assertThat(replay(player, "/repos/octo/hello")).isEqualTo(new Reply(200, List.of("\"a\""),
+				"{\"name\":\"hello\"}"));
+		assertThat(replay(player, "/repos/octo/gone").status()).isEqualTo(404);
+	}
+
+	@Test
+	void recordingDropsCookiesAndTransportHeaders() throws Exception {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/user", 200, "{}", "Set-Cookie", "session=secret", "Content-Length", "2", "Connection",
+				"keep-alive", "Content-Encoding", "gzip", "ETag", "\"a\"", "X-RateLimit-Remaining", "4999");
+		recorder.close();
+
+		assertThat(recorded()).singleElement().satisfies(interaction -> {
+			assertThat(interaction.headers()).containsOnlyKeys("ETag", "X-RateLimit-Remaining");
+			assertThat(interaction.uri()).isEqualTo("/user");
+		});
+		assertThat(replay(player("exact"), HttpMethod.GET, "/user", "Set-Cookie").header()).isEmpty();
+	}
+
+	@Test
+	void queryParametersMatchInAnyOrder() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/repos/octo/hello/issues?state=open&per_page=100&page=2", 200, "[1]");
+		recorder.close();
+
+		Reply reply = replay(player("exact"), "/repos/octo/hello/issues?page=2&per_page=100&state=open");
+
+		assertThat(reply.status()).isEqualTo(200);
+		assertThat(reply.body()).isEqualTo("[1]");
+	}
+
+	@Test
+	void exactMatchingTurnsAwayOtherQueries() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/repos/octo/hello/issues?page=1", 200, "[1]");
+		recorder.close();
+
+		Reply reply = replay(player("exact"), "/repos/octo/hello/issues?page=2");
+
+		assertThat(reply.status()).isEqualTo(501);
+		assertThat(reply.body()).isEqualTo(
+				"{\"message\":\"No cassette interaction for GET /repos/octo/hello/issues?page=2\"}");
+	}
+
+	@Test
+	void relaxedMatchingFallsBackToThePath() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/repos/octo/hello/issues?page=1", 200, "[1]");
+		record(recorder, "/repos/octo/hello/issues?page=3", 200, "[3]");
+		recorder.close();
+		CassetteFilter player = player("relaxed");
+
+		assertThat(replay(player, "/repos/octo/hello/issues?page=3").body()).isEqualTo("[3]");
+		assertThat(replay(player, "/repos/octo/hello/issues?page=2").body()).isEqualTo("[1]");
+		assertThat(replay(player, "/repos/octo/hello/issues").body()).isEqualTo("[3]");
+		assertThat(replay(player, "/repos/octo/hello/pulls").status()).isEqualTo(501);
+	}
+
+	@Test
+	void repeatedRequestsReplayTheirResponsesInTurn() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/repos/octo/hello/actions/runs/7", 200, "{\"status\":\"queued\"}");
+		record(recorder, "/repos/octo/hello/actions/runs/7", 200, "{\"status\":\"completed\"}");
+		recorder.close();
+		CassetteFilter player = player("exact");
+
+		assertThat(List.of(replay(player, "/repos/octo/hello/actions/runs/7").body(),
+				replay(player, "/repos/octo/hello/actions/runs/7").body(),
+				replay(player, "/repos/octo/hello/actions/runs/7").body()))
+				.containsExactly("{\"status\":\"queued\"}", "{\"status\":\"completed\"}", "{\"status\":\"queued\"}");
+	}
+
+	@Test
+	void unmatchedRequestsGet501() {
+		CassetteFilter recorder = recorder();
+		record(recorder, "/user", 200, "{}");
+		recorder.close();
+
+		Reply reply = replay(player("relaxed"), HttpMethod.POST, "/user/repos", "Content-Type");
+
+		assertThat(reply.status()).isEqualTo(501);
+		assertThat(reply.header()).containsExactly("application/json");
+		assertThat(reply.body()).isEqualTo("{\"message\":\"No cassette interaction for POST /user/repos\"}");
+	}
+
+	@Test
+	void binaryBodiesAreKeptAsBase64() throws Exception {
+		byte[] zip = {'P', 'K', 3, 4, (byte) 0xff, (byte) 0xfe, 0};
+		CassetteFilter recorder = recorder();
+		recorder.filter(request(HttpMethod.GET, "/repos/octo/hello/zipball"), r -> Mono.just(
+				ClientResponse.create(HttpStatusCode.valueOf(200))
+						.body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(zip)))
+						.build()))
+				.block().releaseBody().block();
+		recorder.close();
+
+		assertThat(recorded()).singleElement().satisfies(interaction -> {
+			assertThat(interaction.body()).isNull();
+			assertThat(interaction.bodyBase64()).isNotNull();
+		});
+		ClientResponse response = player("exact").filter(request(HttpMethod.GET, "/repos/octo/hello/zipball"),
+				r -> Mono.error(new AssertionError("GitHub called during replay"))).block();
+		DataBuffer body = DataBufferUtils.join(response.bodyToFlux(DataBuffer.class)).block();
+		byte[] replayed = new byte[body.readableByteCount()];
+		body.read(replayed);
+		assertThat(replayed).containsExactly(zip);
+	}
+
+	@Test
+	void logDownloadsReplayWithTheRedirectThatLedToThem() throws Exception {
+		DisposableServer server = HttpServer.create()
+				.host("127.0.0.1")
+				.port(0)
+				.handle((request, response) -> request.uri().startsWith("/signed/")
+						? response.sendString(Mono.just("line 1\nline 2\n"))
+						: response.status(302)
+								.header("Location", "http://" + request.requestHeaders().get("Host")
+										+ "/signed/job-1.txt?sig=abc")
+								.send())
+				.bindNow();
+		String baseUrl = "http://127.0.0.1:" + server.port();
+		CassetteFilter recorder = recorder();
+		try {
+			assertThat(github(baseUrl, recorder).downloadJobLogs("octo", "hello", 1, dir.resolve("recorded.txt"),
+					1 << 20)).isEqualTo(14);
+			recorder.close();
+		} finally {
+			server.disposeNow();
+		}
+
+		assertThat(recorded()).extracting(CassetteInteraction::uri)
+				.containsExactly("/repos/octo/hello/actions/jobs/1/logs", "/signed/job-1.txt?sig=abc");
+		Path replayed = dir.resolve("replayed.txt");
+		assertThat(github(baseUrl, player("exact")).downloadJobLogs("octo", "hello", 1, replayed, 1 << 20))
+				.isEqualTo(14);
+		assertThat(Files.readString(replayed)).isEqualTo("line 1\nline 2\n");
+	}
+
+	private static GitHubService github(String baseUrl, CassetteFilter cassette) {
+		CallTracer tracer = new CallTracer(false, 64);
+		return new GitHubService(baseUrl, "token",
+				new GitHubCacheFilter(new SimpleMeterRegistry(), false, 100, 1 << 20, 60, "", 0, 0, 0, 0),
+				new GitHubMetricsFilter(new SimpleMeterRegistry(), tracer, new CallLog("", 64, 0, 1, 0)),
+				new GitHubTracingFilter(tracer), cassette);
+	}
+}
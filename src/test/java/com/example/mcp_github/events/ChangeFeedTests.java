@@ -0,0 +1,266 @@
+package com.example.mcp_github.events;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.model.GitHubEvent;
+import com.example.mcp_github.model.GitHubEventsPage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ChangeFeedTests {
+
+	private static final long T0 = 1_700_000_000_000L;
+	private static final long MINUTE = 60_000;
+
+	private final GitHubCacheFilter cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20,
+			3600, "", 0, 0, 60, 100);
+	private ChangeFeed feed;
+
+	@AfterEach
+	void close() {
+		if (feed != null) {
+			feed.close();
+		}
+	}
+
+	/**
+	 * A change feed polled only by the test, with a 60-second minimum
+	 * interval.
+	 */
+	private ChangeFeed create(int bufferChanges) {
+		feed = new ChangeFeed(null, cache, new SimpleMeterRegistry(), "https://api.github.com", "", false, 60,
+				bufferChanges);
+		return feed;
+	}
+
+	/**
+	 * Plays queued pages and records the ETag each poll was sent with.
+	 */
+	private static final class StubEvents implements Function<String, GitHubEventsPage> {
+
+		private final Deque<Supplier<GitHubEventsPage>> pages = new ArrayDeque<>();
+		private final List<String> etags = new ArrayList<>();
+
+		StubEvents page(String etag, int pollIntervalSeconds, GitHubEvent... events) {
+			pages.add(() -> new GitHubEventsPage(true, etag, pollIntervalSeconds, List.of(events)));
+			return this;
+		}
+
+		StubEvents notModified(int pollIntervalSeconds) {
+			pages.add(() -> new GitHubEventsPage(false, null, pollIntervalSeconds, List.of()));
+			return this;
+		}
+
+		StubEvents fail(String message) {
+			pages.add(() -> {
+				throw new IllegalStateException(message);
+			});
+			return this;
+		}
+
+		@Override
+		public GitHubEventsPage apply(String etag) {
+			etags.add(etag);
+			Supplier<GitHubEventsPage> page = pages.poll();
+			if (page == null) {
+				throw new AssertionError("Unexpected poll");
+			}
+			return page.get();
+		}
+	}
+
+	private static GitHubEvent event(long id, String type, Map<String, Object> payload) {
+		return new GitHubEvent(String.valueOf(id), type, new GitHubEvent.Actor("mona"),
+				new GitHubEvent.Repo("octo/hello"), payload, "2024-05-01T00:00:00Z");
+	}
+
+	private static GitHubEvent event(long id) {
+		return event(id, "WatchEvent", Map.of());
+	}
+
+	private static GitHubEvent[] events(long newest, long oldest) {
+		List<GitHubEvent> events = new ArrayList<>();
+		for (long id = newest; id >= oldest; id--) {
+			events.add(event(id));
+		}
+		return events.toArray(GitHubEvent[]::new);
+	}
+
+	private void cached(String path) {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://api.github.com" + path))
+				.build();
+		cache.filter(request, r -> Mono.just(ClientResponse.create(HttpStatusCode.valueOf(200)).body("{}").build()))
+				.block().releaseBody().block();
+	}
+
+	private List<String> eventIds() {
+		return feed.changesSince(0, null, 1000).stream().map(RepositoryChange::eventId).toList();
+	}
+
+	@Test
+	void theFirstPollOnlySetsTheBaseline() {
+		create(100);
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 60, event(2), event(1))
+				.page("\"b\"", 60, event(4), event(3), event(2));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		assertThat(feed.latestCursor()).isZero();
+
+		feed.pollDue(T0 + MINUTE);
+		assertThat(eventIds()).containsExactly("3", "4");
+		assertThat(feed.changesSince(1, null, 10)).extracting(RepositoryChange::eventId).containsExactly("4");
+		assertThat(github.etags).containsExactly(null, "\"a\"");
+	}
+
+	@Test
+	void unmodifiedPollsKeepTheEtag() {
+		create(100);
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 60, event(1))
+				.notModified(60)
+				.page("\"b\"", 60, event(2), event(1));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+		feed.pollDue(T0 + 2 * MINUTE);
+
+		assertThat(github.etags).containsExactly(null, "\"a\"", "\"a\"");
+		assertThat(eventIds()).containsExactly("2");
+		assertThat(feed.feeds()).extracting(WatchedFeed::changes).containsExactly(1L);
+	}
+
+	@Test
+	void pollsWaitForTheLongerOfPollIntervalAndMinimum() {
+		create(100);
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 120, event(1))
+				.notModified(10)
+				.notModified(10);
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+		assertThat(github.etags).hasSize(1);
+		assertThat(feed.feeds().get(0).pollIntervalSeconds()).isEqualTo(120);
+
+		feed.pollDue(T0 + 2 * MINUTE);
+		assertThat(github.etags).hasSize(2);
+		assertThat(feed.feeds().get(0).pollIntervalSeconds()).isEqualTo(60);
+
+		feed.pollDue(T0 + 2 * MINUTE + 30_000);
+		assertThat(github.etags).hasSize(2);
+		feed.pollDue(T0 + 3 * MINUTE);
+		assertThat(github.etags).hasSize(3);
+	}
+
+	@Test
+	void failuresBackOffExponentially() {
+		create(100);
+		StubEvents github = new StubEvents()
+				.fail("rate limited")
+				.fail("rate limited")
+				.page("\"a\"", 60, event(1));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		assertThat(feed.feeds().get(0).lastError()).isEqualTo("rate limited");
+		assertThat(feed.feeds().get(0).nextPollAt()).isEqualTo(T0 + 2 * MINUTE);
+
+		feed.pollDue(T0 + MINUTE);
+		assertThat(github.etags).hasSize(1);
+
+		feed.pollDue(T0 + 2 * MINUTE);
+		assertThat(feed.feeds().get(0).nextPollAt()).isEqualTo(T0 + 6 * MINUTE);
+
+		feed.pollDue(T0 + 6 * MINUTE);
+		assertThat(feed.feeds().get(0).lastError()).isNull();
+		assertThat(feed.feeds().get(0).nextPollAt()).isEqualTo(T0 + 7 * MINUTE);
+	}
+
+	@Test
+	void theBufferKeepsOnlyTheNewestChanges() {
+		create(5);
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 60, event(1))
+				.page("\"b\"", 60, events(8, 1));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+
+		assertThat(eventIds()).containsExactly("4", "5", "6", "7", "8");
+		assertThat(feed.oldestCursor()).isEqualTo(3);
+		assertThat(feed.latestCursor()).isEqualTo(7);
+		assertThat(feed.changesSince(5, null, 10)).extracting(RepositoryChange::cursor).containsExactly(6L, 7L);
+	}
+
+	@Test
+	void aFullPageOfNewEventsIsRecordedAsAGap() {
+		create(1000);
+		cached("/repos/octo/hello/releases");
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 60, event(1))
+				.page("\"b\"", 60, events(101, 2));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+
+		List<RepositoryChange> changes = feed.changesSince(0, null, 1000);
+		assertThat(changes).hasSize(101);
+		assertThat(changes.get(0).type()).isEqualTo("Gap");
+		assertThat(changes.get(0).repository()).isEqualTo("octo/hello");
+		assertThat(cache.invalidate("/repos/octo/hello/releases")).isZero();
+	}
+
+	@Test
+	void newEventsInvalidateWhatTheyChanged() {
+		create(100);
+		cached("/repos/octo/hello/issues");
+		cached("/repos/octo/hello/pulls");
+		StubEvents github = new StubEvents()
+				.page("\"a\"", 60, event(1))
+				.page("\"b\"", 60, event(2, "IssuesEvent", Map.of("action", "opened", "issue", Map.of("number", 7))),
+						event(1));
+		feed.watch("octo/hello", github);
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+
+		assertThat(cache.invalidate("/repos/octo/hello/issues")).isZero();
+		assertThat(cache.invalidate("/repos/octo/hello/pulls")).isEqualTo(1);
+	}
+
+	@Test
+	void eventsSeenOnTwoFeedsAreRecordedOnce() {
+		create(100);
+		feed.watch("octo/hello", new StubEvents().page("\"a\"", 60, event(1)).page("\"b\"", 60, event(2), event(1)));
+		feed.watch("received", new StubEvents().page("\"c\"", 60, event(1)).page("\"d\"", 60, event(2), event(1)));
+
+		feed.pollDue(T0);
+		feed.pollDue(T0 + MINUTE);
+
+		assertThat(eventIds()).containsExactly("2");
+	}
+}
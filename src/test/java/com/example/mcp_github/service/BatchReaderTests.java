@@ -0,0 +1,165 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubUser;
+import com.example.mcp_github.service.batch.BatchRequest;
+import com.example.mcp_github.service.batch.BatchResult;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BatchReaderTests {
+
+	private final StubReads github = new StubReads();
+	/** Four workers, five operations per batch, one second per batch. */
+	private final BatchReader reader = new BatchReader(github,
+			new GitHubCacheFilter(new SimpleMeterRegistry(), false, 100, 1 << 20, 60, "", 0, 0, 0, 0),
+			new CallTracer(false, 64), 4, 5, 1);
+
+	@AfterEach
+	void close() {
+		reader.close();
+	}
+
+	/**
+	 * Records every call that reaches GitHub. Repository {@code broken}
+	 * fails, user {@code slow} never answers.
+	 */
+	private static final class StubReads extends StubGitHubService {
+
+		private final List<String> calls = new CopyOnWriteArrayList<>();
+
+		@Override
+		public List<GitHubIssue> getRepositoryIssues(String username, String repo, String state, int limit) {
+			calls.add("issues %s/%s %s %d".formatted(username, repo, state, limit));
+			if (repo.equals("broken")) {
+				throw new IllegalStateException("500 Internal Server Error");
+			}
+			return new ArrayList<>();
+		}
+
+		@Override
+		public GitHubUser getUserProfile(String username) {
+			calls.add("user " + username);
+			if (username.equals("slow")) {
+				try {
+					Thread.sleep(60_000);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				throw new IllegalStateException("interrupted");
+			}
+			return new GitHubUser(username, null, null, null, null, null, null, null, null, 0, 0, 0, 0, null, null);
+		}
+	}
+
+	private static BatchRequest request(String id, String operation, Map<String, Object> arguments) {
+		return new BatchRequest(id, operation, arguments);
+	}
+
+	private static Map<String, Object> repo(String repository) {
+		return Map.of("username", "octo", "repository", repository);
+	}
+
+	@Test
+	void identicalReadsRunOnceWhateverDefaultsTheySpellOut() throws Exception {
+		Map<String, BatchResult> results = reader.read(List.of(
+				request("a", "issues", repo("hello")),
+				request("b", "ISSUES", Map.of("repository", "hello", "username", "octo", "state", "open",
+						"limit", 10, "unused", true)),
+				request("c", "issues", Map.of("username", "octo", "repository", "hello", "limit", "10")),
+				request("d", "issues", Map.of("username", "octo", "repository", "hello", "limit", 20)),
+				request("e", "issues", Map.of("username", "octo", "repository", "hello", "state", "closed"))));
+
+		assertThat(github.calls).containsExactlyInAnyOrder("issues octo/hello open 10", "issues octo/hello open 20",
+				"issues octo/hello closed 10");
+		assertThat(results.values()).extracting(BatchResult::deduplicated)
+				.containsExactly(false, true, true, false, false);
+		assertThat(results.get("b").value()).isSameAs(results.get("a").value());
+		assertThat(results.get("c").value()).isSameAs(results.get("a").value());
+		assertThat(results.get("b").operation()).isEqualTo("ISSUES");
+	}
+
+	@Test
+	void resultsComeBackInRequestOrder() throws Exception {
+		Map<String, BatchResult> results = reader.read(List.of(
+				request("z", "user_profile", Map.of("username", "mona")),
+				request(null, "nope", Map.of()),
+				request("a", "issues", repo("hello")),
+				request(" ", "user_profile", Map.of("username", "hubot"))));
+
+		assertThat(results.keySet()).containsExactly("z", "2", "a", "4");
+		assertThat(((GitHubUser) results.get("4").value()).login()).isEqualTo("hubot");
+	}
+
+	@Test
+	void aFailingReadOnlyFailsItsOwnResult() throws Exception {
+		Map<String, BatchResult> results = reader.read(List.of(
+				request("ok", "issues", repo("hello")),
+				request("broken", "issues", repo("broken")),
+				request("again", "issues", repo("broken"))));
+
+		assertThat(results.get("ok").error()).isNull();
+		assertThat(results.get("ok").value()).isEqualTo(List.of());
+		assertThat(results.get("broken").error()).isEqualTo("500 Internal Server Error");
+		assertThat(results.get("broken").rejected()).isFalse();
+		assertThat(results.get("again").error()).isEqualTo("500 Internal Server Error");
+		assertThat(results.get("again").deduplicated()).isTrue();
+		assertThat(github.calls).hasSize(2);
+	}
+
+	@Test
+	void slowReadsTimeOutWithoutHoldingUpTheOthers() throws Exception {
+		Map<String, BatchResult> results = reader.read(List.of(
+				request("slow", "user_profile", Map.of("username", "slow")),
+				request("fast", "user_profile", Map.of("username", "mona"))));
+
+		assertThat(results.get("slow").error()).isEqualTo("timed out");
+		assertThat(((GitHubUser) results.get("fast").value()).login()).isEqualTo("mona");
+	}
+
+	@Test
+	void unknownOperationsAndMissingArgumentsAreRejectedWithoutRunning() throws Exception {
+		Map<String, BatchResult> results = reader.read(List.of(
+				request("unknown", "delete_repository", repo("hello")),
+				request("missing", "issues", Map.of("username", "octo")),
+				request("blank", "file_content", Map.of("username", "octo", "repository", "hello", "path", " "))));
+
+		assertThat(results.values()).allSatisfy(result -> {
+			assertThat(result.rejected()).isTrue();
+			assertThat(result.deduplicated()).isFalse();
+		});
+		assertThat(results.get("unknown").error()).startsWith("unknown operation; use one of: file_content(");
+		assertThat(results.get("missing").error()).isEqualTo("missing argument 'repository'");
+		assertThat(results.get("blank").error()).isEqualTo("missing argument 'path'");
+		assertThat(github.calls).isEmpty();
+	}
+
+	@Test
+	void oversizedBatchesAndRepeatedIdsAreRefused() {
+		List<BatchRequest> six = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			six.add(request(null, "user_profile", Map.of("username", "mona")));
+		}
+
+		assertThatThrownBy(() -> reader.read(six)).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("at most 5 operations per batch, got 6");
+		assertThatThrownBy(() -> reader.read(List.of(request("x", "user_profile", Map.of("username", "a")),
+				request("x", "user_profile", Map.of("username", "b")))))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("duplicate id 'x'");
+		assertThat(github.calls).isEmpty();
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.cassette.CassetteFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.tracing.CallTracer;
+import com.example.mcp_github.tracing.GitHubTracingFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Writes that must name the current SHA read it past the response cache, so
+ * an entry that is still fresh but out of date cannot make them conflict.
+ */
+class GitHubServiceWriteTests {
+
+	private static final String CONTENTS = "/repos/octo/hello/contents/README.md";
+	private static final String BRANCH = "/repos/octo/hello/branches/main";
+
+	private final GitHubCacheFilter cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20,
+			3600, "", 0, 0, 60, 100);
+	/** Reply bodies by {@code "METHOD uri"}; anything else is a 404. */
+	private final Map<String, String> replies = new ConcurrentHashMap<>();
+	/** {@code "METHOD uri body"} of every request GitHub saw. */
+	private final List<String> requests = new CopyOnWriteArrayList<>();
+	private DisposableServer server;
+	private GitHubService github;
+
+	@BeforeEach
+	void start() {
+		server = HttpServer.create()
+				.host("127.0.0.1")
+				.port(0)
+				.handle((request, response) -> request.receive().aggregate().asString().defaultIfEmpty("")
+						.flatMap(body -> {
+							String key = request.method().name() + " " + request.uri();
+							requests.add(key + " " + body);
+							String reply = replies.get(key);
+							if (reply == null) {
+								return response.status(404).header("Content-Type", "application/json")
+										.sendString(Mono.just("{\"message\":\"Not Found\"}")).then();
+							}
+							return response.header("Content-Type", "application/json")
+									.sendString(Mono.just(reply)).then();
+						}))
+				.bindNow();
+		CallTracer tracer = new CallTracer(false, 64);
+		github = new GitHubService("http://127.0.0.1:" + server.port(), "token", cache,
+				new GitHubMetricsFilter(new SimpleMeterRegistry(), tracer, new CallLog("", 64, 0, 1, 0)),
+				new GitHubTracingFilter(tracer), new CassetteFilter("off", "", "exact", "none"));
+	}
+
+	@AfterEach
+	void stop() {
+		server.disposeNow();
+	}
+
+	private static String file(String sha) {
+		return "{\"name\":\"README.md\",\"path\":\"README.md\",\"sha\":\"%s\",\"type\":\"file\"}".formatted(sha);
+	}
+
+	private static String branch(String name, String sha) {
+		return "{\"name\":\"%s\",\"commit\":{\"sha\":\"%s\"}}".formatted(name, sha);
+	}
+
+	private static String ref(String branch, String sha) {
+		return "{\"ref\":\"refs/heads/%s\",\"object\":{\"sha\":\"%s\"}}".formatted(branch, sha);
+	}
+
+	/**
+	 * Caches {@code sha} for the file, then moves it on to {@code liveSha}
+	 * behind the cache's back.
+	 */
+	private void staleFile(String sha, String liveSha) {
+		replies.put("GET " + CONTENTS, file(sha));
+		assertThat(github.getFileContent("octo", "hello", "README.md").sha()).isEqualTo(sha);
+		replies.put("GET " + CONTENTS, file(liveSha));
+		assertThat(github.getFileContent("octo", "hello", "README.md").sha()).isEqualTo(sha);
+	}
+
+	private List<String> sent(String method, String uri) {
+		return requests.stream().filter(r -> r.startsWith(method + " " + uri + " ")).toList();
+	}
+
+	@Test
+	void pushesSendTheLiveShaOverAStaleCachedOne() {
+		staleFile("old", "live");
+		replies.put("PUT " + CONTENTS, "{\"content\":" + file("next") + ",\"commit\":{\"sha\":\"c1\"}}");
+
+		assertThat(github.pushFileContent("octo", "hello", "README.md", "hello", "Update", "main")).isEqualTo("c1");
+
+		assertThat(sent("PUT", CONTENTS)).singleElement().asString().contains("\"sha\":\"live\"");
+	}
+
+	@Test
+	void pushesOfNewFilesSendNoSha() {
+		replies.put("PUT " + CONTENTS, "{\"content\":" + file("next") + ",\"commit\":{\"sha\":\"c1\"}}");
+
+		assertThat(github.pushFileContent("octo", "hello", "README.md", "hello", "Create", "main")).isEqualTo("c1");
+
+		assertThat(sent("PUT", CONTENTS)).singleElement().asString().doesNotContain("\"sha\":\"");
+	}
+
+	@Test
+	void deletesSendTheLiveShaOverAStaleCachedOne() {
+		staleFile("old", "live");
+		replies.put("DELETE " + CONTENTS, "{}");
+
+		github.deleteFile("octo", "hello", "README.md", "Remove", "main");
+
+		assertThat(sent("DELETE", CONTENTS)).singleElement().asString().contains("\"sha\":\"live\"");
+	}
+
+	@Test
+	void newBranchesStartFromTheLiveHead() {
+		replies.put("GET " + BRANCH, branch("main", "old"));
+		replies.put("POST /repos/octo/hello/git/refs", ref("main", "old"));
+		// Creating a branch writes its head through to the cache.
+		assertThat(github.createBranch("octo", "hello", "main", "main").commit().sha()).isEqualTo("old");
+		replies.put("GET " + BRANCH, branch("main", "live"));
+		replies.put("POST /repos/octo/hello/git/refs", ref("feature", "live"));
+
+		assertThat(github.createBranch("octo", "hello", "feature", "main").commit().sha()).isEqualTo("live");
+
+		assertThat(sent("POST", "/repos/octo/hello/git/refs")).last().asString()
+				.contains("\"ref\":\"refs/heads/feature\"").contains("\"sha\":\"live\"");
+	}
+}
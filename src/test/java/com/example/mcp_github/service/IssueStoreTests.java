@@ -0,0 +1,106 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubIssuesPage;
+import com.example.mcp_github.service.issues.IssueQuery;
+import com.example.mcp_github.service.issues.IssueSyncStatus;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IssueStoreTests {
+
+	private final StubIssues github = new StubIssues();
+	private IssueStore store;
+
+	@AfterEach
+	void close() {
+		if (store != null) {
+			store.close();
+		}
+	}
+
+	/**
+	 * A store that syncs once an hour and keeps at most {@code maxItems}.
+	 */
+	private IssueStore create(int maxItems) {
+		store = new IssueStore(github,
+				new GitHubMetricsFilter(new SimpleMeterRegistry(), new CallTracer(false, 64),
+						new CallLog("", 64, 0, 1, 0)),
+				3600, 10, maxItems, 500, 50);
+		return store;
+	}
+
+	/**
+	 * A repository of {@code total} items, numbered from {@code total}
+	 * down in the newest-first listing.
+	 */
+	private static final class StubIssues extends StubGitHubService {
+
+		private final List<Integer> pages = new CopyOnWriteArrayList<>();
+		private int total;
+
+		@Override
+		public GitHubIssuesPage getRecentlyUpdatedIssues(String username, String repo, int page) {
+			pages.add(page);
+			List<GitHubIssue> issues = new ArrayList<>();
+			for (int number = total - (page - 1) * 100; number > Math.max(0, total - page * 100); number--) {
+				issues.add(new GitHubIssue(number, "Issue " + number, "open", null, null, null, null,
+						"2024-01-01T00:00:00Z", null, List.of(), null, null));
+			}
+			return new GitHubIssuesPage(true, null, issues);
+		}
+	}
+
+	private IssueSyncStatus query() {
+		return store.query("octo", "hello", new IssueQuery("all", null, null, null, null, 10)).sync();
+	}
+
+	/**
+	 * Queries until the background backfill has stopped paging.
+	 */
+	private IssueSyncStatus afterBackfill() throws InterruptedException {
+		IssueSyncStatus sync = query();
+		for (int i = 0; i < 100 && !sync.complete() && !sync.truncated(); i++) {
+			Thread.sleep(50);
+			sync = query();
+		}
+		return sync;
+	}
+
+	@Test
+	void repositoriesBeyondMaxItemsAreTruncatedNotComplete() throws Exception {
+		github.total = 1_000;
+		create(200);
+
+		IssueSyncStatus sync = afterBackfill();
+
+		assertThat(sync.truncated()).isTrue();
+		assertThat(sync.complete()).isFalse();
+		assertThat(sync.stored()).isEqualTo(200);
+		assertThat(github.pages).containsExactly(1, 2);
+	}
+
+	@Test
+	void repositoriesThatFitAreCompleteNotTruncated() throws Exception {
+		github.total = 150;
+		create(200);
+
+		IssueSyncStatus sync = afterBackfill();
+
+		assertThat(sync.complete()).isTrue();
+		assertThat(sync.truncated()).isFalse();
+		assertThat(sync.stored()).isEqualTo(150);
+	}
+}
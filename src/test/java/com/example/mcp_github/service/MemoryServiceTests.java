@@ -0,0 +1,209 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.mcp_github.service.memory.MemoryNamespaceStats;
+import com.example.mcp_github.service.memory.MemoryPage;
+import com.example.mcp_github.service.memory.MemorySearchHit;
+import com.example.mcp_github.service.memory.MemorySnapshot;
+import com.example.mcp_github.service.memory.MemoryVersion;
+
+class MemoryServiceTests {
+
+	@TempDir
+	Path dir;
+
+	private MemoryService service;
+
+	@AfterEach
+	void close() {
+		if (service != null) {
+			service.close();
+		}
+	}
+
+	private MemoryService create(long maxBytes) {
+		service = new MemoryService(dir.resolve("memory.json").toString(), maxBytes, 0, 3600, 256, 2048, 3, 3600);
+		return service;
+	}
+
+	@Test
+	void namespacesAreIsolated() {
+		MemoryService memory = create(1 << 20);
+		memory.remember("branch", "main");
+		memory.remember("repo:acme/api", "branch", "feature/x", null);
+
+		assertThat(memory.recall("branch")).isEqualTo("main");
+		assertThat(memory.recall("repo:acme/api", "branch")).isEqualTo("feature/x");
+
+		memory.forgetAll("repo:acme/api");
+		assertThat(memory.recall("repo:acme/api", "branch")).isNull();
+		assertThat(memory.recall("branch")).isEqualTo("main");
+	}
+
+	@Test
+	void expiredEntriesAreNotReturned() throws Exception {
+		MemoryService memory = create(1 << 20);
+		memory.remember(null, "token", "abc", Duration.ofMillis(1));
+		Thread.sleep(5);
+
+		assertThat(memory.recall("token")).isNull();
+		assertThat(memory.usedBytes()).isZero();
+	}
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvictedOverBudget() {
+		MemoryService memory = create(1_500);
+		String blob = "x".repeat(300);
+		memory.remember("a", blob);
+		memory.remember("b", blob);
+		memory.recall("a");
+		memory.remember("c", blob);
+
+		assertThat(memory.usedBytes()).isLessThanOrEqualTo(1_500);
+		assertThat(memory.recall("a")).isEqualTo(blob);
+		assertThat(memory.recall("b")).isNull();
+		assertThat(memory.recall("c")).isEqualTo(blob);
+	}
+
+	@Test
+	void legacyFlatFileLoadsIntoDefaultNamespace() throws Exception {
+		Files.writeString(dir.resolve("memory.json"), "{\"test_key\":\"hello123\"}");
+		MemoryService memory = create(1 << 20);
+
+		assertThat(memory.recall("test_key")).isEqualTo("hello123");
+	}
+
+	@Test
+	void prefixScanPagesThroughKeysInOrder() {
+		MemoryService memory = create(1 << 20);
+		for (int i = 0; i < 25; i++) {
+			memory.remember("issue:%02d".formatted(i), "v" + i);
+		}
+		memory.remember("pr:01", "other");
+
+		List<String> keys = new ArrayList<>();
+		String cursor = null;
+		do {
+			MemoryPage page = memory.scan(null, "issue:", null, null, cursor, 10);
+			page.entries().forEach(e -> keys.add(e.getKey()));
+			cursor = page.nextCursor();
+		} while (cursor != null);
+
+		assertThat(keys).hasSize(25).isSorted().allMatch(k -> k.startsWith("issue:"));
+	}
+
+	@Test
+	void rangeScanExcludesUpperBound() {
+		MemoryService memory = create(1 << 20);
+		List.of("a", "b", "c", "d").forEach(k -> memory.remember(k, k));
+
+		MemoryPage page = memory.scan(null, null, "b", "d", null, 10);
+
+		assertThat(page.entries()).extracting(Map.Entry::getKey).containsExactly("b", "c");
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	@Test
+	void searchFindsSubstringsAndTracksUpdates() {
+		MemoryService memory = create(1 << 20);
+		memory.remember("decision", "Cut the release branch release/2.4 on Friday");
+		memory.remember("repo:acme/api", "ticket", "Blocked by JIRA-1234", null);
+
+		assertThat(memory.search(null, "jira-1234", 10)).extracting(MemorySearchHit::key).containsExactly("ticket");
+		assertThat(memory.search("default", "release", 10)).extracting(MemorySearchHit::key).containsExactly("decision");
+
+		memory.remember("decision", "Postponed");
+		assertThat(memory.search(null, "release", 10)).isEmpty();
+	}
+
+	@Test
+	void searchFindsTermsPastTheIndexedPrefixOfLongValues() {
+		MemoryService memory = create(1 << 20);
+		memory.remember("log", "x".repeat(70 * 1024) + " flaky-test-42 at the very end");
+		memory.remember("note", "nothing to see");
+
+		assertThat(memory.search(null, "flaky-test-42", 10)).extracting(MemorySearchHit::key).containsExactly("log");
+		assertThat(memory.search(null, "end", 10)).extracting(MemorySearchHit::key).containsExactly("log");
+
+		memory.remember("log", "short again");
+		assertThat(memory.search(null, "flaky-test-42", 10)).isEmpty();
+	}
+
+	@Test
+	void largeValuesAreCompressedOffHeapAndSurviveRestart() {
+		MemoryService memory = create(1 << 20);
+		String summary = "The build failed because the cache key changed. ".repeat(200);
+		memory.remember("summary", summary);
+
+		MemoryNamespaceStats stats = memory.namespaceStats().get(0);
+		assertThat(stats.compressedValues()).isEqualTo(1);
+		assertThat(stats.offHeapBytes()).isPositive().isLessThan(summary.length());
+		assertThat(memory.recall("summary")).isEqualTo(summary);
+
+		memory.close();
+		assertThat(create(1 << 20).recall("summary")).isEqualTo(summary);
+	}
+
+	@Test
+	void snapshotsSeeEarlierVersionsAndForgottenKeysCanBeRestored() {
+		MemoryService memory = create(1 << 20);
+		long v1 = memory.remember("branch", "main");
+		MemorySnapshot before = memory.snapshot();
+		memory.remember("branch", "release/2.4");
+		memory.remember("owner", "acme");
+		memory.forget("branch");
+
+		assertThat(memory.recall("branch")).isNull();
+		assertThat(memory.recall(null, "branch", before)).isEqualTo("main");
+		assertThat(memory.recall(null, "owner", before)).isNull();
+		assertThat(memory.scan(null, null, null, null, null, 10, before).entries())
+				.extracting(Map.Entry::getKey).containsExactly("branch");
+
+		memory.restore(null, "branch", v1);
+		assertThat(memory.recall("branch")).isEqualTo("main");
+
+		// Three versions retained: restore, tombstone, release/2.4.
+		assertThat(memory.history(null, "branch")).hasSize(3)
+				.extracting(MemoryVersion::deleted).containsExactly(false, true, false);
+	}
+
+	@Test
+	void unversionedReadsCountAsAccess() {
+		MemoryService memory = create(1_500);
+		String blob = "x".repeat(300);
+		memory.remember("a", blob);
+		memory.remember("b", blob);
+		memory.recall(null, "a", null);
+		memory.remember("c", blob);
+
+		assertThat(memory.recall("a")).isEqualTo(blob);
+		assertThat(memory.recall("b")).isNull();
+	}
+
+	@Test
+	void restoreKeepsTheRemainingTtlOfTheVersion() throws Exception {
+		MemoryService memory = create(1 << 20);
+		long v1 = memory.remember(null, "token", "abc", Duration.ofMillis(200));
+		memory.remember(null, "token", "def", Duration.ZERO);
+
+		memory.restore(null, "token", v1);
+		assertThat(memory.recall("token")).isEqualTo("abc");
+		Thread.sleep(250);
+		assertThat(memory.recall("token")).isNull();
+		assertThatThrownBy(() -> memory.restore(null, "token", v1)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
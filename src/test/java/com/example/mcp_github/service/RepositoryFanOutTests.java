@@ -0,0 +1,214 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.model.GitHubIssue;
+import com.example.mcp_github.model.GitHubRepository;
+import com.example.mcp_github.service.fanout.FanOutResult;
+import com.example.mcp_github.service.fanout.RepoResult;
+import com.example.mcp_github.tracing.CallTracer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class RepositoryFanOutTests {
+
+	private static final CallTracer TRACER = new CallTracer(false, 64);
+
+	private final GitHubMetricsFilter metrics = new GitHubMetricsFilter(new SimpleMeterRegistry(), TRACER,
+			new CallLog("", 64, 0, 1, 0));
+	private final StubIssues github = new StubIssues();
+	private final List<String> streamed = new CopyOnWriteArrayList<>();
+	private RepositoryFanOut fanOut;
+
+	@AfterEach
+	void close() {
+		if (fanOut != null) {
+			fanOut.close();
+		}
+	}
+
+	/**
+	 * A fan-out keeping 100 requests in reserve and giving up after one
+	 * second.
+	 */
+	private RepositoryFanOut create(int concurrency) {
+		fanOut = new RepositoryFanOut(metrics,
+				new GitHubCacheFilter(new SimpleMeterRegistry(), false, 100, 1 << 20, 60, "", 0, 0, 0, 0), TRACER,
+				concurrency, 100, 1);
+		return fanOut;
+	}
+
+	/**
+	 * Issue lists per repository. Each call spends {@code cost} of the
+	 * live rate limit; repository {@code broken} fails, {@code slow} waits
+	 * for {@link #release}.
+	 */
+	private final class StubIssues extends StubGitHubService {
+
+		private final List<String> calls = new CopyOnWriteArrayList<>();
+		private final CountDownLatch release = new CountDownLatch(1);
+		private long cost;
+
+		@Override
+		public List<GitHubIssue> getRepositoryIssues(String username, String repo, String state, int limit) {
+			calls.add(username + "/" + repo);
+			if (cost > 0) {
+				remaining(metrics.rateLimitRemaining() - cost);
+			}
+			if (repo.equals("broken")) {
+				throw new IllegalStateException("502 Bad Gateway");
+			}
+			if (repo.equals("slow")) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("interrupted");
+				}
+			}
+			return List.of();
+		}
+	}
+
+	/**
+	 * Lets GitHub report {@code count} requests left, as seen by the
+	 * metrics filter.
+	 */
+	private void remaining(long count) {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://api.github.com/rate_limit"))
+				.build();
+		metrics.filter(request, r -> Mono.just(ClientResponse.create(HttpStatusCode.valueOf(200))
+				.header("X-RateLimit-Remaining", Long.toString(count))
+				.build()))
+				.block().releaseBody().block();
+	}
+
+	private static List<GitHubRepository> repositories(String... names) {
+		List<GitHubRepository> repositories = new ArrayList<>();
+		for (String name : names) {
+			repositories.add(new GitHubRepository(name, "octo/" + name, null, null, null, 0, 0, null, null, false,
+					"main", null, 0, false));
+		}
+		return repositories;
+	}
+
+	private FanOutResult<Integer> run(List<GitHubRepository> repositories, int requestsPerRepository)
+			throws InterruptedException {
+		return fanOut.run(repositories, requestsPerRepository,
+				repository -> github.getRepositoryIssues("octo", repository.name(), "open", 10).size(),
+				result -> streamed.add(result.repository()));
+	}
+
+	@Test
+	void theBudgetIsWhatRemainsAboveTheReserve() throws Exception {
+		create(1);
+		remaining(110);
+
+		FanOutResult<Integer> result = run(repositories("a", "b", "c", "d", "e"), 3);
+
+		assertThat(github.calls).containsExactly("octo/a", "octo/b", "octo/c");
+		assertThat(result.succeeded()).isEqualTo(3);
+		assertThat(result.skipped()).isEqualTo(2);
+		assertThat(result.failed()).isZero();
+		assertThat(result.results().get(3)).isEqualTo(
+				new RepoResult<>("octo/d", null, "rate-limit budget exhausted", true, 0));
+		assertThat(result.rateLimitRemaining()).isEqualTo(110);
+	}
+
+	@Test
+	void anUnknownRateLimitSetsNoBudget() throws Exception {
+		create(2);
+
+		FanOutResult<Integer> result = run(repositories("a", "b", "c"), 1_000);
+
+		assertThat(result.succeeded()).isEqualTo(3);
+		assertThat(result.rateLimitRemaining()).isEqualTo(-1);
+	}
+
+	@Test
+	void repositoriesAreSkippedOnceTheLiveCountDropsToTheReserve() throws Exception {
+		create(1);
+		remaining(1_000);
+		// Other tools spend the rate limit while the fan-out runs.
+		github.cost = 300;
+
+		FanOutResult<Integer> result = run(repositories("a", "b", "c", "d", "e"), 1);
+
+		assertThat(github.calls).containsExactly("octo/a", "octo/b", "octo/c");
+		assertThat(result.results()).extracting(RepoResult::skipped)
+				.containsExactly(false, false, false, true, true);
+		assertThat(result.rateLimitRemaining()).isEqualTo(100);
+	}
+
+	@Test
+	void aFailingRepositoryOnlyFailsItsOwnResult() throws Exception {
+		create(4);
+
+		FanOutResult<Integer> result = run(repositories("a", "broken", "c"), 1);
+
+		assertThat(result.results()).extracting(RepoResult::error).containsExactly(null, "502 Bad Gateway", null);
+		assertThat(result.succeeded()).isEqualTo(2);
+		assertThat(result.failed()).isEqualTo(1);
+		assertThat(result.skipped()).isZero();
+	}
+
+	@Test
+	void slowRepositoriesTimeOutWithoutHoldingUpTheOthers() throws Exception {
+		create(4);
+
+		FanOutResult<Integer> result = run(repositories("slow", "a", "b"), 1);
+
+		assertThat(result.results()).extracting(RepoResult::repository).containsExactly("octo/slow", "octo/a",
+				"octo/b");
+		assertThat(result.results()).extracting(RepoResult::error).containsExactly("timed out", null, null);
+		assertThat(result.failed()).isEqualTo(1);
+		assertThat(streamed).contains("octo/a", "octo/b");
+	}
+
+	@Test
+	void resultsAreStreamedAsEachRepositoryFinishes() throws Exception {
+		create(4);
+
+		// The slow repository only finishes once the fast one has been streamed.
+		FanOutResult<Integer> result = fanOut.run(repositories("slow", "fast"), 1,
+				repository -> github.getRepositoryIssues("octo", repository.name(), "open", 10).size(),
+				repoResult -> {
+					streamed.add(repoResult.repository());
+					if (repoResult.repository().equals("octo/fast")) {
+						github.release.countDown();
+					}
+				});
+
+		assertThat(result.succeeded()).isEqualTo(2);
+		assertThat(streamed).containsExactly("octo/fast", "octo/slow");
+	}
+
+	@Test
+	void aFailingListenerDoesNotLoseResults() throws Exception {
+		create(2);
+
+		FanOutResult<Integer> result = fanOut.run(repositories("a", "b"), 1, repository -> 1, repoResult -> {
+			throw new IllegalStateException("client went away");
+		});
+
+		assertThat(result.results()).extracting(RepoResult::value).containsExactly(1, 1);
+	}
+}
@@ -0,0 +1,26 @@
+package com.example.mcp_github.service;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.example.mcp_github.calllog.CallLog;
+import com.example.mcp_github.cassette.CassetteFilter;
+import com.example.mcp_github.metrics.GitHubMetricsFilter;
+import com.example.mcp_github.tracing.CallTracer;
+import com.example.mcp_github.tracing.GitHubTracingFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * GitHubService pointed at a closed local port, for tests to override the
+ * calls they need; anything else fails to connect.
+ */
+class StubGitHubService extends GitHubService {
+
+	private static final CallTracer TRACER = new CallTracer(false, 64);
+
+	StubGitHubService() {
+		super("http://127.0.0.1:1", "token",
+				new GitHubCacheFilter(new SimpleMeterRegistry(), false, 100, 1 << 20, 60, "", 0, 0, 0, 0),
+				new GitHubMetricsFilter(new SimpleMeterRegistry(), TRACER, new CallLog("", 64, 0, 1, 0)),
+				new GitHubTracingFilter(TRACER), new CassetteFilter("off", "", "exact", "none"));
+	}
+}
@@ -0,0 +1,298 @@
+package com.example.mcp_github.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.model.GitHubWorkflowRunsPage;
+import com.example.mcp_github.service.runs.RunProgress;
+import com.example.mcp_github.service.runs.RunWaitResult;
+
+import reactor.core.publisher.Mono;
+
+class WorkflowRunWatcherTests {
+
+	private static final long T0 = 1_700_000_000_000L;
+	private static final long SECOND = 1_000;
+	private static final long HOUR = 3_600_000;
+
+	private final StubRuns github = new StubRuns();
+	private final List<RunProgress> progress = new ArrayList<>();
+	/** 5 to 600 seconds between polls, 30 seconds' grace, 1 second to answer. */
+	private final WorkflowRunWatcher watcher = new WorkflowRunWatcher(github, 5, 600, 30, 1);
+
+	@AfterEach
+	void close() {
+		watcher.close();
+	}
+
+	/**
+	 * Plays queued pages and records which call each poll made, with the
+	 * ETag it was sent with.
+	 */
+	private static final class StubRuns extends StubGitHubService {
+
+		private final Deque<Supplier<Mono<GitHubWorkflowRunsPage>>> pages = new ArrayDeque<>();
+		private final List<String> polls = new ArrayList<>();
+		private List<GitHubWorkflowRun> history = List.of();
+
+		StubRuns page(String etag, GitHubWorkflowRun... runs) {
+			pages.add(() -> Mono.just(new GitHubWorkflowRunsPage(true, etag, runs.length, List.of(runs))));
+			return this;
+		}
+
+		StubRuns notModified() {
+			pages.add(() -> Mono.just(new GitHubWorkflowRunsPage(false, null, 0, List.of())));
+			return this;
+		}
+
+		StubRuns fail(RuntimeException error) {
+			pages.add(() -> Mono.error(error));
+			return this;
+		}
+
+		StubRuns hang() {
+			pages.add(Mono::never);
+			return this;
+		}
+
+		private Mono<GitHubWorkflowRunsPage> next(String call, String etag) {
+			polls.add(call + " " + etag);
+			Supplier<Mono<GitHubWorkflowRunsPage>> page = pages.poll();
+			if (page == null) {
+				return Mono.error(new AssertionError("Unexpected poll"));
+			}
+			return page.get();
+		}
+
+		@Override
+		public Mono<GitHubWorkflowRunsPage> getLatestWorkflowRunAsync(String username, String repo, String branch,
+				String etag) {
+			return next("branch", etag);
+		}
+
+		@Override
+		public Mono<GitHubWorkflowRunsPage> getWorkflowRunAsync(String username, String repo, long runId,
+				String etag) {
+			return next("run " + runId, etag);
+		}
+
+		@Override
+		public Mono<List<GitHubWorkflowRun>> getCompletedWorkflowRunsAsync(String username, String repo,
+				long workflowId, int limit) {
+			return Mono.just(history);
+		}
+	}
+
+	private static String at(long millis) {
+		return Instant.ofEpochMilli(millis).toString();
+	}
+
+	private static GitHubWorkflowRun running(long id, long startedAt, Long workflowId) {
+		return new GitHubWorkflowRun(id, "CI", "main", "in_progress", null, null, at(startedAt), at(startedAt),
+				workflowId, null, "push", 1, at(startedAt));
+	}
+
+	private static GitHubWorkflowRun completed(long id, long startedAt, long finishedAt) {
+		return new GitHubWorkflowRun(id, "CI", "main", "completed", "success", null, at(startedAt), at(finishedAt),
+				null, null, "push", 1, at(startedAt));
+	}
+
+	private CompletableFuture<GitHubWorkflowRun> watchRun(long runId) {
+		return watcher.watch("octo", "hello", runId, null, T0, progress::add);
+	}
+
+	private CompletableFuture<GitHubWorkflowRun> watchBranch() {
+		return watcher.watch("octo", "hello", null, "main", T0, progress::add);
+	}
+
+	private RunProgress lastProgress() {
+		return progress.get(progress.size() - 1);
+	}
+
+	@Test
+	void runsArePolledWithTheirEtagUntilTheyComplete() throws Exception {
+		github.page("\"a\"", running(7, T0 - 100 * SECOND, null))
+				.notModified()
+				.page("\"b\"", completed(7, T0 - 100 * SECOND, T0 + 40 * SECOND));
+		CompletableFuture<GitHubWorkflowRun> done = watchRun(7);
+
+		watcher.pollDue(T0);
+		assertThat(lastProgress().nextPollSeconds()).isEqualTo(20);
+		watcher.pollDue(T0 + 10 * SECOND);
+		assertThat(github.polls).hasSize(1);
+
+		watcher.pollDue(T0 + 20 * SECOND);
+		assertThat(lastProgress().run().status()).isEqualTo("in_progress");
+		assertThat(done).isNotDone();
+
+		watcher.pollDue(T0 + 44 * SECOND);
+		assertThat(done.get().conclusion()).isEqualTo("success");
+		assertThat(lastProgress().elapsedSeconds()).isEqualTo(140);
+		assertThat(github.polls).containsExactly("run 7 null", "run 7 \"a\"", "run 7 \"a\"");
+	}
+
+	@Test
+	void pollsGetDenserTowardsTheTypicalDurationAndBackOffAfterIt() {
+		github.history = List.of(completed(1, T0 - 3 * HOUR, T0 - 3 * HOUR + 500 * SECOND),
+				completed(2, T0 - 2 * HOUR, T0 - 2 * HOUR + 600 * SECOND),
+				completed(3, T0 - HOUR, T0 - HOUR + 700 * SECOND));
+		GitHubWorkflowRun run = running(7, T0 - 200 * SECOND, 99L);
+		github.page("\"a\"", run).notModified().notModified().notModified();
+		watchRun(7);
+
+		watcher.pollDue(T0 + 100 * SECOND);
+		watcher.pollDue(T0 + 300 * SECOND);
+		watcher.pollDue(T0 + 500 * SECOND);
+		watcher.pollDue(T0 + 800 * SECOND);
+
+		assertThat(progress).extracting(RunProgress::typicalSeconds).containsOnly(600L);
+		// A third of the time left until 600s, then a quarter of the overrun.
+		assertThat(progress).extracting(RunProgress::nextPollSeconds).containsExactly(100L, 33L, 25L, 100L);
+	}
+
+	@Test
+	void runsWithoutHistoryArePolledAtAFifthOfTheirAge() {
+		github.page("\"a\"", running(7, T0 - 10 * SECOND, null)).notModified().notModified();
+		watchRun(7);
+
+		watcher.pollDue(T0);
+		watcher.pollDue(T0 + 990 * SECOND);
+		watcher.pollDue(T0 + 5 * HOUR);
+
+		assertThat(progress).extracting(RunProgress::nextPollSeconds).containsExactly(5L, 200L, 600L);
+		assertThat(progress).extracting(RunProgress::typicalSeconds).containsOnlyNulls();
+	}
+
+	@Test
+	void aBranchWatchWaitsForANewRunDuringTheGracePeriod() throws Exception {
+		github.page("\"a\"", completed(1, T0 - HOUR, T0 - HOUR + 60 * SECOND))
+				.page("\"b\"", running(2, T0 + 3 * SECOND, null))
+				.page("\"c\"", completed(2, T0 + 3 * SECOND, T0 + 9 * SECOND));
+		CompletableFuture<GitHubWorkflowRun> done = watchBranch();
+
+		watcher.pollDue(T0);
+		assertThat(lastProgress().run()).isNull();
+		assertThat(lastProgress().nextPollSeconds()).isEqualTo(5);
+
+		watcher.pollDue(T0 + 5 * SECOND);
+		assertThat(lastProgress().run().id()).isEqualTo(2);
+
+		watcher.pollDue(T0 + 10 * SECOND);
+		assertThat(done.get().id()).isEqualTo(2);
+		// Once settled, the watch follows the run itself, starting afresh.
+		assertThat(github.polls).containsExactly("branch null", "branch \"a\"", "run 2 null");
+	}
+
+	@Test
+	void aBranchWatchSettlesForTheOldRunOnceTheGracePeriodIsOver() throws Exception {
+		github.page("\"a\"", completed(1, T0 - HOUR, T0 - HOUR + 60 * SECOND))
+				.notModified()
+				.notModified();
+		CompletableFuture<GitHubWorkflowRun> done = watchBranch();
+
+		watcher.pollDue(T0);
+		watcher.pollDue(T0 + 10 * SECOND);
+		assertThat(done).isNotDone();
+
+		watcher.pollDue(T0 + 30 * SECOND);
+		assertThat(done.get().id()).isEqualTo(1);
+		assertThat(github.polls).containsExactly("branch null", "branch \"a\"", "branch \"a\"");
+	}
+
+	@Test
+	void aBranchWithoutRunsFailsOnceTheGracePeriodIsOver() {
+		github.page("\"a\"").notModified();
+		CompletableFuture<GitHubWorkflowRun> done = watchBranch();
+
+		watcher.pollDue(T0);
+		assertThat(done).isNotDone();
+
+		watcher.pollDue(T0 + 30 * SECOND);
+		assertThatThrownBy(done::get).isInstanceOf(ExecutionException.class)
+				.hasMessageContaining("no workflow runs on branch 'main'");
+	}
+
+	@Test
+	void anUnknownRunIdFailsOnTheFirstError() {
+		github.fail(WebClientResponseException.create(HttpStatusCode.valueOf(404), "Not Found",
+				new HttpHeaders(), new byte[0], null, null));
+		CompletableFuture<GitHubWorkflowRun> done = watchRun(404);
+
+		watcher.pollDue(T0);
+
+		assertThatThrownBy(done::get).isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("404");
+		assertThat(github.polls).hasSize(1);
+	}
+
+	@Test
+	void failuresBackOffAndGiveUpAfterFiveInARow() {
+		github.page("\"a\"", running(7, T0 - 25 * SECOND, null));
+		for (int i = 0; i < 5; i++) {
+			github.fail(new IllegalStateException("502 Bad Gateway"));
+		}
+		CompletableFuture<GitHubWorkflowRun> done = watchRun(7);
+
+		watcher.pollDue(T0);
+		for (long seconds : new long[] {100, 200, 400, 1000}) {
+			watcher.pollDue(T0 + seconds * SECOND);
+			assertThat(lastProgress().error()).isEqualTo("502 Bad Gateway");
+		}
+		assertThat(done).isNotDone();
+		// A fifth of the run's age, doubled per failure up to the maximum.
+		assertThat(progress).extracting(RunProgress::nextPollSeconds).containsExactly(5L, 50L, 180L, 600L, 600L);
+
+		watcher.pollDue(T0 + 10 * HOUR);
+		assertThatThrownBy(done::get).hasMessageContaining("502 Bad Gateway");
+		assertThat(github.polls).hasSize(6);
+	}
+
+	@Test
+	void hungPollsTimeOutWithoutEndingTheWatch() throws Exception {
+		github.page("\"a\"", running(7, T0 - 25 * SECOND, null)).hang();
+		CompletableFuture<RunProgress> timedOut = new CompletableFuture<>();
+		CompletableFuture<GitHubWorkflowRun> done = watcher.watch("octo", "hello", 7L, null, T0, update -> {
+			if (update.error() != null) {
+				timedOut.complete(update);
+			}
+		});
+
+		watcher.pollDue(T0);
+		watcher.pollDue(T0 + HOUR);
+
+		assertThat(timedOut.get(10, TimeUnit.SECONDS).error()).isEqualTo("no answer within 1s");
+		assertThat(done).isNotDone();
+	}
+
+	@Test
+	void awaitReturnsTheRunAsLastSeenWhenItDoesNotCompleteInTime() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			github.page("\"a\"", running(7, System.currentTimeMillis(), null));
+		}
+
+		RunWaitResult result = watcher.await("octo", "hello", 7L, null, Duration.ofMillis(300), update -> {
+		});
+
+		assertThat(result.completed()).isFalse();
+		assertThat(result.polls()).isLessThanOrEqualTo(1);
+	}
+}
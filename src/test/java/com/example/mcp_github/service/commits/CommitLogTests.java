@@ -0,0 +1,138 @@
+package com.example.mcp_github.service.commits;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp_github.model.GitHubCommit;
+
+class CommitLogTests {
+
+	private static final long T0 = 1_700_000_000L;
+	private static final String URL = "https://github.com/octo/hello/commit/";
+
+	private final CommitLog log = new CommitLog();
+
+	private static String sha(int n) {
+		return "%040x".formatted(n);
+	}
+
+	/**
+	 * Commit {@code n}, authored at {@code T0 + n}.
+	 */
+	private static GitHubCommit commit(int n, String message) {
+		return new GitHubCommit(sha(n), new GitHubCommit.Commit(message,
+				new GitHubCommit.Author("Mona", "mona@example.com", Instant.ofEpochSecond(T0 + n).toString())),
+				URL + sha(n));
+	}
+
+	/**
+	 * Commits {@code to} down to {@code from}, newest first.
+	 */
+	private static List<GitHubCommit> commits(int to, int from) {
+		List<GitHubCommit> commits = new ArrayList<>();
+		for (int n = to; n >= from; n--) {
+			commits.add(commit(n, "Commit " + n));
+		}
+		return commits;
+	}
+
+	private List<String> shas() {
+		List<String> shas = new ArrayList<>();
+		for (int i = 0; i < log.size(); i++) {
+			shas.add(log.get(i).sha());
+		}
+		return shas;
+	}
+
+	@Test
+	void duplicateShasAreStoredOnce() {
+		assertThat(log.addNewer(commits(3, 2))).isEqualTo(2);
+		assertThat(log.addNewer(commits(4, 3))).isEqualTo(1);
+		assertThat(log.addOlder(commits(2, 1))).isEqualTo(1);
+		assertThat(log.addOlder(commits(2, 1))).isZero();
+
+		assertThat(shas()).containsExactly(sha(4), sha(3), sha(2), sha(1));
+		assertThat(log.headSha()).isEqualTo(sha(4));
+		assertThat(log.contains(sha(1))).isTrue();
+		assertThat(log.contains(sha(5))).isFalse();
+	}
+
+	@Test
+	void malformedShasAreSkipped() {
+		GitHubCommit shortSha = new GitHubCommit("abc", null, null);
+		GitHubCommit notHex = new GitHubCommit("z".repeat(40), null, null);
+
+		assertThat(log.addNewer(List.of(commit(1, "ok"), shortSha, notHex))).isEqualTo(1);
+		assertThat(log.contains("abc")).isFalse();
+	}
+
+	@Test
+	void theShaIndexGrowsWithoutLosingEntries() {
+		assertThat(log.addOlder(commits(500, 1))).isEqualTo(500);
+
+		assertThat(log.addOlder(commits(500, 1))).isZero();
+		for (int n = 1; n <= 500; n++) {
+			assertThat(log.contains(sha(n))).isTrue();
+		}
+	}
+
+	@Test
+	void trimmingDropsTheOldestCommits() {
+		log.addOlder(commits(10, 1));
+
+		assertThat(log.trim(4)).isEqualTo(6);
+		assertThat(log.trim(4)).isZero();
+		assertThat(shas()).containsExactly(sha(10), sha(9), sha(8), sha(7));
+		assertThat(log.oldestDate()).isEqualTo(Instant.ofEpochSecond(T0 + 7).toString());
+		assertThat(log.get(3).message()).isEqualTo("Commit 7");
+		assertThat(log.contains(sha(6))).isFalse();
+		assertThat(log.contains(sha(10))).isTrue();
+		assertThat(log.addOlder(commits(6, 6))).isEqualTo(1);
+	}
+
+	@Test
+	void trimmingKeepsMessagesIntactAfterNewerInserts() {
+		log.addOlder(commits(5, 1));
+		log.addNewer(commits(8, 6));
+
+		log.trim(5);
+
+		List<StoredCommit> matches = new ArrayList<>();
+		assertThat(log.match(null, Long.MIN_VALUE, Long.MAX_VALUE, "commit", 10, matches)).isEqualTo(5);
+		assertThat(matches).extracting(StoredCommit::message)
+				.containsExactly("Commit 8", "Commit 7", "Commit 6", "Commit 5", "Commit 4");
+	}
+
+	@Test
+	void theMessageArenaGrowsForLongMessages() {
+		List<GitHubCommit> commits = new ArrayList<>();
+		for (int n = 5; n >= 1; n--) {
+			commits.add(commit(n, "Message %d %s".formatted(n, "x".repeat(3_000))));
+		}
+		log.addOlder(commits);
+		log.addNewer(List.of(commit(6, "Fix the needle in the haystack")));
+
+		assertThat(log.get(5).message()).startsWith("Message 1 ").hasSize(3_000 + "Message 1 ".length());
+		List<StoredCommit> matches = new ArrayList<>();
+		assertThat(log.match(null, Long.MIN_VALUE, Long.MAX_VALUE, "NEEDLE", 10, matches)).isEqualTo(1);
+		assertThat(matches.get(0).sha()).isEqualTo(sha(6));
+	}
+
+	@Test
+	void clearForgetsTheHtmlUrlPrefix() {
+		log.addNewer(List.of(commit(1, "first")));
+		assertThat(log.get(0).htmlUrl()).isEqualTo(URL + sha(1));
+
+		log.clear();
+		log.addNewer(List.of(new GitHubCommit(sha(2), null, null)));
+
+		assertThat(log.size()).isEqualTo(1);
+		assertThat(log.contains(sha(1))).isFalse();
+		assertThat(log.get(0).htmlUrl()).isNull();
+	}
+}
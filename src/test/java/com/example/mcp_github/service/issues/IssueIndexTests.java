@@ -0,0 +1,85 @@
+package com.example.mcp_github.service.issues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class IssueIndexTests {
+
+	private final IssueIndex index = new IssueIndex();
+
+	@Test
+	void titleMatchesOutrankBodyMatches() {
+		index.add(1, "Crash on startup", "Happens every time.");
+		index.add(2, "Startup is slow", "Sometimes it ends in a crash.");
+
+		assertThat(index.search("crash")).containsExactly(1, 2);
+	}
+
+	@Test
+	void rareTermsWeighMoreThanCommonOnes() {
+		index.add(1, "Error in parser", "error error");
+		index.add(2, "Error in lexer", "deadlock");
+		index.add(3, "Error in printer", null);
+
+		assertThat(index.search("error deadlock").get(0)).isEqualTo(2);
+	}
+
+	@Test
+	void shorterDocumentsRankHigherForTheSameMatches() {
+		index.add(1, "Timeout", "Requests time out after a minute, see the attached logs and configuration dump.");
+		index.add(2, "Timeout", "Requests time out.");
+
+		assertThat(index.search("timeout")).containsExactly(2, 1);
+	}
+
+	@Test
+	void tiesGoToTheNewerIssue() {
+		index.add(3, "Broken link", null);
+		index.add(7, "Broken link", null);
+
+		assertThat(index.search("link")).containsExactly(7, 3);
+	}
+
+	@Test
+	void reAddingReplacesTheOldTerms() {
+		index.add(1, "Memory leak", null);
+		index.add(1, "Slow query", null);
+
+		assertThat(index.search("leak")).isEmpty();
+		assertThat(index.search("query")).containsExactly(1);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void removingKeepsTheOtherPostingsSearchable() {
+		for (int number = 1; number <= 6; number++) {
+			index.add(number, "Flaky test " + number, number % 2 == 0 ? "even" : "odd");
+		}
+
+		index.remove(1);
+		index.remove(4);
+		index.remove(6);
+
+		assertThat(index.search("flaky")).containsExactlyInAnyOrder(2, 3, 5);
+		assertThat(index.search("even")).containsExactly(2);
+		assertThat(index.search("odd")).containsExactlyInAnyOrder(3, 5);
+
+		index.remove(3);
+		index.remove(2);
+		index.remove(5);
+		index.remove(5);
+		assertThat(index.search("flaky")).isEmpty();
+		assertThat(index.size()).isZero();
+
+		index.add(8, "Flaky again", null);
+		assertThat(index.search("flaky")).containsExactly(8);
+	}
+
+	@Test
+	void stopWordsAndSingleCharactersAreNotTerms() {
+		assertThat(IssueIndex.tokenize("The CI is a bit x-flaky on ARM64"))
+				.containsExactly("ci", "bit", "flaky", "arm64");
+		assertThat(index.search("the")).isEmpty();
+	}
+}
@@ -0,0 +1,105 @@
+package com.example.mcp_github.service.logs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class LogScannerTests {
+
+	private static final Pattern ERROR = Pattern.compile("error", Pattern.CASE_INSENSITIVE);
+
+	private static JobLogReport scan(int contextLines, int maxRegions, int maxLineChars, String log)
+			throws IOException {
+		return new LogScanner(ERROR, contextLines, maxRegions, maxLineChars)
+				.scan("build", new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), List.of("Test"));
+	}
+
+	/**
+	 * Lines "l1".."l{@code count}", with "error" instead at each line number
+	 * in {@code errors}.
+	 */
+	private static String lines(int count, int... errors) {
+		StringBuilder log = new StringBuilder();
+		for (int i = 1; i <= count; i++) {
+			int line = i;
+			log.append(Arrays.stream(errors).anyMatch(e -> e == line) ? "error " + i : "l" + i).append('\n');
+		}
+		return log.toString();
+	}
+
+	@Test
+	void matchesComeWithContextOnBothSides() throws IOException {
+		JobLogReport report = scan(2, 10, 500, lines(10, 5));
+
+		assertThat(report.lines()).isEqualTo(10);
+		assertThat(report.matches()).isEqualTo(1);
+		assertThat(report.regions()).containsExactly(new ErrorRegion(null, 3, List.of("l3", "l4", "error 5", "l6", "l7")));
+		assertThat(report.failedSteps()).containsExactly("Test");
+	}
+
+	@Test
+	void overlappingContextsMergeIntoOneRegion() throws IOException {
+		JobLogReport report = scan(2, 10, 500, lines(12, 3, 6));
+
+		assertThat(report.matches()).isEqualTo(2);
+		assertThat(report.regions()).containsExactly(new ErrorRegion(null, 1,
+				List.of("l1", "l2", "error 3", "l4", "l5", "error 6", "l7", "l8")));
+	}
+
+	@Test
+	void distantMatchesMakeSeparateRegions() throws IOException {
+		JobLogReport report = scan(1, 10, 500, lines(10, 2, 9));
+
+		assertThat(report.regions()).containsExactly(new ErrorRegion(null, 1, List.of("l1", "error 2", "l3")),
+				new ErrorRegion(null, 8, List.of("l8", "error 9", "l10")));
+	}
+
+	@Test
+	void regionsAtTheStartOfTheLogHaveNoContextBefore() throws IOException {
+		JobLogReport report = scan(3, 10, 500, lines(3, 1));
+
+		assertThat(report.regions()).containsExactly(new ErrorRegion(null, 1, List.of("error 1", "l2", "l3")));
+	}
+
+	@Test
+	void onlyTheLastRegionsAreKept() throws IOException {
+		JobLogReport report = scan(0, 2, 500, lines(20, 2, 6, 10, 14));
+
+		assertThat(report.matches()).isEqualTo(4);
+		assertThat(report.droppedRegions()).isEqualTo(2);
+		assertThat(report.regions()).extracting(ErrorRegion::firstLine).containsExactly(10L, 14L);
+	}
+
+	@Test
+	void longLinesAreCutWhileReading() throws IOException {
+		String log = "error " + "x".repeat(10_000) + "\n" + "y".repeat(100) + " error\nlast\n";
+		JobLogReport report = scan(1, 10, 80, log);
+
+		assertThat(report.lines()).isEqualTo(3);
+		assertThat(report.matches()).isEqualTo(1);
+		ErrorRegion region = report.regions().get(0);
+		assertThat(region.lines()).hasSize(2);
+		assertThat(region.lines().get(0)).hasSize(82).startsWith("error xxx").endsWith(" …");
+		assertThat(region.lines().get(1)).isEqualTo("y".repeat(80) + " …");
+	}
+
+	@Test
+	void timestampsAndCarriageReturnsAreStrippedAndStepsNamed() throws IOException {
+		String log = "2024-05-01T10:00:00.1234567Z ##[group]Run ./gradlew test\r\n"
+				+ "2024-05-01T10:00:01.1234567Z compiling\r\n"
+				+ "2024-05-01T10:00:02.1234567Z ERROR: 3 tests failed";
+
+		JobLogReport report = scan(1, 10, 500, log);
+
+		assertThat(report.lines()).isEqualTo(3);
+		assertThat(report.regions()).containsExactly(new ErrorRegion("Run ./gradlew test", 2,
+				List.of("compiling", "ERROR: 3 tests failed")));
+	}
+}
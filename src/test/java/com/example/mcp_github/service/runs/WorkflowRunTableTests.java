@@ -0,0 +1,151 @@
+package com.example.mcp_github.service.runs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.mcp_github.model.GitHubWorkflowRun;
+import com.example.mcp_github.service.runs.WorkflowRunTable.DurationStats;
+import com.example.mcp_github.service.runs.WorkflowRunTable.FailureRate;
+import com.example.mcp_github.service.runs.WorkflowRunTable.Flakiness;
+import com.example.mcp_github.service.runs.WorkflowRunTable.QueueTimeBucket;
+
+class WorkflowRunTableTests {
+
+	private static final long T0 = 1_700_000_000L;
+
+	private final WorkflowRunTable table = new WorkflowRunTable();
+	private long nextId = 1;
+
+	/**
+	 * A run of {@code workflow} created at {@code T0 + created}; pending if
+	 * {@code conclusion} is {@code null}.
+	 */
+	private GitHubWorkflowRun run(long id, String workflow, String branch, String conclusion, long created,
+			long queued, long duration, String sha, int attempt) {
+		String startedAt = Instant.ofEpochSecond(T0 + created + queued).toString();
+		return new GitHubWorkflowRun(id, workflow, branch, conclusion != null ? "completed" : "in_progress",
+				conclusion, null, Instant.ofEpochSecond(T0 + created).toString(),
+				Instant.ofEpochSecond(T0 + created + queued + duration).toString(), 1L, sha, "push", attempt,
+				startedAt);
+	}
+
+	private void add(String workflow, String branch, String conclusion, long created, long duration) {
+		table.upsert(run(nextId++, workflow, branch, conclusion, created, 0, duration, "sha" + nextId, 1));
+	}
+
+	@Test
+	void durationPercentilesUseNearestRankOverSuccessfulRuns() {
+		for (int i = 1; i <= 10; i++) {
+			add("ci", "main", "success", i, i * 10);
+		}
+		add("ci", "main", "failure", 11, 1_000);
+		add("ci", "main", null, 12, 0);
+		add("lint", "dev", "success", 13, 5);
+
+		List<DurationStats> stats = table.durations(null, null, T0);
+		assertThat(stats).containsExactly(new DurationStats("ci", 10, 50, 90, 100, 100, 100),
+				new DurationStats("lint", 1, 5, 5, 5, 5, 5));
+		assertThat(table.durations(null, "dev", T0)).containsExactly(new DurationStats("lint", 1, 5, 5, 5, 5, 5));
+		assertThat(table.durations("CI", null, T0 + 6)).extracting(DurationStats::runs).containsExactly(5);
+		assertThat(table.durations("deploy", null, T0)).isEmpty();
+	}
+
+	@Test
+	void failureRatesLeaveCancelledRunsOutOfTheRate() {
+		add("build", "main", "success", 1, 1);
+		add("build", "main", "success", 2, 1);
+		add("build", "main", "failure", 3, 1);
+		add("build", "dev", "cancelled", 4, 1);
+		add("build", "main", "skipped", 5, 1);
+		add("deploy", "main", "cancelled", 6, 1);
+		add("deploy", "main", "cancelled", 7, 1);
+
+		List<FailureRate> rates = table.failureRates(false, T0);
+		assertThat(rates).containsExactly(new FailureRate("build", 4, 1, 1), new FailureRate("deploy", 2, 0, 2));
+		assertThat(rates.get(0).rate()).isEqualTo(1.0 / 3);
+		assertThat(rates.get(1).rate()).isZero();
+
+		assertThat(table.failureRates(true, T0)).containsExactly(new FailureRate("main", 5, 1, 2),
+				new FailureRate("dev", 1, 0, 1));
+		assertThat(table.failureRates(false, T0 + 4)).containsExactly(new FailureRate("deploy", 2, 0, 2),
+				new FailureRate("build", 1, 0, 1));
+	}
+
+	@Test
+	void commitsWithMixedOutcomesOrRerunSuccessesAreFlaky() {
+		table.upsert(run(1, "ci", "main", "failure", 1, 0, 1, "aaa", 1));
+		table.upsert(run(2, "ci", "main", "success", 2, 0, 1, "aaa", 1));
+		table.upsert(run(3, "ci", "main", "success", 3, 0, 1, "bbb", 1));
+		table.upsert(run(4, "ci", "main", "success", 4, 0, 1, "ccc", 2));
+		table.upsert(run(5, "ci", "main", "cancelled", 5, 0, 1, "ddd", 1));
+		table.upsert(run(6, "lint", "main", "failure", 6, 0, 1, "aaa", 1));
+
+		List<Flakiness> flakiness = table.flakiness(T0);
+		assertThat(flakiness).containsExactly(new Flakiness("ci", 3, 2, 1), new Flakiness("lint", 1, 0, 0));
+		assertThat(flakiness.get(0).rate()).isEqualTo(2.0 / 3);
+		assertThat(table.flakiness(T0 + 2)).containsExactly(new Flakiness("ci", 3, 1, 1),
+				new Flakiness("lint", 1, 0, 0));
+	}
+
+	@Test
+	void queueTimesAreBucketedByCreationTime() {
+		table.upsert(run(1, "ci", "main", "success", 0, 10, 1, "a", 1));
+		table.upsert(run(2, "ci", "main", "success", 30, 20, 1, "b", 1));
+		table.upsert(run(3, "ci", "main", "success", 250, 40, 1, "c", 1));
+		table.upsert(run(4, "ci", "main", "skipped", 260, 500, 1, "d", 1));
+
+		long origin = Math.floorDiv(T0, 100) * 100;
+		assertThat(table.queueTimes(T0, 100)).containsExactly(new QueueTimeBucket(origin, 2, 10, 20, 20),
+				new QueueTimeBucket(origin + 100, 0, 0, 0, 0), new QueueTimeBucket(origin + 200, 1, 40, 40, 40));
+	}
+
+	@Test
+	void reRunsUpdateTheirRowInPlace() {
+		assertThat(table.upsert(run(7, "ci", "main", null, 1, 0, 0, "a", 1))).isTrue();
+		assertThat(table.pending()).isEqualTo(1);
+
+		assertThat(table.upsert(run(7, "ci", "main", "failure", 1, 0, 5, "a", 1))).isFalse();
+		assertThat(table.upsert(run(7, "ci", "main", "success", 1, 0, 8, "a", 2))).isFalse();
+
+		assertThat(table.size()).isEqualTo(1);
+		assertThat(table.pending()).isZero();
+		assertThat(table.failureRates(false, T0)).containsExactly(new FailureRate("ci", 1, 0, 0));
+		assertThat(table.flakiness(T0)).containsExactly(new Flakiness("ci", 1, 1, 1));
+	}
+
+	@Test
+	void anyRunIdCanBeStored() {
+		for (long id : new long[] {-1, 0, Long.MIN_VALUE, Long.MAX_VALUE}) {
+			assertThat(table.upsert(run(id, "ci", "main", null, 1, 0, 0, "a", 1))).isTrue();
+			assertThat(table.upsert(run(id, "ci", "main", "success", 1, 0, 1, "a", 1))).isFalse();
+		}
+		for (int id = 1; id <= 200; id++) {
+			table.upsert(run(id, "ci", "main", "success", id, 0, 1, "a", 1));
+		}
+		assertThat(table.upsert(run(-1, "ci", "main", "success", 1, 0, 1, "a", 1))).isFalse();
+		assertThat(table.size()).isEqualTo(204);
+	}
+
+	@Test
+	void pendingRunsCanBeListedByCreationTimeAndSettled() {
+		table.upsert(run(1, "ci", "main", null, 10, 0, 0, "a", 1));
+		table.upsert(run(2, "ci", "main", null, 20, 0, 0, "b", 1));
+		table.upsert(run(3, "ci", "main", "success", 25, 0, 1, "c", 1));
+		table.upsert(run(4, "ci", "main", null, 30, 0, 0, "d", 1));
+
+		assertThat(table.newestCreated()).isEqualTo(T0 + 30);
+		assertThat(table.oldestCreated()).isEqualTo(T0 + 10);
+		assertThat(table.pendingIds(T0 + 15, T0 + 30)).containsExactly(2);
+		assertThat(table.pendingIds(T0, T0 + 31)).containsExactly(1, 2, 4);
+
+		table.settle(2);
+		table.settle(3);
+		assertThat(table.pending()).isEqualTo(2);
+		assertThat(table.pendingIds(T0, T0 + 31)).containsExactly(1, 4);
+		assertThat(table.failureRates(false, T0)).containsExactly(new FailureRate("ci", 1, 0, 0));
+	}
+}
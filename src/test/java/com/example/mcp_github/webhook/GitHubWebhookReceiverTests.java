@@ -0,0 +1,118 @@
+package com.example.mcp_github.webhook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class GitHubWebhookReceiverTests {
+
+	private static final String SECRET = "It's a Secret to Everybody";
+	private static final String PUSH = "{\"ref\":\"refs/heads/dev\",\"repository\":{\"name\":\"hello\","
+			+ "\"owner\":{\"login\":\"octo\"},\"default_branch\":\"main\"},\"commits\":[]}";
+
+	private final GitHubCacheFilter cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20,
+			3600, "", 0, 0, 60, 100);
+	private final HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	private GitHubWebhookReceiver receiver;
+
+	@AfterEach
+	void close() {
+		if (receiver != null) {
+			receiver.close();
+		}
+	}
+
+	private void start(long maxPayloadBytes) {
+		receiver = new GitHubWebhookReceiver(cache, new SimpleMeterRegistry(), "https://api.github.com", true,
+				"127.0.0.1", 0, "/github/webhook", SECRET, maxPayloadBytes);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET,
+				URI.create("https://api.github.com/repos/octo/hello/branches")).build();
+		cache.filter(request, r -> Mono.just(ClientResponse.create(HttpStatusCode.valueOf(200)).body("[]").build()))
+				.block().releaseBody().block();
+	}
+
+	private HttpResponse<String> deliver(String event, String payload, String signature) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(
+				URI.create("http://127.0.0.1:" + receiver.port() + "/github/webhook"))
+				.header("X-GitHub-Event", event)
+				.POST(HttpRequest.BodyPublishers.ofString(payload));
+		if (signature != null) {
+			request.header("X-Hub-Signature-256", signature);
+		}
+		return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static String sign(String payload, String secret) throws Exception {
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@Test
+	void signedDeliveriesInvalidateTheCache() throws Exception {
+		start(1 << 20);
+
+		HttpResponse<String> response = deliver("push", PUSH, sign(PUSH, SECRET));
+
+		assertThat(response.statusCode()).isEqualTo(202);
+		assertThat(response.body()).isEqualTo("invalidated 1 cached responses\n");
+		assertThat(cache.invalidate("/repos/octo/hello/branches")).isZero();
+	}
+
+	@Test
+	void deliveriesSignedWithAnotherSecretAreRejected() throws Exception {
+		start(1 << 20);
+
+		assertThat(deliver("push", PUSH, sign(PUSH, "guess")).statusCode()).isEqualTo(401);
+		assertThat(deliver("push", PUSH, sign(PUSH + " ", SECRET)).statusCode()).isEqualTo(401);
+		assertThat(cache.invalidate("/repos/octo/hello/branches")).isEqualTo(1);
+	}
+
+	@Test
+	void missingOrMalformedSignaturesAreRejected() throws Exception {
+		start(1 << 20);
+
+		assertThat(deliver("push", PUSH, null).statusCode()).isEqualTo(401);
+		assertThat(deliver("push", PUSH, sign(PUSH, SECRET).substring("sha256=".length())).statusCode())
+				.isEqualTo(401);
+		assertThat(deliver("push", PUSH, "sha256=not-hex").statusCode()).isEqualTo(401);
+		assertThat(cache.invalidate("/repos/octo/hello/branches")).isEqualTo(1);
+	}
+
+	@Test
+	void oversizedPayloadsAreRejectedBeforeBeingRead() throws Exception {
+		start(64);
+
+		assertThat(deliver("push", PUSH, sign(PUSH, SECRET)).statusCode()).isEqualTo(413);
+		assertThat(cache.invalidate("/repos/octo/hello/branches")).isEqualTo(1);
+	}
+
+	@Test
+	void pingsAndUnhandledEventsAreAcknowledged() throws Exception {
+		start(1 << 20);
+		String payload = "{\"zen\":\"Keep it logically awesome.\"}";
+
+		assertThat(deliver("ping", payload, sign(payload, SECRET)).statusCode()).isEqualTo(200);
+		assertThat(deliver("watch", payload, sign(payload, SECRET)).statusCode()).isEqualTo(202);
+	}
+}
@@ -0,0 +1,162 @@
+package com.example.mcp_github.webhook;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import com.example.mcp_github.cache.GitHubCacheFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class WebhookInvalidationsTests {
+
+	private static final String REPO = "/repos/octo/hello";
+
+	private final GitHubCacheFilter cache = new GitHubCacheFilter(new SimpleMeterRegistry(), true, 100, 1 << 20,
+			3600, "", 0, 0, 60, 100);
+	private final WebhookInvalidations invalidations = new WebhookInvalidations("", cache);
+	private final AtomicInteger requests = new AtomicInteger();
+	private final ExchangeFunction github = request -> {
+		requests.incrementAndGet();
+		return Mono.just(ClientResponse.create(HttpStatusCode.valueOf(200)).body("{}").build());
+	};
+
+	private void cached(String... paths) {
+		for (String path : paths) {
+			get(path);
+		}
+	}
+
+	/**
+	 * Whether a read of {@code path} had to go back to GitHub.
+	 */
+	private boolean refetched(String path) {
+		int before = requests.get();
+		get(path);
+		return requests.get() > before;
+	}
+
+	private void get(String path) {
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("https://api.github.com" + path))
+				.build();
+		cache.filter(request, github).block().releaseBody().block();
+	}
+
+	private int apply(String event, String payload) throws Exception {
+		JsonNode json = new ObjectMapper().readTree(payload);
+		return invalidations.apply(event, json);
+	}
+
+	private static String repository(String owner) {
+		return "\"repository\":{\"name\":\"hello\",\"owner\":{\"login\":\"%s\"},\"default_branch\":\"main\"}"
+				.formatted(owner);
+	}
+
+	@Test
+	void pushesToTheDefaultBranchInvalidateCommitsAndTouchedFiles() throws Exception {
+		cached(REPO, REPO + "/branches", REPO + "/branches/main", REPO + "/commits", REPO + "/contents/src",
+				REPO + "/contents/src%2FApp.java", REPO + "/contents/docs%2FREADME.md", REPO + "/releases");
+
+		int count = apply("push", "{\"ref\":\"refs/heads/main\",%s,\"commits\":[{\"modified\":[\"src/App.java\"]}]}"
+				.formatted(repository("octo")));
+
+		assertThat(count).isEqualTo(6);
+		assertThat(refetched(REPO)).isTrue();
+		assertThat(refetched(REPO + "/branches")).isTrue();
+		assertThat(refetched(REPO + "/branches/main")).isTrue();
+		assertThat(refetched(REPO + "/commits")).isTrue();
+		assertThat(refetched(REPO + "/contents/src")).isTrue();
+		assertThat(refetched(REPO + "/contents/src%2FApp.java")).isTrue();
+		assertThat(refetched(REPO + "/contents/docs%2FREADME.md")).isFalse();
+		assertThat(refetched(REPO + "/releases")).isFalse();
+	}
+
+	@Test
+	void pushesToOtherBranchesLeaveCommitsAlone() throws Exception {
+		cached(REPO + "/branches", REPO + "/branches/feature%2Fx", REPO + "/branches/main", REPO + "/commits");
+
+		apply("push", "{\"ref\":\"refs/heads/feature/x\",%s,\"commits\":[]}".formatted(repository("octo")));
+
+		assertThat(refetched(REPO + "/branches")).isTrue();
+		assertThat(refetched(REPO + "/branches/feature%2Fx")).isTrue();
+		assertThat(refetched(REPO + "/branches/main")).isFalse();
+		assertThat(refetched(REPO + "/commits")).isFalse();
+	}
+
+	@Test
+	void forcedPushesInvalidateAllContents() throws Exception {
+		cached(REPO + "/contents/docs%2FREADME.md", REPO + "/contents/src");
+
+		apply("push", "{\"ref\":\"refs/heads/main\",\"forced\":true,%s,\"commits\":[]}".formatted(repository("octo")));
+
+		assertThat(refetched(REPO + "/contents/docs%2FREADME.md")).isTrue();
+		assertThat(refetched(REPO + "/contents/src")).isTrue();
+	}
+
+	@Test
+	void tagPushesAreIgnored() throws Exception {
+		cached(REPO, REPO + "/branches");
+
+		assertThat(apply("push", "{\"ref\":\"refs/tags/v1\",%s}".formatted(repository("octo")))).isZero();
+		assertThat(refetched(REPO + "/branches")).isFalse();
+	}
+
+	@Test
+	void pullRequestEventsInvalidateThePullAndItsIssue() throws Exception {
+		cached(REPO, REPO + "/pulls", REPO + "/pulls/5", REPO + "/pulls/5/files", REPO + "/pulls/6",
+				REPO + "/issues", REPO + "/issues/5", REPO + "/releases");
+
+		apply("pull_request", "{\"action\":\"closed\",\"pull_request\":{\"number\":5},%s}"
+				.formatted(repository("octo")));
+
+		assertThat(refetched(REPO)).isTrue();
+		assertThat(refetched(REPO + "/pulls")).isTrue();
+		assertThat(refetched(REPO + "/pulls/5")).isTrue();
+		assertThat(refetched(REPO + "/pulls/5/files")).isTrue();
+		assertThat(refetched(REPO + "/issues")).isTrue();
+		assertThat(refetched(REPO + "/issues/5")).isTrue();
+		assertThat(refetched(REPO + "/pulls/6")).isFalse();
+		assertThat(refetched(REPO + "/releases")).isFalse();
+	}
+
+	@Test
+	void issueEventsInvalidateTheIssueAndItsComments() throws Exception {
+		cached(REPO, REPO + "/issues", REPO + "/issues/7", REPO + "/issues/7/comments", REPO + "/pulls");
+
+		apply("issues", "{\"action\":\"edited\",\"issue\":{\"number\":7},%s}".formatted(repository("octo")));
+
+		assertThat(refetched(REPO)).isTrue();
+		assertThat(refetched(REPO + "/issues")).isTrue();
+		assertThat(refetched(REPO + "/issues/7")).isTrue();
+		assertThat(refetched(REPO + "/issues/7/comments")).isTrue();
+		assertThat(refetched(REPO + "/pulls")).isFalse();
+	}
+
+	@Test
+	void ownerNamesMatchInAnyCase() throws Exception {
+		cached(REPO + "/issues");
+
+		apply("issues", "{\"issue\":{\"number\":1},%s}".formatted(repository("Octo")));
+
+		assertThat(refetched(REPO + "/issues")).isTrue();
+	}
+
+	@Test
+	void payloadsWithoutARepositoryChangeNothing() throws Exception {
+		cached(REPO);
+
+		assertThat(apply("issues", "{\"issue\":{\"number\":1}}")).isZero();
+		assertThat(refetched(REPO)).isFalse();
+	}
+}